@@ -21,6 +21,7 @@ import java.io.FilenameFilter;
 import java.io.FileFilter;
 import java.io.FileWriter;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.ConnectException;
 import java.net.URI;
 import java.util.ArrayList;
@@ -49,12 +50,13 @@ import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.message.BasicNameValuePair;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 /**
  * Latke client.
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.1, Apr 20, 2012
+ * @version 1.0.1.0, Oct 17, 2026
  */
 public final class LatkeClient {
 
@@ -71,9 +73,9 @@ public final class LatkeClient {
      */
     private static final String SET_REPOSITORIES_WRITABLE = "/latke/remote/repositories/writable";
     /**
-     * Gets data.
+     * Streams data.
      */
-    private static final String GET_DATA = "/latke/remote/repository/data";
+    private static final String GET_DATA_STREAM = "/latke/remote/repository/data/stream";
     /**
      * Puts data.
      */
@@ -99,9 +101,9 @@ public final class LatkeClient {
      */
     private static boolean verbose;
     /**
-     * Backup page size.
+     * Count of JSON objects in a backup file.
      */
-    private static final String PAGE_SIZE = "5";
+    private static final int BACKUP_FILE_SIZE = 500;
 
     /**
      * Main entry.
@@ -192,47 +194,26 @@ public final class LatkeClient {
 
                 final Set<String> repositoryNames = getRepositoryNames();
                 for (final String repositoryName : repositoryNames) {
-                    int totalPageCount = 2;
-                    for (int pageNum = 1; pageNum <= totalPageCount; pageNum++) {
-                        final List<NameValuePair> params = new ArrayList<NameValuePair>();
-                        params.add(new BasicNameValuePair("userName", userName));
-                        params.add(new BasicNameValuePair("password", password));
-                        params.add(new BasicNameValuePair("repositoryName", repositoryName));
-                        params.add(new BasicNameValuePair("pageNum", String.valueOf(pageNum)));
-                        params.add(new BasicNameValuePair("pageSize", PAGE_SIZE));
-                        final URI uri =
-                                URIUtils.createURI("http", serverAddress, -1, GET_DATA, URLEncodedUtils.format(params, "UTF-8"), null);
-                        final HttpGet request = new HttpGet(uri);
-
-                        if (verbose) {
-                            System.out.println("Getting data from repository [" + repositoryName + "] with pagination[pageNum=" + pageNum
-                                               + ", pageSize=" + PAGE_SIZE + "]");
-                        }
+                    final List<NameValuePair> params = new ArrayList<NameValuePair>();
+                    params.add(new BasicNameValuePair("userName", userName));
+                    params.add(new BasicNameValuePair("password", password));
+                    params.add(new BasicNameValuePair("repositoryName", repositoryName));
+                    params.add(new BasicNameValuePair("fetchSize", String.valueOf(BACKUP_FILE_SIZE)));
+                    final URI uri =
+                            URIUtils.createURI("http", serverAddress, -1, GET_DATA_STREAM, URLEncodedUtils.format(params, "UTF-8"), null);
+                    final HttpGet request = new HttpGet(uri);
 
-                        final HttpResponse httpResponse = httpClient.execute(request);
-                        final InputStream contentStream = httpResponse.getEntity().getContent();
-                        final String content = IOUtils.toString(contentStream, "UTF-8").trim();
-                        contentStream.close();
-
-                        if (verbose) {
-                            printResponse(content);
-                        }
-
-                        final JSONObject resp = new JSONObject(content);
-                        final JSONObject pagination = resp.getJSONObject("pagination");
-                        totalPageCount = pagination.getInt("paginationPageCount");
-                        final JSONArray results = resp.getJSONArray("rslts");
+                    if (verbose) {
+                        System.out.println("Streaming data from repository [" + repositoryName + "]");
+                    }
 
-                        final String backupPath = backupDir.getPath() + File.separatorChar + repositoryName + File.separatorChar
-                                                  + pageNum + '_' + results.length() + '_' + System.currentTimeMillis() + ".json";
-                        final File backup = new File(backupPath);
-                        final FileWriter fileWriter = new FileWriter(backup);
-                        IOUtils.write(results.toString(), fileWriter);
-                        fileWriter.close();
+                    final HttpResponse httpResponse = httpClient.execute(request);
+                    final InputStream contentStream = httpResponse.getEntity().getContent();
 
-                        if (verbose) {
-                            System.out.println("Backup file[path=" + backupPath + "]");
-                        }
+                    try {
+                        backup(repositoryName, new JSONTokener(new InputStreamReader(contentStream, "UTF-8")));
+                    } finally {
+                        contentStream.close();
                     }
                 }
             }
@@ -328,6 +309,75 @@ public final class LatkeClient {
         }
     }
 
+    /**
+     * Backups the data of a repository specified by the given repository name from the specified tokener of a streamed
+     * JSON array.
+     * 
+     * <p>
+     * The JSON objects are read one by one and written to backup files of {@value #BACKUP_FILE_SIZE} objects, named
+     * ${pageNum}_${pageSize}_${backupTime}.json.
+     * </p>
+     * 
+     * @param repositoryName the given repository name
+     * @param tokener the specified tokener
+     * @throws Exception exception
+     */
+    private static void backup(final String repositoryName, final JSONTokener tokener) throws Exception {
+        if ('[' != tokener.nextClean()) {
+            tokener.back();
+            printResponse(new JSONObject(tokener).toString());
+
+            return;
+        }
+
+        int pageNum = 1;
+        JSONArray page = new JSONArray();
+        char next = tokener.nextClean();
+        if (']' != next) {
+            tokener.back();
+
+            do {
+                page.put((JSONObject) tokener.nextValue());
+
+                if (BACKUP_FILE_SIZE == page.length()) {
+                    writeBackupFile(repositoryName, pageNum++, page);
+                    page = new JSONArray();
+                }
+
+                next = tokener.nextClean();
+            } while (',' == next);
+
+            if (']' != next) {
+                throw tokener.syntaxError("Truncated data of repository[" + repositoryName + "]");
+            }
+        }
+
+        if (0 < page.length()) {
+            writeBackupFile(repositoryName, pageNum, page);
+        }
+    }
+
+    /**
+     * Writes the specified page of data of a repository specified by the given repository name to a backup file.
+     * 
+     * @param repositoryName the given repository name
+     * @param pageNum the specified page number
+     * @param page the specified page of data
+     * @throws Exception exception
+     */
+    private static void writeBackupFile(final String repositoryName, final int pageNum, final JSONArray page) throws Exception {
+        final String backupPath = backupDir.getPath() + File.separatorChar + repositoryName + File.separatorChar
+                                  + pageNum + '_' + page.length() + '_' + System.currentTimeMillis() + ".json";
+        final File backup = new File(backupPath);
+        final FileWriter fileWriter = new FileWriter(backup);
+        IOUtils.write(page.toString(), fileWriter);
+        fileWriter.close();
+
+        if (verbose) {
+            System.out.println("Backup file[path=" + backupPath + "]");
+        }
+    }
+
     /**
      * Gets the backup file name filed value with the specified repository backup file name and field name.
      * 
@@ -16,11 +16,13 @@
 package org.b3log.latke.cache.gae;
 
 import com.google.appengine.api.memcache.AsyncMemcacheService;
+import com.google.appengine.api.memcache.Expiration;
 import com.google.appengine.api.memcache.MemcacheService;
 import com.google.appengine.api.memcache.MemcacheServiceFactory;
 import com.google.appengine.api.memcache.Stats;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.b3log.latke.cache.Cache;
@@ -36,13 +38,16 @@ import org.b3log.latke.util.Serializer;
  *     <li>Invoking {@link #removeAll()} will clear all caches.</li>
  *     <li>Statistics does not respect caches, this will return statistic states 
  *         sum for all caches.</li>
+ *     <li>Expire-after-access is emulated by refreshing the expiration of an
+ *         object asynchronously when it is got, the refreshed expiration takes
+ *         the place of its expire-after-write expiration.</li>
  *   </ul>
  * </p>
  *
  * @param <K> the key of an object
  * @param <V> the type of objects
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.1.6, Dec 3, 2011
+ * @version 1.0.3.0, Oct 16, 2026
  */
 public final class Memcache<K extends Serializable, V extends Serializable> implements Cache<K, V> {
 
@@ -70,6 +75,14 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
      * Integer value for false flag.
      */
     private static final int FALSE_INT = 48;
+    /**
+     * Expire-after-write (milliseconds) of this cache.
+     */
+    private volatile long expireAfterWrite;
+    /**
+     * Expire-after-access (milliseconds) of this cache.
+     */
+    private volatile long expireAfterAccess;
 
     /**
      * Constructs a memcache with the specified name.
@@ -99,6 +112,11 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
 
     @Override
     public void put(final K key, final V value) {
+        put(key, value, 0);
+    }
+
+    @Override
+    public void put(final K key, final V value, final long ttl) {
         if (null == key) {
             throw new IllegalArgumentException("The specified key can not be null!");
         }
@@ -108,7 +126,7 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
         }
 
         try {
-            memcacheService.put(key, value);
+            memcacheService.put(key, value, getExpiration(ttl));
         } catch (final Exception e) {
             try {
                 LOGGER.log(Level.WARNING, "Can not put memcache[key=" + key
@@ -130,7 +148,7 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
         }
 
         try {
-            asyncMemcacheService.put(key, value);
+            asyncMemcacheService.put(key, value, getExpiration(0));
         } catch (final Exception e) {
             try {
                 LOGGER.log(Level.WARNING, "Can not put async memcache[key=" + key
@@ -141,6 +159,51 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The objects are put by only one memcache RPC.
+     * </p>
+     */
+    @Override
+    public void putAll(final Map<K, V> objects) {
+        for (final Map.Entry<K, V> object : objects.entrySet()) {
+            if (null == object.getKey()) {
+                throw new IllegalArgumentException("The specified key can not be null!");
+            }
+
+            if (null == object.getValue()) {
+                throw new IllegalArgumentException("The specified value can not be null![key=" + object.getKey() + "]");
+            }
+        }
+
+        try {
+            memcacheService.putAll(objects, getExpiration(0));
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARNING, "Can not put memcache[size=" + objects.size() + "]", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The objects are got by only one memcache RPC.
+     * </p>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> getAll(final Collection<K> keys) {
+        final Map<K, V> ret = (Map<K, V>) (Map<?, ?>) memcacheService.getAll(keys);
+
+        if (!ret.isEmpty() && 0 < expireAfterAccess) {
+            asyncMemcacheService.putAll(ret, Expiration.byDeltaMillis(toIntMillis(expireAfterAccess)));
+        }
+
+        return ret;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public V get(final K key) {
@@ -148,7 +211,13 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
             return null;
         }
 
-        return (V) memcacheService.get(key);
+        final V ret = (V) memcacheService.get(key);
+
+        if (null != ret && 0 < expireAfterAccess) {
+            asyncMemcacheService.put(key, ret, Expiration.byDeltaMillis(toIntMillis(expireAfterAccess)));
+        }
+
+        return ret;
     }
 
     @Override
@@ -158,7 +227,7 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
         }
 
         if (!memcacheService.contains(key)) {
-            memcacheService.put(key, 1L);
+            memcacheService.put(key, 1L, getExpiration(0));
         }
 
         return memcacheService.increment(key, delta);
@@ -189,6 +258,63 @@ public final class Memcache<K extends Serializable, V extends Serializable> impl
         return Long.MAX_VALUE;
     }
 
+    @Override
+    public void setExpireAfterWrite(final long expireAfterWrite) {
+        this.expireAfterWrite = Math.max(0, expireAfterWrite);
+    }
+
+    @Override
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    @Override
+    public void setExpireAfterAccess(final long expireAfterAccess) {
+        this.expireAfterAccess = Math.max(0, expireAfterAccess);
+    }
+
+    @Override
+    public long getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    /**
+     * Gets the expiration of an object put with the specified time-to-live.
+     * 
+     * @param ttl the specified time-to-live in milliseconds, a non-positive value
+     * means using the expire-after-write (or the expire-after-access if it 
+     * is shorter) of this cache
+     * @return expiration, returns {@code null} for never expire
+     */
+    private Expiration getExpiration(final long ttl) {
+        long delta = ttl;
+
+        if (0 >= delta) {
+            delta = expireAfterWrite;
+        }
+
+        if (0 < expireAfterAccess && (0 >= delta || expireAfterAccess < delta)) {
+            delta = expireAfterAccess;
+        }
+
+        if (0 >= delta) {
+            return null;
+        }
+
+        return Expiration.byDeltaMillis(toIntMillis(delta));
+    }
+
+    /**
+     * Converts the specified milliseconds to an integer, overflowed value will
+     * be treated as {@link Integer#MAX_VALUE}.
+     * 
+     * @param millis the specified milliseconds
+     * @return integer milliseconds
+     */
+    private static int toIntMillis(final long millis) {
+        return (int) Math.min(Integer.MAX_VALUE, millis);
+    }
+
     @Override
     public long getHitCount() {
         final Stats statistics = memcacheService.getStatistics();
@@ -31,11 +31,14 @@ import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.datastore.Query.FilterPredicate;
 import com.google.appengine.api.datastore.QueryResultList;
 import com.google.appengine.api.datastore.Text;
+import com.google.appengine.api.datastore.Transaction;
 import com.google.appengine.api.utils.SystemProperty;
 import com.google.appengine.api.utils.SystemProperty.Environment.Value;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,19 +54,23 @@ import org.b3log.latke.Latkes;
 import org.b3log.latke.RuntimeEnv;
 import org.b3log.latke.RuntimeMode;
 import org.b3log.latke.cache.Cache;
+import org.b3log.latke.cache.CacheDependencies;
 import org.b3log.latke.cache.CacheFactory;
+import org.b3log.latke.cache.QueryCaches;
 import org.b3log.latke.model.Pagination;
 import org.b3log.latke.repository.Blob;
 import org.b3log.latke.repository.Filter;
 import org.b3log.latke.repository.PropertyFilter;
 import org.b3log.latke.repository.CompositeFilter;
 import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.ObjectHandler;
 import org.b3log.latke.repository.Projection;
 import org.b3log.latke.repository.Repository;
 import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.SortDirection;
 import org.b3log.latke.util.CollectionUtils;
 import org.b3log.latke.util.Ids;
+import org.b3log.latke.util.SnowflakeIdGenerator;
 import org.b3log.latke.util.Strings;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -91,7 +98,7 @@ import org.json.JSONObject;
  * {@link #cacheEnabled enabled} caching.
  * 
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.6.0, Jun 27, 2012
+ * @version 1.1.2.0, Oct 17, 2026
  * @see Query
  * @see GAETransaction
  */
@@ -135,6 +142,14 @@ public final class GAERepository implements Repository {
      * Repository cache query cursor.
      */
     private static final String REPOSITORY_CACHE_QUERY_CURSOR = "#query#cursor";
+    /**
+     * Repository cache id bounds.
+     */
+    private static final String REPOSITORY_CACHE_ID_BOUNDS = "#idBounds";
+    /**
+     * Maximum attempts per object of {@link #getRandomly(int)}.
+     */
+    private static final int RANDOM_ATTEMPTS = 4;
     /**
      * Is cache enabled?
      */
@@ -151,6 +166,18 @@ public final class GAERepository implements Repository {
      * Query chunk size.
      */
     private static final int QUERY_CHUNK_SIZE = 50;
+    /**
+     * Kind (and key name) of the entity holding the next id node.
+     */
+    private static final String ID_NODE_KIND = "latkeIdNode";
+    /**
+     * Property of the next id node.
+     */
+    private static final String ID_NODE_NEXT = "next";
+    /**
+     * Maximum attempts to assign an id node.
+     */
+    private static final int ID_NODE_ATTEMPTS = 10;
     /**
      * The current transaction.
      */
@@ -172,7 +199,7 @@ public final class GAERepository implements Repository {
                                        + "using GAE repository.");
         }
 
-        CACHE = (Cache<String, Serializable>) CacheFactory.getCache(REPOSITORY_CACHE_NAME);
+        CACHE = (Cache<String, Serializable>) CacheFactory.getCopyingCache(REPOSITORY_CACHE_NAME);
 
         // TODO: Intializes the runtime mode at application startup
         LOGGER.info("Initializing runtime mode....");
@@ -184,6 +211,58 @@ public final class GAERepository implements Repository {
             LOGGER.info("B3log Solo runs in [development] mode");
             Latkes.setRuntimeMode(RuntimeMode.DEVELOPMENT);
         }
+
+        if (Strings.isEmptyOrNull(Latkes.getLocalProperty(Ids.ID_GENERATOR))
+            && Strings.isEmptyOrNull(Latkes.getLocalProperty(Ids.ID_NODE))) {
+            // Assigns different node ids to the instances by the datastore
+            final long node = nextIdNode() % SnowflakeIdGenerator.NODE_COUNT;
+            Ids.setIdGenerator(new SnowflakeIdGenerator((int) node));
+            LOGGER.log(Level.INFO, "Assigned id node[{0}] to the current instance", node);
+        }
+    }
+
+    /**
+     * Gets the next id node from the datastore, and increments it transactionally.
+     * 
+     * <p>
+     * The node ids are assigned in turn, an instance shares its node id with another instance only if 
+     * {@value SnowflakeIdGenerator#NODE_COUNT} instances started after it while it is still alive.
+     * </p>
+     * 
+     * @return next id node
+     */
+    private static long nextIdNode() {
+        final DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        final Key key = KeyFactory.createKey(ID_NODE_KIND, ID_NODE_KIND);
+
+        for (int i = 0; i < ID_NODE_ATTEMPTS; i++) {
+            final Transaction transaction = datastore.beginTransaction();
+
+            try {
+                Entity entity;
+                try {
+                    entity = datastore.get(transaction, key);
+                } catch (final EntityNotFoundException e) {
+                    entity = new Entity(key);
+                }
+
+                final Long next = (Long) entity.getProperty(ID_NODE_NEXT);
+                final long ret = null == next ? 0 : next;
+                entity.setProperty(ID_NODE_NEXT, ret + 1);
+                datastore.put(transaction, entity);
+                transaction.commit();
+
+                return ret;
+            } catch (final ConcurrentModificationException e) {
+                LOGGER.log(Level.FINE, "Assigns id node conflicted, retries", e);
+            } finally {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+            }
+        }
+
+        throw new IllegalStateException("Can not assign an id node in " + ID_NODE_ATTEMPTS + " attempts");
     }
 
     /**
@@ -214,6 +293,59 @@ public final class GAERepository implements Repository {
         final String ret = add(jsonObject, DEFAULT_PARENT_KEY.getKind(), DEFAULT_PARENT_KEY.getName());
 
         currentTransaction.putUncommitted(ret, jsonObject);
+        currentTransaction.changed(getName(), ret);
+
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The entities are put by only one datastore RPC.
+     * </p>
+     */
+    @Override
+    public List<String> add(final List<JSONObject> jsonObjects) throws RepositoryException {
+        final GAETransaction currentTransaction = TX.get();
+
+        if (null == currentTransaction) {
+            throw new RepositoryException("Invoking add() outside a transaction");
+        }
+
+        final List<String> ret = new ArrayList<String>(jsonObjects.size());
+        final List<Entity> entities = new ArrayList<Entity>(jsonObjects.size());
+
+        try {
+            for (final JSONObject jsonObject : jsonObjects) {
+                String id;
+                if (!jsonObject.has(Keys.OBJECT_ID)) {
+                    id = genTimeMillisId();
+
+                    jsonObject.put(Keys.OBJECT_ID, id);
+                } else {
+                    id = jsonObject.getString(Keys.OBJECT_ID);
+                }
+
+                final Entity entity = new Entity(getName(), id, DEFAULT_PARENT_KEY);
+                setProperties(entity, jsonObject);
+
+                entities.add(entity);
+                ret.add(id);
+            }
+
+            datastoreService.put(entities);
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RepositoryException(e);
+        }
+
+        for (int i = 0; i < ret.size(); i++) {
+            currentTransaction.putUncommitted(ret.get(i), jsonObjects.get(i));
+            currentTransaction.changed(getName(), ret.get(i));
+        }
+
+        LOGGER.log(Level.FINER, "Added objects[size={0}] in repository[{1}]", new Object[]{ret.size(), getName()});
 
         return ret;
     }
@@ -300,23 +432,29 @@ public final class GAERepository implements Repository {
         update(id, jsonObject, DEFAULT_PARENT_KEY.getKind(), DEFAULT_PARENT_KEY.getName());
 
         currentTransaction.putUncommitted(id, jsonObject);
+        currentTransaction.changed(getName(), id);
     }
 
     /**
-     * Caches the specified query results with the specified query.
+     * Collects the cache objects of the specified query results with the specified query.
      * 
      * @param results the specified query results
      * @param query the specified query
+     * @param objects the collected cache objects, cache key -&gt; object, to put in a batch
+     * @param queryResults the collected future query results, query cache key -&gt; result, to put in the 
+     * {@link QueryCaches query cache} in a batch
      * @throws JSONException json exception
      */
-    private void cacheQueryResults(final JSONArray results, final org.b3log.latke.repository.Query query) throws JSONException {
+    private void cacheQueryResults(final JSONArray results, final org.b3log.latke.repository.Query query,
+                                   final Map<String, Serializable> objects, final Map<String, JSONObject> queryResults)
+            throws JSONException {
         String cacheKey;
         for (int i = 0; i < results.length(); i++) {
             final JSONObject jsonObject = results.optJSONObject(i);
 
             // 1. Caching for get by id.
             cacheKey = CACHE_KEY_PREFIX + jsonObject.optString(Keys.OBJECT_ID);
-            CACHE.putAsync(cacheKey, jsonObject);
+            objects.put(cacheKey, jsonObject);
             LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}] for default index[oId]",
                        new Object[]{cacheKey, getName()});
 
@@ -333,7 +471,7 @@ public final class GAERepository implements Repository {
                 }
                 logMsgBuilder.deleteCharAt(logMsgBuilder.length() - 1); // Removes the last comma
 
-                cacheKey = CACHE_KEY_PREFIX + futureQuery.getCacheKey() + "_" + getName();
+                cacheKey = futureQuery.getCacheKey();
 
                 final JSONObject futureQueryRet = new JSONObject();
                 final JSONObject pagination = new JSONObject();
@@ -344,8 +482,8 @@ public final class GAERepository implements Repository {
                 futureQueryRet.put(Keys.RESULTS, futureQueryResults);
                 futureQueryResults.put(jsonObject);
 
-                CACHE.putAsync(cacheKey, futureQueryRet);
-                LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}] for index[{2}] for future query[{3}]",
+                queryResults.put(cacheKey, futureQueryRet);
+                LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in query cache[{1}] for index[{2}] for future query[{3}]",
                            new Object[]{cacheKey, getName(), logMsgBuilder, futureQuery.toString()});
             }
         }
@@ -399,6 +537,7 @@ public final class GAERepository implements Repository {
         remove(id, DEFAULT_PARENT_KEY.getKind(), DEFAULT_PARENT_KEY.getName());
 
         currentTransaction.putUncommitted(id, null);
+        currentTransaction.changed(getName(), id);
     }
 
     /**
@@ -432,6 +571,8 @@ public final class GAERepository implements Repository {
             return null;
         }
 
+        CacheDependencies.read(CacheDependencies.of(getName(), id));
+
         final GAETransaction currentTransaction = TX.get();
         if (null == currentTransaction) {
             // Gets outside a transaction
@@ -452,45 +593,61 @@ public final class GAERepository implements Repository {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Map<String, JSONObject> get(final Iterable<String> ids) throws RepositoryException {
         LOGGER.log(Level.FINEST, "Getting with ids[{0}]", ids);
 
+        for (final String id : ids) {
+            CacheDependencies.read(CacheDependencies.of(getName(), id));
+        }
+
         final GAETransaction currentTransaction = TX.get();
 
         if (null == currentTransaction || !currentTransaction.hasUncommitted(ids)) {
-            Map<String, JSONObject> ret;
+            final Map<String, JSONObject> ret = new HashMap<String, JSONObject>();
+            final Set<Key> keys = new HashSet<Key>();
 
             if (cacheEnabled) {
-                final String cacheKey = CACHE_KEY_PREFIX + ids.hashCode();
-                ret = (Map<String, JSONObject>) CACHE.get(cacheKey);
-                if (null != ret) {
-                    LOGGER.log(Level.FINER, "Got objects[cacheKey={0}] from repository cache[name={1}]", new Object[]{cacheKey, getName()});
-                    return ret;
+                final List<String> cacheKeys = new ArrayList<String>();
+                for (final String id : ids) {
+                    cacheKeys.add(CACHE_KEY_PREFIX + id);
                 }
-            }
 
-            final Set<Key> keys = new HashSet<Key>();
-            for (final String id : ids) {
-                final Key key = KeyFactory.createKey(DEFAULT_PARENT_KEY, getName(), id);
+                final Map<String, Serializable> cached = CACHE.getAll(cacheKeys);
+                for (final String id : ids) {
+                    final JSONObject jsonObject = (JSONObject) cached.get(CACHE_KEY_PREFIX + id);
+                    if (null == jsonObject) {
+                        keys.add(KeyFactory.createKey(DEFAULT_PARENT_KEY, getName(), id));
+                    } else {
+                        ret.put(id, jsonObject);
+                    }
+                }
 
-                keys.add(key);
+                LOGGER.log(Level.FINER, "Got objects[hit={0}, miss={1}] from repository cache[name={2}]",
+                           new Object[]{ret.size(), keys.size(), getName()});
+            } else {
+                for (final String id : ids) {
+                    keys.add(KeyFactory.createKey(DEFAULT_PARENT_KEY, getName(), id));
+                }
             }
 
-            ret = new HashMap<String, JSONObject>();
+            if (keys.isEmpty()) {
+                return ret;
+            }
 
             final Map<Key, Entity> map = datastoreService.get(keys);
+            final Map<String, Serializable> objects = new HashMap<String, Serializable>();
 
             for (final Entry<Key, Entity> entry : map.entrySet()) {
-                ret.put(entry.getKey().getName(), entity2JSONObject(entry.getValue()));
+                final JSONObject jsonObject = entity2JSONObject(entry.getValue());
+                ret.put(entry.getKey().getName(), jsonObject);
+                objects.put(CACHE_KEY_PREFIX + entry.getKey().getName(), jsonObject);
             }
 
             LOGGER.log(Level.FINER, "Got objects[oIds={0}] from repository[name={1}]", new Object[]{ids, getName()});
 
-            if (cacheEnabled) {
-                final String cacheKey = CACHE_KEY_PREFIX + ids.hashCode();
-                CACHE.putAsync(cacheKey, (Serializable) ret);
-                LOGGER.log(Level.FINER, "Added objects[cacheKey={0}] in repository cache[{1}]", new Object[]{cacheKey, getName()});
+            if (cacheEnabled && !objects.isEmpty()) {
+                CACHE.putAll(objects);
+                LOGGER.log(Level.FINER, "Added objects[count={0}] in repository cache[{1}]", new Object[]{objects.size(), getName()});
             }
 
             return ret;
@@ -550,14 +707,17 @@ public final class GAERepository implements Repository {
     public JSONObject get(final org.b3log.latke.repository.Query query) throws RepositoryException {
         JSONObject ret;
 
-        final String cacheKey = CACHE_KEY_PREFIX + query.getCacheKey() + "_" + getName();
+        CacheDependencies.read(getName());
+
+        final Serializable snapshot = QueryCaches.snapshot(getName());
+        final String cacheKey = getQueryCacheKey(query);
         LOGGER.log(Level.FINEST, "Executing a query[cacheKey={0}, query=[{1}]]", new Object[]{cacheKey, query.toString()});
 
         if (cacheEnabled) {
-            ret = (JSONObject) CACHE.get(cacheKey);
+            ret = QueryCaches.get(getName(), query);
             if (null != ret) {
-                LOGGER.log(Level.FINER, "Got query result[cacheKey={0}] from repository cache[name={1}]",
-                           new Object[]{cacheKey, getName()});
+                LOGGER.log(Level.FINER, "Got query result[cacheKey={0}] from query cache[repositoryName={1}]",
+                           new Object[]{query.getCacheKey(), getName()});
                 return ret;
             }
         }
@@ -574,17 +734,27 @@ public final class GAERepository implements Repository {
             pageCount = query.getPageCount();
         }
 
-        ret = get(currentPageNum, pageSize, pageCount, projections, sorts, filter, cacheKey);
+        if (query.isSeek()) {
+            ret = seek(query, pageCount, cacheKey);
+        } else {
+            ret = get(currentPageNum, pageSize, pageCount, projections, sorts, filter, cacheKey);
+        }
 
         if (cacheEnabled) {
-            CACHE.putAsync(cacheKey, ret);
-            LOGGER.log(Level.FINER, "Added query result[cacheKey={0}] in repository cache[{1}]", new Object[]{cacheKey, getName()});
+            final Map<String, Serializable> objects = new HashMap<String, Serializable>();
+            final Map<String, JSONObject> queryResults = new HashMap<String, JSONObject>();
+            queryResults.put(query.getCacheKey(), ret);
 
             try {
-                cacheQueryResults(ret.optJSONArray(Keys.RESULTS), query);
+                cacheQueryResults(ret.optJSONArray(Keys.RESULTS), query, objects, queryResults);
             } catch (final JSONException e) {
                 LOGGER.log(Level.WARNING, "Caches query results failed", e);
             }
+
+            CACHE.putAll(objects);
+            QueryCaches.putAll(getName(), queryResults, snapshot);
+            LOGGER.log(Level.FINER, "Added query result[cacheKey={0}, objects={1}, queryResults={2}] in caches[{3}]",
+                       new Object[]{query.getCacheKey(), objects.size(), queryResults.size(), getName()});
         }
 
         return ret;
@@ -608,6 +778,117 @@ public final class GAERepository implements Repository {
     private JSONObject get(final int currentPageNum, final int pageSize, final int pageCount, final Set<Projection> projections,
                            final Map<String, SortDirection> sorts, final Filter filter, final String cacheKey)
             throws RepositoryException {
+        final Query query = toGAEQuery(projections, sorts, filter);
+
+        return get(query, currentPageNum, pageSize, pageCount, cacheKey);
+    }
+
+    /**
+     * Gets the result object of the specified keyset pagination query.
+     * 
+     * <p>
+     * The datastore allows inequality filters on only one property, so the query could sort by at most one property
+     * besides the id. The rows are selected by an inequality filter on the sort property, sorted by the sort property 
+     * and the id, the rows tied with the last row seen on the sort property and not after it by the id are skipped, 
+     * so the cost depends on the count of tied rows but not the depth of the page.
+     * </p>
+     *
+     * @param query the specified query
+     * @param pageCount the specified page count, {@code -1} to calculate it
+     * @param cacheKey the specified cache key of the query
+     * @return the result object, see return of {@linkplain #get(org.b3log.latke.repository.Query)} for details
+     * @throws RepositoryException repository exception
+     */
+    private JSONObject seek(final org.b3log.latke.repository.Query query, final int pageCount, final String cacheKey)
+            throws RepositoryException {
+        final Map<String, SortDirection> seekSorts = query.getSeekSorts();
+        final Object[] seekValues = query.getSeekValues();
+        if (seekSorts.size() != seekValues.length || 2 < seekSorts.size()) {
+            throw new RepositoryException("Keyset pagination supports only one sort property besides the id[seekSorts="
+                                          + seekSorts.keySet() + ", seekValues=" + Arrays.toString(seekValues) + "]");
+        }
+
+        final int pageSize = query.getPageSize();
+        final Query gaeQuery = toGAEQuery(query.getProjections(), seekSorts, query.getFilter());
+        final int pageCnt = getPageCount(datastoreService.prepare(gaeQuery), pageSize, pageCount, cacheKey);
+
+        final Iterator<String> sortKeys = seekSorts.keySet().iterator();
+        final String sortKey = sortKeys.next();
+        final boolean tieBreak = sortKeys.hasNext();
+        final boolean ascending = SortDirection.ASCENDING == seekSorts.get(sortKey);
+
+        FilterOperator operator;
+        if (tieBreak) {
+            operator = ascending ? FilterOperator.GREATER_THAN_OR_EQUAL : FilterOperator.LESS_THAN_OR_EQUAL;
+        } else {
+            operator = ascending ? FilterOperator.GREATER_THAN : FilterOperator.LESS_THAN;
+        }
+
+        final Query.Filter seekFilter = processPropertyFiler(new PropertyFilter(sortKey, operator, seekValues[0]));
+        gaeQuery.setFilter(null == gaeQuery.getFilter() ? seekFilter : Query.CompositeFilterOperator.and(gaeQuery.getFilter(), seekFilter));
+
+        final String lastId = String.valueOf(seekValues[seekValues.length - 1]);
+        final JSONObject ret = new JSONObject();
+        try {
+            final JSONObject pagination = new JSONObject();
+            ret.put(Pagination.PAGINATION, pagination);
+            pagination.put(Pagination.PAGINATION_PAGE_COUNT, pageCnt);
+
+            final JSONArray results = new JSONArray();
+            ret.put(Keys.RESULTS, results);
+
+            for (final Entity entity : datastoreService.prepare(gaeQuery).asIterable(withChunkSize(QUERY_CHUNK_SIZE))) {
+                if (results.length() >= pageSize) {
+                    break;
+                }
+
+                final JSONObject jsonObject = entity2JSONObject(entity);
+                if (tieBreak && seekEquals(jsonObject.opt(sortKey), seekValues[0])) {
+                    final int compare = jsonObject.optString(Keys.OBJECT_ID).compareTo(lastId);
+                    if (ascending ? compare <= 0 : compare >= 0) {
+                        continue;
+                    }
+                }
+
+                results.put(jsonObject);
+            }
+
+            LOGGER.log(Level.FINER, "Found objects[size={0}] after seek values[{1}] in repository[{2}]",
+                       new Object[]{results.length(), Arrays.toString(seekValues), getName()});
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RepositoryException(e);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Determines whether the specified property value equals to the specified seek value.
+     * 
+     * @param value the specified property value
+     * @param seekValue the specified seek value
+     * @return {@code true} if they are equal, returns {@code false} otherwise
+     */
+    private static boolean seekEquals(final Object value, final Object seekValue) {
+        if (value instanceof Number && seekValue instanceof Number) {
+            return ((Number) value).doubleValue() == ((Number) seekValue).doubleValue();
+        }
+
+        return null != value && value.equals(seekValue);
+    }
+
+    /**
+     * Converts the specified projections, sorts and filter to a GAE query.
+     * 
+     * @param projections the specified projections
+     * @param sorts the specified sorts
+     * @param filter the specified filter
+     * @return GAE query
+     * @throws RepositoryException repository exception
+     */
+    private Query toGAEQuery(final Set<Projection> projections, final Map<String, SortDirection> sorts, final Filter filter)
+            throws RepositoryException {
         final Query query = new Query(getName());
 
         // 1. Filters
@@ -639,7 +920,7 @@ public final class GAERepository implements Repository {
             query.addProjection(new PropertyProjection(projection.getKey(), projection.getType()));
         }
 
-        return get(query, currentPageNum, pageSize, pageCount, cacheKey);
+        return query;
     }
 
     /**
@@ -740,14 +1021,45 @@ public final class GAERepository implements Repository {
         return ret;
     }
 
-    @Override // XXX: performance issue
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Does not iterate all entities. Picks random pivots between the minimum and the maximum ids (see 
+     * {@link Ids#random(java.lang.String, java.lang.String)}), and fetches the first entity whose key is not less than
+     * each pivot, makes at most {@value #RANDOM_ATTEMPTS} times of the fetch size attempts to pick distinct entities. 
+     * Falls back to iterating if the ids are not numeric.
+     * </p>
+     */
+    @Override
     public List<JSONObject> getRandomly(final int fetchSize) throws RepositoryException {
+        CacheDependencies.read(getName());
+
         final List<JSONObject> ret = new ArrayList<JSONObject>();
         final Query query = new Query(getName());
         final PreparedQuery preparedQuery = datastoreService.prepare(query);
         final int count = (int) count();
 
-        if (0 == count) {
+        if (0 == count || 0 >= fetchSize) {
+            return ret;
+        }
+
+        final String[] bounds = fetchSize < count ? getIdBounds() : null;
+        if (null != bounds && null != Ids.random(bounds[0], bounds[1])) {
+            final Set<String> pickedIds = new HashSet<String>();
+
+            for (int i = 0; i < fetchSize * RANDOM_ATTEMPTS && ret.size() < fetchSize; i++) {
+                final Key pivot = KeyFactory.createKey(DEFAULT_PARENT_KEY, getName(), Ids.random(bounds[0], bounds[1]));
+                final Query pivotQuery = new Query(getName());
+                pivotQuery.setFilter(new FilterPredicate(Entity.KEY_RESERVED_PROPERTY, Query.FilterOperator.GREATER_THAN_OR_EQUAL, pivot));
+                pivotQuery.addSort(Entity.KEY_RESERVED_PROPERTY);
+
+                final List<Entity> entities = datastoreService.prepare(pivotQuery).asList(withLimit(1));
+                if (!entities.isEmpty() && pickedIds.add(entities.get(0).getKey().getName())) {
+                    ret.add(entity2JSONObject(entities.get(0)));
+                }
+            }
+
             return ret;
         }
 
@@ -779,6 +1091,8 @@ public final class GAERepository implements Repository {
 
     @Override
     public long count() {
+        CacheDependencies.read(getName());
+
         final String cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_COUNT;
         if (cacheEnabled) {
             final Object o = CACHE.get(cacheKey);
@@ -809,6 +1123,35 @@ public final class GAERepository implements Repository {
         return ret;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Streams the entities by the datastore query iterator, it fetches the next chunk with the query cursor.
+     * </p>
+     */
+    @Override
+    public void iterate(final int fetchSize, final ObjectHandler handler) throws RepositoryException {
+        final Query query = new Query(getName());
+        final PreparedQuery preparedQuery = datastoreService.prepare(query);
+
+        long count = 0;
+        try {
+            for (final Entity entity : preparedQuery.asIterable(withChunkSize(fetchSize).prefetchSize(fetchSize))) {
+                count++;
+
+                if (!handler.handle(entity2JSONObject(entity))) {
+                    break;
+                }
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, "Iterates repository[name=" + getName() + "] failed", e);
+            throw new RepositoryException(e);
+        }
+
+        LOGGER.log(Level.FINER, "Iterated repository[name={0}, count={1}]", new Object[]{getName(), count});
+    }
+
     /**
      * Converts the specified {@link Entity entity} to a {@link JSONObject
      * json object}.
@@ -903,35 +1246,7 @@ public final class GAERepository implements Repository {
     private JSONObject get(final Query query, final int currentPageNum, final int pageSize, final int pageCount, final String cacheKey)
             throws RepositoryException {
         final PreparedQuery preparedQuery = datastoreService.prepare(query);
-
-        int pageCnt = pageCount;
-        if (-1 == pageCnt) { // Application caller dose not specify the page count
-            // Calculates the page count
-            long count = -1;
-            final String countCacheKey = cacheKey + REPOSITORY_CACHE_COUNT;
-            if (cacheEnabled) {
-                final Object o = CACHE.get(countCacheKey);
-                if (null != o) {
-                    LOGGER.log(Level.FINER, "Got an object[cacheKey={0}] from repository cache[name={1}]",
-                               new Object[]{countCacheKey, getName()});
-                    count = (Long) o;
-                }
-            }
-
-            if (-1 == count) {
-                count = preparedQuery.countEntities(FetchOptions.Builder.withDefaults());
-                LOGGER.log(Level.WARNING, "Invoked countEntities() for repository[name={0}, count={1}]",
-                           new Object[]{getName(), count});
-
-                if (cacheEnabled) {
-                    CACHE.putAsync(countCacheKey, count);
-                    LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}]",
-                               new Object[]{countCacheKey, getName()});
-                }
-            }
-
-            pageCnt = (int) Math.ceil((double) count / (double) pageSize);
-        }
+        final int pageCnt = getPageCount(preparedQuery, pageSize, pageCount, cacheKey);
 
         final JSONObject ret = new JSONObject();
         try {
@@ -969,18 +1284,59 @@ public final class GAERepository implements Repository {
     }
 
     /**
-     * Gets current date time string.
-     *
-     * @return a time millisecond string
+     * Gets the page count of the specified prepared query with the specified page size.
+     * 
+     * @param preparedQuery the specified prepared query
+     * @param pageSize the specified page size
+     * @param pageCount the specified page count, {@code -1} to calculate it
+     * @param cacheKey the specified cache key of the query
+     * @return page count
      */
-    public static String genTimeMillisId() {
-        final String timeMillisId = Ids.genTimeMillisId();
-        final long inc = CACHE.inc("id-step-generator", 1);
+    private int getPageCount(final PreparedQuery preparedQuery, final int pageSize, final int pageCount, final String cacheKey) {
+        if (-1 != pageCount) { // Application caller specified the page count
+            return pageCount;
+        }
 
-        LOGGER.log(Level.FINEST, "[timeMillisId={0}, inc={1}]",
-                   new Object[]{timeMillisId, inc});
+        // Calculates the page count
+        long count = -1;
+        final String countCacheKey = cacheKey + REPOSITORY_CACHE_COUNT;
+        if (cacheEnabled) {
+            final Object o = CACHE.get(countCacheKey);
+            if (null != o) {
+                LOGGER.log(Level.FINER, "Got an object[cacheKey={0}] from repository cache[name={1}]",
+                           new Object[]{countCacheKey, getName()});
+                count = (Long) o;
+            }
+        }
 
-        return String.valueOf(Long.parseLong(timeMillisId) + inc);
+        if (-1 == count) {
+            count = preparedQuery.countEntities(FetchOptions.Builder.withDefaults());
+            LOGGER.log(Level.WARNING, "Invoked countEntities() for repository[name={0}, count={1}]",
+                       new Object[]{getName(), count});
+
+            if (cacheEnabled) {
+                CACHE.putAsync(countCacheKey, count);
+                LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}]",
+                           new Object[]{countCacheKey, getName()});
+            }
+        }
+
+        return (int) Math.ceil((double) count / (double) pageSize);
+    }
+
+    /**
+     * Generates an id by the {@link Ids#getIdGenerator() id generator}.
+     *
+     * <p>
+     * The instances are assigned with different node ids of 
+     * {@link SnowflakeIdGenerator} by memcache if the id generator is not
+     * configured.
+     * </p>
+     *
+     * @return a time ordered id
+     */
+    public static String genTimeMillisId() {
+        return Ids.genId();
     }
 
     @Override
@@ -1031,6 +1387,96 @@ public final class GAERepository implements Repository {
         return name;
     }
 
+    /**
+     * Gets the repository cache key of the specified query for its page count, the key contains the current 
+     * {@link CacheDependencies#version(java.lang.String) version} of this repository, so that the cached page count is 
+     * invalidated by the commits changed this repository. The query results are cached in {@link QueryCaches}.
+     * 
+     * @param query the specified query
+     * @return cache key
+     */
+    private String getQueryCacheKey(final org.b3log.latke.repository.Query query) {
+        return CACHE_KEY_PREFIX + query.getCacheKey() + "_" + getName() + "_" + CacheDependencies.version(getName());
+    }
+
+    /**
+     * Gets the minimum and the maximum ids of this repository by keys only queries.
+     * 
+     * @return {minId, maxId}, returns {@code null} if this repository is empty
+     */
+    private String[] getIdBounds() {
+        final String cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_ID_BOUNDS;
+        if (cacheEnabled) {
+            final String[] cached = (String[]) CACHE.get(cacheKey);
+            if (null != cached) {
+                return cached;
+            }
+        }
+
+        final Query minQuery = new Query(getName()).setKeysOnly().addSort(Entity.KEY_RESERVED_PROPERTY);
+        final Query maxQuery = new Query(getName()).setKeysOnly().addSort(Entity.KEY_RESERVED_PROPERTY, Query.SortDirection.DESCENDING);
+        final List<Entity> min = datastoreService.prepare(minQuery).asList(withLimit(1));
+        final List<Entity> max = datastoreService.prepare(maxQuery).asList(withLimit(1));
+        if (min.isEmpty() || max.isEmpty()) {
+            return null;
+        }
+
+        final String[] ret = new String[]{min.get(0).getKey().getName(), max.get(0).getKey().getName()};
+        if (cacheEnabled) {
+            CACHE.putAsync(cacheKey, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the cache key of the query cursor of the specified page number, the key contains the current 
+     * {@link CacheDependencies#version(java.lang.String) version} of this repository.
+     * 
+     * @param pageNum the specified page number
+     * @return cache key
+     */
+    private String getCursorCacheKey(final int pageNum) {
+        return CACHE_KEY_PREFIX + getName() + "_" + CacheDependencies.version(getName()) + REPOSITORY_CACHE_QUERY_CURSOR
+               + '(' + pageNum + ')';
+    }
+
+    /**
+     * Invalidates the caches of the specified changed objects, invokes it after a transaction committed.
+     * 
+     * <p>
+     * The cached counts are removed, and the {@link CacheDependencies dependencies} (the repositories and the objects) 
+     * are invalidated if the specified flag is {@code true}, that invalidates the cached query results, query cursors 
+     * and pages depending on them.
+     * </p>
+     * 
+     * @param changed the specified changed objects, &lt;repositoryName, ids&gt;
+     * @param invalidateDependencies the specified flag
+     */
+    static void invalidate(final Map<String, Set<String>> changed, final boolean invalidateDependencies) {
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        final List<String> cacheKeys = new ArrayList<String>();
+        final List<String> dependencies = new ArrayList<String>();
+        for (final Map.Entry<String, Set<String>> entry : changed.entrySet()) {
+            final String repositoryName = entry.getKey();
+            cacheKeys.add(CACHE_KEY_PREFIX + repositoryName + REPOSITORY_CACHE_COUNT);
+            cacheKeys.add(CACHE_KEY_PREFIX + repositoryName + REPOSITORY_CACHE_ID_BOUNDS);
+            dependencies.add(repositoryName);
+
+            for (final String id : entry.getValue()) {
+                dependencies.add(CacheDependencies.of(repositoryName, id));
+            }
+        }
+
+        CACHE.remove(cacheKeys);
+        if (invalidateDependencies) {
+            CacheDependencies.invalidate(dependencies);
+        }
+    }
+
     /**
      * Gets the end cursor of the specified current page number, page size and 
      * the prepared query.
@@ -1045,7 +1491,7 @@ public final class GAERepository implements Repository {
         int i = currentPageNum - 1;
         Cursor ret = null;
         for (; i > 0; i--) {
-            final String cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_QUERY_CURSOR + '(' + i + ')';
+            final String cacheKey = getCursorCacheKey(i);
             ret = (Cursor) CACHE.get(cacheKey);
             if (null != ret) {
                 LOGGER.log(Level.FINEST, "Found a query cursor[{0}] in repository cache[name={1}]",
@@ -1064,7 +1510,7 @@ public final class GAERepository implements Repository {
             results = preparedQuery.asQueryResultList(withLimit(pageSize).
                     chunkSize(QUERY_CHUNK_SIZE));
             ret = results.getCursor(); // The end cursor of page 1, also the start cursor of page 2
-            cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_QUERY_CURSOR + "(2)";
+            cacheKey = getCursorCacheKey(2);
             CACHE.putAsync(cacheKey, ret);
 
             emptyCursorIndex = 2;
@@ -1075,7 +1521,7 @@ public final class GAERepository implements Repository {
             results = preparedQuery.asQueryResultList(withStartCursor(ret).limit(pageSize).chunkSize(QUERY_CHUNK_SIZE));
 
             ret = results.getCursor();
-            cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_QUERY_CURSOR + '(' + (emptyCursorIndex + 1) + ')';
+            cacheKey = getCursorCacheKey(emptyCursorIndex + 1);
             CACHE.putAsync(cacheKey, ret);
         }
 
@@ -17,11 +17,12 @@ package org.b3log.latke.repository.gae;
 
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.b3log.latke.cache.PageCaches;
 import org.b3log.latke.repository.Transaction;
 import org.json.JSONObject;
 
@@ -35,7 +36,7 @@ import org.json.JSONObject;
  * </p>
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.8, Dec 3, 2011
+ * @version 1.0.1.0, Oct 16, 2026
  * @see GAERepository
  */
 public final class GAETransaction implements Transaction {
@@ -71,6 +72,10 @@ public final class GAETransaction implements Transaction {
      * Flag of clear query cache.
      */
     private boolean clearQueryCache = true;
+    /**
+     * Changed objects, &lt;repositoryName, ids&gt;.
+     */
+    private Map<String, Set<String>> changed = new HashMap<String, Set<String>>();
 
     /**
      * Constructs a {@link GAETransaction} object with the specified Google App Engine datastore 
@@ -156,8 +161,8 @@ public final class GAETransaction implements Transaction {
      * Commits this transaction with {@value #COMMIT_RETRIES} times of retries.
      * 
      * <p>
-     * If the transaction committed, clears all transaction cache. If the {@link #clearQueryCache flag} is {@code true}, clears global 
-     * cache regions.
+     * If the transaction committed, clears all transaction cache. If the {@link #clearQueryCache flag} is {@code true}, invalidates 
+     * the cached query results and pages depending on the changed objects and their repositories.
      * </p>
      *
      * <p>
@@ -166,7 +171,7 @@ public final class GAETransaction implements Transaction {
      * </p>
      * @see #COMMIT_RETRIES
      * @see #cache
-     * @see PageCaches#removeAll() 
+     * @see GAERepository#invalidate(java.util.Map, boolean) 
      */
     @Override
     public void commit() {
@@ -193,9 +198,8 @@ public final class GAETransaction implements Transaction {
                 cache.clear();
                 GAERepository.TX.set(null);
 
-                if (clearQueryCache) {
-                    PageCaches.removeAll();
-                }
+                GAERepository.invalidate(changed, clearQueryCache);
+                changed.clear();
 
                 break;
             } catch (final ConcurrentModificationException e) {
@@ -216,9 +220,26 @@ public final class GAETransaction implements Transaction {
 
         // Rollbacked, clears cache and transaction thread var in repository
         cache.clear();
+        changed.clear();
         GAERepository.TX.set(null);
     }
 
+    /**
+     * Records the specified object has been changed in this transaction.
+     * 
+     * @param repositoryName the name of the repository of the specified object
+     * @param id the id of the specified object
+     */
+    public void changed(final String repositoryName, final String id) {
+        Set<String> ids = changed.get(repositoryName);
+        if (null == ids) {
+            ids = new HashSet<String>();
+            changed.put(repositoryName, ids);
+        }
+
+        ids.add(id);
+    }
+
     @Override
     public boolean isActive() {
         return appEngineDatastoreTx.isActive();
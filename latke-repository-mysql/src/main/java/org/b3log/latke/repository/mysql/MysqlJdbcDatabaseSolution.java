@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
+import org.b3log.latke.Latkes;
 import org.b3log.latke.repository.jdbc.AbstractJdbcDatabaseSolution;
 import org.b3log.latke.repository.jdbc.mapping.BooleanMapping;
 import org.b3log.latke.repository.jdbc.mapping.DateMapping;
@@ -34,7 +35,7 @@ import org.b3log.latke.repository.jdbc.util.FieldDefinition;
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.2, May 8, 2012
+ * @version 1.0.2.0, Oct 17, 2026
  */
 public class MysqlJdbcDatabaseSolution extends AbstractJdbcDatabaseSolution {
 
@@ -71,6 +72,39 @@ public class MysqlJdbcDatabaseSolution extends AbstractJdbcDatabaseSolution {
         return sql.toString();
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The row count of InnoDB in the table statistics is an estimate, it may
+     * vary from the actual count by 40% to 50%.
+     * </p>
+     */
+    @Override
+    public String getApproximateCountSql(final String tableName) {
+        return "select TABLE_ROWS from information_schema.TABLES where TABLE_SCHEMA=database() and TABLE_NAME=?";
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * MySQL Connector/J reads the whole result set into memory unless the fetch
+     * size is {@link Integer#MIN_VALUE} (row by row streaming) or the URL 
+     * specifies {@code useCursorFetch=true} (server-side cursor fetching the
+     * specified fetch size of rows per round trip).
+     * </p>
+     */
+    @Override
+    public int getStreamingFetchSize(final int fetchSize) {
+        final String url = Latkes.getLocalProperty("jdbc.URL");
+        if (null != url && url.contains("useCursorFetch=true")) {
+            return fetchSize;
+        }
+
+        return Integer.MIN_VALUE;
+    }
+
     @Override
     protected void createDropTableSql(final StringBuilder dropTableSql, final String tableName) {
         dropTableSql.append("DROP TABLE  IF EXISTS ").append(tableName).append(";");
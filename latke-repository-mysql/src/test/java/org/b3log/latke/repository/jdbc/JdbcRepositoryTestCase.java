@@ -24,13 +24,16 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.b3log.latke.Keys;
 import org.b3log.latke.Latkes;
 import org.b3log.latke.repository.Filter;
 import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.ObjectHandler;
 import org.b3log.latke.repository.PropertyFilter;
 import org.b3log.latke.repository.CompositeFilter;
 import org.b3log.latke.repository.CompositeFilterOperator;
@@ -51,7 +54,7 @@ import org.testng.annotations.Test;
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.1, Jun 27, 2012
+ * @version 1.0.0.7, Oct 17, 2026
  */
 public class JdbcRepositoryTestCase {
 
@@ -173,6 +176,65 @@ public class JdbcRepositoryTestCase {
         assertNotNull(jsonObjectDb);
     }
 
+    /**
+     * batch add test.
+     * 
+     * @throws Exception Exception
+     */
+    @Test(groups = {"jdbc"})
+    public void addBatch() throws Exception {
+        if (!ifRun) {
+            return;
+        }
+
+        final List<JSONObject> jsonObjects = new ArrayList<JSONObject>();
+        final int count = 10;
+        for (int i = 0; i < count; i++) {
+            final JSONObject jsonObject = new JSONObject();
+            jsonObject.put("col1", i);
+            jsonObject.put("col2", "batch" + i);
+            if (0 == i % 2) {
+                jsonObject.put("col4", true);
+            }
+
+            jsonObjects.add(jsonObject);
+        }
+
+        final Transaction transaction = jdbcRepository.beginTransaction();
+        final List<String> ids = jdbcRepository.add(jsonObjects);
+        transaction.commit();
+
+        assertEquals(count, ids.size());
+        assertEquals(count, jdbcRepository.get(ids).size());
+    }
+
+    /**
+     * get by ids test, loads the objects by one query without cache.
+     * 
+     * @throws Exception Exception
+     */
+    @Test(groups = {"jdbc"}, dependsOnMethods = "addBatch")
+    public void getByIds() throws Exception {
+        if (!ifRun) {
+            return;
+        }
+
+        final JdbcRepository repository = new JdbcRepository("basetable");
+        repository.setCacheEnabled(false);
+
+        final JSONObject jsonObject = new JSONObject();
+        jsonObject.put("col1", 1);
+        jsonObject.put("col2", "getByIds");
+
+        final Transaction transaction = repository.beginTransaction();
+        final String id = repository.add(jsonObject);
+        transaction.commit();
+
+        final Map<String, JSONObject> objects = repository.get(Arrays.asList(id, "missing"));
+        assertEquals(1, objects.size());
+        assertEquals("getByIds", objects.get(id).getString("col2"));
+    }
+
     /**
      * update test.
      * 
@@ -199,6 +261,70 @@ public class JdbcRepositoryTestCase {
         }
     }
 
+    /**
+     * versioned update test, a stale version must not be written.
+     * 
+     * @throws Exception Exception
+     */
+    @Test(groups = {"jdbc"})
+    public void versionedUpdate() throws Exception {
+        if (!ifRun) {
+            return;
+        }
+
+        final Connection connection = Connections.getConnection();
+        JdbcUtil.executeSql("CREATE TABLE IF NOT EXISTS versiontable (oId VARCHAR(200) NOT NULL, col1 INT, version BIGINT, "
+                            + "PRIMARY KEY (oId)) ENGINE=InnoDB DEFAULT CHARSET=utf8", connection);
+        connection.close();
+
+        final List<FieldDefinition> dList = new ArrayList<FieldDefinition>();
+        FieldDefinition definition = new FieldDefinition();
+        definition.setName("oId");
+        definition.setIsKey(true);
+        definition.setType("String");
+        dList.add(definition);
+
+        definition = new FieldDefinition();
+        definition.setName("col1");
+        definition.setType("int");
+        dList.add(definition);
+
+        definition = new FieldDefinition();
+        definition.setName("version");
+        definition.setType("long");
+        definition.setIsVersion(true);
+        dList.add(definition);
+        JdbcRepositories.getRepositoriesMap().put("versiontable", dList);
+
+        final JdbcRepository repository = new JdbcRepository("versiontable");
+        final JSONObject jsonObject = new JSONObject();
+        jsonObject.put("col1", 1);
+        jsonObject.put("version", 0L);
+
+        Transaction transaction = repository.beginTransaction();
+        final String id = repository.add(jsonObject);
+        transaction.commit();
+
+        final JSONObject stale = new JSONObject(jsonObject.toString());
+
+        transaction = repository.beginTransaction();
+        jsonObject.put("col1", 2);
+        repository.update(id, jsonObject);
+        transaction.commit();
+        assertEquals(1L, jsonObject.getLong("version"));
+
+        transaction = repository.beginTransaction();
+        stale.put("col1", 2 + 1);
+        try {
+            repository.update(id, stale);
+            throw new IllegalStateException("Updated with a stale version");
+        } catch (final JDBCRepositoryException e) {
+            transaction.rollback();
+        }
+
+        assertEquals(2, repository.get(id).getInt("col1"));
+    }
+
     /**
      * remove test.
      * 
@@ -280,6 +406,84 @@ public class JdbcRepositoryTestCase {
         jdbcRepository.get(query);
     }
 
+    /**
+     * keyset pagination test, the seek pages equal to the offset pages.
+     * 
+     * @throws Exception Exception
+     */
+    @Test(groups = {"jdbc"}, dependsOnMethods = "addBatch")
+    public void querySeekTest() throws Exception {
+        if (!ifRun) {
+            return;
+        }
+
+        final JdbcRepository repository = new JdbcRepository("basetable");
+        repository.setCacheEnabled(false);
+
+        final int pageSize = 3;
+        final JSONObject firstPage = repository.get(new Query().addSort("col1", SortDirection.DESCENDING).addSort(
+                "oId", SortDirection.DESCENDING).setPageSize(pageSize));
+        final JSONObject secondPage = repository.get(new Query().addSort("col1", SortDirection.DESCENDING).addSort(
+                "oId", SortDirection.DESCENDING).setPageSize(pageSize).setCurrentPageNum(2));
+
+        final JSONObject lastRow = firstPage.getJSONArray(Keys.RESULTS).getJSONObject(pageSize - 1);
+        final JSONObject seekPage = repository.get(new Query().addSort("col1", SortDirection.DESCENDING).setPageSize(pageSize).
+                seekAfter(lastRow));
+
+        assertEquals(secondPage.getJSONArray(Keys.RESULTS).toString(), seekPage.getJSONArray(Keys.RESULTS).toString());
+    }
+
+    /**
+     * random sampling test, the sampled objects are distinct.
+     * 
+     * @throws Exception Exception
+     */
+    @Test(groups = {"jdbc"}, dependsOnMethods = "addBatch")
+    public void getRandomlyTest() throws Exception {
+        if (!ifRun) {
+            return;
+        }
+
+        final JdbcRepository repository = new JdbcRepository("basetable");
+        repository.setCacheEnabled(false);
+
+        final int fetchSize = 2;
+        final List<JSONObject> objects = repository.getRandomly(fetchSize);
+        final Set<String> ids = new HashSet<String>();
+        for (final JSONObject object : objects) {
+            ids.add(object.getString(Keys.OBJECT_ID));
+        }
+
+        assertTrue(objects.size() <= fetchSize && !objects.isEmpty());
+        assertEquals(objects.size(), ids.size());
+    }
+
+    /**
+     * iterate test, all objects are iterated once.
+     * 
+     * @throws Exception Exception
+     */
+    @Test(groups = {"jdbc"}, dependsOnMethods = "addBatch")
+    public void iterateTest() throws Exception {
+        if (!ifRun) {
+            return;
+        }
+
+        final JdbcRepository repository = new JdbcRepository("basetable");
+        final Set<String> ids = new HashSet<String>();
+        repository.iterate(2, new ObjectHandler() {
+
+            @Override
+            public boolean handle(final JSONObject jsonObject) throws Exception {
+                assertTrue(ids.add(jsonObject.getString(Keys.OBJECT_ID)));
+
+                return true;
+            }
+        });
+
+        assertEquals(repository.count(), ids.size());
+    }
+
     /**
      * page query test.
      * 
@@ -27,17 +27,24 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.b3log.latke.Keys;
 import org.b3log.latke.cache.Cache;
 import org.b3log.latke.cache.CacheFactory;
+import org.b3log.latke.cache.QueryCaches;
 import org.b3log.latke.model.Pagination;
 import org.b3log.latke.repository.Filter;
 import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.ObjectHandler;
 import org.b3log.latke.repository.Query;
 import org.b3log.latke.repository.Repository;
 import org.b3log.latke.repository.RepositoryException;
@@ -53,7 +60,7 @@ import org.json.JSONObject;
  * Sleepycat repository.
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.1.7, Dec 12, 2011
+ * @version 1.0.6.1, Oct 17, 2026
  */
 @SuppressWarnings("unchecked")
 public final class SleepycatRepository implements Repository {
@@ -79,6 +86,10 @@ public final class SleepycatRepository implements Repository {
      * Repository cache name.
      */
     public static final String REPOSITORY_CACHE_NAME = "repositoryCache";
+    /**
+     * Maximum attempts per object of {@link #getRandomly(int)}.
+     */
+    private static final int RANDOM_ATTEMPTS = 4;
     /**
      * Repository cache.
      * <p>
@@ -93,7 +104,7 @@ public final class SleepycatRepository implements Repository {
             new InheritableThreadLocal<SleepycatTransaction>();
 
     static {
-        CACHE = (Cache<String, Serializable>) CacheFactory.getCache(
+        CACHE = (Cache<String, Serializable>) CacheFactory.getCopyingCache(
                 REPOSITORY_CACHE_NAME);
     }
 
@@ -129,6 +140,17 @@ public final class SleepycatRepository implements Repository {
      * @see #update(java.lang.String, org.json.JSONObject)
      * @see Keys#OBJECT_ID
      */
+    @Override
+    public List<String> add(final List<JSONObject> jsonObjects) throws RepositoryException {
+        final List<String> ret = new ArrayList<String>(jsonObjects.size());
+
+        for (final JSONObject jsonObject : jsonObjects) {
+            ret.add(add(jsonObject));
+        }
+
+        return ret;
+    }
+
     @Override
     public String add(final JSONObject jsonObject) throws RepositoryException {
         final SleepycatTransaction currentTransaction = TX.get();
@@ -143,7 +165,7 @@ public final class SleepycatRepository implements Repository {
 
         try {
             if (!jsonObject.has(Keys.OBJECT_ID)) {
-                ret = Ids.genTimeMillisId();
+                ret = Ids.genId();
                 jsonObject.put(Keys.OBJECT_ID, ret);
             } else {
                 ret = jsonObject.getString(Keys.OBJECT_ID);
@@ -373,10 +395,87 @@ public final class SleepycatRepository implements Repository {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Picks random pivots between the first and the last keys (see 
+     * {@link Ids#random(java.lang.String, java.lang.String)}), and positions
+     * the cursor at the first key not less than each pivot, makes at most 
+     * {@value #RANDOM_ATTEMPTS} times of the fetch size attempts to pick 
+     * distinct objects. Falls back to reservoir sampling in one scan if the 
+     * ids are not numeric or the fetch size is not less than the count.
+     * </p>
+     */
     @Override
     public List<JSONObject> getRandomly(final int fetchSize)
             throws RepositoryException {
-        throw new UnsupportedOperationException("Not supported yet!");
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        if (0 >= fetchSize) {
+            return ret;
+        }
+
+        final Cursor cursor = Sleepycat.get(getName(),
+                                            Sleepycat.DEFAULT_DB_CONFIG).
+                openCursor(null, CursorConfig.READ_COMMITTED);
+        final DatabaseEntry foundKey = new DatabaseEntry();
+        final DatabaseEntry foundData = new DatabaseEntry();
+
+        try {
+            if (OperationStatus.SUCCESS
+                != cursor.getFirst(foundKey, foundData, LockMode.DEFAULT)) {
+                return ret;
+            }
+            final String minId = new String(foundKey.getData(), "UTF-8");
+            cursor.getLast(foundKey, foundData, LockMode.DEFAULT);
+            final String maxId = new String(foundKey.getData(), "UTF-8");
+
+            if (fetchSize < count() && null != Ids.random(minId, maxId)) {
+                final Set<String> pickedIds = new HashSet<String>();
+
+                for (int i = 0; i < fetchSize * RANDOM_ATTEMPTS
+                                && ret.size() < fetchSize; i++) {
+                    final DatabaseEntry pivot = new DatabaseEntry(
+                            Ids.random(minId, maxId).getBytes("UTF-8"));
+
+                    if (OperationStatus.SUCCESS == cursor.getSearchKeyRange(
+                            pivot, foundData, LockMode.DEFAULT)
+                        && pickedIds.add(new String(pivot.getData(), "UTF-8"))) {
+                        ret.add((JSONObject) Serializer.deserialize(
+                                foundData.getData()));
+                    }
+                }
+
+                return ret;
+            }
+
+            final Random random = new Random();
+            int i = 0;
+            OperationStatus status =
+                    cursor.getFirst(foundKey, foundData, LockMode.DEFAULT);
+            while (OperationStatus.SUCCESS == status) {
+                if (i < fetchSize) {
+                    ret.add((JSONObject) Serializer.deserialize(
+                            foundData.getData()));
+                } else {
+                    final int j = random.nextInt(i + 1);
+                    if (j < fetchSize) {
+                        ret.set(j, (JSONObject) Serializer.deserialize(
+                                foundData.getData()));
+                    }
+                }
+
+                i++;
+                status = cursor.getNext(foundKey, foundData, LockMode.DEFAULT);
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RepositoryException(e);
+        } finally {
+            cursor.close();
+        }
+
+        return ret;
     }
 
     @Override
@@ -387,6 +486,42 @@ public final class SleepycatRepository implements Repository {
         return database.count();
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Streams the records by a read committed cursor, the fetch size is 
+     * ignored.
+     * </p>
+     */
+    @Override
+    public void iterate(final int fetchSize, final ObjectHandler handler)
+            throws RepositoryException {
+        final Cursor cursor = Sleepycat.get(getName(),
+                                            Sleepycat.DEFAULT_DB_CONFIG).
+                openCursor(null, CursorConfig.READ_COMMITTED);
+        final DatabaseEntry foundKey = new DatabaseEntry();
+        final DatabaseEntry foundData = new DatabaseEntry();
+
+        try {
+            OperationStatus status =
+                    cursor.getFirst(foundKey, foundData, LockMode.DEFAULT);
+            while (OperationStatus.SUCCESS == status) {
+                if (!handler.handle((JSONObject) Serializer.deserialize(
+                        foundData.getData()))) {
+                    break;
+                }
+
+                status = cursor.getNext(foundKey, foundData, LockMode.DEFAULT);
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RepositoryException(e);
+        } finally {
+            cursor.close();
+        }
+    }
+
     @Override
     public SleepycatTransaction beginTransaction() {
         SleepycatTransaction ret = TX.get();
@@ -456,16 +591,16 @@ public final class SleepycatRepository implements Repository {
     public JSONObject get(final Query query) throws RepositoryException {
         JSONObject ret = null;
 
-        final String cacheKey = CACHE_KEY_PREFIX + query.getCacheKey() + "_"
-                                + getName();
+        final String cacheKey = query.getCacheKey();
+        final Serializable snapshot = QueryCaches.snapshot(getName());
         LOGGER.log(Level.FINEST, "Executing a query[cacheKey={0}, query=[{1}]]",
                    new Object[]{cacheKey, query.toString()});
 
         if (cacheEnabled) {
-            ret = (JSONObject) CACHE.get(cacheKey);
+            ret = QueryCaches.get(getName(), query);
             if (null != ret) {
                 LOGGER.log(Level.FINER,
-                           "Got query result[cacheKey={0}] from repository cache[name={1}]",
+                           "Got query result[cacheKey={0}] from query cache[repositoryName={1}]",
                            new Object[]{cacheKey, getName()});
                 return ret;
             }
@@ -476,12 +611,12 @@ public final class SleepycatRepository implements Repository {
         final int pageSize = query.getPageSize();
         final Map<String, SortDirection> sorts = query.getSorts();
 
-        ret = get(currentPageNum, pageSize, sorts, filters);
+        ret = get(currentPageNum, pageSize, sorts, filters, query);
 
         if (cacheEnabled) {
-            CACHE.put(cacheKey, ret);
+            QueryCaches.put(getName(), query, ret, snapshot);
             LOGGER.log(Level.FINER,
-                       "Added query result[cacheKey={0}] in repository cache[{1}]",
+                       "Added query result[cacheKey={0}] in query cache[{1}]",
                        new Object[]{cacheKey, getName()});
             // Checks if the result is a single result
             final JSONArray results = ret.optJSONArray(Keys.RESULTS);
@@ -511,6 +646,7 @@ public final class SleepycatRepository implements Repository {
      * @param pageSize the specified page size
      * @param sorts the specified sorts
      * @param filters the specified filters
+     * @param query the specified query, for its keyset pagination
      * @return the result object, see return of
      * {@linkplain #get(org.b3log.latke.repository.Query)} for details
      * @throws RepositoryException repository exception
@@ -519,7 +655,8 @@ public final class SleepycatRepository implements Repository {
     private JSONObject get(final int currentPageNum,
                            final int pageSize,
                            final Map<String, SortDirection> sorts,
-                           final List<Filter> filters)
+                           final List<Filter> filters,
+                           final Query query)
             throws RepositoryException {
         final SleepycatTransaction currentTransaction = TX.get();
         Cursor cursor = null;
@@ -563,6 +700,16 @@ public final class SleepycatRepository implements Repository {
                 return ret;
             }
 
+            if (query.isSeek()) {
+                final List<JSONObject> resultList =
+                        seek(foundList, query.getSeekSorts(),
+                             query.getSeekValues(), pageSize);
+                ret.put(Keys.RESULTS,
+                        CollectionUtils.listToJSONArray(resultList));
+
+                return ret;
+            }
+
             // Step 2: Sorts
             for (final Map.Entry<String, SortDirection> sort : sorts.entrySet()) {
                 sort(foundList, sort);
@@ -848,6 +995,98 @@ public final class SleepycatRepository implements Repository {
         return collection.contains(object);
     }
 
+    /**
+     * Gets the specified count of json objects after the specified seek 
+     * values from the specified list by the specified seek sorts.
+     * 
+     * @param list the specified list
+     * @param seekSorts the specified seek sorts
+     * @param seekValues the specified seek values
+     * @param count the specified count
+     * @return json objects
+     * @throws RepositoryException repository exception
+     */
+    private List<JSONObject> seek(final List<JSONObject> list,
+                                  final Map<String, SortDirection> seekSorts,
+                                  final Object[] seekValues,
+                                  final int count)
+            throws RepositoryException {
+        if (seekSorts.size() != seekValues.length) {
+            throw new RepositoryException("Seek values do not match seek sorts"
+                                          + seekSorts.keySet());
+        }
+
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        for (final JSONObject jsonObject : list) {
+            final Object[] values = new Object[seekValues.length];
+            int i = 0;
+            for (final String key : seekSorts.keySet()) {
+                values[i++] = jsonObject.opt(key);
+            }
+
+            if (0 < compare(values, seekValues, seekSorts)) {
+                ret.add(jsonObject);
+            }
+        }
+
+        Collections.sort(ret, new Comparator<JSONObject>() {
+
+            @Override
+            public int compare(final JSONObject o1, final JSONObject o2) {
+                final Object[] values1 = new Object[seekValues.length];
+                final Object[] values2 = new Object[seekValues.length];
+                int i = 0;
+                for (final String key : seekSorts.keySet()) {
+                    values1[i] = o1.opt(key);
+                    values2[i++] = o2.opt(key);
+                }
+
+                try {
+                    return SleepycatRepository.this.compare(values1, values2,
+                                                            seekSorts);
+                } catch (final RepositoryException e) {
+                    LOGGER.log(Level.WARNING, "Sort error", e);
+                }
+
+                return 0;
+            }
+        });
+
+        return ret.size() > count ? ret.subList(0, count) : ret;
+    }
+
+    /**
+     * Compares the specified values by the specified seek sorts.
+     * 
+     * @param values1 the specified values
+     * @param values2 the specified values to compare
+     * @param seekSorts the specified seek sorts
+     * @return a positive integer if the specified values1 is ordered after 
+     * the specified values2, zero if equal, a negative integer otherwise
+     * @throws RepositoryException repository exception
+     */
+    private int compare(final Object[] values1, final Object[] values2,
+                        final Map<String, SortDirection> seekSorts)
+            throws RepositoryException {
+        int i = 0;
+        for (final SortDirection direction : seekSorts.values()) {
+            int ret = 0;
+            if (greater(values1[i], values2[i])) {
+                ret = 1;
+            } else if (less(values1[i], values2[i])) {
+                ret = -1;
+            }
+
+            if (0 != ret) {
+                return SortDirection.ASCENDING == direction ? ret : -ret;
+            }
+
+            i++;
+        }
+
+        return 0;
+    }
+
     /**
      * Sorts the specified list with the specified sort rule.
      * 
@@ -877,9 +1116,88 @@ public final class SleepycatRepository implements Repository {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Resolves the cached objects by one bulk cache lookup, and then loads all
+     * the missing objects by one cursor pass, searching the keys in ascending
+     * order. The loaded objects are put into the repository cache in a batch.
+     * </p>
+     */
     @Override
     public Map<String, JSONObject> get(final Iterable<String> ids) throws
             RepositoryException {
-        throw new UnsupportedOperationException("Not supported yet.");
+        final Map<String, JSONObject> ret = new HashMap<String, JSONObject>();
+        final TreeSet<String> missingIds = new TreeSet<String>();
+
+        if (cacheEnabled) {
+            final List<String> cacheKeys = new ArrayList<String>();
+            for (final String id : ids) {
+                cacheKeys.add(CACHE_KEY_PREFIX + id);
+            }
+
+            final Map<String, Serializable> cached = CACHE.getAll(cacheKeys);
+            for (final String id : ids) {
+                final JSONObject jsonObject =
+                        (JSONObject) cached.get(CACHE_KEY_PREFIX + id);
+                if (null == jsonObject) {
+                    missingIds.add(id);
+                } else {
+                    ret.put(id, jsonObject);
+                }
+            }
+        } else {
+            for (final String id : ids) {
+                missingIds.add(id);
+            }
+        }
+
+        if (missingIds.isEmpty()) {
+            return ret;
+        }
+
+        final SleepycatTransaction currentTransaction = TX.get();
+        Cursor cursor = null;
+        if (null == currentTransaction) {
+            cursor = Sleepycat.get(getName(),
+                                   Sleepycat.DEFAULT_DB_CONFIG).
+                    openCursor(null, CursorConfig.READ_COMMITTED);
+        } else { // Get within a transaction
+            cursor = Sleepycat.get(getName(),
+                                   Sleepycat.DEFAULT_DB_CONFIG).
+                    openCursor(currentTransaction.getSleepycatTransaction(),
+                               CursorConfig.READ_UNCOMMITTED);
+        }
+
+        final Map<String, Serializable> loaded =
+                new HashMap<String, Serializable>();
+        final DatabaseEntry foundData = new DatabaseEntry();
+
+        try {
+            for (final String id : missingIds) {
+                final DatabaseEntry searchKey =
+                        new DatabaseEntry(id.getBytes("UTF-8"));
+                if (cursor.getSearchKey(searchKey, foundData, LockMode.DEFAULT)
+                    == OperationStatus.SUCCESS) {
+                    final JSONObject jsonObject =
+                            (JSONObject) Serializer.deserialize(
+                            foundData.getData());
+                    ret.put(id, jsonObject);
+                    loaded.put(CACHE_KEY_PREFIX + id, jsonObject);
+                }
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RepositoryException(e);
+        } finally {
+            cursor.close();
+        }
+
+        if (cacheEnabled && !loaded.isEmpty()) {
+            CACHE.putAll(loaded);
+        }
+
+        return ret;
     }
 }
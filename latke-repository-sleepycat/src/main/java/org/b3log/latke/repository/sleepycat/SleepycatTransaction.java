@@ -16,6 +16,7 @@
 package org.b3log.latke.repository.sleepycat;
 
 import org.b3log.latke.cache.PageCaches;
+import org.b3log.latke.cache.QueryCaches;
 import org.b3log.latke.repository.Transaction;
 
 /**
@@ -23,7 +24,7 @@ import org.b3log.latke.repository.Transaction;
  * simply.
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.2, Dec 3, 2011
+ * @version 1.0.0.3, Oct 17, 2026
  */
 public class SleepycatTransaction implements Transaction {
 
@@ -69,6 +70,7 @@ public class SleepycatTransaction implements Transaction {
 
         if (clearQueryCache) {
             SleepycatRepository.CACHE.removeAll();
+            QueryCaches.removeAll();
             PageCaches.removeAll();
         }
     }
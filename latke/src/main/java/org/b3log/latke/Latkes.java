@@ -21,6 +21,8 @@ import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.b3log.latke.cache.PageCaches;
+import org.b3log.latke.cache.local.memory.MemoryCacheSweeper;
+import org.b3log.latke.repository.jdbc.JdbcAsyncRepository;
 import org.b3log.latke.repository.jdbc.util.Connections;
 import org.b3log.latke.util.Strings;
 
@@ -33,7 +35,7 @@ import org.b3log.latke.util.Strings;
  * </p>
  * 
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.1.7, May 29, 2012
+ * @version 1.0.1.9, Oct 17, 2026
  * @see #initRuntimeEnv()
  * @see #getServePath()
  * @see #getStaticServePath()
@@ -631,9 +633,12 @@ public final class Latkes {
                 return;
             }
 
+            MemoryCacheSweeper.shutdown();
+
             final RuntimeDatabase runtimeDatabase = getRuntimeDatabase();
             switch (runtimeDatabase) {
                 default:
+                    JdbcAsyncRepository.shutdownExecutor();
                     Connections.shutdownConnectionPool();
             }
         } catch (final Exception e) {
@@ -17,6 +17,7 @@ package org.b3log.latke.cache;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * This is the top interface of cache like structures.
@@ -24,11 +25,18 @@ import java.util.Collection;
  * <p>
  * This cache can not hold {@code null} key or value.
  * </p>
+ * 
+ * <h4>Expiration</h4>
+ * An object expires when its time-to-live (specified by 
+ * {@link #put(java.io.Serializable, java.io.Serializable, long)}, or the 
+ * {@link #setExpireAfterWrite(long) expire-after-write} default) elapsed since
+ * it was put, or when the {@link #setExpireAfterAccess(long) expire-after-access}
+ * period elapsed since it was last got. Expired objects are never returned.
  *
  * @param <K> the key of an object
  * @param <V> the type of objects
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.2.9, Dec 3, 2011
+ * @version 1.0.4.0, Oct 16, 2026
  */
 public interface Cache<K extends Serializable, V extends Serializable> {
 
@@ -53,6 +61,34 @@ public interface Cache<K extends Serializable, V extends Serializable> {
      */
     void put(final K key, final V value);
 
+    /**
+     * Puts the specified object into this cache with the specified time-to-live.
+     *
+     * <p>
+     * Throws {@link IllegalArgumentException} if the specified key or value is 
+     * {@code null}.
+     * </p>
+     *
+     * @param key the key of the specified object
+     * @param value the specified object
+     * @param ttl the specified time-to-live in milliseconds, a non-positive 
+     * value means using the {@link #getExpireAfterWrite() expire-after-write} 
+     * default of this cache
+     */
+    void put(final K key, final V value, final long ttl);
+
+    /**
+     * Puts the specified objects into this cache in a batch.
+     *
+     * <p>
+     * Throws {@link IllegalArgumentException} if any key or value of the 
+     * specified objects is {@code null}.
+     * </p>
+     *
+     * @param objects the specified objects, key -&gt; object
+     */
+    void putAll(final Map<K, V> objects);
+
     /**
      * Puts the specified object into this cache asynchronously.
      * 
@@ -97,6 +133,15 @@ public interface Cache<K extends Serializable, V extends Serializable> {
      */
     long inc(final K key, final long delta);
 
+    /**
+     * Gets objects by the specified keys in a batch.
+     *
+     * @param keys the specified keys
+     * @return found objects, key -&gt; object, the keys of objects not found are
+     * absent, returns an empty map if none is found
+     */
+    Map<K, V> getAll(final Collection<K> keys);
+
     /**
      * Removes a object by the specified key.
      * 
@@ -105,7 +150,7 @@ public interface Cache<K extends Serializable, V extends Serializable> {
     void remove(final K key);
 
     /**
-     * Removes objects by the specified keys.
+     * Removes objects by the specified keys in a batch.
      * 
      * @param keys the specified keys
      */
@@ -131,6 +176,40 @@ public interface Cache<K extends Serializable, V extends Serializable> {
      */
     long getMaxCount();
 
+    /**
+     * Sets the default time-to-live (in milliseconds) of objects since they
+     * were put.
+     *
+     * @param expireAfterWrite the specified time-to-live, a non-positive value
+     * means never expire
+     */
+    void setExpireAfterWrite(final long expireAfterWrite);
+
+    /**
+     * Gets the default time-to-live (in milliseconds) of objects since they 
+     * were put.
+     *
+     * @return expire-after-write, {@code 0} means never expire
+     */
+    long getExpireAfterWrite();
+
+    /**
+     * Sets the time-to-live (in milliseconds) of objects since they were last 
+     * got.
+     *
+     * @param expireAfterAccess the specified time-to-live, a non-positive value
+     * means never expire
+     */
+    void setExpireAfterAccess(final long expireAfterAccess);
+
+    /**
+     * Gets the time-to-live (in milliseconds) of objects since they were last
+     * got.
+     *
+     * @return expire-after-access, {@code 0} means never expire
+     */
+    long getExpireAfterAccess();
+
     /**
      * Gets the hit count of this cache.
      *
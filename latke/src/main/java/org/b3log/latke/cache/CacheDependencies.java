@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Cache dependencies, tracks the repositories and objects which cached entries (pages, query results) depend on, so that
+ * a commit only invalidates the entries depending on what it changed.
+ * 
+ * <p>
+ * A dependency is a repository (by its name) or an object (by {@link #of(java.lang.String, java.lang.String)}), each 
+ * dependency has a version (a random token) in cache {@value #DEPENDENCY_CACHE_NAME}. A cached entry records the 
+ * versions of its dependencies when they were read, and it is valid only if all of them are still current. Invalidating
+ * a dependency replaces its version, so that the entries recorded the old version become stale, this works for the 
+ * entries cached by other instances (GAE memcache) too. A version evicted or cleared from the cache is regarded as 
+ * changed.
+ * </p>
+ * 
+ * <p>
+ * The dependencies read in a thread could be {@link #collect() collected}, for example, the dependencies of the page 
+ * rendering in a request. The entries cached without collected dependencies depend on {@link #ALL}, which is 
+ * invalidated by every invalidation.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.2.0, Oct 17, 2026
+ */
+@SuppressWarnings("unchecked")
+public final class CacheDependencies {
+
+    /**
+     * Name of the dependency version cache.
+     */
+    public static final String DEPENDENCY_CACHE_NAME = "dependency";
+    /**
+     * Dependency on everything.
+     */
+    public static final String ALL = "*";
+    /**
+     * Maximum count of the local cached versions.
+     */
+    private static final int MAX_CACHED_VERSION_CNT = 102400;
+    /**
+     * Dependency versions, &lt;dependency, version&gt;.
+     */
+    private static final Cache<String, Serializable> VERSIONS;
+    /**
+     * Random for versions.
+     */
+    private static final Random RANDOM = new Random();
+    /**
+     * Collected dependencies of the current thread, &lt;dependency, version&gt;.
+     */
+    private static final ThreadLocal<Map<String, Serializable>> COLLECTED = new ThreadLocal<Map<String, Serializable>>();
+
+    static {
+        VERSIONS = (Cache<String, Serializable>) CacheFactory.getCache(DEPENDENCY_CACHE_NAME);
+        VERSIONS.setMaxCount(MAX_CACHED_VERSION_CNT);
+    }
+
+    /**
+     * Gets the dependency of the specified object.
+     * 
+     * @param repositoryName the name of the repository of the specified object
+     * @param id the id of the specified object
+     * @return dependency
+     */
+    public static String of(final String repositoryName, final String id) {
+        return repositoryName + '#' + id;
+    }
+
+    /**
+     * Gets the current version of the specified dependency.
+     * 
+     * @param dependency the specified dependency
+     * @return version
+     */
+    public static Serializable version(final String dependency) {
+        Serializable ret = VERSIONS.get(dependency);
+
+        if (null == ret) {
+            ret = RANDOM.nextLong();
+            VERSIONS.put(dependency, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the current versions of the specified dependencies.
+     * 
+     * @param dependencies the specified dependencies
+     * @return versions, &lt;dependency, version&gt;
+     */
+    public static Map<String, Serializable> versions(final Collection<String> dependencies) {
+        final Map<String, Serializable> ret = new HashMap<String, Serializable>(VERSIONS.getAll(dependencies));
+        final Map<String, Serializable> created = new HashMap<String, Serializable>();
+
+        for (final String dependency : dependencies) {
+            if (!ret.containsKey(dependency)) {
+                final Serializable version = RANDOM.nextLong();
+                ret.put(dependency, version);
+                created.put(dependency, version);
+            }
+        }
+
+        if (!created.isEmpty()) {
+            VERSIONS.putAll(created);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Records the specified dependency is read if the current thread is {@link #collect() collecting}.
+     * 
+     * @param dependency the specified dependency
+     */
+    public static void read(final String dependency) {
+        final Map<String, Serializable> collected = COLLECTED.get();
+
+        if (null != collected && !collected.containsKey(dependency)) {
+            collected.put(dependency, version(dependency));
+        }
+    }
+
+    /**
+     * Records the specified dependencies are read with their versions if the current thread is 
+     * {@link #collect() collecting}, for example, the dependencies collected by another thread reading for the current
+     * thread.
+     * 
+     * @param versions the specified dependencies, &lt;dependency, version&gt;
+     */
+    public static void readAll(final Map<String, Serializable> versions) {
+        final Map<String, Serializable> collected = COLLECTED.get();
+
+        if (null == collected) {
+            return;
+        }
+
+        for (final Map.Entry<String, Serializable> version : versions.entrySet()) {
+            if (!collected.containsKey(version.getKey())) {
+                collected.put(version.getKey(), version.getValue());
+            }
+        }
+    }
+
+    /**
+     * Starts collecting the dependencies read by the current thread.
+     * 
+     * @return {@code true} if started, returns {@code false} if the current thread is collecting already
+     */
+    public static boolean collect() {
+        if (null != COLLECTED.get()) {
+            return false;
+        }
+
+        COLLECTED.set(new HashMap<String, Serializable>());
+
+        return true;
+    }
+
+    /**
+     * Gets the dependencies collected by the current thread.
+     * 
+     * @return collected dependencies, &lt;dependency, version&gt;, returns {@code null} if not collecting
+     */
+    public static Map<String, Serializable> getCollected() {
+        return COLLECTED.get();
+    }
+
+    /**
+     * Stops collecting the dependencies read by the current thread.
+     */
+    public static void stopCollecting() {
+        COLLECTED.remove();
+    }
+
+    /**
+     * Determines whether the specified recorded versions are all current.
+     * 
+     * @param versions the specified recorded versions, &lt;dependency, version&gt;
+     * @return {@code true} if all current, returns {@code false} otherwise
+     */
+    public static boolean isCurrent(final Map<String, ?> versions) {
+        final Map<String, Serializable> current = VERSIONS.getAll(versions.keySet());
+
+        for (final Map.Entry<String, ?> version : versions.entrySet()) {
+            final Serializable currentVersion = current.get(version.getKey());
+
+            if (null == currentVersion || !currentVersion.toString().equals(String.valueOf(version.getValue()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Invalidates the specified dependencies and {@link #ALL}.
+     * 
+     * @param dependencies the specified dependencies
+     */
+    public static void invalidate(final Collection<String> dependencies) {
+        final Set<String> invalidated = new HashSet<String>(dependencies);
+        invalidated.add(ALL);
+
+        final Map<String, Serializable> versions = new HashMap<String, Serializable>(invalidated.size() * 2);
+        for (final String dependency : invalidated) {
+            versions.put(dependency, RANDOM.nextLong());
+        }
+
+        VERSIONS.putAll(versions);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private CacheDependencies() {
+    }
+}
@@ -25,12 +25,48 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.b3log.latke.Latkes;
 import org.b3log.latke.RuntimeEnv;
+import org.b3log.latke.cache.local.memory.CopyPolicy;
+import org.b3log.latke.cache.local.memory.LruMemoryCache;
+import org.b3log.latke.cache.local.memory.MemoryCache;
+import org.b3log.latke.cache.local.memory.MemoryCacheSweeper;
+import org.b3log.latke.cache.local.memory.SegmentedLruMemoryCache;
+import org.b3log.latke.util.Strings;
 
 /**
  * Cache factory.
+ * 
+ * <p>
+ * The implementation of local caches could be configured by the following
+ * properties in file "local.properties":
+ *   <ul>
+ *     <li>{@value #LOCAL_CACHE_IMPL}: {@code LRU} (default) for {@link LruMemoryCache}, 
+ *     {@code SEGMENTED_LRU} for the lock striped {@link SegmentedLruMemoryCache}, could be overridden for a
+ *     cache by "cache.local.&lt;cacheName&gt;.impl", for example, {@code cache.local.page.impl=LRU}</li>
+ *     <li>{@value #LOCAL_CACHE_SEGMENTS}: segment count of {@link SegmentedLruMemoryCache},
+ *     defaults to four times of available processors</li>
+ *     <li>{@value #LOCAL_CACHE_COPY_POLICY}: {@link CopyPolicy copy policy} of local caches,
+ *     {@code SERIALIZE} (default), {@code JSON_COPY} or {@code REFERENCE}, could be overridden for a cache by
+ *     "cache.local.&lt;cacheName&gt;.copyPolicy", for example, {@code cache.local.page.copyPolicy=REFERENCE},
+ *     {@code REFERENCE} is ignored by the caches got by {@link #getCopyingCache(java.lang.String)}</li>
+ *     <li>"cache.local.&lt;cacheName&gt;.maxBytes": {@link MemoryCache#setMaxBytes(long) maximum bytes}
+ *     of the local cache specified by the cache name, the value could be suffixed with
+ *     {@code k}, {@code m} or {@code g}, for example, {@code cache.local.page.maxBytes=64m}</li>
+ *     <li>{@value #LOCAL_CACHE_SWEEP_INTERVAL}: interval (milliseconds) of the 
+ *     {@link MemoryCacheSweeper background sweeper} removing expired objects</li>
+ *     <li>{@value #LOCAL_CACHE_ADMISSION}: {@link MemoryCache#setAdmissionEnabled(boolean) admission filter}
+ *     of local caches, {@code NONE} (default) or {@code TINY_LFU}, could be overridden for a cache by
+ *     "cache.local.&lt;cacheName&gt;.admission", for example, {@code cache.local.page.admission=TINY_LFU}</li>
+ *   </ul>
+ * </p>
+ * 
+ * <p>
+ * The default expiration policies of a cache (local or GAE) could be configured by 
+ * "cache.&lt;cacheName&gt;.expireAfterWrite" and "cache.&lt;cacheName&gt;.expireAfterAccess" 
+ * (milliseconds) in file "local.properties".
+ * </p>
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.8, May 3, 2012
+ * @version 1.0.4.0, Oct 17, 2026
  */
 public final class CacheFactory {
 
@@ -42,6 +78,30 @@ public final class CacheFactory {
      * Caches.
      */
     private static final Map<String, Cache<String, ?>> CACHES = Collections.synchronizedMap(new HashMap<String, Cache<String, ?>>());
+    /**
+     * Key of local cache implementation in file "local.properties".
+     */
+    public static final String LOCAL_CACHE_IMPL = "cache.local.impl";
+    /**
+     * Key of local cache segment count in file "local.properties".
+     */
+    public static final String LOCAL_CACHE_SEGMENTS = "cache.local.segments";
+    /**
+     * Key of local cache copy policy in file "local.properties".
+     */
+    public static final String LOCAL_CACHE_COPY_POLICY = "cache.local.copyPolicy";
+    /**
+     * Key of local cache sweep interval in file "local.properties".
+     */
+    public static final String LOCAL_CACHE_SWEEP_INTERVAL = "cache.local.sweepInterval";
+    /**
+     * Key of local cache admission filter in file "local.properties".
+     */
+    public static final String LOCAL_CACHE_ADMISSION = "cache.local.admission";
+    /**
+     * Bytes of one kilobyte.
+     */
+    private static final long KILOBYTE = 1024L;
 
     /**
      * Removes all caches.
@@ -93,9 +153,7 @@ public final class CacheFactory {
             if (null == ret) {
                 switch (Latkes.getRuntime("cache")) {
                     case LOCAL:
-                        final Class<Cache<String, ?>> localLruCache = (Class<Cache<String, ?>>) Class.forName(
-                                "org.b3log.latke.cache.local.memory.LruMemoryCache");
-                        ret = localLruCache.newInstance();
+                        ret = newLocalCache(cacheName);
                         break;
                     case GAE:
                         final Class<Cache<String, ?>> gaeMemcache = (Class<Cache<String, ?>>) Class.forName(
@@ -107,6 +165,16 @@ public final class CacheFactory {
                         throw new RuntimeException("Latke runs in the hell.... Please set the enviornment correctly");
                 }
 
+                final String expireAfterWrite = Latkes.getLocalProperty("cache." + cacheName + ".expireAfterWrite");
+                if (!Strings.isEmptyOrNull(expireAfterWrite)) {
+                    ret.setExpireAfterWrite(Long.parseLong(expireAfterWrite.trim()));
+                }
+
+                final String expireAfterAccess = Latkes.getLocalProperty("cache." + cacheName + ".expireAfterAccess");
+                if (!Strings.isEmptyOrNull(expireAfterAccess)) {
+                    ret.setExpireAfterAccess(Long.parseLong(expireAfterAccess.trim()));
+                }
+
                 CACHES.put(cacheName, ret);
             }
         } catch (final Exception e) {
@@ -118,6 +186,128 @@ public final class CacheFactory {
         return (Cache<String, Serializable>) ret;
     }
 
+    /**
+     * Gets a cache specified by the given cache name, the objects got from which are always copies.
+     * 
+     * <p>
+     * The cache is for the objects modified by their readers (for example, the objects of repositories), if the
+     * cache is local and its copy policy is configured as {@link CopyPolicy#REFERENCE}, the configuration is
+     * ignored and {@link CopyPolicy#SERIALIZE} is used instead.
+     * </p>
+     *
+     * @param cacheName the given cache name
+     * @return a cache specified by the given cache name
+     */
+    public static synchronized Cache<String, ? extends Serializable> getCopyingCache(final String cacheName) {
+        final Cache<String, ? extends Serializable> ret = getCache(cacheName);
+
+        if (ret instanceof MemoryCache && CopyPolicy.REFERENCE == ((MemoryCache<?, ?>) ret).getCopyPolicy()) {
+            LOGGER.log(Level.WARNING, "Cache[name={0}] can not hold objects by reference, uses SERIALIZE instead", cacheName);
+            ((MemoryCache<?, ?>) ret).setCopyPolicy(CopyPolicy.SERIALIZE);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Creates a local cache with the implementation configured in file "local.properties".
+     * 
+     * @param cacheName the name of the cache
+     * @return local cache
+     */
+    private static Cache<String, ?> newLocalCache(final String cacheName) {
+        String impl = Latkes.getLocalProperty("cache.local." + cacheName + ".impl");
+        if (Strings.isEmptyOrNull(impl)) {
+            impl = Latkes.getLocalProperty(LOCAL_CACHE_IMPL);
+        }
+
+        final MemoryCache<String, Serializable> ret;
+        if ("SEGMENTED_LRU".equalsIgnoreCase(impl)) {
+            final String segments = Latkes.getLocalProperty(LOCAL_CACHE_SEGMENTS);
+
+            if (Strings.isEmptyOrNull(segments)) {
+                ret = new SegmentedLruMemoryCache<String, Serializable>();
+            } else {
+                ret = new SegmentedLruMemoryCache<String, Serializable>(Integer.valueOf(segments.trim()));
+            }
+        } else {
+            if (!Strings.isEmptyOrNull(impl) && !"LRU".equalsIgnoreCase(impl)) {
+                LOGGER.log(Level.WARNING, "Unknown local cache implementation[{0}], uses LRU instead", impl);
+            }
+
+            ret = new LruMemoryCache<String, Serializable>();
+        }
+
+        ret.setCopyPolicy(getLocalCopyPolicy(cacheName));
+
+        final String maxBytes = Latkes.getLocalProperty("cache.local." + cacheName + ".maxBytes");
+        if (!Strings.isEmptyOrNull(maxBytes)) {
+            ret.setMaxBytes(parseBytes(maxBytes));
+        }
+
+        String admission = Latkes.getLocalProperty("cache.local." + cacheName + ".admission");
+        if (Strings.isEmptyOrNull(admission)) {
+            admission = Latkes.getLocalProperty(LOCAL_CACHE_ADMISSION);
+        }
+        ret.setAdmissionEnabled(!Strings.isEmptyOrNull(admission) && "TINY_LFU".equalsIgnoreCase(admission.trim()));
+
+        final String sweepInterval = Latkes.getLocalProperty(LOCAL_CACHE_SWEEP_INTERVAL);
+        if (Strings.isEmptyOrNull(sweepInterval)) {
+            MemoryCacheSweeper.register(ret);
+        } else {
+            MemoryCacheSweeper.register(ret, Long.parseLong(sweepInterval.trim()));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Parses the specified bytes string, for example, "1024", "512k", "64m" or "1g".
+     * 
+     * @param bytes the specified bytes string
+     * @return bytes
+     */
+    private static long parseBytes(final String bytes) {
+        final String value = bytes.trim().toLowerCase();
+        final char unit = value.charAt(value.length() - 1);
+
+        switch (unit) {
+            case 'k':
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * KILOBYTE;
+            case 'm':
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * KILOBYTE * KILOBYTE;
+            case 'g':
+                return Long.parseLong(value.substring(0, value.length() - 1).trim()) * KILOBYTE * KILOBYTE * KILOBYTE;
+            default:
+                return Long.parseLong(value);
+        }
+    }
+
+    /**
+     * Gets the copy policy of the local cache specified by the given cache name configured in file "local.properties".
+     * 
+     * @param cacheName the given cache name
+     * @return copy policy, returns {@link CopyPolicy#SERIALIZE} if not configured
+     */
+    private static CopyPolicy getLocalCopyPolicy(final String cacheName) {
+        String copyPolicy = Latkes.getLocalProperty("cache.local." + cacheName + ".copyPolicy");
+        if (Strings.isEmptyOrNull(copyPolicy)) {
+            copyPolicy = Latkes.getLocalProperty(LOCAL_CACHE_COPY_POLICY);
+        }
+
+        if (Strings.isEmptyOrNull(copyPolicy)) {
+            return CopyPolicy.SERIALIZE;
+        }
+
+        try {
+            return CopyPolicy.valueOf(copyPolicy.trim().toUpperCase());
+        } catch (final IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Unknown local cache copy policy[{0}], uses SERIALIZE instead", copyPolicy);
+
+            return CopyPolicy.SERIALIZE;
+        }
+    }
+
     /**
      * Private default constructor.
      */
@@ -16,8 +16,10 @@
 package org.b3log.latke.cache;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -55,9 +57,14 @@ import org.json.JSONObject;
  *  com/google/appengine/api/memcache/MemcacheService.html">MemcacheService</a>
  *   does not respect namespaces - this flushes the cache for every namespace.
  * </p>
+ * 
+ * <p>
+ * A cached page records the versions of the {@link CacheDependencies dependencies} (repositories and objects) read 
+ * while rendering it, it will be treated as a miss (and removed) once any of them has been invalidated by a commit.
+ * </p>
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.2.2, Aug 9, 2012
+ * @version 1.0.3.0, Oct 16, 2026
  * @since 0.3.1
  */
 @SuppressWarnings("unchecked")
@@ -126,6 +133,10 @@ public final class PageCaches {
      * Key of cached link.
      */
     public static final String CACHED_LINK = "cachedLink";
+    /**
+     * Key of cached dependency versions.
+     */
+    public static final String CACHED_DEPENDENCIES = "cachedDependencies";
 
     /**
      * Initializes the cache.
@@ -216,7 +227,13 @@ public final class PageCaches {
      * @see #get(java.lang.String, javax.servlet.http.HttpServletRequest) 
      */
     public static JSONObject get(final String pageCacheKey) {
-        return (JSONObject) CACHE.get(pageCacheKey);
+        final JSONObject ret = (JSONObject) CACHE.get(pageCacheKey);
+
+        if (null == ret || isCurrent(pageCacheKey, ret)) {
+            return ret;
+        }
+
+        return null;
     }
 
     /**
@@ -260,7 +277,7 @@ public final class PageCaches {
     public static JSONObject get(final String pageCacheKey, final HttpServletRequest request, final HttpServletResponse response) {
         final JSONObject ret = (JSONObject) CACHE.get(pageCacheKey);
 
-        if (null == ret) {
+        if (null == ret || !isCurrent(pageCacheKey, ret)) {
             return null;
         }
 
@@ -283,6 +300,11 @@ public final class PageCaches {
      * Puts a page into cache.
      * 
      * <p>
+     * The page depends on the {@link CacheDependencies#getCollected() dependencies collected} by the current thread, or
+     * {@link CacheDependencies#ALL} if nothing collected.
+     * </p>
+     * 
+     * <p>
      * Invoking this method may change statistic, such as to initialize the 
      * cache hit count to 1. But if the specified request made from a search 
      * engine bot, will initialize the cache hit count to 0.
@@ -317,6 +339,15 @@ public final class PageCaches {
             }
             cachedValue.put(CACHED_BYTES_LENGTH, bytes.length);
             cachedValue.put(CACHED_TIME, System.currentTimeMillis());
+
+            final Map<String, Serializable> dependencies = new HashMap<String, Serializable>();
+            final Map<String, Serializable> collected = CacheDependencies.getCollected();
+            if (null == collected || collected.isEmpty()) {
+                dependencies.put(CacheDependencies.ALL, CacheDependencies.version(CacheDependencies.ALL));
+            } else {
+                dependencies.putAll(collected);
+            }
+            cachedValue.put(CACHED_DEPENDENCIES, new JSONObject(dependencies));
         } catch (final Exception e) {
             LOGGER.log(Level.WARNING, "Cache stat. failed[pageKey=" + pageKey + "]", e);
         }
@@ -359,6 +390,36 @@ public final class PageCaches {
         LOGGER.info("Removed all cache....");
     }
 
+    /**
+     * Determines whether the dependencies of the specified cached page are current, removes the page if not.
+     * 
+     * @param pageCacheKey the specified page cache key
+     * @param cachedPage the specified cached page
+     * @return {@code true} if current, returns {@code false} otherwise
+     */
+    private static boolean isCurrent(final String pageCacheKey, final JSONObject cachedPage) {
+        final JSONObject dependencies = cachedPage.optJSONObject(CACHED_DEPENDENCIES);
+
+        if (null != dependencies) {
+            final Map<String, Object> versions = new HashMap<String, Object>();
+            final Iterator<String> keys = dependencies.keys();
+            while (keys.hasNext()) {
+                final String dependency = keys.next();
+                versions.put(dependency, dependencies.opt(dependency));
+            }
+
+            if (CacheDependencies.isCurrent(versions)) {
+                return true;
+            }
+        }
+
+        CACHE.remove(pageCacheKey);
+        KEYS.remove(pageCacheKey);
+        LOGGER.log(Level.FINER, "Removed a stale page[key={0}]", pageCacheKey);
+
+        return false;
+    }
+
     /**
      * Synchronizes the {@linkplain #KEYS keys} collection and cached page
      * objects.
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.RuntimeEnv;
+import org.b3log.latke.repository.Query;
+import org.json.JSONObject;
+
+/**
+ * Query result cache.
+ * 
+ * <p>
+ *   This cache contains query results keyed by the repository name and the {@link Query#getCacheKey() cache key} 
+ *   (the canonical fingerprint) of the query as the following: 
+ *   <pre>
+ *     &lt;repositoryName#queryCacheKey1, JSONObject1{cachedResult, cachedDependencies}&gt;
+ *     &lt;repositoryName#queryCacheKey2, JSONObject2{cachedResult, cachedDependencies}&gt;
+ *     ....
+ *   </pre>
+ * </p>
+ * 
+ * <p>
+ * A cached result records the {@link CacheDependencies#version(java.lang.String) version} of the repository it depends 
+ * on, {@link #snapshot(java.lang.String) taken} before the query executed, it will be treated as a miss (and removed) 
+ * once the repository has been invalidated by a commit.
+ * </p>
+ * 
+ * <p>
+ * If <em>stale-while-revalidate</em> is enabled by the local property {@value #STALE_WHILE_REVALIDATE_PROPERTY}, a 
+ * stale result is kept until overwritten, a repository could {@link #getStale(java.lang.String, Query) get} it to 
+ * serve the concurrent queries while {@link SingleFlight reloading} it.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.1, Oct 17, 2026
+ */
+@SuppressWarnings("unchecked")
+public final class QueryCaches {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(QueryCaches.class.getName());
+    /**
+     * Key of query cache name.
+     */
+    public static final String QUERY_CACHE_NAME = "query";
+    /**
+     * Key of cached result.
+     */
+    public static final String CACHED_RESULT = "cachedResult";
+    /**
+     * Key of cached dependencies, &lt;repositoryName, version&gt;.
+     */
+    public static final String CACHED_DEPENDENCIES = "cachedDependencies";
+    /**
+     * Local property of stale-while-revalidate.
+     */
+    public static final String STALE_WHILE_REVALIDATE_PROPERTY = "cache.query.staleWhileRevalidate";
+    /**
+     * Whether stale-while-revalidate is enabled.
+     */
+    private static final boolean STALE_WHILE_REVALIDATE;
+    /**
+     * Maximum count of cacheable query results.
+     */
+    private static final int MAX_CACHEABLE_QUERY_CNT = 10240;
+    /**
+     * Query cache.
+     */
+    private static final Cache<String, Serializable> CACHE;
+
+    /**
+     * Initializes the cache.
+     */
+    static {
+        CACHE = (Cache<String, Serializable>) CacheFactory.getCopyingCache(QUERY_CACHE_NAME);
+        final RuntimeEnv runtimeEnv = Latkes.getRuntimeEnv();
+        if (runtimeEnv.equals(RuntimeEnv.LOCAL)) {
+            CACHE.setMaxCount(MAX_CACHEABLE_QUERY_CNT);
+            LOGGER.log(Level.INFO, "Initialized query cache[maxCount={0}]", MAX_CACHEABLE_QUERY_CNT);
+        }
+
+        STALE_WHILE_REVALIDATE = Boolean.valueOf(Latkes.getLocalProperty(STALE_WHILE_REVALIDATE_PROPERTY));
+    }
+
+    /**
+     * Determines whether stale-while-revalidate is enabled.
+     * 
+     * @return {@code true} if it is enabled, returns {@code false} otherwise
+     */
+    public static boolean isStaleWhileRevalidate() {
+        return STALE_WHILE_REVALIDATE;
+    }
+
+    /**
+     * Gets the query cache.
+     * 
+     * @return query cache
+     */
+    public static Cache<String, Serializable> getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Gets the key of the results of the specified query in the specified repository.
+     * 
+     * @param repositoryName the specified repository name
+     * @param query the specified query
+     * @return key
+     */
+    public static String getKey(final String repositoryName, final Query query) {
+        return getKey(repositoryName, query.getCacheKey());
+    }
+
+    /**
+     * Gets the key of the results of a query with the specified query cache key in the specified repository.
+     * 
+     * @param repositoryName the specified repository name
+     * @param queryCacheKey the specified query cache key
+     * @return key
+     */
+    private static String getKey(final String repositoryName, final String queryCacheKey) {
+        return repositoryName + '#' + queryCacheKey;
+    }
+
+    /**
+     * Takes a snapshot of the version of the specified repository, invokes it before executing a query and puts the 
+     * results with it, so that the results of a query raced with a commit will not be cached as current.
+     * 
+     * @param repositoryName the specified repository name
+     * @return version snapshot
+     */
+    public static Serializable snapshot(final String repositoryName) {
+        return CacheDependencies.version(repositoryName);
+    }
+
+    /**
+     * Gets the cached results of the specified query in the specified repository.
+     * 
+     * @param repositoryName the specified repository name
+     * @param query the specified query
+     * @return cached results, returns {@code null} if not found or stale
+     */
+    public static JSONObject get(final String repositoryName, final Query query) {
+        final String key = getKey(repositoryName, query);
+        final JSONObject cached = (JSONObject) CACHE.get(key);
+        if (null == cached) {
+            return null;
+        }
+
+        final JSONObject dependencies = cached.optJSONObject(CACHED_DEPENDENCIES);
+        final JSONObject ret = cached.optJSONObject(CACHED_RESULT);
+        if (null != dependencies && null != ret) {
+            final Map<String, Object> versions = new HashMap<String, Object>();
+            versions.put(repositoryName, dependencies.opt(repositoryName));
+
+            if (CacheDependencies.isCurrent(versions)) {
+                return ret;
+            }
+        }
+
+        if (!STALE_WHILE_REVALIDATE) {
+            CACHE.remove(key);
+            LOGGER.log(Level.FINER, "Removed a stale query result[key={0}]", key);
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the cached results of the specified query in the specified repository regardless of whether they are 
+     * current.
+     * 
+     * @param repositoryName the specified repository name
+     * @param query the specified query
+     * @return cached results, returns {@code null} if not found or {@link #isStaleWhileRevalidate() 
+     * stale-while-revalidate} is disabled
+     */
+    public static JSONObject getStale(final String repositoryName, final Query query) {
+        if (!STALE_WHILE_REVALIDATE) {
+            return null;
+        }
+
+        final JSONObject cached = (JSONObject) CACHE.get(getKey(repositoryName, query));
+        if (null == cached) {
+            return null;
+        }
+
+        return cached.optJSONObject(CACHED_RESULT);
+    }
+
+    /**
+     * Puts the specified results of the specified query in the specified repository.
+     * 
+     * @param repositoryName the specified repository name
+     * @param query the specified query
+     * @param result the specified results
+     * @param snapshot the version of the specified repository {@link #snapshot(java.lang.String) snapshot} before the 
+     * specified query executed
+     */
+    public static void put(final String repositoryName, final Query query, final JSONObject result, final Serializable snapshot) {
+        final Map<String, JSONObject> results = new HashMap<String, JSONObject>(2);
+        results.put(query.getCacheKey(), result);
+
+        putAll(repositoryName, results, snapshot);
+    }
+
+    /**
+     * Puts the specified results of the specified queries in the specified repository in a batch.
+     * 
+     * @param repositoryName the specified repository name
+     * @param results the specified results, &lt;{@link Query#getCacheKey() query cache key}, result&gt;
+     * @param snapshot the version of the specified repository {@link #snapshot(java.lang.String) snapshot} before the 
+     * specified queries executed
+     */
+    public static void putAll(final String repositoryName, final Map<String, JSONObject> results, final Serializable snapshot) {
+        final Map<String, Serializable> objects = new HashMap<String, Serializable>(results.size() * 2);
+
+        for (final Map.Entry<String, JSONObject> result : results.entrySet()) {
+            final JSONObject dependencies = new JSONObject();
+            dependencies.put(repositoryName, snapshot);
+
+            final JSONObject cached = new JSONObject();
+            cached.put(CACHED_RESULT, result.getValue());
+            cached.put(CACHED_DEPENDENCIES, dependencies);
+
+            objects.put(getKey(repositoryName, result.getKey()), cached);
+        }
+
+        CACHE.putAll(objects);
+        LOGGER.log(Level.FINER, "Added query results[repositoryName={0}, size={1}] in query cache",
+                   new Object[]{repositoryName, objects.size()});
+    }
+
+    /**
+     * Removes all cached query results.
+     */
+    public static void removeAll() {
+        CACHE.removeAll();
+    }
+
+    /**
+     * Private constructor.
+     */
+    private QueryCaches() {
+    }
+}
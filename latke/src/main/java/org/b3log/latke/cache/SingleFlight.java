@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Single-flight loader, coalesces the concurrent loads of the same key on cache misses.
+ * 
+ * <p>
+ * The first caller missed a key loads it in its own thread, the concurrent callers of the same key wait for the result
+ * of that in-flight load instead of loading it again, so a hot entry evicted or invalidated causes one query instead 
+ * of a thundering herd. The result is not remembered after the load finished, caching it is up to the loader.
+ * </p>
+ * 
+ * <p>
+ * A caller holding a stale value (for example, a cached query result of an old repository version) could pass it in 
+ * <em>stale-while-revalidate</em> mode, then it gets the stale value immediately if another caller is reloading the 
+ * key, otherwise it reloads the key by itself.
+ * </p>
+ * 
+ * <p>
+ * The waiting callers get the value {@link #share(java.lang.Object) shared} from the loading caller, override it to 
+ * copy mutable values.
+ * </p>
+ *
+ * @param <V> the type of values
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public class SingleFlight<V> {
+
+    /**
+     * In-flight loads, &lt;key, load&gt;.
+     */
+    private final ConcurrentMap<String, FutureTask<V>> flights = new ConcurrentHashMap<String, FutureTask<V>>();
+
+    /**
+     * Loads the value of the specified key with the specified loader, or waits for the value being loaded by another 
+     * caller.
+     * 
+     * @param key the specified key
+     * @param loader the specified loader
+     * @return value
+     * @throws Exception the exception thrown by the loader (of the loading caller), or interrupted while waiting
+     */
+    public V load(final String key, final Callable<V> loader) throws Exception {
+        return load(key, loader, null);
+    }
+
+    /**
+     * Loads the value of the specified key with the specified loader, or gets the specified stale value (if not 
+     * {@code null}) or waits for the value being loaded by another caller.
+     * 
+     * @param key the specified key
+     * @param loader the specified loader
+     * @param stale the specified stale value, {@code null} for waiting
+     * @return value
+     * @throws Exception the exception thrown by the loader (of the loading caller), or interrupted while waiting
+     */
+    public V load(final String key, final Callable<V> loader, final V stale) throws Exception {
+        FutureTask<V> flight = flights.get(key);
+
+        if (null == flight) {
+            final FutureTask<V> task = new FutureTask<V>(loader);
+            flight = flights.putIfAbsent(key, task);
+
+            if (null == flight) {
+                try {
+                    task.run();
+                } finally {
+                    flights.remove(key, task);
+                }
+
+                return get(task);
+            }
+        }
+
+        if (null != stale) {
+            return stale;
+        }
+
+        return share(get(flight));
+    }
+
+    /**
+     * Gets the count of the in-flight loads.
+     * 
+     * @return count of the in-flight loads
+     */
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * Shares the specified value loaded by another caller to a waiting caller.
+     * 
+     * <p>
+     * Returns the specified value directly by default.
+     * </p>
+     * 
+     * @param value the specified value
+     * @return shared value
+     */
+    protected V share(final V value) {
+        return value;
+    }
+
+    /**
+     * Gets the result of the specified load.
+     * 
+     * @param <T> the type of values
+     * @param flight the specified load
+     * @return value
+     * @throws Exception the exception thrown by the loader, or interrupted while waiting
+     */
+    private static <T> T get(final FutureTask<T> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw e;
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw e;
+        }
+    }
+}
@@ -16,7 +16,6 @@
 package org.b3log.latke.cache.local.memory;
 
 import java.io.Serializable;
-import org.b3log.latke.cache.Cache;
 
 /**
  * The abstract memory cache. 
@@ -24,10 +23,10 @@ import org.b3log.latke.cache.Cache;
  * @param <K> the type of the key of objects
  * @param <V> the type of objects
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.2.6, Dec 3, 2011
+ * @version 1.0.2.8, Oct 16, 2026
  */
 public abstract class AbstractMemoryCache<K extends Serializable, V extends Serializable>
-        implements Cache<K, V> {
+        implements MemoryCache<K, V> {
 
     /**
      * Maximum objects count of this cache.
@@ -49,6 +48,26 @@ public abstract class AbstractMemoryCache<K extends Serializable, V extends Seri
      * Cached object count of this cache.
      */
     private long cachedCount;
+    /**
+     * Maximum bytes of this cache.
+     */
+    private long maxBytes = Long.MAX_VALUE;
+    /**
+     * Cached bytes of this cache.
+     */
+    private long cachedBytes;
+    /**
+     * Hit bytes of this cache.
+     */
+    private long hitBytes;
+    /**
+     * Expire-after-write (milliseconds) of this cache.
+     */
+    private volatile long expireAfterWrite;
+    /**
+     * Expire-after-access (milliseconds) of this cache.
+     */
+    private volatile long expireAfterAccess;
 
     /**
      * {@inheritDoc}
@@ -169,15 +188,103 @@ public abstract class AbstractMemoryCache<K extends Serializable, V extends Seri
         this.maxCount = maxCount;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void setExpireAfterWrite(final long expireAfterWrite) {
+        this.expireAfterWrite = Math.max(0, expireAfterWrite);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void setExpireAfterAccess(final long expireAfterAccess) {
+        this.expireAfterAccess = Math.max(0, expireAfterAccess);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void setMaxBytes(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
     @Override
-    public long getCachedBytes() {
-        // TODO: getCachedBytes
-        return -1;
+    public final long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Adds the specified bytes to cached bytes.
+     *
+     * @param bytes the specified bytes, may be negative
+     */
+    protected final void cachedBytesAdd(final long bytes) {
+        cachedBytes += bytes;
     }
 
+    /**
+     * Sets the cached bytes with the specified cached bytes.
+     *
+     * @param cachedBytes the specified cached bytes
+     */
+    protected final void setCachedBytes(final long cachedBytes) {
+        this.cachedBytes = cachedBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
     @Override
-    public long getHitBytes() {
-        // TODO: getHitBytes
-        return -1;
+    public final long getHitBytes() {
+        return hitBytes;
+    }
+
+    /**
+     * Adds the specified bytes to hit bytes.
+     *
+     * @param bytes the specified bytes
+     */
+    protected final void hitBytesAdd(final long bytes) {
+        hitBytes += bytes;
+    }
+
+    /**
+     * Sets the hit bytes with the specified hit bytes.
+     *
+     * @param hitBytes the specified hit bytes
+     */
+    protected final void setHitBytes(final long hitBytes) {
+        this.hitBytes = hitBytes;
     }
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Iterator;
+import org.b3log.latke.util.Serializer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Copy policy of local memory caches, decides how an object is held by a cache
+ * and how a cached object is handed back to the caller.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public enum CopyPolicy {
+
+    /**
+     * Holds the Java serialized bytes of an object and deserializes them on
+     * each read, every reader gets its own deep copy.
+     */
+    SERIALIZE {
+
+        @Override
+        public Object store(final Serializable value) throws IOException {
+            return Serializer.serialize(value);
+        }
+
+        @Override
+        public Object load(final Object stored) throws IOException, ClassNotFoundException {
+            return Serializer.deserialize((byte[]) stored);
+        }
+    },
+    /**
+     * Holds a structural copy of {@link JSONObject} and {@link JSONArray}, and
+     * copies it again on each read. Immutable objects ({@link String},
+     * {@link Number}, {@link Boolean}) are held directly, the others fall back to
+     * {@link #SERIALIZE}.
+     */
+    JSON_COPY {
+
+        @Override
+        public Object store(final Serializable value) throws IOException {
+            if (value instanceof JSONObject || value instanceof JSONArray || isImmutable(value)) {
+                return copy(value);
+            }
+
+            return new SerializedValue(Serializer.serialize(value));
+        }
+
+        @Override
+        public Object load(final Object stored) throws IOException, ClassNotFoundException {
+            if (stored instanceof SerializedValue) {
+                return Serializer.deserialize(((SerializedValue) stored).getBytes());
+            }
+
+            return copy(stored);
+        }
+    },
+    /**
+     * Holds the reference of an object and hands the same reference back on
+     * each read, callers <b>MUST NOT</b> modify the objects put into or got
+     * from the cache.
+     */
+    REFERENCE {
+
+        @Override
+        public Object store(final Serializable value) {
+            return value;
+        }
+
+        @Override
+        public Object load(final Object stored) {
+            return stored;
+        }
+    };
+
+    /**
+     * Estimated heap overhead of an object.
+     */
+    private static final long OBJECT_OVERHEAD = 16;
+    /**
+     * Estimated heap overhead of a string.
+     */
+    private static final long STRING_OVERHEAD = 40;
+    /**
+     * Estimated heap overhead of a JSON object or array.
+     */
+    private static final long COLLECTION_OVERHEAD = 64;
+    /**
+     * Estimated heap overhead of a hash map entry.
+     */
+    private static final long ENTRY_OVERHEAD = 32;
+    /**
+     * Estimated size of an object reference.
+     */
+    private static final long REFERENCE_SIZE = 8;
+
+    /**
+     * Converts the specified object to the form held by a cache.
+     *
+     * @param value the specified object
+     * @return the form held by a cache
+     * @throws IOException io exception
+     */
+    public abstract Object store(final Serializable value) throws IOException;
+
+    /**
+     * Converts the specified held form back to an object for the caller.
+     *
+     * @param stored the specified held form, returned by {@link #store(java.io.Serializable)}
+     * @return object
+     * @throws IOException io exception
+     * @throws ClassNotFoundException class not found exception
+     */
+    public abstract Object load(final Object stored) throws IOException, ClassNotFoundException;
+
+    /**
+     * Weighs the specified held form in bytes.
+     *
+     * <p>
+     * Serialized bytes are charged their length, {@link JSONObject}, {@link JSONArray}
+     * and immutable objects are charged an estimated heap size.
+     * </p>
+     *
+     * @param stored the specified held form, returned by {@link #store(java.io.Serializable)}
+     * @return weight in bytes
+     */
+    public long weigh(final Object stored) {
+        return estimateSize(stored);
+    }
+
+    /**
+     * Estimates the heap size of the specified object.
+     *
+     * @param value the specified object
+     * @return estimated size in bytes
+     */
+    @SuppressWarnings("unchecked")
+    private static long estimateSize(final Object value) {
+        if (null == value) {
+            return 0;
+        }
+
+        if (value instanceof byte[]) {
+            return OBJECT_OVERHEAD + ((byte[]) value).length;
+        }
+
+        if (value instanceof SerializedValue) {
+            return OBJECT_OVERHEAD + ((SerializedValue) value).getBytes().length;
+        }
+
+        if (value instanceof String) {
+            return STRING_OVERHEAD + 2L * ((String) value).length();
+        }
+
+        if (value instanceof JSONObject) {
+            final JSONObject jsonObject = (JSONObject) value;
+            long ret = COLLECTION_OVERHEAD;
+
+            final Iterator<String> keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                ret += ENTRY_OVERHEAD + estimateSize(key) + estimateSize(jsonObject.opt(key));
+            }
+
+            return ret;
+        }
+
+        if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            long ret = COLLECTION_OVERHEAD;
+
+            for (int i = 0; i < jsonArray.length(); i++) {
+                ret += REFERENCE_SIZE + estimateSize(jsonArray.opt(i));
+            }
+
+            return ret;
+        }
+
+        return OBJECT_OVERHEAD;
+    }
+
+    /**
+     * Determines whether the specified object is immutable.
+     *
+     * @param value the specified object
+     * @return {@code true} if it is immutable, returns {@code false} otherwise
+     */
+    private static boolean isImmutable(final Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean
+               || value instanceof Character || JSONObject.NULL.equals(value);
+    }
+
+    /**
+     * Makes a structural copy of the specified object.
+     *
+     * <p>
+     * {@link JSONObject} and {@link JSONArray} are copied recursively, any other
+     * object is returned directly.
+     * </p>
+     *
+     * @param value the specified object
+     * @return copy
+     */
+    @SuppressWarnings("unchecked")
+    public static Object copy(final Object value) {
+        if (value instanceof JSONObject) {
+            final JSONObject jsonObject = (JSONObject) value;
+            final JSONObject ret = new JSONObject();
+
+            final Iterator<String> keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                ret.put(key, copy(jsonObject.opt(key)));
+            }
+
+            return ret;
+        }
+
+        if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            final JSONArray ret = new JSONArray();
+
+            for (int i = 0; i < jsonArray.length(); i++) {
+                ret.put(copy(jsonArray.opt(i)));
+            }
+
+            return ret;
+        }
+
+        return value;
+    }
+
+    /**
+     * Java serialized bytes held by {@link #JSON_COPY}.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 16, 2026
+     */
+    private static final class SerializedValue {
+
+        /**
+         * Serialized bytes.
+         */
+        private final byte[] bytes;
+
+        /**
+         * Constructs a serialized value with the specified bytes.
+         *
+         * @param bytes the specified bytes
+         */
+        private SerializedValue(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Gets the serialized bytes.
+         *
+         * @return bytes
+         */
+        private byte[] getBytes() {
+            return bytes;
+        }
+    }
+}
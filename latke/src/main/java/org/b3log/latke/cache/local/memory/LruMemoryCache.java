@@ -18,21 +18,50 @@ package org.b3log.latke.cache.local.memory;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.b3log.latke.cache.local.util.DoubleLinkedMap;
-import org.b3log.latke.util.Serializer;
+import org.b3log.latke.cache.local.util.FrequencySketch;
+import org.b3log.latke.cache.local.util.LruHashMap;
 
 /**
  * This is a Least Recently Used (LRU) pure memory cache. This cache use a 
- * thread-safe {@link DoubleLinkedMap} to hold the objects, and 
+ * hash indexed {@link LruHashMap} to hold the objects, and 
  * the least recently used objects will be moved to the end of the list and to
  * remove by invoking {@link #collect()} method. 
  *
+ * <p>
+ * How objects are held is decided by the {@link #setCopyPolicy(CopyPolicy) copy policy},
+ * defaults to {@link CopyPolicy#SERIALIZE}.
+ * </p>
+ *
+ * <p>
+ * Expired objects are removed while reading, and by {@link #sweep()}.
+ * </p>
+ *
+ * <p>
+ * An optional {@link #setAdmissionEnabled(boolean) admission filter} keeps
+ * the objects accessed only once from displacing the frequently used ones. The
+ * filter counts each read (hit or miss) of a key once, and is sized by the
+ * {@link #setMaxCount(long) maximum count} (or the {@link #setMaxBytes(long) maximum bytes}).
+ * </p>
+ *
+ * <p>
+ * Counters maintained by {@link #inc(java.io.Serializable, long)} are held as
+ * entries as the objects, they are counted in the limits, evicted and expired
+ * as the objects, and are also indexed by a concurrent map, so an existing
+ * counter is incremented without locking. An increment does not refresh the
+ * recency of a counter, a read does.
+ * </p>
+ *
  * @param <K> the type of the key of the object
  * @param <V> the type of the objects
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.2.9, Dec 3, 2011
+ * @version 1.1.0.0, Oct 17, 2026
  */
 public final class LruMemoryCache<K extends Serializable, V extends Serializable>
         extends AbstractMemoryCache<K, V> implements Serializable {
@@ -46,34 +75,123 @@ public final class LruMemoryCache<K extends Serializable, V extends Serializable
      */
     private static final long serialVersionUID = 1L;
     /**
-     * a thread-safe double linked list is used to hold all objects.
+     * A hash indexed linked map is used to hold all objects, guarded by this cache.
+     */
+    private LruHashMap<K, MemoryCacheEntry> map;
+    /**
+     * Copy policy.
      */
-    private DoubleLinkedMap<K, byte[]> map;
+    private volatile CopyPolicy copyPolicy = CopyPolicy.SERIALIZE;
+    /**
+     * Whether there are objects will expire after write in this cache.
+     */
+    private boolean expirable;
+    /**
+     * Frequency sketch of the admission filter, guarded by this cache, {@code null} if disabled.
+     */
+    private FrequencySketch sketch;
+    /**
+     * Counter entries held in the map, key -&gt; counter entry, modifications are guarded by this cache.
+     */
+    private final ConcurrentMap<K, MemoryCacheEntry> counters = new ConcurrentHashMap<K, MemoryCacheEntry>();
 
     /**
      * Constructs a {@code LruMemoryCache} object.
      */
     public LruMemoryCache() {
-        map = new DoubleLinkedMap<K, byte[]>();
+        map = new LruHashMap<K, MemoryCacheEntry>();
+    }
+
+    @Override
+    public CopyPolicy getCopyPolicy() {
+        return copyPolicy;
+    }
+
+    @Override
+    public synchronized void setCopyPolicy(final CopyPolicy copyPolicy) {
+        map.removeAll();
+        counters.clear();
+        setCachedCount(0);
+        setCachedBytes(0);
+        this.copyPolicy = copyPolicy;
+    }
+
+    @Override
+    public synchronized boolean isAdmissionEnabled() {
+        return null != sketch;
+    }
+
+    @Override
+    public synchronized void setAdmissionEnabled(final boolean admissionEnabled) {
+        if (admissionEnabled == (null != sketch)) {
+            return;
+        }
+
+        sketch = admissionEnabled ? new FrequencySketch(FrequencySketch.capacityOf(getMaxCount(), getMaxBytes())) : null;
     }
 
     @Override
     public void put(final K key, final V value) {
+        put(key, value, 0);
+    }
+
+    @Override
+    public void put(final K key, final V value, final long ttl) {
+        if (null == key || null == value) {
+            throw new IllegalArgumentException("The specified key or value can not be null!");
+        }
+
         putCountInc();
 
+        final CopyPolicy policy = copyPolicy;
+        final MemoryCacheEntry entry = newEntry(policy, key, value, ttl);
+        if (null == entry) {
+            return;
+        }
+
         synchronized (this) {
-            if (getCachedCount() >= getMaxCount()) {
-                collect();
+            if (policy == copyPolicy) {
+                putEntry(key, entry);
             }
+        }
+    }
 
-            try {
-                map.addFirst(key, Serializer.serialize((Serializable) value));
-            } catch (final IOException e) {
-                LOGGER.log(Level.SEVERE, "Cache error[key={0}]", key);
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The objects are converted by the copy policy outside the lock, then
+     * put with only one lock acquisition.
+     * </p>
+     */
+    @Override
+    public void putAll(final Map<K, V> objects) {
+        for (final Map.Entry<K, V> object : objects.entrySet()) {
+            if (null == object.getKey() || null == object.getValue()) {
+                throw new IllegalArgumentException("The specified key or value can not be null!");
+            }
+        }
+
+        final CopyPolicy policy = copyPolicy;
+        final Map<K, MemoryCacheEntry> entries = new LinkedHashMap<K, MemoryCacheEntry>(objects.size());
+
+        for (final Map.Entry<K, V> object : objects.entrySet()) {
+            final MemoryCacheEntry entry = newEntry(policy, object.getKey(), object.getValue(), 0);
+            if (null != entry) {
+                entries.put(object.getKey(), entry);
+            }
+        }
+
+        synchronized (this) {
+            setPutCount(getPutCount() + objects.size());
+
+            if (policy != copyPolicy) {
                 return;
             }
 
-            cachedCountInc();
+            for (final Map.Entry<K, MemoryCacheEntry> entry : entries.entrySet()) {
+                putEntry(entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -92,23 +210,176 @@ public final class LruMemoryCache<K extends Serializable, V extends Serializable
 
     @Override
     @SuppressWarnings("unchecked")
-    public synchronized V get(final K key) {
-        final byte[] bytes = map.get(key);
-
-        if (bytes != null) {
-            hitCountInc();
-            map.makeFirst(key);
-
-            try {
-                return (V) Serializer.deserialize(bytes);
-            } catch (final Exception e) {
-                LOGGER.log(Level.SEVERE, "Gets cached object failed[key=" + key + "]", e);
-                return null;
+    public V get(final K key) {
+        final MemoryCacheEntry entry;
+        final CopyPolicy policy;
+
+        synchronized (this) {
+            entry = getEntry(key, System.currentTimeMillis());
+            policy = copyPolicy;
+        }
+
+        return null == entry ? null : load(policy, key, entry);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The objects are looked up with only one lock acquisition, then converted
+     * by the copy policy outside the lock.
+     * </p>
+     */
+    @Override
+    public Map<K, V> getAll(final Collection<K> keys) {
+        final Map<K, V> ret = new HashMap<K, V>(keys.size());
+        final Map<K, MemoryCacheEntry> entries = new HashMap<K, MemoryCacheEntry>(keys.size());
+        final CopyPolicy policy;
+
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+
+            for (final K key : keys) {
+                final MemoryCacheEntry entry = getEntry(key, now);
+                if (null != entry) {
+                    entries.put(key, entry);
+                }
+            }
+
+            policy = copyPolicy;
+        }
+
+        for (final Map.Entry<K, MemoryCacheEntry> entry : entries.entrySet()) {
+            final V value = load(policy, entry.getKey(), entry.getValue());
+            if (null != value) {
+                ret.put(entry.getKey(), value);
             }
         }
 
-        missCountInc();
-        return null;
+        return ret;
+    }
+
+    /**
+     * Creates a cache entry of the specified object.
+     *
+     * @param policy the copy policy to convert the specified object
+     * @param key the key of the specified object
+     * @param value the specified object
+     * @param ttl the specified time-to-live in milliseconds
+     * @return cache entry, returns {@code null} if the conversion failed
+     */
+    private MemoryCacheEntry newEntry(final CopyPolicy policy, final K key, final V value, final long ttl) {
+        try {
+            final Object stored = policy.store(value);
+            final long expireTime = MemoryCacheEntry.expireTime(System.currentTimeMillis(), ttl, getExpireAfterWrite());
+
+            return new MemoryCacheEntry(stored, policy.weigh(stored), expireTime);
+        } catch (final IOException e) {
+            LOGGER.log(Level.SEVERE, "Cache error[key={0}]", key);
+            return null;
+        }
+    }
+
+    /**
+     * Puts the specified entry with the specified key, evicts the least
+     * recently used entries if exceeds the limits. The caller must hold the 
+     * lock of this cache.
+     *
+     * @param key the specified key
+     * @param entry the specified entry
+     */
+    private void putEntry(final K key, final MemoryCacheEntry entry) {
+        if (entry.getWeight() > getMaxBytes()) {
+            LOGGER.log(Level.FINER, "Object is too heavy to cache[key={0}, weight={1}]",
+                       new Object[]{key, entry.getWeight()});
+            remove(key);
+            return;
+        }
+
+        if (!admit(key, entry.getWeight())) {
+            LOGGER.log(Level.FINEST, "Object is rejected by the admission filter[key={0}]", key);
+            return;
+        }
+
+        counters.remove(key);
+
+        final MemoryCacheEntry old = map.addFirst(key, entry);
+        if (null == old) {
+            cachedCountInc();
+        } else {
+            cachedBytesAdd(-old.getWeight());
+        }
+
+        cachedBytesAdd(entry.getWeight());
+        expirable |= entry.isExpirable();
+
+        evict();
+    }
+
+    /**
+     * Evicts the least recently used objects until this cache is under its
+     * limits, invokes it after lowered the limits to release the objects at 
+     * once instead of at the next put.
+     */
+    synchronized void evict() {
+        while (0 < map.size() && (map.size() > getMaxCount() || getCachedBytes() > getMaxBytes())) {
+            collect();
+        }
+    }
+
+    /**
+     * Gets the live entry of the specified key, updates the statistics and
+     * the access order. The caller must hold the lock of this cache.
+     *
+     * @param key the specified key
+     * @param now the current time
+     * @return entry, returns {@code null} if not found or expired
+     */
+    private MemoryCacheEntry getEntry(final K key, final long now) {
+        if (null != sketch) {
+            sketch.increment(key);
+        }
+
+        final MemoryCacheEntry ret = map.getAndMakeFirst(key);
+
+        if (null == ret) {
+            missCountInc();
+            return null;
+        }
+
+        if (ret.isExpired(now, getExpireAfterAccess())) {
+            remove(key);
+            missCountInc();
+            return null;
+        }
+
+        ret.setAccessTime(now);
+        hitCountInc();
+        hitBytesAdd(ret.getWeight());
+
+        return ret;
+    }
+
+    /**
+     * Converts the specified entry back to an object by the specified copy policy.
+     *
+     * @param policy the specified copy policy
+     * @param key the key of the specified entry
+     * @param entry the specified entry
+     * @return object, returns {@code null} if the conversion failed
+     */
+    @SuppressWarnings("unchecked")
+    private V load(final CopyPolicy policy, final K key, final MemoryCacheEntry entry) {
+        if (entry.isCounter()) {
+            return (V) Long.valueOf(entry.getCounter().get());
+        }
+
+        try {
+            return (V) policy.load(entry.getStored());
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, "Gets cached object failed[key=" + key + "]", e);
+            return null;
+        }
     }
 
     /**
@@ -116,9 +387,12 @@ public final class LruMemoryCache<K extends Serializable, V extends Serializable
      */
     @Override
     public synchronized void remove(final K key) {
-        final boolean removed = map.remove(key);
-        if (removed) {
+        final MemoryCacheEntry entry = map.get(key);
+        if (null != entry) {
+            map.remove(key);
+            counters.remove(key, entry);
             cachedCountDec();
+            cachedBytesAdd(-entry.getWeight());
         }
     }
 
@@ -137,40 +411,154 @@ public final class LruMemoryCache<K extends Serializable, V extends Serializable
      */
     @Override
     public synchronized void collect() {
-        map.removeLast();
-        cachedCountDec();
+        final K key = map.lastKey();
+        final MemoryCacheEntry entry = map.removeLast();
+        if (null != entry) {
+            counters.remove(key, entry);
+            cachedCountDec();
+            cachedBytesAdd(-entry.getWeight());
+        }
     }
 
     @Override
     public synchronized void removeAll() {
         map.removeAll();
+        counters.clear();
+        expirable = false;
         setCachedCount(0);
+        setCachedBytes(0);
         setMissCount(0);
         setHitCount(0);
+        setHitBytes(0);
     }
 
     @Override
-    public boolean contains(final K key) {
-        return null != get(key); // XXX: performance issue
+    public synchronized boolean contains(final K key) {
+        final MemoryCacheEntry entry = map.get(key);
+
+        return null != entry && !entry.isExpired(System.currentTimeMillis(), getExpireAfterAccess());
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    public synchronized void sweep() {
+        final long expireAfterAccess = getExpireAfterAccess();
+        if (!expirable && 0 >= expireAfterAccess) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        for (final K key : map.keys()) {
+            if (map.get(key).isExpired(now, expireAfterAccess)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Determines whether the specified key with the specified weight should be
+     * admitted into this cache, the sketch of the admission filter grows if the
+     * limits of this cache have been raised.
+     *
+     * @param key the specified key
+     * @param weight the specified weight
+     * @return {@code true} if admitted, returns {@code false} otherwise
+     */
+    private boolean admit(final K key, final long weight) {
+        if (null == sketch) {
+            return true;
+        }
+
+        final int capacity = FrequencySketch.capacityOf(getMaxCount(), getMaxBytes());
+        if (sketch.getWidth() < capacity) {
+            sketch.ensureCapacity(capacity);
+        }
+
+        if (map.containsKey(key)) {
+            return true;
+        }
+
+        if (map.size() < getMaxCount() && getCachedBytes() + weight <= getMaxBytes()) {
+            return true;
+        }
+
+        final K victim = map.lastKey();
+
+        return null == victim || sketch.frequency(key) > sketch.frequency(victim);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The increment is atomic and lock free once the counter exists. A
+     * {@link Long} object cached with the given key seeds the counter. An
+     * increment raced by a put or a removal of the counter is retried under
+     * the lock of this cache.
+     * </p>
+     */
+    @Override
     public long inc(final K key, final long delta) {
-        V ret = get(key);
+        if (null == key) {
+            throw new IllegalArgumentException("The specified key can not be null!");
+        }
+
+        final MemoryCacheEntry entry = counters.get(key);
+        if (null != entry) {
+            final long now = System.currentTimeMillis();
+
+            if (!entry.isExpired(now, getExpireAfterAccess())) {
+                entry.setAccessTime(now);
+
+                final long ret = entry.getCounter().addAndGet(delta);
+                if (entry == counters.get(key)) {
+                    return ret;
+                }
+            }
+        }
+
+        synchronized (this) {
+            return getCounter(key).getCounter().addAndGet(delta);
+        }
+    }
+
+    /**
+     * Gets the live counter entry of the given key, creates it if absent. The
+     * object cached with the given key will be replaced, and will be the initial
+     * value of the counter if it is a {@link Long}, otherwise the initial value
+     * is {@code 1L}. The caller must hold the lock of this cache.
+     *
+     * @param key the given key
+     * @return the counter entry
+     */
+    private MemoryCacheEntry getCounter(final K key) {
+        final long now = System.currentTimeMillis();
 
-        if (null == ret || !(ret instanceof Long)) {
-            final Long v = delta;
-            ret = (V) v;
-            put(key, ret);
+        MemoryCacheEntry ret = map.get(key);
+        if (null != ret && ret.isCounter() && !ret.isExpired(now, getExpireAfterAccess())) {
+            ret.setAccessTime(now);
+
+            return ret;
         }
 
-        if (ret instanceof Long) {
-            final Long v = (Long) ret + delta;
-            ret = (V) v;
-            put(key, ret);
+        long initial = 1L;
+
+        if (null != ret && !ret.isExpired(now, getExpireAfterAccess())) {
+            final Object value = load(copyPolicy, key, ret);
+            if (value instanceof Long) {
+                initial = (Long) value;
+            }
         }
 
-        return (Long) ret;
+        remove(key);
+        ret = MemoryCacheEntry.counter(initial, MemoryCacheEntry.expireTime(now, 0, getExpireAfterWrite()));
+        counters.put(key, ret);
+        map.addFirst(key, ret);
+        cachedCountInc();
+        cachedBytesAdd(ret.getWeight());
+        expirable |= ret.isExpirable();
+
+        evict();
+
+        return ret;
     }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.io.Serializable;
+import org.b3log.latke.cache.Cache;
+
+/**
+ * Local memory cache, a {@link Cache} held in the heap of the current JVM.
+ *
+ * @param <K> the type of the key of objects
+ * @param <V> the type of objects
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.1, Oct 17, 2026
+ */
+public interface MemoryCache<K extends Serializable, V extends Serializable> extends Cache<K, V> {
+
+    /**
+     * Gets the copy policy of this cache.
+     *
+     * @return copy policy
+     */
+    CopyPolicy getCopyPolicy();
+
+    /**
+     * Sets the copy policy of this cache with the specified copy policy, all
+     * cached objects will be removed.
+     *
+     * @param copyPolicy the specified copy policy
+     */
+    void setCopyPolicy(final CopyPolicy copyPolicy);
+
+    /**
+     * Gets the maximum bytes of this cache.
+     *
+     * @return the maximum bytes of this cache, {@link Long#MAX_VALUE} for unbounded
+     */
+    long getMaxBytes();
+
+    /**
+     * Sets the maximum bytes of this cache.
+     *
+     * <p>
+     * Each cached object is charged its {@link CopyPolicy#weigh(java.lang.Object) weight},
+     * the least recently used objects will be evicted until the cached bytes
+     * are under the specified maximum bytes. An object heavier than the 
+     * maximum bytes will not be cached.
+     * </p>
+     *
+     * @param maxBytes the specified maximum bytes
+     */
+    void setMaxBytes(final long maxBytes);
+
+    /**
+     * Determines whether the frequency based admission filter of this cache is enabled.
+     *
+     * @return {@code true} if enabled, returns {@code false} otherwise
+     */
+    boolean isAdmissionEnabled();
+
+    /**
+     * Enables or disables the frequency based admission filter (TinyLFU) of this cache.
+     *
+     * <p>
+     * The access frequencies of keys are estimated from the reads (each hit or
+     * miss counts once, writes are not counted) by a
+     * {@link org.b3log.latke.cache.local.util.FrequencySketch}. While the cache is
+     * full, a new object is admitted only if its key is accessed more frequently
+     * than the key of the least recently used object which would be evicted for
+     * it, so keys accessed only once (crawling for example) can not displace the
+     * frequently used ones.
+     * </p>
+     *
+     * @param admissionEnabled {@code true} to enable, {@code false} to disable
+     */
+    void setAdmissionEnabled(final boolean admissionEnabled);
+
+    /**
+     * Removes all expired objects of this cache.
+     *
+     * <p>
+     * Expired objects are removed lazily while reading, this method is invoked
+     * periodically by {@link MemoryCacheSweeper} to release the expired objects
+     * never read again.
+     * </p>
+     */
+    void sweep();
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An entry held by local memory caches.
+ *
+ * <p>
+ * A {@link #counter(long, long) counter entry} holds an {@link AtomicLong} maintained by
+ * {@link org.b3log.latke.cache.Cache#inc(java.io.Serializable, long)} instead of the held form of an object.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+final class MemoryCacheEntry implements Serializable {
+
+    /**
+     * Default serial version uid.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Weight (bytes) of a counter.
+     */
+    private static final long COUNTER_WEIGHT = Long.SIZE / Byte.SIZE;
+    /**
+     * Held form of the cached object, see {@link CopyPolicy#store(java.io.Serializable)}.
+     */
+    private final Object stored;
+    /**
+     * Weight (bytes) of the cached object.
+     */
+    private final long weight;
+    /**
+     * Expiration time (milliseconds since the epoch) of the cached object,
+     * {@link Long#MAX_VALUE} for never expire.
+     */
+    private final long expireTime;
+    /**
+     * Last access time (milliseconds since the epoch) of the cached object.
+     */
+    private volatile long accessTime;
+    /**
+     * Whether this entry is a counter.
+     */
+    private final boolean counter;
+
+    /**
+     * Constructs an entry with the specified held form, weight and expiration time.
+     *
+     * @param stored the specified held form
+     * @param weight the specified weight
+     * @param expireTime the specified expiration time, {@link Long#MAX_VALUE} for never expire
+     */
+    MemoryCacheEntry(final Object stored, final long weight, final long expireTime) {
+        this(stored, weight, expireTime, false);
+    }
+
+    /**
+     * Constructs an entry with the specified held form, weight, expiration time and counter flag.
+     *
+     * @param stored the specified held form
+     * @param weight the specified weight
+     * @param expireTime the specified expiration time, {@link Long#MAX_VALUE} for never expire
+     * @param counter the specified counter flag
+     */
+    private MemoryCacheEntry(final Object stored, final long weight, final long expireTime, final boolean counter) {
+        this.stored = stored;
+        this.weight = weight;
+        this.expireTime = expireTime;
+        this.counter = counter;
+        accessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a counter entry with the specified initial value and expiration time.
+     *
+     * @param initial the specified initial value
+     * @param expireTime the specified expiration time, {@link Long#MAX_VALUE} for never expire
+     * @return counter entry
+     */
+    static MemoryCacheEntry counter(final long initial, final long expireTime) {
+        return new MemoryCacheEntry(new AtomicLong(initial), COUNTER_WEIGHT, expireTime, true);
+    }
+
+    /**
+     * Determines whether this entry is a counter.
+     *
+     * @return {@code true} if it is a counter, returns {@code false} otherwise
+     */
+    boolean isCounter() {
+        return counter;
+    }
+
+    /**
+     * Gets the counter of this entry.
+     *
+     * @return counter
+     * @see #isCounter()
+     */
+    AtomicLong getCounter() {
+        return (AtomicLong) stored;
+    }
+
+    /**
+     * Computes the expiration time of an object put at the specified time.
+     *
+     * @param now the specified time
+     * @param ttl the time-to-live of the object, a non-positive value means using
+     * the specified expire-after-write
+     * @param expireAfterWrite the specified expire-after-write, a non-positive 
+     * value means never expire
+     * @return expiration time, {@link Long#MAX_VALUE} for never expire
+     */
+    static long expireTime(final long now, final long ttl, final long expireAfterWrite) {
+        if (0 < ttl) {
+            return now + ttl;
+        }
+
+        if (0 < expireAfterWrite) {
+            return now + expireAfterWrite;
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Determines whether the cached object is expired at the specified time.
+     *
+     * @param now the specified time
+     * @param expireAfterAccess the specified expire-after-access, a non-positive
+     * value means never expire after access
+     * @return {@code true} if it is expired, returns {@code false} otherwise
+     */
+    boolean isExpired(final long now, final long expireAfterAccess) {
+        return now >= expireTime || (0 < expireAfterAccess && now - accessTime >= expireAfterAccess);
+    }
+
+    /**
+     * Determines whether the cached object will expire.
+     *
+     * @return {@code true} if it will expire, returns {@code false} otherwise
+     */
+    boolean isExpirable() {
+        return Long.MAX_VALUE != expireTime;
+    }
+
+    /**
+     * Sets the last access time with the specified time.
+     *
+     * @param accessTime the specified time
+     */
+    void setAccessTime(final long accessTime) {
+        this.accessTime = accessTime;
+    }
+
+    /**
+     * Gets the held form of the cached object.
+     *
+     * @return held form
+     */
+    Object getStored() {
+        return stored;
+    }
+
+    /**
+     * Gets the weight of the cached object.
+     *
+     * @return weight
+     */
+    long getWeight() {
+        return weight;
+    }
+}
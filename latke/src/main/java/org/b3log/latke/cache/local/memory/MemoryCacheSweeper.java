@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background sweeper of local memory caches, removes expired objects of the
+ * {@link #register(MemoryCache) registered} caches periodically.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ */
+public final class MemoryCacheSweeper {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(MemoryCacheSweeper.class.getName());
+    /**
+     * Default sweep interval in milliseconds.
+     */
+    public static final long DEFAULT_INTERVAL = 60000;
+    /**
+     * Registered caches.
+     */
+    private static final List<MemoryCache<?, ?>> CACHES = new CopyOnWriteArrayList<MemoryCache<?, ?>>();
+    /**
+     * Sweep timer.
+     */
+    private static Timer timer;
+
+    /**
+     * Registers the specified cache, and starts the sweeper with the specified
+     * interval if it has not been started.
+     *
+     * @param cache the specified cache
+     * @param interval the specified interval in milliseconds
+     */
+    public static synchronized void register(final MemoryCache<?, ?> cache, final long interval) {
+        CACHES.add(cache);
+
+        if (null != timer) {
+            return;
+        }
+
+        timer = new Timer("MemoryCacheSweeper", true);
+        timer.schedule(new TimerTask() {
+
+            @Override
+            public void run() {
+                sweep();
+            }
+        }, interval, interval);
+
+        LOGGER.log(Level.FINER, "Started memory cache sweeper[interval={0}ms]", interval);
+    }
+
+    /**
+     * Registers the specified cache with the {@link #DEFAULT_INTERVAL default interval}.
+     *
+     * @param cache the specified cache
+     */
+    public static void register(final MemoryCache<?, ?> cache) {
+        register(cache, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Sweeps all registered caches.
+     */
+    public static void sweep() {
+        for (final MemoryCache<?, ?> cache : CACHES) {
+            try {
+                cache.sweep();
+            } catch (final Exception e) {
+                LOGGER.log(Level.SEVERE, "Sweeps memory cache failed", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the sweeper and unregisters all caches.
+     */
+    public static synchronized void shutdown() {
+        if (null != timer) {
+            timer.cancel();
+            timer = null;
+        }
+
+        CACHES.clear();
+    }
+
+    /**
+     * Private default constructor.
+     */
+    private MemoryCacheSweeper() {
+    }
+}
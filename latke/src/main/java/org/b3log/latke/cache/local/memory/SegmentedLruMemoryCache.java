@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lock striped Least Recently Used (LRU) pure memory cache.
+ *
+ * <p>
+ * The key space is partitioned into {@link #getSegmentCount() segments}, each
+ * segment is a {@link LruMemoryCache} guarded by its own lock, so threads
+ * accessing different segments never contend. Eviction, expiration, the
+ * admission filter and the counters all work inside a segment as the ones of
+ * {@link LruMemoryCache}, eviction is an approximate LRU of the whole cache.
+ * </p>
+ *
+ * <p>
+ * The {@link #setMaxCount(long) maximum count} and the {@link #setMaxBytes(long) maximum bytes}
+ * are divided evenly (rounded down) across the segments, so the cache never
+ * holds more than its limits. Each segment holds at least 
+ * {@value #MIN_SEGMENT_MAX_COUNT} objects, the segments in use are halved until
+ * they do, that is, a small cache uses fewer segments (at least one). Changing
+ * the count of the segments in use clears the cache. An object heavier than 
+ * the bytes of a segment (maximum bytes / segment count) is never cached, 
+ * configure fewer segments for a cache holding large objects.
+ * </p>
+ *
+ * <p>
+ * How objects are held is decided by the {@link #setCopyPolicy(CopyPolicy) copy policy},
+ * defaults to {@link CopyPolicy#SERIALIZE}.
+ * </p>
+ *
+ * @param <K> the type of the key of the object
+ * @param <V> the type of the objects
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public final class SegmentedLruMemoryCache<K extends Serializable, V extends Serializable> implements MemoryCache<K, V>, Serializable {
+
+    /**
+     * Default serial version uid.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Default segment count per available processor.
+     */
+    private static final int SEGMENTS_PER_PROCESSOR = 4;
+    /**
+     * Maximum segment count.
+     */
+    private static final int MAX_SEGMENT_COUNT = 65536;
+    /**
+     * Minimum of the maximum objects count of a segment in use.
+     */
+    private static final int MIN_SEGMENT_MAX_COUNT = 16;
+    /**
+     * Hash spreading shift.
+     */
+    private static final int HASH_SPREAD_SHIFT = 16;
+    /**
+     * Segments, the first {@link #segmentMask} + 1 segments are in use.
+     */
+    private final LruMemoryCache<K, V>[] segments;
+    /**
+     * Segment mask, used to index the segments in use by key hash.
+     */
+    private volatile int segmentMask;
+    /**
+     * Maximum objects count of this cache.
+     */
+    private volatile long maxCount = Long.MAX_VALUE;
+    /**
+     * Maximum bytes of this cache.
+     */
+    private volatile long maxBytes = Long.MAX_VALUE;
+    /**
+     * Expire-after-write (milliseconds) of this cache.
+     */
+    private volatile long expireAfterWrite;
+    /**
+     * Expire-after-access (milliseconds) of this cache.
+     */
+    private volatile long expireAfterAccess;
+    /**
+     * Copy policy.
+     */
+    private volatile CopyPolicy copyPolicy = CopyPolicy.SERIALIZE;
+    /**
+     * Whether the admission filter is enabled.
+     */
+    private volatile boolean admissionEnabled;
+
+    /**
+     * Constructs a {@code SegmentedLruMemoryCache} object with the default
+     * segment count (four times of available processors).
+     */
+    public SegmentedLruMemoryCache() {
+        this(Runtime.getRuntime().availableProcessors() * SEGMENTS_PER_PROCESSOR);
+    }
+
+    /**
+     * Constructs a {@code SegmentedLruMemoryCache} object with the specified
+     * segment count.
+     *
+     * <p>
+     * The segment count will be rounded up to a power of two.
+     * </p>
+     *
+     * @param segmentCount the specified segment count
+     */
+    public SegmentedLruMemoryCache(final int segmentCount) {
+        int count = 1;
+        while (count < segmentCount && count < MAX_SEGMENT_COUNT) {
+            count <<= 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        final LruMemoryCache<K, V>[] array = new LruMemoryCache[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = new LruMemoryCache<K, V>();
+        }
+
+        segments = array;
+        segmentMask = count - 1;
+    }
+
+    /**
+     * Gets the count of the segments in use of this cache.
+     *
+     * @return segment count
+     */
+    public int getSegmentCount() {
+        return segmentMask + 1;
+    }
+
+    @Override
+    public CopyPolicy getCopyPolicy() {
+        return copyPolicy;
+    }
+
+    @Override
+    public synchronized void setCopyPolicy(final CopyPolicy copyPolicy) {
+        this.copyPolicy = copyPolicy;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.setCopyPolicy(copyPolicy);
+        }
+    }
+
+    @Override
+    public boolean isAdmissionEnabled() {
+        return admissionEnabled;
+    }
+
+    @Override
+    public synchronized void setAdmissionEnabled(final boolean admissionEnabled) {
+        this.admissionEnabled = admissionEnabled;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.setAdmissionEnabled(admissionEnabled);
+        }
+    }
+
+    @Override
+    public boolean contains(final K key) {
+        return segmentFor(key).contains(key);
+    }
+
+    @Override
+    public void put(final K key, final V value) {
+        put(key, value, 0);
+    }
+
+    @Override
+    public void put(final K key, final V value, final long ttl) {
+        if (null == key || null == value) {
+            throw new IllegalArgumentException("The specified key or value can not be null!");
+        }
+
+        segmentFor(key).put(key, value, ttl);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The objects are put segment by segment, each takes only the lock of its
+     * own segment once.
+     * </p>
+     */
+    @Override
+    public void putAll(final Map<K, V> objects) {
+        final Map<LruMemoryCache<K, V>, Map<K, V>> partitions = new HashMap<LruMemoryCache<K, V>, Map<K, V>>();
+
+        for (final Map.Entry<K, V> object : objects.entrySet()) {
+            if (null == object.getKey() || null == object.getValue()) {
+                throw new IllegalArgumentException("The specified key or value can not be null!");
+            }
+
+            final LruMemoryCache<K, V> segment = segmentFor(object.getKey());
+            Map<K, V> partition = partitions.get(segment);
+            if (null == partition) {
+                partition = new LinkedHashMap<K, V>();
+                partitions.put(segment, partition);
+            }
+
+            partition.put(object.getKey(), object.getValue());
+        }
+
+        for (final Map.Entry<LruMemoryCache<K, V>, Map<K, V>> partition : partitions.entrySet()) {
+            partition.getKey().putAll(partition.getValue());
+        }
+    }
+
+    /**
+     * Just put sync, as the same as {@link #put(java.io.Serializable, java.io.Serializable)}.
+     *
+     * @param key the key of the specified object
+     * @param value the specified object
+     */
+    @Override
+    public void putAsync(final K key, final V value) {
+        put(key, value);
+    }
+
+    @Override
+    public V get(final K key) {
+        if (null == key) {
+            return null;
+        }
+
+        return segmentFor(key).get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The objects are got segment by segment, each takes only the lock of its
+     * own segment once.
+     * </p>
+     */
+    @Override
+    public Map<K, V> getAll(final Collection<K> keys) {
+        final Map<LruMemoryCache<K, V>, List<K>> partitions = new HashMap<LruMemoryCache<K, V>, List<K>>();
+
+        for (final K key : keys) {
+            final LruMemoryCache<K, V> segment = segmentFor(key);
+            List<K> partition = partitions.get(segment);
+            if (null == partition) {
+                partition = new ArrayList<K>();
+                partitions.put(segment, partition);
+            }
+
+            partition.add(key);
+        }
+
+        final Map<K, V> ret = new HashMap<K, V>(keys.size());
+        for (final Map.Entry<LruMemoryCache<K, V>, List<K>> partition : partitions.entrySet()) {
+            ret.putAll(partition.getKey().getAll(partition.getValue()));
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long inc(final K key, final long delta) {
+        if (null == key) {
+            throw new IllegalArgumentException("The specified key can not be null!");
+        }
+
+        return segmentFor(key).inc(key, delta);
+    }
+
+    @Override
+    public void remove(final K key) {
+        segmentFor(key).remove(key);
+    }
+
+    @Override
+    public void remove(final Collection<K> keys) {
+        for (final K key : keys) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.removeAll();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The segments in use are halved until each of them holds at least
+     * {@value #MIN_SEGMENT_MAX_COUNT} objects, and the cache is cleared if the
+     * count of the segments in use changes.
+     * </p>
+     */
+    @Override
+    public synchronized void setMaxCount(final long maxCount) {
+        this.maxCount = maxCount;
+
+        int count = segments.length;
+        while (1 < count && maxCount / count < MIN_SEGMENT_MAX_COUNT) {
+            count >>= 1;
+        }
+
+        if (count - 1 != segmentMask) {
+            segmentMask = count - 1;
+            removeAll();
+        }
+
+        divideLimits();
+    }
+
+    @Override
+    public long getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The specified maximum bytes is divided evenly across the segments in use,
+     * an object heavier than the bytes of a segment will not be cached.
+     * </p>
+     */
+    @Override
+    public synchronized void setMaxBytes(final long maxBytes) {
+        this.maxBytes = maxBytes;
+
+        divideLimits();
+    }
+
+    @Override
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized void setExpireAfterWrite(final long expireAfterWrite) {
+        this.expireAfterWrite = Math.max(0, expireAfterWrite);
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.setExpireAfterWrite(expireAfterWrite);
+        }
+    }
+
+    @Override
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    @Override
+    public synchronized void setExpireAfterAccess(final long expireAfterAccess) {
+        this.expireAfterAccess = Math.max(0, expireAfterAccess);
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.setExpireAfterAccess(expireAfterAccess);
+        }
+    }
+
+    @Override
+    public long getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    @Override
+    public void sweep() {
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.sweep();
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        long ret = 0;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            synchronized (segment) {
+                ret += segment.getHitCount();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long getMissCount() {
+        long ret = 0;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            synchronized (segment) {
+                ret += segment.getMissCount();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long getPutCount() {
+        long ret = 0;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            synchronized (segment) {
+                ret += segment.getPutCount();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long getCachedCount() {
+        long ret = 0;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            synchronized (segment) {
+                ret += segment.getCachedCount();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long getCachedBytes() {
+        long ret = 0;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            synchronized (segment) {
+                ret += segment.getCachedBytes();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public long getHitBytes() {
+        long ret = 0;
+
+        for (final LruMemoryCache<K, V> segment : segments) {
+            synchronized (segment) {
+                ret += segment.getHitBytes();
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc} Removes the least recently used object of each segment.
+     */
+    @Override
+    public void collect() {
+        for (final LruMemoryCache<K, V> segment : segments) {
+            segment.collect();
+        }
+    }
+
+    /**
+     * Divides the limits of this cache evenly (rounded down) across the segments
+     * in use, the segments not in use hold nothing. The caller must hold the 
+     * lock of this cache.
+     */
+    private void divideLimits() {
+        final int count = segmentMask + 1;
+
+        for (int i = 0; i < segments.length; i++) {
+            final LruMemoryCache<K, V> segment = segments[i];
+
+            synchronized (segment) {
+                segment.setMaxCount(i < count ? maxCount / count : 0);
+                segment.setMaxBytes(i < count ? maxBytes / count : 0);
+                segment.evict();
+            }
+        }
+    }
+
+    /**
+     * Gets the segment for the specified key.
+     *
+     * @param key the specified key
+     * @return segment
+     */
+    private LruMemoryCache<K, V> segmentFor(final K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> HASH_SPREAD_SHIFT;
+
+        return segments[hash & segmentMask];
+    }
+}
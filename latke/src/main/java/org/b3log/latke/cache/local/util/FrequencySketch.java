@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A count-min sketch estimating the access frequencies of keys, used as the
+ * admission filter (TinyLFU) of local caches.
+ *
+ * <p>
+ * Each key is counted by {@value #DEPTH} saturating counters (up to
+ * {@value #MAX_COUNT}), the estimated frequency is the minimum of them. After
+ * {@value #SAMPLE_FACTOR} times of the width increments, all counters are
+ * halved, so that the history ages and the recent frequencies weigh more.
+ * </p>
+ *
+ * <p>
+ * This sketch is <b>NOT</b> thread safe, callers should synchronize on their own.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class FrequencySketch implements Serializable {
+
+    /**
+     * Default serial version uid.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Counter rows.
+     */
+    private static final int DEPTH = 4;
+    /**
+     * Maximum count of a counter.
+     */
+    private static final int MAX_COUNT = 15;
+    /**
+     * Reset sample factor.
+     */
+    private static final int SAMPLE_FACTOR = 10;
+    /**
+     * Minimum width.
+     */
+    private static final int MIN_WIDTH = 16;
+    /**
+     * Maximum width.
+     */
+    private static final int MAX_WIDTH = 16777216;
+    /**
+     * Estimated bytes of an object, used to size the sketch of a cache limited only by bytes.
+     */
+    private static final long ESTIMATED_OBJECT_BYTES = 1024;
+    /**
+     * Hash seeds of the rows.
+     */
+    private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+    /**
+     * Hash spreading shift.
+     */
+    private static final int HASH_SPREAD_SHIFT = 16;
+    /**
+     * Counters.
+     */
+    private byte[][] counters;
+    /**
+     * Width mask.
+     */
+    private int mask;
+    /**
+     * Increments since the last reset.
+     */
+    private int size;
+    /**
+     * Increments triggers a reset.
+     */
+    private int sampleSize;
+
+    /**
+     * Constructs a sketch with the specified expected count of distinct keys.
+     *
+     * @param capacity the specified expected count of distinct keys
+     */
+    public FrequencySketch(final int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Gets the expected count of distinct keys of a cache with the specified maximum count and maximum bytes.
+     *
+     * <p>
+     * A cache limited only by bytes is expected to hold objects of {@value #ESTIMATED_OBJECT_BYTES} bytes, an
+     * unlimited cache never rejects objects, so it expects {@code 0} keys.
+     * </p>
+     *
+     * @param maxCount the specified maximum count, {@link Long#MAX_VALUE} for unlimited
+     * @param maxBytes the specified maximum bytes, {@link Long#MAX_VALUE} for unlimited
+     * @return expected count of distinct keys
+     */
+    public static int capacityOf(final long maxCount, final long maxBytes) {
+        long ret = maxCount;
+        if (Long.MAX_VALUE == ret) {
+            ret = Long.MAX_VALUE == maxBytes ? 0 : maxBytes / ESTIMATED_OBJECT_BYTES;
+        }
+
+        return (int) Math.min(ret, MAX_WIDTH);
+    }
+
+    /**
+     * Ensures this sketch could count the specified count of distinct keys, the
+     * history will be dropped if this sketch needs to grow.
+     *
+     * @param capacity the specified count of distinct keys
+     */
+    public void ensureCapacity(final int capacity) {
+        int width = MIN_WIDTH;
+        while (width < capacity && width < MAX_WIDTH) {
+            width <<= 1;
+        }
+
+        if (null != counters && counters[0].length >= width) {
+            return;
+        }
+
+        counters = new byte[DEPTH][width];
+        mask = width - 1;
+        size = 0;
+        sampleSize = SAMPLE_FACTOR * width;
+    }
+
+    /**
+     * Gets the width of this sketch.
+     *
+     * @return width
+     */
+    public int getWidth() {
+        return counters[0].length;
+    }
+
+    /**
+     * Increments the frequency of the specified key.
+     *
+     * @param key the specified key
+     */
+    public void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            final int index = indexOf(hash, i);
+            if (counters[i][index] < MAX_COUNT) {
+                counters[i][index]++;
+                added = true;
+            }
+        }
+
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Gets the estimated frequency of the specified key.
+     *
+     * @param key the specified key
+     * @return estimated frequency, [0, {@value #MAX_COUNT}]
+     */
+    public int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+
+        int ret = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            ret = Math.min(ret, counters[i][indexOf(hash, i)]);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Clears all counters.
+     */
+    public void clear() {
+        for (final byte[] row : counters) {
+            Arrays.fill(row, (byte) 0);
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+        for (final byte[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (byte) (row[i] >>> 1);
+            }
+        }
+
+        size /= 2;
+    }
+
+    /**
+     * Gets the counter index of the specified hash in the specified row.
+     *
+     * @param hash the specified hash
+     * @param row the specified row
+     * @return counter index
+     */
+    private int indexOf(final int hash, final int row) {
+        int ret = hash * SEEDS[row];
+        ret ^= ret >>> HASH_SPREAD_SHIFT;
+
+        return ret & mask;
+    }
+
+    /**
+     * Spreads the specified hash.
+     *
+     * @param hash the specified hash
+     * @return spread hash
+     */
+    private static int spread(final int hash) {
+        int ret = hash;
+        ret ^= ret >>> HASH_SPREAD_SHIFT;
+        ret *= SEEDS[0];
+
+        return ret ^ (ret >>> HASH_SPREAD_SHIFT);
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hash indexed, access ordered linked map.
+ *
+ * <p>
+ * Each entry is held by a node of an intrusive double linked list and the
+ * nodes are indexed by a {@link HashMap}, so {@link #get(java.lang.Object) get},
+ * {@link #addFirst(java.lang.Object, java.lang.Object) addFirst},
+ * {@link #makeFirst(java.lang.Object) makeFirst} and {@link #removeLast() removeLast}
+ * are all O(1) operations. The head of the list is the most recently used
+ * entry, and the tail is the least recently used one.
+ * </p>
+ *
+ * <p>
+ * This map is <b>NOT</b> thread safe, callers should synchronize on their own.
+ * </p>
+ *
+ * @param <K> the type of the key of this map's elements
+ * @param <V> the type of the values of this map
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.1, Oct 16, 2026
+ */
+public final class LruHashMap<K, V> implements Serializable {
+
+    /**
+     * Default serial version uid.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Node index, key -&gt; node.
+     */
+    private final Map<K, Node<K, V>> index;
+    /**
+     * Head node (the most recently used).
+     */
+    private Node<K, V> first;
+    /**
+     * Tail node (the least recently used).
+     */
+    private Node<K, V> last;
+
+    /**
+     * Constructs a {@code LruHashMap} object.
+     */
+    public LruHashMap() {
+        index = new HashMap<K, Node<K, V>>();
+    }
+
+    /**
+     * Constructs a {@code LruHashMap} object with the specified initial capacity.
+     *
+     * @param initialCapacity the specified initial capacity
+     */
+    public LruHashMap(final int initialCapacity) {
+        index = new HashMap<K, Node<K, V>>(initialCapacity);
+    }
+
+    /**
+     * Gets a value in the map by the specified key.
+     *
+     * <p>
+     * The access order will <b>NOT</b> be changed, invokes {@link #makeFirst(java.lang.Object)}
+     * or {@link #getAndMakeFirst(java.lang.Object)} for that.
+     * </p>
+     *
+     * @param key the specified key
+     * @return the value of the specified key, if not found, returns {@code null}
+     */
+    public V get(final K key) {
+        final Node<K, V> node = index.get(key);
+
+        return null == node ? null : node.value;
+    }
+
+    /**
+     * Gets a value in the map by the specified key, and moves the entry to the
+     * start of the map if found.
+     *
+     * @param key the specified key
+     * @return the value of the specified key, if not found, returns {@code null}
+     */
+    public V getAndMakeFirst(final K key) {
+        final Node<K, V> node = index.get(key);
+
+        if (null == node) {
+            return null;
+        }
+
+        moveToFirst(node);
+
+        return node.value;
+    }
+
+    /**
+     * Determines whether this map contains the specified key.
+     *
+     * @param key the specified key
+     * @return {@code true} if it contains, returns {@code false} otherwise
+     */
+    public boolean containsKey(final K key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Adds a new value to the start of the linked map.
+     *
+     * <p>
+     * If the specified key exists, its value will be replaced and the entry
+     * will be moved to the start of the map.
+     * </p>
+     *
+     * <p>
+     * Throws {@link IllegalArgumentException} if the specified key is null
+     * </p>
+     *
+     * @param key the key of the new value
+     * @param value the new value
+     * @return the old value of the specified key, returns {@code null} if the
+     * key is a new one
+     */
+    public V addFirst(final K key, final V value) {
+        if (null == key) {
+            throw new IllegalArgumentException("Key is null!");
+        }
+
+        final Node<K, V> existing = index.get(key);
+        if (null != existing) {
+            final V ret = existing.value;
+            existing.value = value;
+            moveToFirst(existing);
+
+            return ret;
+        }
+
+        final Node<K, V> node = new Node<K, V>(key, value);
+        index.put(key, node);
+        linkFirst(node);
+
+        return null;
+    }
+
+    /**
+     * Moves an existing entry to the start of the linked map.
+     *
+     * @param key the key of the entry to set as the head
+     */
+    public void makeFirst(final K key) {
+        final Node<K, V> node = index.get(key);
+
+        if (null != node) {
+            moveToFirst(node);
+        }
+    }
+
+    /**
+     * Removes a value in the map by the specified key.
+     *
+     * @param key the specified key
+     * @return {@code true} if removed, {@code false} for not found
+     */
+    public boolean remove(final K key) {
+        final Node<K, V> node = index.remove(key);
+
+        if (null == node) {
+            return false;
+        }
+
+        unlink(node);
+
+        return true;
+    }
+
+    /**
+     * Removes the last (the least recently used) value.
+     *
+     * @return last value removed if success, {@code null} otherwise
+     */
+    public V removeLast() {
+        final Node<K, V> node = last;
+
+        if (null == node) {
+            return null;
+        }
+
+        index.remove(node.key);
+        unlink(node);
+
+        return node.value;
+    }
+
+    /**
+     * Gets the key of the last (the least recently used) entry.
+     *
+     * @return last key, returns {@code null} if this map is empty
+     */
+    public K lastKey() {
+        return null == last ? null : last.key;
+    }
+
+    /**
+     * Gets a snapshot of the keys of this map, ordered from the least recently
+     * used to the most recently used.
+     *
+     * @return keys
+     */
+    public List<K> keys() {
+        final List<K> ret = new ArrayList<K>(index.size());
+
+        for (Node<K, V> node = last; null != node; node = node.prev) {
+            ret.add(node.key);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Removes all of the entries of the map.
+     */
+    public void removeAll() {
+        index.clear();
+        first = null;
+        last = null;
+    }
+
+    /**
+     * Returns the current size of the map.
+     *
+     * @return the current size of the map
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Moves the specified node to the start of the linked list.
+     *
+     * @param node the specified node
+     */
+    private void moveToFirst(final Node<K, V> node) {
+        if (node == first) {
+            return;
+        }
+
+        unlink(node);
+        linkFirst(node);
+    }
+
+    /**
+     * Links the specified node at the start of the linked list.
+     *
+     * @param node the specified node
+     */
+    private void linkFirst(final Node<K, V> node) {
+        node.prev = null;
+        node.next = first;
+
+        if (null == first) {
+            last = node;
+        } else {
+            first.prev = node;
+        }
+
+        first = node;
+    }
+
+    /**
+     * Unlinks the specified node from the linked list.
+     *
+     * @param node the specified node
+     */
+    private void unlink(final Node<K, V> node) {
+        final Node<K, V> prev = node.prev;
+        final Node<K, V> next = node.next;
+
+        if (null == prev) {
+            first = next;
+        } else {
+            prev.next = next;
+        }
+
+        if (null == next) {
+            last = prev;
+        } else {
+            next.prev = prev;
+        }
+
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * A node of {@link LruHashMap}.
+     *
+     * @param <K> the type of the key of this node's element
+     * @param <V> the type of the value of this node
+     */
+    private static final class Node<K, V> implements Serializable {
+
+        /**
+         * Default serial version uid.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Key of this node.
+         */
+        private final K key;
+        /**
+         * Payload of this node.
+         */
+        private V value;
+        /**
+         * Previous node.
+         */
+        private Node<K, V> prev;
+        /**
+         * Next node.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Constructs a node with the specified key and value.
+         *
+         * @param key the specified key
+         * @param value the specified value
+         */
+        private Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
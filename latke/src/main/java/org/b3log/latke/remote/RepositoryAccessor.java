@@ -15,6 +15,9 @@
  */
 package org.b3log.latke.remote;
 
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.http.HttpServletRequest;
@@ -25,6 +28,7 @@ import org.b3log.latke.annotation.RequestProcessing;
 import org.b3log.latke.annotation.RequestProcessor;
 import org.b3log.latke.model.Pagination;
 import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.ObjectHandler;
 import org.b3log.latke.repository.Query;
 import org.b3log.latke.repository.Repositories;
 import org.b3log.latke.repository.Repository;
@@ -41,7 +45,7 @@ import org.json.JSONObject;
  * Accesses repository via HTTP protocol.
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.3, Apr 22, 2012
+ * @version 1.0.2.0, Oct 17, 2026
  */
 @RequestProcessor
 public final class RepositoryAccessor {
@@ -50,6 +54,10 @@ public final class RepositoryAccessor {
      * Logger.
      */
     private static final Logger LOGGER = Logger.getLogger(RepositoryAccessor.class.getName());
+    /**
+     * Default fetch size of streaming data.
+     */
+    private static final int DEFAULT_FETCH_SIZE = 500;
 
     /**
      * Gets whether repositories is writable.
@@ -194,6 +202,11 @@ public final class RepositoryAccessor {
      * Gets repository data.
      * 
      * <p>
+     * Each page queries by offset, uses {@link #streamData(org.b3log.latke.servlet.HTTPRequestContext, 
+     * javax.servlet.http.HttpServletRequest, javax.servlet.http.HttpServletResponse) streamData} to get all data.
+     * </p>
+     * 
+     * <p>
      * Query parameters:
      * /latke/remote/repository/data?<em>userName=xxx&password=xxx&repositoryName=xxx&pageNum=xxx&pageSize=xxx</em><br/>
      * All parameters are required.
@@ -265,6 +278,115 @@ public final class RepositoryAccessor {
         }
     }
 
+    /**
+     * Streams all data of a repository.
+     * 
+     * <p>
+     * Query parameters:
+     * /latke/remote/repository/data/stream?<em>userName=xxx&password=xxx&repositoryName=xxx&fetchSize=xxx</em><br/>
+     * Parameter fetchSize is optional (defaults to {@value #DEFAULT_FETCH_SIZE}), the others are required.
+     * </p>
+     * 
+     * <p>
+     * The data is {@link Repository#iterate(int, org.b3log.latke.repository.ObjectHandler) iterated} in one pass and 
+     * written as a chunked JSON array, a chunk is flushed every fetchSize objects:
+     * <pre>
+     * [{}, {}, ....]
+     * </pre>
+     * An error occurred after the first chunk flushed truncates the array, renders response like 
+     * {@link #getData(org.b3log.latke.servlet.HTTPRequestContext, javax.servlet.http.HttpServletRequest, 
+     * javax.servlet.http.HttpServletResponse) getData} for the other errors.
+     * </p>
+     * 
+     * @param context the specified HTTP request context
+     * @param request the specified HTTP servlet request
+     * @param response the specified HTTP servlet response 
+     */
+    @RequestProcessing(value = "/latke/remote/repository/data/stream", method = HTTPRequestMethod.GET)
+    public void streamData(final HTTPRequestContext context, final HttpServletRequest request, final HttpServletResponse response) {
+        final JSONObject jsonObject = new JSONObject();
+        jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_OK);
+
+        final String repositoryName = request.getParameter("repositoryName");
+        final String fetchSizeString = request.getParameter("fetchSize");
+        Repository repository = null;
+        int fetchSize = DEFAULT_FETCH_SIZE;
+
+        if (Strings.isEmptyOrNull(repositoryName)) {
+            jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_BAD_REQUEST);
+            jsonObject.put(Keys.MSG, "Requires parameter[repositoryName]");
+        } else if (!Strings.isEmptyOrNull(fetchSizeString) && !Strings.isNumeric(fetchSizeString)) {
+            jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_BAD_REQUEST);
+            jsonObject.put(Keys.MSG, "Parameter[fetchSize] must be a integer");
+        } else if (authSucc(request, jsonObject)) {
+            repository = Repositories.getRepository(repositoryName);
+            if (null == repository) {
+                jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_BAD_REQUEST);
+                jsonObject.put(Keys.MSG, "Not found repository[name=" + repositoryName + "]");
+            }
+
+            if (!Strings.isEmptyOrNull(fetchSizeString)) {
+                fetchSize = Math.max(1, Integer.parseInt(fetchSizeString));
+            }
+        }
+
+        if (null == repository) {
+            final JSONRenderer renderer = new JSONRenderer();
+            context.setRenderer(renderer);
+            renderer.setJSONObject(jsonObject);
+
+            return;
+        }
+
+        final int chunkSize = fetchSize;
+        try {
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+
+            final PrintWriter writer = response.getWriter();
+            writer.write('[');
+
+            repository.iterate(fetchSize, new ObjectHandler() {
+
+                /**
+                 * Count of written objects.
+                 */
+                private long count;
+
+                @Override
+                public boolean handle(final JSONObject object) throws Exception {
+                    if (0 < count) {
+                        writer.write(',');
+                    }
+
+                    writer.write(object.toString());
+
+                    if (0 == ++count % chunkSize) {
+                        response.flushBuffer();
+                    }
+
+                    return !writer.checkError();
+                }
+            });
+
+            writer.write(']');
+            response.flushBuffer();
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, "Streams data failed", e);
+
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+
+                jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                jsonObject.put(Keys.MSG, "Streams data failed[errorMsg=" + e.getMessage() + "]");
+
+                final JSONRenderer renderer = new JSONRenderer();
+                context.setRenderer(renderer);
+                renderer.setJSONObject(jsonObject);
+            }
+        }
+    }
+
     /**
      * Puts data to repository.
      * 
@@ -320,11 +442,13 @@ public final class RepositoryAccessor {
         try {
             final String dataContent = request.getParameter("data").trim();
             final JSONArray data = new JSONArray(dataContent);
+            final List<JSONObject> records = new ArrayList<JSONObject>(data.length());
             for (int i = 0; i < data.length(); i++) {
-                final JSONObject record = data.getJSONObject(i);
-                repository.add(record);
+                records.add(data.getJSONObject(i));
             }
 
+            repository.add(records);
+
             transaction.commit();
         } catch (final Exception e) {
             if (transaction.isActive()) {
@@ -352,7 +476,7 @@ public final class RepositoryAccessor {
      * @param jsonObject the specified json object
      * @return {@code true} if authenticated, returns {@code false} otherwise
      */
-    private boolean authSucc(final HttpServletRequest request, final JSONObject jsonObject) {
+    static boolean authSucc(final HttpServletRequest request, final JSONObject jsonObject) {
         if (!Latkes.isRemoteEnabled()) {
             jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_NOT_IMPLEMENTED);
             jsonObject.put(Keys.MSG, "Latke remote interfaces are disabled");
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.remote;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.b3log.latke.Keys;
+import org.b3log.latke.annotation.RequestProcessing;
+import org.b3log.latke.annotation.RequestProcessor;
+import org.b3log.latke.repository.jdbc.util.SqlMetrics;
+import org.b3log.latke.servlet.HTTPRequestContext;
+import org.b3log.latke.servlet.HTTPRequestMethod;
+import org.b3log.latke.servlet.renderer.JSONRenderer;
+import org.json.JSONObject;
+
+/**
+ * Accesses {@link SqlMetrics SQL metrics} via HTTP protocol, authenticates like {@link RepositoryAccessor}.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+@RequestProcessor
+public final class SqlMetricsAccessor {
+
+    /**
+     * Gets SQL metrics.
+     * 
+     * <p>
+     * Query parameters:
+     * /latke/remote/repository/sql/metrics?<em>userName=xxx&password=xxx</em><br/>
+     * All parameters are required.
+     * </p>
+     * 
+     * <p>
+     * Renders response like the following: 
+     * <pre>
+     * {
+     *     "sc":200,
+     *     "msg":"Gets SQL metrics",
+     *     "metrics": {
+     *         "enabled": true,
+     *         "slowQueryThreshold": 1000,
+     *         "statements": [....]
+     *     }
+     * }
+     * </pre>
+     * See {@link SqlMetrics#getStatistics()} for details of the metrics.
+     * </p>
+     * 
+     * @param context the specified HTTP request context
+     * @param request the specified HTTP servlet request
+     * @param response the specified HTTP servlet response 
+     */
+    @RequestProcessing(value = "/latke/remote/repository/sql/metrics", method = HTTPRequestMethod.GET)
+    public void getMetrics(final HTTPRequestContext context, final HttpServletRequest request,
+                           final HttpServletResponse response) {
+        final JSONRenderer renderer = new JSONRenderer();
+        context.setRenderer(renderer);
+
+        final JSONObject jsonObject = new JSONObject();
+        renderer.setJSONObject(jsonObject);
+
+        if (!RepositoryAccessor.authSucc(request, jsonObject)) {
+            return;
+        }
+
+        jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_OK);
+        jsonObject.put(Keys.MSG, "Gets SQL metrics");
+        jsonObject.put("metrics", SqlMetrics.getStatistics());
+    }
+
+    /**
+     * Resets SQL metrics.
+     * 
+     * <p>
+     * Query parameters:
+     * /latke/remote/repository/sql/metrics?<em>userName=xxx&password=xxx</em><br/>
+     * All parameters are required.
+     * </p>
+     * 
+     * <p>
+     * Renders response like the following: 
+     * <pre>
+     * {
+     *     "sc":200,
+     *     "msg":"Resets SQL metrics"
+     * }
+     * </pre>
+     * </p>
+     * 
+     * @param context the specified HTTP request context
+     * @param request the specified HTTP servlet request
+     * @param response the specified HTTP servlet response 
+     */
+    @RequestProcessing(value = "/latke/remote/repository/sql/metrics", method = HTTPRequestMethod.DELETE)
+    public void resetMetrics(final HTTPRequestContext context, final HttpServletRequest request,
+                             final HttpServletResponse response) {
+        final JSONRenderer renderer = new JSONRenderer();
+        context.setRenderer(renderer);
+
+        final JSONObject jsonObject = new JSONObject();
+        renderer.setJSONObject(jsonObject);
+
+        if (!RepositoryAccessor.authSucc(request, jsonObject)) {
+            return;
+        }
+
+        SqlMetrics.reset();
+
+        jsonObject.put(Keys.STATUS_CODE, HttpServletResponse.SC_OK);
+        jsonObject.put(Keys.MSG, "Resets SQL metrics");
+    }
+}
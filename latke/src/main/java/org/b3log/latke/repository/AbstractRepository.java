@@ -41,7 +41,7 @@ import org.json.JSONObject;
  * </p>
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.1.0, May 29, 2012
+ * @version 1.0.2.0, Oct 17, 2026
  */
 public abstract class AbstractRepository implements Repository {
 
@@ -106,6 +106,19 @@ public abstract class AbstractRepository implements Repository {
         return repository.add(jsonObject);
     }
 
+    @Override
+    public List<String> add(final List<JSONObject> jsonObjects) throws RepositoryException {
+        if (!isWritable() && !isInternalCall()) {
+            throw new RepositoryException("The repository[name=" + getName() + "] is not writable at present");
+        }
+
+        for (final JSONObject jsonObject : jsonObjects) {
+            Repositories.check(getName(), jsonObject, Keys.OBJECT_ID);
+        }
+
+        return repository.add(jsonObjects);
+    }
+
     @Override
     public void update(final String id, final JSONObject jsonObject) throws RepositoryException {
         if (!isWritable() && !isInternalCall()) {
@@ -175,6 +188,11 @@ public abstract class AbstractRepository implements Repository {
         return repository.count();
     }
 
+    @Override
+    public void iterate(final int fetchSize, final ObjectHandler handler) throws RepositoryException {
+        repository.iterate(fetchSize, handler);
+    }
+
     @Override
     public Transaction beginTransaction() {
         return repository.beginTransaction();
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository;
+
+import java.util.Map;
+import java.util.concurrent.Future;
+import org.json.JSONObject;
+
+/**
+ * Asynchronous companion of a {@link Repository}, runs the reads of the repository in parallel.
+ * 
+ * <p>
+ * The reads run outside transactions, so they always read <em>committed</em> data even if invoked within a 
+ * transaction. The {@link org.b3log.latke.cache.CacheDependencies cache dependencies} read are recorded for the 
+ * invoking thread when getting the results from the returned futures.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ * @see Repository
+ */
+public interface AsyncRepository {
+
+    /**
+     * Gets a json object by the specified id asynchronously.
+     *
+     * @param id the specified id
+     * @return future of a json object, gets {@code null} if not found
+     * @see Repository#get(java.lang.String)
+     */
+    Future<JSONObject> getAsync(final String id);
+
+    /**
+     * Gets json objects by the specified ids asynchronously.
+     * 
+     * @param ids the specified ids
+     * @return future of json objects matched in the specified ids
+     * @see Repository#get(java.lang.Iterable)
+     */
+    Future<Map<String, JSONObject>> getAsync(final Iterable<String> ids);
+
+    /**
+     * Gets json objects by the specified query asynchronously.
+     *
+     * @param query the specified query
+     * @return future of the query result
+     * @see Repository#get(org.b3log.latke.repository.Query)
+     */
+    Future<JSONObject> getAsync(final Query query);
+
+    /**
+     * Gets the count of all json objects asynchronously.
+     * 
+     * @return future of the count
+     * @see Repository#count()
+     */
+    Future<Long> countAsync();
+
+    /**
+     * Gets the repository reading for.
+     * 
+     * @return repository
+     */
+    Repository getRepository();
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository;
+
+import org.json.JSONObject;
+
+/**
+ * Handler of the json objects {@link Repository#iterate(int, org.b3log.latke.repository.ObjectHandler) iterated} 
+ * from a repository.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public interface ObjectHandler {
+
+    /**
+     * Handles the specified json object.
+     * 
+     * @param jsonObject the specified json object
+     * @return {@code true} to continue the iteration, returns {@code false} to stop it
+     * @throws Exception exception
+     */
+    boolean handle(final JSONObject jsonObject) throws Exception;
+}
@@ -15,20 +15,36 @@
  */
 package org.b3log.latke.repository;
 
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
+import org.b3log.latke.Keys;
 import org.b3log.latke.util.Strings;
+import org.json.JSONObject;
 
 /**
  * Query.
  * 
+ * <p>
+ * A query paginates by offset ({@link #setCurrentPageNum(int) the current page number}) by default, or by keyset if it 
+ * {@link #seekAfter(java.lang.Object[]) seeks after} the last row seen: the results are the rows ordered after the 
+ * last row by the {@link #getSeekSorts() seek sorts}, that costs the same at any depth.
+ * </p>
+ * 
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.1.0, Jun 27, 2012
+ * @version 1.0.3.0, Oct 17, 2026
  * @see Projection
  * @see Filter
  * @see SortDirection
@@ -72,6 +88,11 @@ public final class Query {
      * Indices.
      */
     private Set<String[]> indexes = new HashSet<String[]>();
+    /**
+     * Seek values, the values of the {@link #getSeekSorts() seek sorts} of the last row seen, {@code null} for 
+     * offset pagination.
+     */
+    private Object[] seekValues;
     /**
      * Initialization value for hashing.
      */
@@ -80,6 +101,22 @@ public final class Query {
      * Base for hashing.
      */
     private static final int BASE = 83;
+    /**
+     * Maximum length of a fingerprint used as the cache key directly.
+     */
+    private static final int MAX_FINGERPRINT_KEY_LENGTH = 128;
+    /**
+     * Bits of a half byte.
+     */
+    private static final int HALF_BYTE_BITS = 4;
+    /**
+     * Mask of a half byte.
+     */
+    private static final int HALF_BYTE_MASK = 0xF;
+    /**
+     * Hexadecimal radix.
+     */
+    private static final int HEX_RADIX = 16;
 
     /**
      * Adds a projection with the specified property name and value type.
@@ -222,6 +259,81 @@ public final class Query {
         return Collections.unmodifiableMap(sorts);
     }
 
+    /**
+     * Seeks after the last row seen with the specified values, the current page number will be ignored.
+     * 
+     * @param seekValues the specified values of the {@link #getSeekSorts() seek sorts} of the last row seen, the 
+     * values of the sort properties in the order of the sorts added, followed by its id if the id is not a sort 
+     * property
+     * @return the current query object
+     */
+    public Query seekAfter(final Object... seekValues) {
+        this.seekValues = seekValues.clone();
+
+        return this;
+    }
+
+    /**
+     * Seeks after the specified last row seen, the current page number will be ignored.
+     * 
+     * <p>
+     * Invokes this method after all sorts added.
+     * </p>
+     * 
+     * @param lastRow the specified last row seen, MUST have all the {@link #getSeekSorts() seek sort} properties
+     * @return the current query object
+     */
+    public Query seekAfter(final JSONObject lastRow) {
+        final Set<String> keys = getSeekSorts().keySet();
+        final Object[] values = new Object[keys.size()];
+
+        int i = 0;
+        for (final String key : keys) {
+            values[i++] = lastRow.opt(key);
+        }
+
+        return seekAfter(values);
+    }
+
+    /**
+     * Determines whether this query paginates by keyset.
+     * 
+     * @return {@code true} if it seeks after the last row seen, returns {@code false} otherwise
+     */
+    public boolean isSeek() {
+        return null != seekValues;
+    }
+
+    /**
+     * Gets the seek values.
+     * 
+     * @return seek values, returns {@code null} for offset pagination
+     */
+    public Object[] getSeekValues() {
+        return null == seekValues ? null : seekValues.clone();
+    }
+
+    /**
+     * Gets the seek sorts, the sorts followed by the id (in the direction of the last sort, ascending if no sorts)
+     * as the tie-breaker if the id is not a sort property.
+     * 
+     * @return seek sorts
+     */
+    public Map<String, SortDirection> getSeekSorts() {
+        final Map<String, SortDirection> ret = new LinkedHashMap<String, SortDirection>(sorts);
+
+        if (!ret.containsKey(Keys.OBJECT_ID)) {
+            SortDirection direction = SortDirection.ASCENDING;
+            for (final SortDirection sortDirection : sorts.values()) {
+                direction = sortDirection;
+            }
+
+            ret.put(Keys.OBJECT_ID, direction);
+        }
+
+        return Collections.unmodifiableMap(ret);
+    }
+
     /**
      * Sets the cache key with the specified cache key.
      * 
@@ -238,17 +350,226 @@ public final class Query {
      * Gets the cache key.
      * 
      * <p>
-     * If no application specified cache key, uses {@link #hashCode() the hash code} of this query.
+     * If no application specified cache key, uses {@link #getFingerprint() the fingerprint} of this query, or the 
+     * SHA-256 digest of it if it is longer than {@value #MAX_FINGERPRINT_KEY_LENGTH} characters. The key is computed 
+     * on each invocation, so that it follows the later changes of this query.
      * </p>
      * 
      * @return cache key
      */
     public String getCacheKey() {
-        if (Strings.isEmptyOrNull(cacheKey)) {
-            setCacheKey(String.valueOf(hashCode()));
+        if (!Strings.isEmptyOrNull(cacheKey)) {
+            return cacheKey;
         }
 
-        return cacheKey;
+        final String fingerprint = getFingerprint();
+        if (MAX_FINGERPRINT_KEY_LENGTH >= fingerprint.length()) {
+            return fingerprint;
+        }
+
+        return sha256(fingerprint);
+    }
+
+    /**
+     * Gets the fingerprint of this query, a canonical text of its pagination, sorts, filter, projections and seek 
+     * values.
+     * 
+     * <p>
+     * The equal queries have the same fingerprint, the queries returning different results have different 
+     * fingerprints. It is normalized as the following:
+     *   <ul>
+     *     <li>The sub filters of a composite filter and the elements of an {@link FilterOperator#IN IN} set are 
+     *         sorted, the duplicated elements are removed</li>
+     *     <li>The projections are sorted</li>
+     *     <li>The numbers are compared by their values, for example, {@code 1}, {@code 1L} and {@code 1.0} are the 
+     *         same</li>
+     *     <li>The strings are quoted and escaped</li>
+     *   </ul>
+     * The sorts keep their order.
+     * </p>
+     * 
+     * @return fingerprint
+     */
+    public String getFingerprint() {
+        final StringBuilder ret = new StringBuilder("p=").append(currentPageNum).append(";s=").append(pageSize).
+                append(";c=").append(pageCount).append(";o=[");
+
+        boolean first = true;
+        for (final Entry<String, SortDirection> sort : sorts.entrySet()) {
+            if (!first) {
+                ret.append(',');
+            }
+
+            first = false;
+            appendString(ret, sort.getKey());
+            ret.append(':').append(sort.getValue().name());
+        }
+
+        ret.append("];f=");
+        appendFilter(ret, filter);
+
+        final Set<String> projectionFingerprints = new TreeSet<String>();
+        for (final Projection projection : projections) {
+            final StringBuilder projectionFingerprint = new StringBuilder();
+            appendString(projectionFingerprint, projection.getKey());
+            projectionFingerprint.append(':').append(null == projection.getType() ? null : projection.getType().getName());
+            projectionFingerprints.add(projectionFingerprint.toString());
+        }
+        ret.append(";r=").append(projectionFingerprints);
+
+        if (null != seekValues) {
+            ret.append(";k=");
+            appendValue(ret, Arrays.asList(seekValues), false);
+        }
+
+        return ret.toString();
+    }
+
+    /**
+     * Appends the fingerprint of the specified filter to the specified builder.
+     * 
+     * @param builder the specified builder
+     * @param filter the specified filter, may be {@code null}
+     */
+    private static void appendFilter(final StringBuilder builder, final Filter filter) {
+        if (filter instanceof PropertyFilter) {
+            final PropertyFilter propertyFilter = (PropertyFilter) filter;
+            appendString(builder, propertyFilter.getKey());
+            builder.append(' ').append(propertyFilter.getOperator().name()).append(' ');
+            appendValue(builder, propertyFilter.getValue(), FilterOperator.IN == propertyFilter.getOperator());
+        } else if (filter instanceof CompositeFilter) {
+            final CompositeFilter compositeFilter = (CompositeFilter) filter;
+            final Set<String> subFilterFingerprints = new TreeSet<String>();
+            for (final Filter subFilter : compositeFilter.getSubFilters()) {
+                final StringBuilder subFilterFingerprint = new StringBuilder();
+                appendFilter(subFilterFingerprint, subFilter);
+                subFilterFingerprints.add(subFilterFingerprint.toString());
+            }
+
+            builder.append(compositeFilter.getOperator().name()).append('(');
+            appendJoined(builder, subFilterFingerprints);
+            builder.append(')');
+        } else if (null == filter) {
+            builder.append("null");
+        } else {
+            builder.append(filter.getClass().getName()).append(':');
+            appendString(builder, filter.toString());
+        }
+    }
+
+    /**
+     * Appends the fingerprint of the specified value to the specified builder.
+     * 
+     * @param builder the specified builder
+     * @param value the specified value
+     * @param isSet whether the specified value is a set, the elements of a set are sorted and distinct
+     */
+    private static void appendValue(final StringBuilder builder, final Object value, final boolean isSet) {
+        if (null == value) {
+            builder.append("null");
+        } else if (value instanceof String) {
+            builder.append("s:");
+            appendString(builder, (String) value);
+        } else if (value instanceof Number) {
+            builder.append("n:");
+            try {
+                builder.append(new BigDecimal(value.toString()).stripTrailingZeros().toPlainString());
+            } catch (final NumberFormatException e) { // NaN or infinity
+                builder.append(value);
+            }
+        } else if (value instanceof Boolean) {
+            builder.append("b:").append(value);
+        } else if (value instanceof Date) {
+            builder.append("t:").append(((Date) value).getTime());
+        } else if (value instanceof Collection || value.getClass().isArray()) {
+            final Collection<?> elements = value instanceof Collection ? (Collection<?>) value : Arrays.asList(toObjectArray(value));
+            final Collection<String> elementFingerprints = isSet ? new TreeSet<String>() : new ArrayList<String>();
+            for (final Object element : elements) {
+                final StringBuilder elementFingerprint = new StringBuilder();
+                appendValue(elementFingerprint, element, false);
+                elementFingerprints.add(elementFingerprint.toString());
+            }
+
+            builder.append('[');
+            appendJoined(builder, elementFingerprints);
+            builder.append(']');
+        } else {
+            builder.append("o:").append(value.getClass().getName()).append(':');
+            appendString(builder, value.toString());
+        }
+    }
+
+    /**
+     * Converts the specified array (may be an array of primitives) to an object array.
+     * 
+     * @param array the specified array
+     * @return object array
+     */
+    private static Object[] toObjectArray(final Object array) {
+        final Object[] ret = new Object[Array.getLength(array)];
+        for (int i = 0; i < ret.length; i++) {
+            ret[i] = Array.get(array, i);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Appends the specified strings separated by commas to the specified builder.
+     * 
+     * @param builder the specified builder
+     * @param strings the specified strings
+     */
+    private static void appendJoined(final StringBuilder builder, final Collection<String> strings) {
+        boolean first = true;
+        for (final String string : strings) {
+            if (!first) {
+                builder.append(',');
+            }
+
+            first = false;
+            builder.append(string);
+        }
+    }
+
+    /**
+     * Appends the specified string quoted and escaped to the specified builder.
+     * 
+     * @param builder the specified builder
+     * @param string the specified string
+     */
+    private static void appendString(final StringBuilder builder, final String string) {
+        builder.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            if ('"' == c || '\\' == c) {
+                builder.append('\\');
+            }
+
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+
+    /**
+     * Gets the SHA-256 digest of the specified string.
+     * 
+     * @param string the specified string
+     * @return hexadecimal digest
+     */
+    private static String sha256(final String string) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(string.getBytes("UTF-8"));
+            final StringBuilder ret = new StringBuilder("sha256:");
+            for (final byte b : digest) {
+                ret.append(Character.forDigit((b >> HALF_BYTE_BITS) & HALF_BYTE_MASK, HEX_RADIX)).
+                        append(Character.forDigit(b & HALF_BYTE_MASK, HEX_RADIX));
+            }
+
+            return ret.toString();
+        } catch (final Exception e) { // SHA-256 and UTF-8 are supported by every JVM
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
@@ -304,6 +625,10 @@ public final class Query {
             return false;
         }
 
+        if (!Arrays.equals(this.seekValues, other.seekValues)) {
+            return false;
+        }
+
         return true;
     }
 
@@ -315,6 +640,7 @@ public final class Query {
         hash = BASE * hash + (this.sorts != null ? this.sorts.hashCode() : 0);
         hash = BASE * hash + (this.filter != null ? this.filter.hashCode() : 0);
         hash = BASE * hash + (this.projections != null ? this.projections.hashCode() : 0);
+        hash = BASE * hash + Arrays.hashCode(this.seekValues);
 
         return hash;
     }
@@ -352,6 +678,10 @@ public final class Query {
         }
         stringBuilder.append("]");
 
+        if (null != seekValues) {
+            stringBuilder.append(", seekValues=").append(Arrays.toString(seekValues));
+        }
+
         return stringBuilder.toString();
     }
 }
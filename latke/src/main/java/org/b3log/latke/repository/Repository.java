@@ -25,7 +25,7 @@ import org.json.JSONObject;
  * Repository.
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.2.1, Apr 9, 2012
+ * @version 1.0.3.0, Oct 17, 2026
  */
 public interface Repository {
 
@@ -38,6 +38,21 @@ public interface Repository {
      */
     String add(final JSONObject jsonObject) throws RepositoryException;
 
+    /**
+     * Adds the specified json objects in a batch.
+     *
+     * <p>
+     * The specified json objects are added in the current transaction, as the
+     * same as invoking {@link #add(org.json.JSONObject)} for each of them, but
+     * with much less round trips to the underlying database.
+     * </p>
+     *
+     * @param jsonObjects the specified json objects
+     * @return the object ids, in the order of the specified json objects
+     * @throws RepositoryException repository exception
+     */
+    List<String> add(final List<JSONObject> jsonObjects) throws RepositoryException;
+
     /**
      * Updates a certain json object by the specified id and the specified new
      * json object.
@@ -142,6 +157,20 @@ public interface Repository {
      */
     long count() throws RepositoryException;
 
+    /**
+     * Iterates all json objects of this repository in one pass with the specified fetch size.
+     * 
+     * <p>
+     * The json objects are streamed from the datastore (a forward-only cursor of JDBC, a cursor of Sleepycat or
+     * GAE datastore) rather than paged, and bypass the cache. The order of them is decided by datastore implementation.
+     * </p>
+     *
+     * @param fetchSize the specified fetch size, count of json objects fetched from the datastore per round trip
+     * @param handler the specified handler of each json object
+     * @throws RepositoryException repository exception, the exceptions thrown by the specified handler are wrapped in it
+     */
+    void iterate(final int fetchSize, final ObjectHandler handler) throws RepositoryException;
+
     /**
      * Gets the name of this repository.
      *
@@ -19,7 +19,7 @@ package org.b3log.latke.repository;
  * Transaction.
  * 
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.2, Sep 11, 2011
+ * @version 1.0.0.3, Oct 16, 2026
  */
 public interface Transaction {
 
@@ -61,13 +61,18 @@ public interface Transaction {
     boolean isActive();
 
     /**
-     * If the specified flag is {@code true}, clears the global query cache 
-     * regions if committed.
+     * If the specified flag is {@code true}, invalidates the cached query 
+     * results and pages depending on the repositories and objects changed by
+     * this transaction if committed.
      * 
      * <p>
-     * Default is {@code true}, it means clears cache if committed.
+     * Default is {@code true}, it means invalidates cache if committed. The 
+     * cached objects changed by this transaction are invalidated regardless
+     * of the flag.
      * </p>
      * 
+     * @see org.b3log.latke.cache.CacheDependencies
+     * 
      * @param flag the specified flag
      */
     void clearQueryCache(final boolean flag);
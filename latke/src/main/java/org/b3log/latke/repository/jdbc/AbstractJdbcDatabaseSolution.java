@@ -16,14 +16,21 @@
 package org.b3log.latke.repository.jdbc;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.apache.commons.lang.StringUtils;
 import org.b3log.latke.repository.jdbc.mapping.Mapping;
 import org.b3log.latke.repository.jdbc.util.Connections;
 import org.b3log.latke.repository.jdbc.util.FieldDefinition;
+import org.b3log.latke.repository.jdbc.util.IndexDefinition;
 import org.b3log.latke.repository.jdbc.util.JdbcUtil;
 
 /**
@@ -32,10 +39,14 @@ import org.b3log.latke.repository.jdbc.util.JdbcUtil;
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.1, Mar 9, 2012
+ * @version 1.0.3.0, Oct 17, 2026
  */
 public abstract class AbstractJdbcDatabaseSolution implements JdbcDatabase {
 
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(AbstractJdbcDatabaseSolution.class.getName());
     /**
      * the map Mapping type to real database type. 
      */
@@ -76,6 +87,118 @@ public abstract class AbstractJdbcDatabaseSolution implements JdbcDatabase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Reads the existing indexes of the table from the {@link java.sql.DatabaseMetaData#getIndexInfo(java.lang.String, 
+     * java.lang.String, java.lang.String, boolean, boolean) database metadata}, an existing index with the same name 
+     * but different columns is not changed and logged as a warning.
+     * </p>
+     */
+    @Override
+    public List<String> createIndexes(final String tableName, final List<IndexDefinition> indexes) throws SQLException {
+        final List<String> ret = new ArrayList<String>();
+        final Connection connection = Connections.getConnection();
+
+        try {
+            final Map<String, List<String>> existingIndexes = getIndexes(connection, tableName);
+
+            for (final IndexDefinition index : indexes) {
+                final List<String> existingColumns = existingIndexes.get(index.getName().toLowerCase());
+                if (null != existingColumns) {
+                    if (!existingColumns.equals(toLowerCase(index.getColumns()))) {
+                        LOGGER.log(Level.WARNING, "Index[name={0}, columns={1}] of table[{2}] differs from the declared columns{3}",
+                                   new Object[]{index.getName(), existingColumns, tableName, index.getColumns()});
+                    }
+
+                    continue;
+                }
+
+                final StringBuilder createIndexSql = new StringBuilder();
+                createIndexSql(createIndexSql, tableName, index);
+                JdbcUtil.executeSql(createIndexSql.toString(), connection);
+                ret.add(index.getName());
+            }
+
+            return ret;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Gets the existing indexes of the table specified by the given table name.
+     * 
+     * @param connection the specified connection
+     * @param tableName the given table name
+     * @return existing indexes, &lt;lower case index name, lower case column names in order&gt;
+     * @throws SQLException SQLException
+     */
+    private static Map<String, List<String>> getIndexes(final Connection connection, final String tableName) throws SQLException {
+        final Map<String, List<String>> ret = new HashMap<String, List<String>>();
+        final Map<String, Map<Short, String>> columns = new HashMap<String, Map<Short, String>>();
+
+        final ResultSet resultSet = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, tableName, false, true);
+        try {
+            while (resultSet.next()) {
+                final String indexName = resultSet.getString("INDEX_NAME");
+                final String columnName = resultSet.getString("COLUMN_NAME");
+                if (null == indexName || null == columnName) {
+                    continue;
+                }
+
+                Map<Short, String> indexColumns = columns.get(indexName.toLowerCase());
+                if (null == indexColumns) {
+                    indexColumns = new TreeMap<Short, String>();
+                    columns.put(indexName.toLowerCase(), indexColumns);
+                }
+
+                indexColumns.put(resultSet.getShort("ORDINAL_POSITION"), columnName.toLowerCase());
+            }
+        } finally {
+            resultSet.close();
+        }
+
+        for (final Map.Entry<String, Map<Short, String>> entry : columns.entrySet()) {
+            ret.put(entry.getKey(), new ArrayList<String>(entry.getValue().values()));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Converts the specified strings to lower case.
+     * 
+     * @param strings the specified strings
+     * @return lower case strings
+     */
+    private static List<String> toLowerCase(final List<String> strings) {
+        final List<String> ret = new ArrayList<String>(strings.size());
+        for (final String string : strings) {
+            ret.add(string.toLowerCase());
+        }
+
+        return ret;
+    }
+
+    /**
+     * createIndexSql, the DB has a different syntax could override it.
+     * 
+     * @param createIndexSql createIndexSql
+     * @param tableName tableName
+     * @param index the index to create
+     */
+    protected void createIndexSql(final StringBuilder createIndexSql, final String tableName, final IndexDefinition index) {
+        createIndexSql.append("CREATE ");
+        if (index.isUnique()) {
+            createIndexSql.append("UNIQUE ");
+        }
+
+        createIndexSql.append("INDEX ").append(index.getName()).append(" ON ").append(tableName).append("(");
+        createIndexSql.append(StringUtils.join(index.getColumns(), ",")).append(")");
+    }
+
     /**
      * 
      * abstract createTableHead for each DB to impl.
@@ -118,7 +241,10 @@ public abstract class AbstractJdbcDatabaseSolution implements JdbcDatabase {
         try {
             final StringBuilder clearTableSql = new StringBuilder();
             clearTableSql(clearTableSql, tableName, ifdrop);
-            return JdbcUtil.executeSql(clearTableSql.toString(), connection);
+            final boolean ret = JdbcUtil.executeSql(clearTableSql.toString(), connection);
+            JdbcCounts.clear();
+
+            return ret;
 
         } catch (final SQLException e) {
             throw e;
@@ -136,6 +262,31 @@ public abstract class AbstractJdbcDatabaseSolution implements JdbcDatabase {
      */
     public abstract void clearTableSql(final StringBuilder clearTableSql, final String tableName, final boolean ifdrop);
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Returns {@code null} by default, the DB supports table statistics could
+     * override it.
+     * </p>
+     */
+    @Override
+    public String getApproximateCountSql(final String tableName) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Returns the specified fetch size by default.
+     * </p>
+     */
+    @Override
+    public int getStreamingFetchSize(final int fetchSize) {
+        return fetchSize;
+    }
+
     /**
      * 
      * @return jdbcTypeMapping
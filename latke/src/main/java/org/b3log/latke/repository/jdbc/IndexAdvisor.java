@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.repository.CompositeFilter;
+import org.b3log.latke.repository.Filter;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
+import org.b3log.latke.repository.jdbc.util.IndexDefinition;
+import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
+
+/**
+ * Index advisor, records the filter and sort shapes of the queries of {@link JdbcRepository} and suggests the 
+ * indexes missing in the "indexes" of repository.json.
+ * 
+ * <p>
+ * Enabled by {@value #JDBC_INDEX_ADVISOR} in file "local.properties" (defaults to {@code false}), it is intended for
+ * development. The suggested columns of a query are its equality filter columns, then its sort columns, then its 
+ * range filter columns. A query is covered if the first suggested column is the primary key or the first column of a 
+ * declared index. An uncovered shape is logged once.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class IndexAdvisor {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(IndexAdvisor.class.getName());
+    /**
+     * Key of the index advisor switch in file "local.properties".
+     */
+    public static final String JDBC_INDEX_ADVISOR = "jdbc.indexAdvisor";
+    /**
+     * Whether the advisor is enabled.
+     */
+    private static final boolean ENABLED = Boolean.parseBoolean(Latkes.getLocalProperty(JDBC_INDEX_ADVISOR));
+    /**
+     * Suggested indexes, "tableName(column1,column2...)".
+     */
+    private static final Set<String> SUGGESTIONS = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Records the specified query of the table specified by the given table name if enabled.
+     * 
+     * @param tableName the given table name
+     * @param query the specified query
+     */
+    public static void record(final String tableName, final Query query) {
+        if (!ENABLED) {
+            return;
+        }
+
+        final String suggestion = suggest(tableName, query);
+        if (null != suggestion && SUGGESTIONS.add(suggestion)) {
+            LOGGER.log(Level.WARNING, "Suggests index[{0}], the query filters or sorts on unindexed columns", suggestion);
+        }
+    }
+
+    /**
+     * Gets the suggested indexes.
+     * 
+     * @return suggested indexes, "tableName(column1,column2...)"
+     */
+    public static Set<String> getSuggestions() {
+        return Collections.unmodifiableSet(SUGGESTIONS);
+    }
+
+    /**
+     * Suggests an index for the specified query of the table specified by the given table name.
+     * 
+     * @param tableName the given table name
+     * @param query the specified query
+     * @return suggested index, "tableName(column1,column2...)", returns {@code null} if the query is covered
+     */
+    public static String suggest(final String tableName, final Query query) {
+        final List<String> columns = getColumns(query);
+        if (columns.isEmpty() || JdbcRepositories.OID.equals(columns.get(0))) {
+            return null;
+        }
+
+        for (final IndexDefinition index : JdbcRepositories.getIndexes(tableName)) {
+            if (!index.getColumns().isEmpty() && index.getColumns().get(0).equals(columns.get(0))) {
+                return null;
+            }
+        }
+
+        final StringBuilder ret = new StringBuilder(tableName).append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (0 < i) {
+                ret.append(',');
+            }
+
+            ret.append(columns.get(i));
+        }
+
+        return ret.append(')').toString();
+    }
+
+    /**
+     * Gets the columns of an index for the specified query, equality filter columns, then sort columns, then range filter
+     * columns.
+     * 
+     * @param query the specified query
+     * @return columns, returns an empty list if the query neither filters nor sorts
+     */
+    public static List<String> getColumns(final Query query) {
+        final List<String> ret = new ArrayList<String>();
+        final List<String> ranges = new ArrayList<String>();
+        collect(query.getFilter(), ret, ranges);
+
+        for (final String column : query.getSorts().keySet()) {
+            if (!ret.contains(column)) {
+                ret.add(column);
+            }
+        }
+
+        for (final String column : ranges) {
+            if (!ret.contains(column)) {
+                ret.add(column);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Collects the columns of the specified filter.
+     * 
+     * @param filter the specified filter, may be {@code null}
+     * @param equalities the equality filter columns
+     * @param ranges the other filter columns
+     */
+    private static void collect(final Filter filter, final List<String> equalities, final List<String> ranges) {
+        if (filter instanceof PropertyFilter) {
+            final PropertyFilter propertyFilter = (PropertyFilter) filter;
+            final String column = propertyFilter.getKey();
+
+            if (FilterOperator.EQUAL == propertyFilter.getOperator()) {
+                if (!equalities.contains(column)) {
+                    equalities.add(column);
+                }
+            } else if (!ranges.contains(column)) {
+                ranges.add(column);
+            }
+        } else if (filter instanceof CompositeFilter) {
+            for (final Filter subFilter : ((CompositeFilter) filter).getSubFilters()) {
+                collect(subFilter, equalities, ranges);
+            }
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private IndexAdvisor() {
+    }
+}
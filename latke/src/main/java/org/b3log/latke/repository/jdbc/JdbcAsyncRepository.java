@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.cache.CacheDependencies;
+import org.b3log.latke.repository.AsyncRepository;
+import org.b3log.latke.repository.Query;
+import org.b3log.latke.repository.Repository;
+import org.b3log.latke.util.Strings;
+import org.json.JSONObject;
+
+/**
+ * JDBC asynchronous repository, runs the reads of a repository on a bounded executor sized to the maximum count of 
+ * connections ({@value #JDBC_MAX_CONN_CNT}, defaults to {@value #DEFAULT_MAX_CONN_CNT}) of each 
+ * {@link org.b3log.latke.repository.jdbc.util.Connections connection pool}, so that the parallel reads never outnumber
+ * the connections.
+ * 
+ * <p>
+ * The executor queues at most {@value #QUEUE_CAPACITY_PER_THREAD} reads per thread, a read submitted to a full queue 
+ * runs in the submitting thread. A read runs without the {@link JdbcRepository#TX transaction} of the thread running 
+ * it, the transaction an executor thread inherited from the thread created it is cleared for good, and the transaction
+ * of the submitting thread is restored after the read if the read ran in the submitting thread.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class JdbcAsyncRepository implements AsyncRepository {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(JdbcAsyncRepository.class.getName());
+    /**
+     * Local property of the maximum count of connections of a connection pool.
+     */
+    private static final String JDBC_MAX_CONN_CNT = "jdbc.maxConnCnt";
+    /**
+     * Default maximum count of connections of a connection pool.
+     */
+    private static final int DEFAULT_MAX_CONN_CNT = 10;
+    /**
+     * Capacity of the executor queue per thread.
+     */
+    private static final int QUEUE_CAPACITY_PER_THREAD = 16;
+    /**
+     * Keep-alive seconds of the idle executor threads.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    /**
+     * Executor, created on demand.
+     */
+    private static ThreadPoolExecutor executor;
+    /**
+     * Repository reading for.
+     */
+    private final Repository repository;
+
+    /**
+     * Constructs a JDBC asynchronous repository reading for the specified repository.
+     * 
+     * @param repository the specified repository
+     */
+    public JdbcAsyncRepository(final Repository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Future<JSONObject> getAsync(final String id) {
+        return submit(new Callable<JSONObject>() {
+
+            @Override
+            public JSONObject call() throws Exception {
+                return repository.get(id);
+            }
+        });
+    }
+
+    @Override
+    public Future<Map<String, JSONObject>> getAsync(final Iterable<String> ids) {
+        return submit(new Callable<Map<String, JSONObject>>() {
+
+            @Override
+            public Map<String, JSONObject> call() throws Exception {
+                return repository.get(ids);
+            }
+        });
+    }
+
+    @Override
+    public Future<JSONObject> getAsync(final Query query) {
+        return submit(new Callable<JSONObject>() {
+
+            @Override
+            public JSONObject call() throws Exception {
+                return repository.get(query);
+            }
+        });
+    }
+
+    @Override
+    public Future<Long> countAsync() {
+        return submit(new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                return repository.count();
+            }
+        });
+    }
+
+    @Override
+    public Repository getRepository() {
+        return repository;
+    }
+
+    /**
+     * Submits the specified read to the executor.
+     * 
+     * @param <V> the type of the read result
+     * @param read the specified read
+     * @return future of the read result
+     */
+    private static <V> Future<V> submit(final Callable<V> read) {
+        final AsyncRead<V> ret = new AsyncRead<V>(read);
+        ret.future = getExecutor().submit(ret);
+
+        return ret;
+    }
+
+    /**
+     * Gets the executor, creates it if not created yet.
+     * 
+     * @return executor
+     */
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (null == executor) {
+            final String maxConnCnt = Latkes.getLocalProperty(JDBC_MAX_CONN_CNT);
+            final int size = Strings.isEmptyOrNull(maxConnCnt) ? DEFAULT_MAX_CONN_CNT : Integer.parseInt(maxConnCnt.trim());
+            final AtomicInteger threadNum = new AtomicInteger();
+
+            executor = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                              new LinkedBlockingQueue<Runnable>(size * QUEUE_CAPACITY_PER_THREAD),
+                                              new ThreadFactory() {
+
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread ret = new Thread(runnable, "latke-async-repository-" + threadNum.incrementAndGet());
+                    ret.setDaemon(true);
+
+                    return ret;
+                }
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+
+            LOGGER.log(Level.INFO, "Initialized asynchronous repository executor[size={0}]", size);
+        }
+
+        return executor;
+    }
+
+    /**
+     * Shutdowns the executor.
+     */
+    public static synchronized void shutdownExecutor() {
+        if (null != executor) {
+            executor.shutdown();
+            executor = null;
+
+            LOGGER.info("Shutdowns asynchronous repository executor sucessfully");
+        }
+    }
+
+    /**
+     * Asynchronous read, runs a read outside transactions and records the cache dependencies read for the thread 
+     * getting its result.
+     *
+     * @param <V> the type of the read result
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.1.0, Oct 17, 2026
+     */
+    private static final class AsyncRead<V> implements Callable<V>, Future<V> {
+
+        /**
+         * Read.
+         */
+        private final Callable<V> read;
+        /**
+         * Thread submitted this read.
+         */
+        private final Thread caller;
+        /**
+         * Future of the read result in the executor.
+         */
+        private volatile Future<V> future;
+        /**
+         * Cache dependencies read, &lt;dependency, version&gt;, {@code null} if not collected.
+         */
+        private volatile Map<String, Serializable> dependencies;
+
+        /**
+         * Constructs an asynchronous read with the specified read.
+         * 
+         * @param read the specified read
+         */
+        private AsyncRead(final Callable<V> read) {
+            this.read = read;
+            caller = Thread.currentThread();
+        }
+
+        @Override
+        public V call() throws Exception {
+            // Restores the transaction only if the caller runs this read, an executor thread keeps no transaction
+            final JdbcTransaction transaction = Thread.currentThread() == caller ? JdbcRepository.TX.get() : null;
+            JdbcRepository.TX.remove();
+
+            final boolean collecting = CacheDependencies.collect();
+
+            try {
+                return read.call();
+            } finally {
+                if (collecting) {
+                    dependencies = CacheDependencies.getCollected();
+                    CacheDependencies.stopCollecting();
+                }
+
+                if (null != transaction) {
+                    JdbcRepository.TX.set(transaction);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            return future.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            final V ret = future.get();
+            readDependencies();
+
+            return ret;
+        }
+
+        @Override
+        public V get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            final V ret = future.get(timeout, unit);
+            readDependencies();
+
+            return ret;
+        }
+
+        /**
+         * Records the cache dependencies read for the current thread.
+         */
+        private void readDependencies() {
+            if (null != dependencies) {
+                CacheDependencies.readAll(dependencies);
+            }
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.util.Strings;
+
+/**
+ * Maintained row counts of JDBC repositories, saves the count queries for pagination.
+ * 
+ * <p>
+ * A count is maintained for each repository (the count of all rows) and each value of its counted columns (declared 
+ * by {@code "iscounted": true} in file "repository.json", the count of rows equal to the value). A count is loaded by
+ * a count query at the first time, and then is adjusted by the changes (adds, removes and updates) of the committed 
+ * transactions, the changes of a rolled back transaction are discarded. A count is dropped (and will be reloaded) if 
+ * the change on it is unknown, for example, an update does not know the old value of a counted column.
+ * </p>
+ * 
+ * <p>
+ * The count mode is configured by {@value #JDBC_COUNT} in file "local.properties":
+ *   <ul>
+ *     <li>{@value #EXACT}: maintains the counts</li>
+ *     <li>{@value #APPROXIMATE}: maintains the counts of the counted column values, and uses the table statistics of the
+ *     database as the count of all rows</li>
+ *     <li>{@value #NONE} (default): no maintained counts, queries every time</li>
+ *   </ul>
+ * The counts are maintained in memory of this instance and never reconciled with the database, so the maintained 
+ * modes are opt-in, they should be enabled only if the tables are written only by the repositories of this 
+ * instance.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.2.0, Oct 17, 2026
+ */
+public final class JdbcCounts {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(JdbcCounts.class.getName());
+    /**
+     * Key of the count mode in file "local.properties".
+     */
+    public static final String JDBC_COUNT = "jdbc.count";
+    /**
+     * Count mode: maintained exact counts.
+     */
+    public static final String EXACT = "EXACT";
+    /**
+     * Count mode: approximate count of all rows.
+     */
+    public static final String APPROXIMATE = "APPROXIMATE";
+    /**
+     * Count mode: no maintained counts.
+     */
+    public static final String NONE = "NONE";
+    /**
+     * Key of the count of all rows.
+     */
+    public static final String ALL = "";
+    /**
+     * Count mode.
+     */
+    private static final String MODE;
+    /**
+     * Counts of tables, &lt;tableName, counts&gt;.
+     */
+    private static final Map<String, TableCounts> TABLES = new ConcurrentHashMap<String, TableCounts>();
+
+    static {
+        final String mode = Latkes.getLocalProperty(JDBC_COUNT);
+        MODE = Strings.isEmptyOrNull(mode) ? NONE : mode.trim().toUpperCase();
+        LOGGER.log(Level.CONFIG, "JDBC count mode[{0}]", MODE);
+    }
+
+    /**
+     * Determines whether the counts are maintained.
+     * 
+     * @return {@code true} if maintained, returns {@code false} otherwise
+     */
+    public static boolean isEnabled() {
+        return !NONE.equals(MODE);
+    }
+
+    /**
+     * Determines whether the count of all rows is approximate.
+     * 
+     * @return {@code true} if approximate, returns {@code false} otherwise
+     */
+    public static boolean isApproximate() {
+        return APPROXIMATE.equals(MODE);
+    }
+
+    /**
+     * Gets the count key of the specified column and value.
+     * 
+     * <p>
+     * The numbers are normalized by their values, for example, {@code 1}, {@code 1L} and {@code 1.0} are the same, so 
+     * that the value of a filter and the value of a stored object get the same key.
+     * </p>
+     * 
+     * @param column the specified column
+     * @param value the specified value
+     * @return count key
+     */
+    public static String key(final String column, final Object value) {
+        if (value instanceof Number) {
+            try {
+                return column + '=' + new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+            } catch (final NumberFormatException e) { // NaN or infinity
+                return column + '=' + value;
+            }
+        }
+
+        return column + '=' + value;
+    }
+
+    /**
+     * Gets the maintained count of the specified table and key.
+     * 
+     * @param tableName the specified table
+     * @param key the specified key, {@value #ALL} for all rows
+     * @return count, returns {@code null} if not loaded
+     */
+    public static Long get(final String tableName, final String key) {
+        return getTableCounts(tableName).counts.get(key);
+    }
+
+    /**
+     * Gets a snapshot of the specified table, uses it to {@link #load(java.lang.String, java.lang.String, long, long) load}
+     * a count queried after this invocation.
+     * 
+     * @param tableName the specified table
+     * @return snapshot, returns {@code -1} if there are transactions committing changes of the table
+     */
+    public static long snapshot(final String tableName) {
+        final TableCounts tableCounts = getTableCounts(tableName);
+
+        synchronized (tableCounts) {
+            return 0 < tableCounts.committing ? -1 : tableCounts.generation;
+        }
+    }
+
+    /**
+     * Loads the specified queried count of the specified table and key, the count will be dropped if the table has been 
+     * changed since the specified snapshot.
+     * 
+     * @param tableName the specified table
+     * @param key the specified key
+     * @param count the specified count
+     * @param snapshot the specified snapshot got before the count query
+     */
+    public static void load(final String tableName, final String key, final long count, final long snapshot) {
+        if (-1 == snapshot) {
+            return;
+        }
+
+        final TableCounts tableCounts = getTableCounts(tableName);
+
+        synchronized (tableCounts) {
+            if (0 == tableCounts.committing && snapshot == tableCounts.generation) {
+                tableCounts.counts.put(key, count);
+            }
+        }
+    }
+
+    /**
+     * Marks the tables changed by the specified changes are committing, invokes it before committing the transaction.
+     * 
+     * @param changes the specified changes
+     */
+    static void prepare(final Changes changes) {
+        for (final String tableName : changes.getTableNames()) {
+            final TableCounts tableCounts = getTableCounts(tableName);
+
+            synchronized (tableCounts) {
+                tableCounts.committing++;
+            }
+        }
+    }
+
+    /**
+     * Applies the specified prepared changes, invokes it after the transaction committed.
+     * 
+     * @param changes the specified changes
+     */
+    static void apply(final Changes changes) {
+        for (final String tableName : changes.getTableNames()) {
+            final TableCounts tableCounts = getTableCounts(tableName);
+            final Map<String, Long> deltas = changes.deltas.get(tableName);
+            final Set<String> droppedColumns = changes.droppedColumns.get(tableName);
+
+            synchronized (tableCounts) {
+                if (null != deltas) {
+                    for (final Map.Entry<String, Long> delta : deltas.entrySet()) {
+                        final Long count = tableCounts.counts.get(delta.getKey());
+                        if (null != count) {
+                            tableCounts.counts.put(delta.getKey(), count + delta.getValue());
+                        }
+                    }
+                }
+
+                if (null != droppedColumns) {
+                    tableCounts.drop(droppedColumns);
+                }
+
+                tableCounts.generation++;
+                tableCounts.committing--;
+            }
+        }
+
+        changes.clear();
+    }
+
+    /**
+     * Drops all counts of the tables changed by the specified prepared changes, invokes it if the transaction failed to
+     * commit.
+     * 
+     * @param changes the specified changes
+     */
+    static void abort(final Changes changes) {
+        for (final String tableName : changes.getTableNames()) {
+            final TableCounts tableCounts = getTableCounts(tableName);
+
+            synchronized (tableCounts) {
+                tableCounts.counts.clear();
+                tableCounts.generation++;
+                tableCounts.committing--;
+            }
+        }
+
+        changes.clear();
+    }
+
+    /**
+     * Drops all maintained counts.
+     */
+    public static void clear() {
+        for (final TableCounts tableCounts : TABLES.values()) {
+            synchronized (tableCounts) {
+                tableCounts.counts.clear();
+                tableCounts.generation++;
+            }
+        }
+    }
+
+    /**
+     * Gets the counts of the specified table, creates one if absent.
+     * 
+     * @param tableName the specified table
+     * @return counts
+     */
+    private static TableCounts getTableCounts(final String tableName) {
+        TableCounts ret = TABLES.get(tableName);
+
+        if (null == ret) {
+            ret = createTableCounts(tableName);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Creates the counts of the specified table if absent.
+     * 
+     * @param tableName the specified table
+     * @return counts
+     */
+    private static synchronized TableCounts createTableCounts(final String tableName) {
+        TableCounts ret = TABLES.get(tableName);
+
+        if (null == ret) {
+            ret = new TableCounts();
+            TABLES.put(tableName, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private JdbcCounts() {
+    }
+
+    /**
+     * Counts of a table.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 16, 2026
+     */
+    private static final class TableCounts {
+
+        /**
+         * Counts, &lt;key, count&gt;.
+         */
+        private final Map<String, Long> counts = new ConcurrentHashMap<String, Long>();
+        /**
+         * Generation, increments after each committed change.
+         */
+        private long generation;
+        /**
+         * Count of the committing transactions.
+         */
+        private int committing;
+
+        /**
+         * Private constructor.
+         */
+        private TableCounts() {
+        }
+
+        /**
+         * Drops the counts of the specified columns.
+         * 
+         * @param columns the specified columns
+         */
+        private void drop(final Set<String> columns) {
+            for (final String key : counts.keySet()) {
+                final int index = key.indexOf('=');
+                if (0 < index && columns.contains(key.substring(0, index))) {
+                    counts.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count changes of a transaction.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 16, 2026
+     */
+    public static final class Changes {
+
+        /**
+         * Deltas, &lt;tableName, &lt;key, delta&gt;&gt;.
+         */
+        private final Map<String, Map<String, Long>> deltas = new HashMap<String, Map<String, Long>>();
+        /**
+         * Columns whose counts to drop, &lt;tableName, columns&gt;.
+         */
+        private final Map<String, Set<String>> droppedColumns = new HashMap<String, Set<String>>();
+
+        /**
+         * Adds the specified delta to the count of the specified table and key.
+         * 
+         * @param tableName the specified table
+         * @param key the specified key
+         * @param delta the specified delta
+         */
+        public void add(final String tableName, final String key, final long delta) {
+            Map<String, Long> tableDeltas = deltas.get(tableName);
+            if (null == tableDeltas) {
+                tableDeltas = new HashMap<String, Long>();
+                deltas.put(tableName, tableDeltas);
+            }
+
+            final Long old = tableDeltas.get(key);
+            tableDeltas.put(key, null == old ? delta : old + delta);
+        }
+
+        /**
+         * Drops the counts of the specified column of the specified table.
+         * 
+         * @param tableName the specified table
+         * @param column the specified column
+         */
+        public void drop(final String tableName, final String column) {
+            Set<String> columns = droppedColumns.get(tableName);
+            if (null == columns) {
+                columns = new HashSet<String>();
+                droppedColumns.put(tableName, columns);
+            }
+
+            columns.add(column);
+        }
+
+        /**
+         * Determines whether the specified table has been changed.
+         * 
+         * @param tableName the specified table
+         * @return {@code true} if changed, returns {@code false} otherwise
+         */
+        public boolean isChanged(final String tableName) {
+            return deltas.containsKey(tableName) || droppedColumns.containsKey(tableName);
+        }
+
+        /**
+         * Gets the names of the changed tables.
+         * 
+         * @return table names
+         */
+        private Set<String> getTableNames() {
+            final Set<String> ret = new HashSet<String>(deltas.keySet());
+            ret.addAll(droppedColumns.keySet());
+
+            return ret;
+        }
+
+        /**
+         * Clears all changes.
+         */
+        public void clear() {
+            deltas.clear();
+            droppedColumns.clear();
+        }
+    }
+}
@@ -19,12 +19,13 @@ import java.sql.SQLException;
 import java.util.List;
 
 import org.b3log.latke.repository.jdbc.util.FieldDefinition;
+import org.b3log.latke.repository.jdbc.util.IndexDefinition;
 
 /**
  * interface JdbcDatabase.
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
- * @version 1.0.0.0, Dec 20, 2011
+ * @version 1.0.3.0, Oct 17, 2026
  */
 public interface JdbcDatabase {
 
@@ -75,4 +76,32 @@ public interface JdbcDatabase {
      */
     String getRandomlySql(final String tableName, int fetchSize);
 
+    /**
+     * getApproximateCountSql, queries the row count of a table from the table
+     * statistics, binds the table name as the only parameter.
+     * 
+     * @param tableName tableName
+     * @return sql, returns {@code null} if the database does not support it
+     */
+    String getApproximateCountSql(final String tableName);
+
+    /**
+     * getStreamingFetchSize, gets the fetch size making the driver stream the
+     * rows of a forward-only result set.
+     * 
+     * @param fetchSize the specified fetch size
+     * @return fetch size for the driver
+     */
+    int getStreamingFetchSize(final int fetchSize);
+
+    /**
+     * createIndexes, creates the specified indexes missing in a table.
+     * 
+     * @param tableName tableName
+     * @param indexes the specified indexes
+     * @return the names of the created indexes
+     * @throws SQLException SQLException
+     */
+    List<String> createIndexes(final String tableName, final List<IndexDefinition> indexes) throws SQLException;
+
 }
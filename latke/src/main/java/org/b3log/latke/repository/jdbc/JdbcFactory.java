@@ -25,13 +25,14 @@ import java.util.logging.Logger;
 import org.b3log.latke.Latkes;
 import org.b3log.latke.RuntimeDatabase;
 import org.b3log.latke.repository.jdbc.util.FieldDefinition;
+import org.b3log.latke.repository.jdbc.util.IndexDefinition;
 
 /**
  * 
  * JdbcFactory.
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
- * @version 1.0.0.0, Dec 20, 2011
+ * @version 1.0.3.0, Oct 17, 2026
  */
 public final class JdbcFactory implements JdbcDatabase {
 
@@ -118,4 +119,22 @@ public final class JdbcFactory implements JdbcDatabase {
         return databaseSolution.getRandomlySql(tableName, fetchSize);
     }
 
+    @Override
+    public String getApproximateCountSql(final String tableName) {
+
+        return databaseSolution.getApproximateCountSql(tableName);
+    }
+
+    @Override
+    public int getStreamingFetchSize(final int fetchSize) {
+
+        return databaseSolution.getStreamingFetchSize(fetchSize);
+    }
+
+    @Override
+    public List<String> createIndexes(final String tableName, final List<IndexDefinition> indexes) throws SQLException {
+
+        return databaseSolution.createIndexes(tableName, indexes);
+    }
+
 }
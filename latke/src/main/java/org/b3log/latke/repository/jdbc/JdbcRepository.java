@@ -19,22 +19,33 @@ import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.lang.StringUtils;
 import org.b3log.latke.Keys;
+import org.b3log.latke.Latkes;
 import org.b3log.latke.cache.Cache;
+import org.b3log.latke.cache.CacheDependencies;
+import org.b3log.latke.cache.QueryCaches;
+import org.b3log.latke.cache.SingleFlight;
+import org.b3log.latke.cache.local.memory.CopyPolicy;
 import org.b3log.latke.cache.CacheFactory;
 import org.b3log.latke.model.Pagination;
 import org.b3log.latke.repository.Filter;
 import org.b3log.latke.repository.FilterOperator;
 import org.b3log.latke.repository.CompositeFilter;
+import org.b3log.latke.repository.ObjectHandler;
 import org.b3log.latke.repository.PropertyFilter;
 import org.b3log.latke.repository.Projection;
 import org.b3log.latke.repository.Query;
@@ -44,6 +55,7 @@ import org.b3log.latke.repository.SortDirection;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.repository.jdbc.util.Connections;
 import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
+import org.b3log.latke.repository.jdbc.util.JdbcSqlTemplates;
 import org.b3log.latke.repository.jdbc.util.JdbcUtil;
 import org.b3log.latke.util.Ids;
 import org.b3log.latke.util.Strings;
@@ -56,7 +68,7 @@ import org.json.JSONObject;
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.7, Jul 17, 2012
+ * @version 1.1.6.0, Oct 17, 2026
  */
 @SuppressWarnings("unchecked")
 public final class JdbcRepository implements Repository {
@@ -69,6 +81,10 @@ public final class JdbcRepository implements Repository {
      * Repository name.
      */
     private String name;
+    /**
+     * Compiled SQL templates of this repository, lazy compiled.
+     */
+    private volatile JdbcSqlTemplates sqlTemplates;
     /**
      * Is cache enabled?
      */
@@ -85,6 +101,34 @@ public final class JdbcRepository implements Repository {
      * Repository cache count.
      */
     private static final String REPOSITORY_CACHE_COUNT = "#count";
+    /**
+     * Time-to-live (milliseconds) of the cached count.
+     */
+    private static final long REPOSITORY_CACHE_COUNT_TTL = 60000;
+    /**
+     * Repository cache id bounds.
+     */
+    private static final String REPOSITORY_CACHE_ID_BOUNDS = "#idBounds";
+    /**
+     * Maximum attempts per object of {@link #getRandomly(int)}.
+     */
+    private static final int RANDOM_ATTEMPTS = 4;
+    /**
+     * Key of the maximum count of rows in a JDBC batch in file "local.properties".
+     */
+    public static final String JDBC_BATCH_SIZE = "jdbc.batchSize";
+    /**
+     * Default maximum count of rows in a JDBC batch.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    /**
+     * Maximum count of rows in a JDBC batch.
+     */
+    private static final int BATCH_SIZE;
+    /**
+     * Maximum count of ids in an {@code in} clause of a multi-get query.
+     */
+    private static final int MULTI_GET_CHUNK_SIZE = 500;
     /**
      * Repository cache.
      * <p>
@@ -100,9 +144,35 @@ public final class JdbcRepository implements Repository {
      * The current transaction.
      */
     public static final ThreadLocal<JdbcTransaction> TX = new InheritableThreadLocal<JdbcTransaction>();
+    /**
+     * Single-flight loads of objects by ids.
+     */
+    private static final SingleFlight<JSONObject> OBJECT_LOADS = new JSONSingleFlight();
+    /**
+     * Single-flight loads of query results.
+     */
+    private static final SingleFlight<JSONObject> QUERY_LOADS = new JSONSingleFlight();
+    /**
+     * Source of the connections reading outside transactions.
+     */
+    private static volatile ReadConnections readConnections = new ReadConnections() {
+
+        @Override
+        public Connection get(final String tableName) throws SQLException {
+            return Connections.getReadConnection(tableName);
+        }
+
+        @Override
+        public boolean isReplica(final Connection connection) {
+            return Connections.isReplica(connection);
+        }
+    };
 
     static {
-        CACHE = (Cache<String, Serializable>) CacheFactory.getCache(REPOSITORY_CACHE_NAME);
+        CACHE = (Cache<String, Serializable>) CacheFactory.getCopyingCache(REPOSITORY_CACHE_NAME);
+
+        final String batchSize = Latkes.getLocalProperty(JDBC_BATCH_SIZE);
+        BATCH_SIZE = Strings.isEmptyOrNull(batchSize) ? DEFAULT_BATCH_SIZE : Integer.parseInt(batchSize.trim());
     }
 
     @Override
@@ -113,13 +183,24 @@ public final class JdbcRepository implements Repository {
         }
 
         final Connection connection = getConnection();
-        final List<Object> paramList = new ArrayList<Object>();
-        final StringBuilder sql = new StringBuilder();
         String id = null;
 
         try {
-            id = buildAddSql(jsonObject, paramList, sql);
-            JdbcUtil.executeSql(sql.toString(), paramList, connection);
+            id = genId(jsonObject);
+
+            final JdbcSqlTemplates templates = getSqlTemplates();
+            final List<Object> templateParams = templates.getInsertParams(jsonObject);
+            if (null != templateParams) {
+                JdbcUtil.executeSql(templates.getInsertSql(), templateParams, connection);
+            } else {
+                final List<Object> paramList = new ArrayList<Object>();
+                final StringBuilder sql = new StringBuilder();
+                setProperties(jsonObject, paramList, sql);
+                JdbcUtil.executeSql(sql.toString(), paramList, connection);
+            }
+
+            changeCounts(currentTransaction, jsonObject, 1);
+            currentTransaction.changed(getName(), id);
         } catch (final SQLException se) {
             LOGGER.log(Level.SEVERE, "add:"
                                      + se.getMessage(), se);
@@ -134,25 +215,135 @@ public final class JdbcRepository implements Repository {
     }
 
     /**
-     * buildAddSql.
-     * @param jsonObject jsonObject
-     * @param paramlist paramlist 
-     * @param sql sql
-     * @return id
-     * @throws Exception  exception
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The consecutive json objects with the same properties are inserted by
+     * one prepared statement with JDBC batches, the maximum count of rows in 
+     * a batch is configured by {@value #JDBC_BATCH_SIZE} in file 
+     * "local.properties" (defaults to {@value #DEFAULT_BATCH_SIZE}). The json 
+     * objects matching the declared columns are inserted by the compiled insert
+     * template. Appends 
+     * {@code rewriteBatchedStatements=true} to the JDBC URL of MySQL to send a 
+     * batch as a multi-row insert.
+     * </p>
      */
-    private String buildAddSql(final JSONObject jsonObject, final List<Object> paramlist, final StringBuilder sql)
-            throws Exception {
-        String ret;
+    @Override
+    public List<String> add(final List<JSONObject> jsonObjects) throws RepositoryException {
+        final JdbcTransaction currentTransaction = TX.get();
+        if (null == currentTransaction) {
+            throw new RepositoryException("Invoking add() outside a transaction");
+        }
 
-        if (!jsonObject.has(Keys.OBJECT_ID)) {
-            ret = Ids.genTimeMillisId();
-            jsonObject.put(Keys.OBJECT_ID, ret);
-        } else {
-            ret = jsonObject.getString(Keys.OBJECT_ID);
+        final List<String> ret = new ArrayList<String>(jsonObjects.size());
+        final Connection connection = getConnection();
+        final List<List<Object>> paramLists = new ArrayList<List<Object>>();
+        final JdbcSqlTemplates templates = getSqlTemplates();
+        Collection<String> columns = null;
+
+        try {
+            for (final JSONObject jsonObject : jsonObjects) {
+                ret.add(genId(jsonObject));
+
+                final List<Object> templateParams = templates.getInsertParams(jsonObject);
+                if (null != templateParams) {
+                    if (templates.getColumns() != columns) {
+                        addBatch(columns, paramLists, connection);
+                        columns = templates.getColumns();
+                    }
+
+                    paramLists.add(templateParams);
+                    continue;
+                }
+
+                final Set<String> objectColumns = new TreeSet<String>();
+                final Iterator<String> keys = jsonObject.keys();
+                while (keys.hasNext()) {
+                    objectColumns.add(keys.next());
+                }
+
+                if (!objectColumns.equals(columns)) {
+                    addBatch(columns, paramLists, connection);
+                    columns = objectColumns;
+                }
+
+                final List<Object> paramList = new ArrayList<Object>(columns.size());
+                for (final String column : columns) {
+                    paramList.add(jsonObject.get(column));
+                }
+                paramLists.add(paramList);
+            }
+
+            addBatch(columns, paramLists, connection);
+
+            for (int i = 0; i < jsonObjects.size(); i++) {
+                changeCounts(currentTransaction, jsonObjects.get(i), 1);
+                currentTransaction.changed(getName(), ret.get(i));
+            }
+        } catch (final SQLException se) {
+            LOGGER.log(Level.SEVERE, "add:"
+                                     + se.getMessage(), se);
+            throw new JDBCRepositoryException(se);
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, "add:"
+                                     + e.getMessage(), e);
+            throw new RepositoryException(e);
         }
 
-        setProperties(jsonObject, paramlist, sql);
+        return ret;
+    }
+
+    /**
+     * Inserts rows of the specified columns with the specified parameter lists
+     * by JDBC batches, and clears the specified parameter lists.
+     * 
+     * @param columns the specified columns
+     * @param paramLists the specified parameter lists
+     * @param connection connection
+     * @throws SQLException SQLException
+     */
+    private void addBatch(final Collection<String> columns, final List<List<Object>> paramLists, final Connection connection)
+            throws SQLException {
+        if (paramLists.isEmpty()) {
+            return;
+        }
+
+        final JdbcSqlTemplates templates = getSqlTemplates();
+        if (templates.getColumns() == columns) {
+            JdbcUtil.executeBatch(templates.getInsertSql(), paramLists, BATCH_SIZE, connection);
+            paramLists.clear();
+
+            return;
+        }
+
+        final StringBuilder sql = new StringBuilder("insert into ").append(getName()).append("(");
+        final StringBuilder wildcardString = new StringBuilder("(");
+        for (final String column : columns) {
+            sql.append(column).append(",");
+            wildcardString.append("?,");
+        }
+        sql.setCharAt(sql.length() - 1, ')');
+        wildcardString.setCharAt(wildcardString.length() - 1, ')');
+        sql.append(" values ").append(wildcardString);
+
+        JdbcUtil.executeBatch(sql.toString(), paramLists, BATCH_SIZE, connection);
+        paramLists.clear();
+    }
+
+    /**
+     * Gets the id of the specified json object, generates one if absent.
+     * 
+     * @param jsonObject the specified json object
+     * @return id
+     * @throws JSONException json exception
+     */
+    private String genId(final JSONObject jsonObject) throws JSONException {
+        if (jsonObject.has(Keys.OBJECT_ID)) {
+            return jsonObject.getString(Keys.OBJECT_ID);
+        }
+
+        final String ret = Ids.genId();
+        jsonObject.put(Keys.OBJECT_ID, ret);
 
         return ret;
     }
@@ -202,6 +393,25 @@ public final class JdbcRepository implements Repository {
         sql.append("insert into ").append(getName()).append(insertString).append(" value ").append(wildcardString);
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Does not read the object to update from database, all the properties
+     * of the specified json object are written, the object in the repository
+     * cache is not trusted to skip unchanged properties since it may be stale.
+     * </p>
+     * 
+     * <p>
+     * If the repository declares a version column ({@code "isversion": true}
+     * in file "repository.json") and the specified json object has the 
+     * version property, the update takes effect only if the version in 
+     * database equals to it (optimistic concurrency), and the version is 
+     * incremented in both database and the specified json object. A 
+     * {@link JDBCRepositoryException} will be thrown if the version does not
+     * match.
+     * </p>
+     */
     @Override
     public void update(final String id, final JSONObject jsonObject) throws RepositoryException {
         if (Strings.isEmptyOrNull(id)) {
@@ -214,24 +424,46 @@ public final class JdbcRepository implements Repository {
             throw new RepositoryException("Invoking update() outside a transaction");
         }
 
-        final JSONObject oldJsonObject = get(id);
-
         final Connection connection = getConnection();
         final List<Object> paramList = new ArrayList<Object>();
         final StringBuilder sqlBuilder = new StringBuilder();
         try {
-            update(id, oldJsonObject, jsonObject, paramList, sqlBuilder);
+            String versionColumn = getSqlTemplates().getVersionColumn();
+            if (null != versionColumn && !jsonObject.has(versionColumn)) {
+                versionColumn = null;
+            }
+
+            update(id, jsonObject, versionColumn, paramList, sqlBuilder);
+            currentTransaction.changed(getName(), id);
 
             final String sql = sqlBuilder.toString();
             if (Strings.isEmptyOrNull(sql)) {
                 return;
             }
 
-            JdbcUtil.executeSql(sql, paramList, connection);
+            final int updated = JdbcUtil.executeUpdate(sql, paramList, connection);
+
+            if (null != versionColumn) {
+                final long version = jsonObject.getLong(versionColumn);
+                if (0 == updated) {
+                    throw new JDBCRepositoryException("Optimistic concurrency conflict[repository=" + getName() + ", id=" + id
+                                                      + ", " + versionColumn + "=" + version + "]");
+                }
+
+                jsonObject.put(versionColumn, version + 1);
+            }
+
+            if (0 < updated) {
+                changeCounts(currentTransaction, jsonObject);
+            }
         } catch (final SQLException se) {
             LOGGER.log(Level.SEVERE, "update:"
                                      + se.getMessage(), se);
             throw new JDBCRepositoryException(se);
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.WARNING, "update:"
+                                      + e.getMessage());
+            throw e;
         } catch (final Exception e) {
             LOGGER.log(Level.SEVERE, "update:"
                                      + e.getMessage(), e);
@@ -244,23 +476,33 @@ public final class JdbcRepository implements Repository {
      * update.
      * 
      * @param id id
-     * @param oldJsonObject oldJsonObject
      * @param jsonObject newJsonObject
+     * @param versionColumn the version column, {@code null} for no version check
      * @param paramList paramList
      * @param sql sql
      * @throws JSONException JSONException
      */
-    private void update(final String id, final JSONObject oldJsonObject,
-                        final JSONObject jsonObject, final List<Object> paramList,
+    private void update(final String id, final JSONObject jsonObject, final String versionColumn, final List<Object> paramList,
                         final StringBuilder sql) throws JSONException {
-        final JSONObject needUpdateJsonObject = getNeedUpdateJsonObject(oldJsonObject, jsonObject);
+        final JSONObject needUpdateJsonObject = getNeedUpdateJsonObject(jsonObject, versionColumn);
 
         if (needUpdateJsonObject.length() == 0) {
-            LOGGER.log(Level.INFO, "nothing to update [{0}] for repository[{1}]", new Object[]{id, getName()});
+            LOGGER.log(Level.FINER, "nothing to update [{0}] for repository[{1}]", new Object[]{id, getName()});
+            return;
+        }
+
+        if (null == versionColumn) {
+            setUpdateProperties(id, needUpdateJsonObject, paramList, sql);
+
             return;
         }
 
+        final long version = jsonObject.getLong(versionColumn);
+        needUpdateJsonObject.put(versionColumn, version + 1);
         setUpdateProperties(id, needUpdateJsonObject, paramList, sql);
+
+        sql.append(" and ").append(versionColumn).append("=?");
+        paramList.add(version);
     }
 
     /**
@@ -300,14 +542,14 @@ public final class JdbcRepository implements Repository {
 
     /**
      * 
-     * getNeedUpdateJsonObject.
+     * getNeedUpdateJsonObject, all the properties except the id and the version.
      * 
-     * @param oldJsonObject oldJsonObject
      * @param jsonObject newJsonObject
+     * @param versionColumn the version column, {@code null} for no version check
      * @return JSONObject
      * @throws JSONException jsonObject
      */
-    private JSONObject getNeedUpdateJsonObject(final JSONObject oldJsonObject, final JSONObject jsonObject) throws JSONException {
+    private JSONObject getNeedUpdateJsonObject(final JSONObject jsonObject, final String versionColumn) throws JSONException {
         final JSONObject needUpdateJsonObject = new JSONObject();
 
         final Iterator<String> keys = jsonObject.keys();
@@ -316,14 +558,11 @@ public final class JdbcRepository implements Repository {
         while (keys.hasNext()) {
             key = keys.next();
 
-            if (jsonObject.get(key) == null
-                && oldJsonObject.get(key) == null) {
-                // ???????????????????????????
-                needUpdateJsonObject.put(key, jsonObject.get(key));
-            } else if (!jsonObject.getString(key).equals(
-                    oldJsonObject.getString(key))) {
-                needUpdateJsonObject.put(key, jsonObject.get(key));
+            if (JdbcRepositories.OID.equals(key) || key.equals(versionColumn)) {
+                continue;
             }
+
+            needUpdateJsonObject.put(key, jsonObject.get(key));
         }
 
         return needUpdateJsonObject;
@@ -341,12 +580,20 @@ public final class JdbcRepository implements Repository {
             throw new RepositoryException("Invoking remove() outside a transaction");
         }
 
-        final StringBuilder sql = new StringBuilder();
+        // Does not read the object to remove from database, the counts of the counted columns are dropped if not cached
+        final JSONObject oldJsonObject = JdbcCounts.isEnabled() && !getSqlTemplates().getCountedColumns().isEmpty() && cacheEnabled
+                                         ? (JSONObject) CACHE.get(CACHE_KEY_PREFIX + id) : null;
         final Connection connection = getConnection();
 
         try {
-            remove(id, sql);
-            JdbcUtil.executeSql(sql.toString(), connection);
+            final List<Object> paramList = new ArrayList<Object>(1);
+            paramList.add(id);
+            final int removed = JdbcUtil.executeUpdate(getSqlTemplates().getRemoveSql(), paramList, connection);
+            currentTransaction.changed(getName(), id);
+
+            if (0 < removed) {
+                changeCounts(currentTransaction, oldJsonObject, -1);
+            }
         } catch (final SQLException se) {
             LOGGER.log(Level.SEVERE, "update:"
                                      + se.getMessage(), se);
@@ -359,44 +606,62 @@ public final class JdbcRepository implements Repository {
     }
 
     /**
-     * remove record.
+     * {@inheritDoc}
      * 
-     * @param id id
-     * @param sql sql
+     * <p>
+     * The concurrent misses of the same id outside transactions are {@link SingleFlight coalesced} into one database 
+     * query.
+     * </p>
      */
-    private void remove(final String id, final StringBuilder sql) {
-        sql.append("delete from ").append(getName()).append(" where ").append(JdbcRepositories.OID).append("='").
-                append(id).append("'");
-    }
-
     @Override
     public JSONObject get(final String id) throws RepositoryException {
-        JSONObject ret = null;
+        CacheDependencies.read(CacheDependencies.of(getName(), id));
 
-        if (cacheEnabled) {
-            final String cacheKey = CACHE_KEY_PREFIX
-                                    + id;
-            ret = (JSONObject) CACHE.get(cacheKey);
-            if (null != ret) {
-                LOGGER.log(Level.FINER, "Got an object[cacheKey={0}] from repository cache[name={1}]", new Object[]{cacheKey, getName()});
-                return ret;
-            }
+        if (!cacheEnabled) {
+            return load(id);
         }
 
-        final StringBuilder sql = new StringBuilder();
+        final String cacheKey = CACHE_KEY_PREFIX + id;
+        final JSONObject cached = (JSONObject) CACHE.get(cacheKey);
+        if (null != cached) {
+            LOGGER.log(Level.FINER, "Got an object[cacheKey={0}] from repository cache[name={1}]", new Object[]{cacheKey, getName()});
+            return cached;
+        }
+
+        if (null != TX.get()) {
+            return load(id);
+        }
+
+        return load(OBJECT_LOADS, CacheDependencies.of(getName(), id), new Callable<JSONObject>() {
+
+            @Override
+            public JSONObject call() throws Exception {
+                return load(id);
+            }
+        }, null);
+    }
+
+    /**
+     * Loads an object by the specified id from the database, and caches it.
+     * 
+     * @param id the specified id
+     * @return object, returns {@code null} if not found
+     * @throws RepositoryException repository exception
+     */
+    private JSONObject load(final String id) throws RepositoryException {
+        JSONObject ret = null;
+        final String dependency = CacheDependencies.of(getName(), id);
+        final Serializable version = cacheEnabled ? CacheDependencies.version(dependency) : null;
         final Connection connection = getConnection();
+        final boolean cacheable = isCacheable(connection);
 
         try {
-            get(sql);
-            final ArrayList<Object> paramList = new ArrayList<Object>();
+            final List<Object> paramList = new ArrayList<Object>(1);
             paramList.add(id);
-            ret = JdbcUtil.queryJsonObject(sql.toString(), paramList, connection, getName());
+            ret = JdbcUtil.queryJsonObject(getSqlTemplates().getGetSql(), paramList, connection, getName());
 
-            if (cacheEnabled) {
-                final String cacheKey = CACHE_KEY_PREFIX
-                                        + id;
-                CACHE.putAsync(cacheKey, ret);
-                LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}]", new Object[]{cacheKey, getName()});
+            if (cacheable && null != ret) {
+                cacheObjects(Collections.singletonMap(id, ret), Collections.singletonMap(dependency, version));
             }
 
         } catch (final SQLException e) {
@@ -413,22 +678,92 @@ public final class JdbcRepository implements Repository {
     }
 
     /**
-     * get.
+     * {@inheritDoc}
      * 
-     * @param sql sql
+     * <p>
+     * Resolves the cached objects by one bulk cache lookup, and then loads all
+     * the missing objects by {@code where oId in (...)} queries, each query
+     * loads at most {@value #MULTI_GET_CHUNK_SIZE} objects. The loaded objects
+     * are put into the repository cache in a batch, except the ones changed while loading.
+     * </p>
      */
-    private void get(final StringBuilder sql) {
-        sql.append("select * from ").append(getName()).append(" where ").append(JdbcRepositories.OID).append("=").append("?");
-    }
-
     @Override
     public Map<String, JSONObject> get(final Iterable<String> ids) throws RepositoryException {
         final Map<String, JSONObject> map = new HashMap<String, JSONObject>();
-        JSONObject jsonObject;
+        final List<String> missingIds = new ArrayList<String>();
 
         for (final String id : ids) {
-            jsonObject = get(id);
-            map.put(jsonObject.optString(JdbcRepositories.OID), jsonObject);
+            CacheDependencies.read(CacheDependencies.of(getName(), id));
+        }
+
+        if (cacheEnabled) {
+            final List<String> cacheKeys = new ArrayList<String>();
+            for (final String id : ids) {
+                cacheKeys.add(CACHE_KEY_PREFIX + id);
+            }
+
+            final Map<String, Serializable> cached = CACHE.getAll(cacheKeys);
+            for (final String id : ids) {
+                final JSONObject jsonObject = (JSONObject) cached.get(CACHE_KEY_PREFIX + id);
+                if (null == jsonObject) {
+                    missingIds.add(id);
+                } else {
+                    map.put(id, jsonObject);
+                }
+            }
+
+            LOGGER.log(Level.FINER, "Got objects[hit={0}, miss={1}] from repository cache[name={2}]",
+                       new Object[]{map.size(), missingIds.size(), getName()});
+        } else {
+            for (final String id : ids) {
+                missingIds.add(id);
+            }
+        }
+
+        if (missingIds.isEmpty()) {
+            return map;
+        }
+
+        final Map<String, Serializable> snapshots = new HashMap<String, Serializable>();
+        if (cacheEnabled) {
+            final List<String> dependencies = new ArrayList<String>();
+            for (final String id : missingIds) {
+                dependencies.add(CacheDependencies.of(getName(), id));
+            }
+
+            snapshots.putAll(CacheDependencies.versions(dependencies));
+        }
+
+        final Connection connection = getConnection();
+        final boolean cacheable = isCacheable(connection);
+        final Map<String, JSONObject> loaded = new HashMap<String, JSONObject>();
+
+        try {
+            for (int i = 0; i < missingIds.size(); i += MULTI_GET_CHUNK_SIZE) {
+                final List<Object> paramList =
+                        new ArrayList<Object>(missingIds.subList(i, Math.min(i + MULTI_GET_CHUNK_SIZE, missingIds.size())));
+                final JSONArray jsonObjects =
+                        JdbcUtil.queryJsonArray(getSqlTemplates().getGetInSql(paramList.size()), paramList, connection, getName());
+
+                for (int j = 0; j < jsonObjects.length(); j++) {
+                    final JSONObject jsonObject = jsonObjects.getJSONObject(j);
+                    final String id = jsonObject.optString(JdbcRepositories.OID);
+
+                    map.put(id, jsonObject);
+                    loaded.put(id, jsonObject);
+                }
+            }
+        } catch (final SQLException e) {
+            throw new JDBCRepositoryException(e);
+        } catch (final Exception e) {
+            LOGGER.log(Level.SEVERE, "get:" + e.getMessage(), e);
+            throw new RepositoryException(e);
+        } finally {
+            closeQueryConnection(connection);
+        }
+
+        if (cacheable && !loaded.isEmpty()) {
+            cacheObjects(loaded, snapshots);
         }
 
         return map;
@@ -448,22 +783,78 @@ public final class JdbcRepository implements Repository {
         return null != get(id);
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The concurrent misses of the same query outside transactions are {@link SingleFlight coalesced} into one 
+     * database query, and if {@link QueryCaches#isStaleWhileRevalidate() stale-while-revalidate} is enabled, they get 
+     * the stale result (if any) while the query is reloading.
+     * </p>
+     */
     @Override
     public JSONObject get(final Query query) throws RepositoryException {
-        JSONObject ret = new JSONObject();
+        CacheDependencies.read(getName());
 
-        final String cacheKey = CACHE_KEY_PREFIX
-                                + query.getCacheKey() + "_" + getName();
-        if (cacheEnabled) {
-            ret = (JSONObject) CACHE.get(cacheKey);
-            if (null != ret) {
-                LOGGER.log(Level.FINER, "Got query result[cacheKey={0}] from repository cache[name={1}]",
-                           new Object[]{cacheKey, getName()});
-                return ret;
+        final Serializable snapshot = QueryCaches.snapshot(getName());
+        if (!cacheEnabled) {
+            return load(query, snapshot);
+        }
+
+        final JSONObject cached = QueryCaches.get(getName(), query);
+        if (null != cached) {
+            LOGGER.log(Level.FINER, "Got query result[cacheKey={0}] from query cache[repositoryName={1}]",
+                       new Object[]{query.getCacheKey(), getName()});
+            return cached;
+        }
+
+        if (null != TX.get()) {
+            return load(query, snapshot);
+        }
+
+        return load(QUERY_LOADS, QueryCaches.getKey(getName(), query), new Callable<JSONObject>() {
+
+            @Override
+            public JSONObject call() throws Exception {
+                return load(query, snapshot);
             }
+        }, QueryCaches.getStale(getName(), query));
+    }
 
-            ret = new JSONObject(); // Re-instantiates it if cache miss
+    /**
+     * Loads the value of the specified key with the specified loader by the specified single-flight loads.
+     * 
+     * @param loads the specified single-flight loads
+     * @param key the specified key
+     * @param loader the specified loader
+     * @param stale the specified stale value, {@code null} for waiting for the loading caller
+     * @return value
+     * @throws RepositoryException repository exception
+     */
+    private static JSONObject load(final SingleFlight<JSONObject> loads, final String key, final Callable<JSONObject> loader,
+                                   final JSONObject stale) throws RepositoryException {
+        try {
+            return loads.load(key, loader, stale);
+        } catch (final RepositoryException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new RepositoryException(e);
         }
+    }
+
+    /**
+     * Loads the results of the specified query from the database, and caches them with the specified version snapshot
+     * of this repository.
+     * 
+     * @param query the specified query
+     * @param snapshot the specified version snapshot, taken before the specified query executed
+     * @return results, see return of {@linkplain #get(org.b3log.latke.repository.Query)} for details
+     * @throws RepositoryException repository exception
+     */
+    private JSONObject load(final Query query, final Serializable snapshot) throws RepositoryException {
+        final JSONObject ret = new JSONObject();
+
+        IndexAdvisor.record(getName(), query);
 
         final int currentPageNum = query.getCurrentPageNum();
         final int pageSize = query.getPageSize();
@@ -498,15 +889,20 @@ public final class JdbcRepository implements Repository {
             final JSONArray jsonResults = JdbcUtil.queryJsonArray(sql.toString(), paramList, connection, getName());
             ret.put(Keys.RESULTS, jsonResults);
 
-            if (cacheEnabled) {
-                CACHE.putAsync(cacheKey, ret);
-                LOGGER.log(Level.FINER, "Added query result[cacheKey={0}] in repository cache[{1}]",
-                           new Object[]{cacheKey, getName()});
+            if (isCacheable(connection)) {
+                final Map<String, JSONObject> objects = new HashMap<String, JSONObject>();
+                final Map<String, JSONObject> queryResults = new HashMap<String, JSONObject>();
+                queryResults.put(query.getCacheKey(), ret);
                 try {
-                    cacheQueryResults(ret.optJSONArray(Keys.RESULTS), query);
+                    cacheQueryResults(ret.optJSONArray(Keys.RESULTS), query, objects, queryResults);
                 } catch (final JSONException e) {
                     LOGGER.log(Level.WARNING, "Caches query results failed", e);
                 }
+
+                cacheObjects(objects, Collections.singletonMap(getName(), snapshot));
+                QueryCaches.putAll(getName(), queryResults, snapshot);
+                LOGGER.log(Level.FINER, "Added query result[cacheKey={0}, objects={1}, queryResults={2}] in caches[{3}]",
+                           new Object[]{query.getCacheKey(), objects.size(), queryResults.size(), getName()});
             }
 
         } catch (final SQLException e) {
@@ -523,13 +919,134 @@ public final class JdbcRepository implements Repository {
     }
 
     /**
-     * Caches the specified query results with the specified query.
+     * Invalidates the caches of the specified changed objects, invokes it after a transaction committed or rolled back.
+     * 
+     * <p>
+     * The {@link CacheDependencies dependencies} of the objects are invalidated, and the dependencies of the repositories
+     * are invalidated if the specified flag is {@code true}, that invalidates the cached query results and the cached 
+     * pages depending on them. And then the cached objects and counts are removed, a concurrent reader loaded the old
+     * objects finds the versions changed and removes the objects it cached, see {@link #cacheObjects(Map, Map)}.
+     * </p>
+     * 
+     * @param changed the specified changed objects, &lt;repositoryName, ids&gt;
+     * @param invalidateDependencies the specified flag
+     */
+    static void invalidate(final Map<String, Set<String>> changed, final boolean invalidateDependencies) {
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        final List<String> cacheKeys = new ArrayList<String>();
+        final List<String> dependencies = new ArrayList<String>();
+        for (final Map.Entry<String, Set<String>> entry : changed.entrySet()) {
+            final String repositoryName = entry.getKey();
+            cacheKeys.add(CACHE_KEY_PREFIX + repositoryName + REPOSITORY_CACHE_COUNT);
+            cacheKeys.add(CACHE_KEY_PREFIX + repositoryName + REPOSITORY_CACHE_ID_BOUNDS);
+            if (invalidateDependencies) {
+                dependencies.add(repositoryName);
+            }
+
+            for (final String id : entry.getValue()) {
+                cacheKeys.add(CACHE_KEY_PREFIX + id);
+                dependencies.add(CacheDependencies.of(repositoryName, id));
+            }
+        }
+
+        CacheDependencies.invalidate(dependencies);
+        CACHE.remove(cacheKeys);
+
+        LOGGER.log(Level.FINER, "Invalidated caches[dependencies={0}, cacheKeys={1}]", new Object[]{dependencies, cacheKeys});
+    }
+
+    /**
+     * Caches the specified objects loaded after the specified dependency versions snapshot.
+     * 
+     * <p>
+     * An object is cached only if the version of its repository and the version of itself have not changed since the
+     * snapshot (a dependency not in the snapshot is not checked). The versions are checked again after put, and the 
+     * objects changed meanwhile are removed, so an object loaded before a commit never stays in the cache after the 
+     * invalidation of the commit.
+     * </p>
+     * 
+     * @param objects the specified objects, &lt;id, object&gt;
+     * @param snapshots the specified dependency versions snapshot, &lt;dependency, version&gt;
+     */
+    private void cacheObjects(final Map<String, JSONObject> objects, final Map<String, Serializable> snapshots) {
+        final Set<String> ids = getCurrentIds(objects.keySet(), snapshots);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Serializable> cached = new HashMap<String, Serializable>();
+        for (final String id : ids) {
+            cached.put(CACHE_KEY_PREFIX + id, objects.get(id));
+        }
+
+        CACHE.putAll(cached);
+
+        ids.removeAll(getCurrentIds(ids, snapshots));
+        if (!ids.isEmpty()) {
+            final List<String> cacheKeys = new ArrayList<String>();
+            for (final String id : ids) {
+                cacheKeys.add(CACHE_KEY_PREFIX + id);
+            }
+
+            CACHE.remove(cacheKeys);
+        }
+
+        LOGGER.log(Level.FINER, "Added objects[size={0}, stale={1}] in repository cache[{2}]",
+                   new Object[]{cached.size(), ids.size(), getName()});
+    }
+
+    /**
+     * Gets the ids of the specified ids whose dependency versions are the same as the specified snapshot.
+     * 
+     * @param ids the specified ids
+     * @param snapshots the specified dependency versions snapshot, &lt;dependency, version&gt;
+     * @return ids not changed since the snapshot
+     */
+    private Set<String> getCurrentIds(final Collection<String> ids, final Map<String, Serializable> snapshots) {
+        final Set<String> ret = new HashSet<String>();
+        final Map<String, Serializable> versions = CacheDependencies.versions(snapshots.keySet());
+        if (isChanged(getName(), snapshots, versions)) {
+            return ret;
+        }
+
+        for (final String id : ids) {
+            if (!isChanged(CacheDependencies.of(getName(), id), snapshots, versions)) {
+                ret.add(id);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Checks whether the specified dependency in the specified snapshot is changed in the specified current versions.
+     * 
+     * @param dependency the specified dependency
+     * @param snapshots the specified snapshot
+     * @param versions the specified current versions
+     * @return {@code true} if changed, returns {@code false} otherwise or the dependency is not in the snapshot
+     */
+    private static boolean isChanged(final String dependency, final Map<String, Serializable> snapshots,
+                                     final Map<String, Serializable> versions) {
+        return snapshots.containsKey(dependency)
+               && !String.valueOf(snapshots.get(dependency)).equals(String.valueOf(versions.get(dependency)));
+    }
+
+    /**
+     * Collects the cache objects of the specified query results with the specified query.
      * 
      * @param results the specified query results
      * @param query the specified query
+     * @param objects the collected cache objects, id -&gt; object, to put in a batch
+     * @param queryResults the collected future query results, query cache key -&gt; result, to put in the 
+     * {@link QueryCaches query cache} in a batch
      * @throws JSONException json exception
      */
-    private void cacheQueryResults(final JSONArray results, final org.b3log.latke.repository.Query query)
+    private void cacheQueryResults(final JSONArray results, final org.b3log.latke.repository.Query query,
+                                   final Map<String, JSONObject> objects, final Map<String, JSONObject> queryResults)
             throws JSONException {
         String cacheKey;
         for (int i = 0; i < results.length(); i++) {
@@ -537,7 +1054,7 @@ public final class JdbcRepository implements Repository {
 
             // 1. Caching for get by id.
             cacheKey = CACHE_KEY_PREFIX + jsonObject.optString(Keys.OBJECT_ID);
-            CACHE.putAsync(cacheKey, jsonObject);
+            objects.put(jsonObject.optString(Keys.OBJECT_ID), jsonObject);
             LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}] for default index[oId]",
                        new Object[]{cacheKey, getName()});
 
@@ -557,7 +1074,7 @@ public final class JdbcRepository implements Repository {
                     logMsgBuilder.deleteCharAt(logMsgBuilder.length() - 1);
                 }
 
-                cacheKey = CACHE_KEY_PREFIX + futureQuery.getCacheKey() + "_" + getName();
+                cacheKey = futureQuery.getCacheKey();
 
                 final JSONObject futureQueryRet = new JSONObject();
                 final JSONObject pagination = new JSONObject();
@@ -568,8 +1085,8 @@ public final class JdbcRepository implements Repository {
                 futureQueryRet.put(Keys.RESULTS, futureQueryResults);
                 futureQueryResults.put(jsonObject);
 
-                CACHE.putAsync(cacheKey, futureQueryRet);
-                LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}] for index[{2}] for future query[{3}]",
+                queryResults.put(cacheKey, futureQueryRet);
+                LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in query cache[{1}] for index[{2}] for future query[{3}]",
                            new Object[]{cacheKey, getName(), logMsgBuilder, futureQuery.toString()});
             }
         }
@@ -598,7 +1115,7 @@ public final class JdbcRepository implements Repository {
         final StringBuilder orderBySql = new StringBuilder();
         getSelectSql(selectSql, query.getProjections());
         getFilterSql(filterSql, paramList, query.getFilter());
-        getOrderBySql(orderBySql, query.getSorts());
+        getOrderBySql(orderBySql, query.isSeek() ? query.getSeekSorts() : query.getSorts());
 
         if (-1 == pageCount) {
             final StringBuilder countSql = new StringBuilder("select count(" + JdbcRepositories.OID + ") from ").append(getName());
@@ -607,7 +1124,7 @@ public final class JdbcRepository implements Repository {
                 countSql.append(" where ").append(filterSql);
             }
 
-            final long count = count(countSql, paramList);
+            final long count = count(query.getFilter(), countSql.toString(), paramList);
             ret = (int) Math.ceil((double) count / (double) pageSize);
 
             if (ret == 0) {
@@ -615,6 +1132,13 @@ public final class JdbcRepository implements Repository {
             }
         }
 
+        if (query.isSeek()) {
+            getSeekSql(filterSql, paramList, query);
+            getQuerySql(1, pageSize, selectSql, filterSql, orderBySql, sql);
+
+            return ret;
+        }
+
         if (currentPageNum > ret) {
             LOGGER.log(Level.WARNING, "Current page num[{0}] > page count[{1}]", new Object[]{currentPageNum, ret});
         }
@@ -624,6 +1148,79 @@ public final class JdbcRepository implements Repository {
         return ret;
     }
 
+    /**
+     * Appends the keyset pagination condition of the specified query to the specified filter SQL.
+     * 
+     * <p>
+     * If all the seek sorts are in the same direction, the condition is a row comparison, for example, 
+     * {@code (date,oId)<(?,?)}, otherwise it is expanded to {@code (date<? or (date=? and oId>?))}.
+     * </p>
+     * 
+     * @param filterSql the specified filter SQL
+     * @param paramList the specified parameter list
+     * @param query the specified query
+     * @throws RepositoryException if the seek values do not match the seek sorts
+     */
+    private void getSeekSql(final StringBuilder filterSql, final List<Object> paramList, final Query query)
+            throws RepositoryException {
+        final Map<String, SortDirection> seekSorts = query.getSeekSorts();
+        final Object[] seekValues = query.getSeekValues();
+        if (seekSorts.size() != seekValues.length) {
+            throw new RepositoryException("Seek values[" + Arrays.toString(seekValues) + "] do not match seek sorts" + seekSorts.keySet());
+        }
+
+        if (StringUtils.isNotBlank(filterSql.toString())) {
+            filterSql.insert(0, '(').append(") and ");
+        }
+
+        final List<String> keys = new ArrayList<String>(seekSorts.keySet());
+        if (1 == new HashSet<SortDirection>(seekSorts.values()).size()) {
+            final StringBuilder wildcardString = new StringBuilder("(");
+            filterSql.append('(');
+            for (final String key : keys) {
+                filterSql.append(key).append(',');
+                wildcardString.append("?,");
+            }
+            filterSql.setCharAt(filterSql.length() - 1, ')');
+            wildcardString.setCharAt(wildcardString.length() - 1, ')');
+
+            filterSql.append(getSeekOperator(seekSorts.get(keys.get(0)))).append(wildcardString);
+            paramList.addAll(Arrays.asList(seekValues));
+
+            return;
+        }
+
+        filterSql.append('(');
+        for (int i = 0; i < keys.size(); i++) {
+            if (0 < i) {
+                filterSql.append(" or (");
+            }
+
+            for (int j = 0; j < i; j++) {
+                filterSql.append(keys.get(j)).append("=? and ");
+                paramList.add(seekValues[j]);
+            }
+
+            filterSql.append(keys.get(i)).append(getSeekOperator(seekSorts.get(keys.get(i)))).append('?');
+            paramList.add(seekValues[i]);
+
+            if (0 < i) {
+                filterSql.append(')');
+            }
+        }
+        filterSql.append(')');
+    }
+
+    /**
+     * Gets the comparison operator selecting the rows after the seek row of the specified sort direction.
+     * 
+     * @param sortDirection the specified sort direction
+     * @return {@code ">"} for ascending, {@code "<"} for descending
+     */
+    private static String getSeekOperator(final SortDirection sortDirection) {
+        return SortDirection.ASCENDING == sortDirection ? ">" : "<";
+    }
+
     /**
      * get select sql.
      * if projections size = 0 ,return select count(*).
@@ -717,23 +1314,62 @@ public final class JdbcRepository implements Repository {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Does not sort the whole table randomly. Picks random pivots between the minimum and the maximum ids (cached for
+     * {@value #REPOSITORY_CACHE_COUNT_TTL} milliseconds, see {@link Ids#random(java.lang.String, java.lang.String)}),
+     * and fetches the first object whose id is not less than each pivot by the primary key index, makes at most 
+     * {@value #RANDOM_ATTEMPTS} times of the fetch size attempts to pick distinct objects. The objects after larger id 
+     * gaps are more likely to be picked. The pivots are compared as strings, so falls back to the random SQL of the 
+     * database if the key column is not a string column (see {@link JdbcSqlTemplates#isStringKey()}), the ids are not
+     * numeric or the fetch size is not less than the count of all objects.
+     * </p>
+     */
     @Override
     public List<JSONObject> getRandomly(final int fetchSize) throws RepositoryException {
+        CacheDependencies.read(getName());
+
         final List<JSONObject> jsonObjects = new ArrayList<JSONObject>();
+        final long count = 0 >= fetchSize ? 0 : count();
+        if (0 == count) {
+            return jsonObjects;
+        }
 
         final StringBuilder sql = new StringBuilder();
         JSONArray jsonArray;
 
         final Connection connection = getConnection();
-        getRandomly(fetchSize, sql);
         try {
-            jsonArray = JdbcUtil.queryJsonArray(sql.toString(), new ArrayList<Object>(), connection, getName());
+            final String[] bounds = fetchSize < count && getSqlTemplates().isStringKey() ? getIdBounds(connection) : null;
+
+            if (null == bounds || null == Ids.random(bounds[0], bounds[1])) {
+                getRandomly(fetchSize, sql);
+                jsonArray = JdbcUtil.queryJsonArray(sql.toString(), new ArrayList<Object>(), connection, getName());
 
-            for (int i = 0; i < jsonArray.length(); i++) {
-                jsonObjects.add(jsonArray.getJSONObject(i));
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    jsonObjects.add(jsonArray.getJSONObject(i));
+                }
+
+                return jsonObjects;
+            }
+
+            sql.append(JdbcFactory.createJdbcFactory().queryPage(0, 1, "select *", JdbcRepositories.OID + ">=?",
+                                                                 " order by " + JdbcRepositories.OID, getName()));
+            final Set<String> pickedIds = new HashSet<String>();
+            final List<Object> paramList = new ArrayList<Object>(1);
+            paramList.add(null);
+            for (int i = 0; i < fetchSize * RANDOM_ATTEMPTS && jsonObjects.size() < fetchSize; i++) {
+                paramList.set(0, Ids.random(bounds[0], bounds[1]));
+
+                final JSONObject jsonObject = JdbcUtil.queryJsonObject(sql.toString(), paramList, connection, getName());
+                if (null != jsonObject && pickedIds.add(jsonObject.optString(Keys.OBJECT_ID))) {
+                    jsonObjects.add(jsonObject);
+                }
             }
         } catch (final SQLException se) {
-            LOGGER.log(Level.SEVERE, "update:" + se.getMessage(), se);
+            LOGGER.log(Level.SEVERE, "getRandomly:" + se.getMessage(), se);
             throw new JDBCRepositoryException(se);
         } catch (final Exception e) {
             LOGGER.log(Level.SEVERE, "getRandomly:" + e.getMessage(), e);
@@ -745,6 +1381,44 @@ public final class JdbcRepository implements Repository {
         return jsonObjects;
     }
 
+    /**
+     * Gets the minimum and the maximum ids of this repository.
+     * 
+     * @param connection the specified connection
+     * @return {minId, maxId}, returns {@code null} if this repository is empty
+     * @throws Exception exception
+     */
+    private String[] getIdBounds(final Connection connection) throws Exception {
+        final String cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_ID_BOUNDS;
+        if (cacheEnabled) {
+            final JSONArray cached = (JSONArray) CACHE.get(cacheKey);
+            if (null != cached) {
+                return new String[]{cached.getString(0), cached.getString(1)};
+            }
+        }
+
+        final JdbcFactory jdbcFactory = JdbcFactory.createJdbcFactory();
+        final String select = "select " + JdbcRepositories.OID;
+        final String orderBy = " order by " + JdbcRepositories.OID;
+        final String minSql = jdbcFactory.queryPage(0, 1, select, null, orderBy, getName());
+        final String maxSql = jdbcFactory.queryPage(0, 1, select, null, orderBy + " desc", getName());
+
+        final JSONObject min = JdbcUtil.queryJsonObject(minSql, new ArrayList<Object>(), connection, getName());
+        final JSONObject max = JdbcUtil.queryJsonObject(maxSql, new ArrayList<Object>(), connection, getName());
+        if (null == min || null == max) {
+            return null;
+        }
+
+        final String[] ret = new String[]{min.getString(Keys.OBJECT_ID), max.getString(Keys.OBJECT_ID)};
+        if (cacheEnabled) {
+            final JSONArray bounds = new JSONArray();
+            bounds.put(ret[0]).put(ret[1]);
+            CACHE.put(cacheKey, bounds, REPOSITORY_CACHE_COUNT_TTL);
+        }
+
+        return ret;
+    }
+
     /**
      * getRandomly.
      * 
@@ -755,8 +1429,22 @@ public final class JdbcRepository implements Repository {
         sql.append(JdbcFactory.createJdbcFactory().getRandomlySql(getName(), fetchSize));
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Uses the {@link JdbcCounts maintained count} if the count mode is not {@value JdbcCounts#NONE}, otherwise the count
+     * is cached for {@value #REPOSITORY_CACHE_COUNT_TTL} milliseconds.
+     * </p>
+     */
     @Override
     public long count() throws RepositoryException {
+        CacheDependencies.read(getName());
+
+        if (JdbcCounts.isEnabled()) {
+            return count(null, getSqlTemplates().getCountSql(), new ArrayList<Object>());
+        }
+
         final String cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_COUNT;
         if (cacheEnabled) {
             final Object o = CACHE.get(cacheKey);
@@ -772,17 +1460,194 @@ public final class JdbcRepository implements Repository {
             }
         }
 
-        final StringBuilder sql = new StringBuilder("select count(" + JdbcRepositories.OID + ") from ").append(getName());
-        final long ret = count(sql, new ArrayList<Object>());
+        final long ret = count(getSqlTemplates().getCountSql(), new ArrayList<Object>());
 
         if (cacheEnabled) {
-            CACHE.putAsync(cacheKey, ret);
+            CACHE.put(cacheKey, ret, REPOSITORY_CACHE_COUNT_TTL);
             LOGGER.log(Level.FINER, "Added an object[cacheKey={0}] in repository cache[{1}]", new Object[]{cacheKey, getName()});
         }
 
         return ret;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Streams the rows with a forward-only result set, the fetch size is adapted by
+     * {@link JdbcDatabase#getStreamingFetchSize(int)}. The result set occupies its connection until the iteration 
+     * ends, the specified handler should not access the database with the connection of the current transaction.
+     * </p>
+     */
+    @Override
+    public void iterate(final int fetchSize, final ObjectHandler handler) throws RepositoryException {
+        final Connection connection = getConnection();
+
+        try {
+            final long count = JdbcUtil.iterate("select * from " + getName(), new ArrayList<Object>(), connection, getName(),
+                                                JdbcFactory.createJdbcFactory().getStreamingFetchSize(fetchSize), handler);
+
+            LOGGER.log(Level.FINER, "Iterated repository[name={0}, count={1}]", new Object[]{getName(), count});
+        } catch (final SQLException e) {
+            LOGGER.log(Level.SEVERE, "iterate:" + e.getMessage(), e);
+            throw new JDBCRepositoryException(e);
+        } finally {
+            closeQueryConnection(connection);
+        }
+    }
+
+    /**
+     * Counts the rows matching the specified filter, uses the {@link JdbcCounts maintained count} if the specified filter
+     * is {@code null} (all rows) or an {@link FilterOperator#EQUAL equal} filter on a counted column.
+     * 
+     * <p>
+     * Queries the count if the current transaction has changed this repository, the maintained count does not include
+     * the uncommitted changes.
+     * </p>
+     * 
+     * @param filter the specified filter
+     * @param sql the count SQL of the specified filter
+     * @param paramList the parameters of the count SQL
+     * @return count
+     * @throws RepositoryException RepositoryException
+     */
+    private long count(final Filter filter, final String sql, final List<Object> paramList) throws RepositoryException {
+        final String key = getCountKey(filter);
+        if (null == key) {
+            return count(sql, paramList);
+        }
+
+        final JdbcTransaction currentTransaction = TX.get();
+        if (null != currentTransaction && currentTransaction.getCountChanges().isChanged(getName())) {
+            return count(sql, paramList);
+        }
+
+        if (JdbcCounts.ALL.equals(key) && JdbcCounts.isApproximate()) {
+            final Long ret = countApproximately();
+            if (null != ret) {
+                return ret;
+            }
+        }
+
+        final Long maintained = JdbcCounts.get(getName(), key);
+        if (null != maintained) {
+            return maintained;
+        }
+
+        final long snapshot = JdbcCounts.snapshot(getName());
+        final long ret = count(sql, paramList, true); // A lagged replica would load a stale count
+        JdbcCounts.load(getName(), key, ret, snapshot);
+
+        return ret;
+    }
+
+    /**
+     * Gets the {@link JdbcCounts maintained count} key of the specified filter.
+     * 
+     * @param filter the specified filter
+     * @return count key, returns {@code null} if the count of the specified filter is not maintained
+     */
+    private String getCountKey(final Filter filter) {
+        if (!JdbcCounts.isEnabled()) {
+            return null;
+        }
+
+        if (null == filter) {
+            return JdbcCounts.ALL;
+        }
+
+        if (!(filter instanceof PropertyFilter)) {
+            return null;
+        }
+
+        final PropertyFilter propertyFilter = (PropertyFilter) filter;
+        if (FilterOperator.EQUAL != propertyFilter.getOperator()
+            || !getSqlTemplates().getCountedColumns().contains(propertyFilter.getKey())) {
+            return null;
+        }
+
+        return JdbcCounts.key(propertyFilter.getKey(), propertyFilter.getValue());
+    }
+
+    /**
+     * Counts the rows of this repository approximately by the table statistics of the database, the count is cached 
+     * for {@value #REPOSITORY_CACHE_COUNT_TTL} milliseconds.
+     * 
+     * @return approximate count, returns {@code null} if the database does not support it
+     * @throws RepositoryException RepositoryException
+     */
+    private Long countApproximately() throws RepositoryException {
+        final String sql = JdbcFactory.createJdbcFactory().getApproximateCountSql(getName());
+        if (null == sql) {
+            return null;
+        }
+
+        final String cacheKey = CACHE_KEY_PREFIX + getName() + REPOSITORY_CACHE_COUNT;
+        if (cacheEnabled) {
+            final Object cached = CACHE.get(cacheKey);
+            if (cached instanceof Long) {
+                return (Long) cached;
+            }
+        }
+
+        final List<Object> paramList = new ArrayList<Object>(1);
+        paramList.add(getName());
+        final Long ret = count(sql, paramList);
+
+        if (cacheEnabled) {
+            CACHE.put(cacheKey, ret, REPOSITORY_CACHE_COUNT_TTL);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Records the changes of the {@link JdbcCounts maintained counts} for adding or removing the specified json object.
+     * 
+     * @param transaction the current transaction
+     * @param jsonObject the specified json object, {@code null} if unknown
+     * @param delta {@code 1} for adding, {@code -1} for removing
+     */
+    private void changeCounts(final JdbcTransaction transaction, final JSONObject jsonObject, final long delta) {
+        if (!JdbcCounts.isEnabled()) {
+            return;
+        }
+
+        final JdbcCounts.Changes changes = transaction.getCountChanges();
+        changes.add(getName(), JdbcCounts.ALL, delta);
+
+        for (final String column : getSqlTemplates().getCountedColumns()) {
+            if (null == jsonObject || !jsonObject.has(column)) {
+                changes.drop(getName(), column); // Takes the column default value or unknown
+            } else {
+                changes.add(getName(), JdbcCounts.key(column, jsonObject.opt(column)), delta);
+            }
+        }
+    }
+
+    /**
+     * Records the changes of the {@link JdbcCounts maintained counts} for updating with the specified json object.
+     * 
+     * <p>
+     * The counts of a counted column are dropped if the column is written by the update, the value in database before 
+     * the update is unknown.
+     * </p>
+     * 
+     * @param transaction the current transaction
+     * @param jsonObject the specified json object
+     */
+    private void changeCounts(final JdbcTransaction transaction, final JSONObject jsonObject) {
+        if (!JdbcCounts.isEnabled()) {
+            return;
+        }
+
+        for (final String column : getSqlTemplates().getCountedColumns()) {
+            if (jsonObject.has(column)) {
+                transaction.getCountChanges().drop(getName(), column);
+            }
+        }
+    }
+
     /**
      * count.
      * 
@@ -791,13 +1656,36 @@ public final class JdbcRepository implements Repository {
      * @return count
      * @throws RepositoryException RepositoryException
      */
-    private long count(final StringBuilder sql, final List<Object> paramList) throws RepositoryException {
-        final Connection connection = getConnection();
+    private long count(final String sql, final List<Object> paramList) throws RepositoryException {
+        return count(sql, paramList, false);
+    }
+
+    /**
+     * Counts with the specified SQL and parameters.
+     * 
+     * @param sql the specified SQL
+     * @param paramList the specified parameters
+     * @param primary whether reads from the primary outside a transaction
+     * @return count
+     * @throws RepositoryException RepositoryException
+     */
+    private long count(final String sql, final List<Object> paramList, final boolean primary) throws RepositoryException {
+        final JdbcTransaction jdbcTransaction = TX.get();
+        final Connection connection;
+        if (primary && (null == jdbcTransaction || !jdbcTransaction.isActive())) {
+            try {
+                connection = Connections.getConnection();
+            } catch (final SQLException e) {
+                throw new JDBCRepositoryException(e);
+            }
+        } else {
+            connection = getConnection();
+        }
 
         JSONObject jsonObject;
         long count;
         try {
-            jsonObject = JdbcUtil.queryJsonObject(sql.toString(), paramList, connection, getName());
+            jsonObject = JdbcUtil.queryJsonObject(sql, paramList, connection, getName());
             count = jsonObject.getLong(jsonObject.keys().next().toString());
         } catch (final SQLException se) {
             LOGGER.log(Level.SEVERE, "update:"
@@ -819,6 +1707,23 @@ public final class JdbcRepository implements Repository {
         return name;
     }
 
+    /**
+     * Gets the compiled SQL templates of this repository, compiles them at the
+     * first time.
+     * 
+     * @return compiled SQL templates
+     */
+    private JdbcSqlTemplates getSqlTemplates() {
+        JdbcSqlTemplates ret = sqlTemplates;
+
+        if (null == ret) {
+            ret = new JdbcSqlTemplates(getName());
+            sqlTemplates = ret;
+        }
+
+        return ret;
+    }
+
     @Override
     public Transaction beginTransaction() {
         final JdbcTransaction ret = TX.get();
@@ -895,13 +1800,18 @@ public final class JdbcRepository implements Repository {
      * getConnection.
      * default using current JdbcTransaction's connection,if null get a new one.
      * 
+     * <p>
+     * The connection outside a transaction only reads, it is leased from a 
+     * {@link Connections#getReadConnection(java.lang.String) read replica} if configured.
+     * </p>
+     * 
      * @return {@link Connection}
      */
     private Connection getConnection() {
         final JdbcTransaction jdbcTransaction = TX.get();
         if (jdbcTransaction == null || !jdbcTransaction.isActive()) {
             try {
-                return Connections.getConnection();
+                return readConnections.get(getName());
             } catch (final SQLException e) {
                 LOGGER.log(Level.SEVERE, "Gets connection error", e);
             }
@@ -910,6 +1820,36 @@ public final class JdbcRepository implements Repository {
         return jdbcTransaction.getConnection();
     }
 
+    /**
+     * Checks whether the objects and query results read by the specified connection can be cached.
+     * 
+     * <p>
+     * The results read from a read replica may lag behind the primary, caching them would keep the lagged results 
+     * after the invalidation of a commit, so they are not cached. The counts read from a read replica are still 
+     * cached, for {@value #REPOSITORY_CACHE_COUNT_TTL} milliseconds only.
+     * </p>
+     * 
+     * @param connection the specified connection
+     * @return {@code true} if the cache is enabled and the specified connection is not a connection of a read replica,
+     * returns {@code false} otherwise
+     */
+    private boolean isCacheable(final Connection connection) {
+        return cacheEnabled && !readConnections.isReplica(connection);
+    }
+
+    /**
+     * Sets the source of the connections reading outside transactions, {@link Connections} is the default source.
+     * 
+     * @param readConnections the specified source
+     * @return the previous source
+     */
+    static ReadConnections setReadConnections(final ReadConnections readConnections) {
+        final ReadConnections ret = JdbcRepository.readConnections;
+        JdbcRepository.readConnections = readConnections;
+
+        return ret;
+    }
+
     /**
      * closeQueryConnection,this connection not in JdbcTransaction,
      * should be closed in code.
@@ -1043,4 +1983,18 @@ public final class JdbcRepository implements Repository {
 
         filterSql.append(")");
     }
+
+    /**
+     * Single-flight loads of JSON objects, a waiting caller gets its own copy of the object loaded by another caller.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    private static final class JSONSingleFlight extends SingleFlight<JSONObject> {
+
+        @Override
+        protected JSONObject share(final JSONObject value) {
+            return (JSONObject) CopyPolicy.copy(value);
+        }
+    }
 }
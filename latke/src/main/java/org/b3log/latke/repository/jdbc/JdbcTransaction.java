@@ -17,8 +17,11 @@ package org.b3log.latke.repository.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
-import org.b3log.latke.cache.PageCaches;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.repository.jdbc.util.Connections;
 
@@ -26,9 +29,14 @@ import org.b3log.latke.repository.jdbc.util.Connections;
  *
  * JdbcTransaction.
  * 
+ * <p>
+ * Records the objects changed in this transaction, only the caches depending on them are invalidated after committed 
+ * (see {@link JdbcRepository#invalidate(java.util.Map, boolean)}).
+ * </p>
+ * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.1, Mar 22, 2012
+ * @version 1.0.4.0, Oct 17, 2026
  */
 public final class JdbcTransaction implements Transaction {
 
@@ -44,6 +52,14 @@ public final class JdbcTransaction implements Transaction {
      * Flag of clear query cache.
      */
     private boolean clearQueryCache = true;
+    /**
+     * Count changes of this transaction.
+     */
+    private final JdbcCounts.Changes countChanges = new JdbcCounts.Changes();
+    /**
+     * Changed objects, &lt;repositoryName, ids&gt;.
+     */
+    private final Map<String, Set<String>> changed = new HashMap<String, Set<String>>();
 
     /**
      * Public constructor.
@@ -65,15 +81,22 @@ public final class JdbcTransaction implements Transaction {
     public void commit() {
         boolean ifSuccess = false;
 
+        JdbcCounts.prepare(countChanges);
         try {
             connection.commit();
             ifSuccess = true;
-
-            if (clearQueryCache) {
-                PageCaches.removeAll();
-            }
+            JdbcCounts.apply(countChanges);
         } catch (final SQLException e) {
             throw new RuntimeException("commit mistake", e);
+        } finally {
+            if (!ifSuccess) {
+                JdbcCounts.abort(countChanges);
+            } else {
+                Connections.committed(changed.keySet());
+            }
+
+            JdbcRepository.invalidate(changed, !ifSuccess || clearQueryCache);
+            changed.clear();
         }
 
         if (ifSuccess) {
@@ -83,11 +106,16 @@ public final class JdbcTransaction implements Transaction {
 
     @Override
     public void rollback() {
+        countChanges.clear();
+
         try {
             connection.rollback();
         } catch (final SQLException e) {
             throw new RuntimeException("rollback mistake", e);
         } finally {
+            JdbcRepository.invalidate(changed, true); // Removes the uncommitted objects and query results cached
+            changed.clear();
+
             dispose();
         }
     }
@@ -124,6 +152,32 @@ public final class JdbcTransaction implements Transaction {
         }
     }
 
+    /**
+     * Records the specified object has been changed in this transaction.
+     * 
+     * @param repositoryName the name of the repository of the specified object
+     * @param id the id of the specified object
+     */
+    public void changed(final String repositoryName, final String id) {
+        Set<String> ids = changed.get(repositoryName);
+        if (null == ids) {
+            ids = new HashSet<String>();
+            changed.put(repositoryName, ids);
+        }
+
+        ids.add(id);
+    }
+
+    /**
+     * Gets the count changes of this transaction, they will be applied to the {@link JdbcCounts maintained counts} after
+     * committed.
+     * 
+     * @return count changes
+     */
+    public JdbcCounts.Changes getCountChanges() {
+        return countChanges;
+    }
+
     /**
      * getConnection.
      * @return {@link Connection}
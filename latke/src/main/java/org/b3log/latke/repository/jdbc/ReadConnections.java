@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of the connections reading outside transactions, see {@link JdbcRepository}.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+interface ReadConnections {
+
+    /**
+     * Gets a connection for reading the table specified by the given table name.
+     * 
+     * @param tableName the given table name
+     * @return a connection
+     * @throws SQLException SQL exception
+     */
+    Connection get(final String tableName) throws SQLException;
+
+    /**
+     * Checks whether the specified connection is a connection of a read replica.
+     * 
+     * @param connection the specified connection
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    boolean isReplica(final Connection connection);
+}
@@ -19,10 +19,19 @@ import com.jolbox.bonecp.BoneCP;
 import com.jolbox.bonecp.BoneCPConfig;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.b3log.latke.Latkes;
 import org.b3log.latke.util.Callstacks;
+import org.b3log.latke.util.Strings;
 
 /**
  * JDBC connection utilities.
@@ -31,9 +40,29 @@ import org.b3log.latke.util.Callstacks;
  * Uses <a href="http://jolbox.com/">BoneCP</a> as the underlying connection pool.
  * </p>
  * 
+ * <p>
+ * The prepared statements are cached per connection by the pool, a statement 
+ * closed by the caller returns to the cache of its connection and will be 
+ * reused by the next preparation of the same SQL on that connection. The 
+ * cache size is configured by {@value #JDBC_STATEMENTS_CACHE_SIZE} in file
+ * "local.properties" (defaults to {@value #DEFAULT_STATEMENTS_CACHE_SIZE}, 
+ * {@code 0} disables the cache).
+ * </p>
+ * 
+ * <p>
+ * The read replicas are configured by {@value #JDBC_REPLICA_URLS} (comma separated URLs, the user name and password 
+ * are the same as the primary's if {@value #JDBC_REPLICA_USERNAME} and {@value #JDBC_REPLICA_PASSWORD} are not 
+ * specified), {@link #getReadConnection(java.lang.String)} leases connections from the {@link Replicas replicas} 
+ * balanced by {@value #JDBC_REPLICA_BALANCE} ({@code ROUND_ROBIN} or {@code LEAST_LOADED}), a down replica is 
+ * checked again after {@value #JDBC_REPLICA_RETRY_INTERVAL} milliseconds. Reads of a table committed 
+ * within {@value #JDBC_REPLICA_STICKINESS} milliseconds still go to the primary to tolerate the replication lag, so the
+ * stickiness must exceed the worst-case replication lag, otherwise a read may miss a write just committed. The 
+ * objects and query results read from the replicas are not cached (see {@link #isReplica(java.sql.Connection)}).
+ * </p>
+ * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.4, Apr 11, 2012
+ * @version 1.0.3.0, Oct 17, 2026
  */
 public final class Connections {
 
@@ -41,33 +70,146 @@ public final class Connections {
      * Logger.
      */
     private static final Logger LOGGER = Logger.getLogger(Connections.class.getName());
+    /**
+     * Key of the count of cached prepared statements per connection in file 
+     * "local.properties".
+     */
+    public static final String JDBC_STATEMENTS_CACHE_SIZE = "jdbc.statementsCacheSize";
+    /**
+     * Default count of cached prepared statements per connection.
+     */
+    private static final int DEFAULT_STATEMENTS_CACHE_SIZE = 100;
+    /**
+     * Key of the read replica URLs in file "local.properties".
+     */
+    public static final String JDBC_REPLICA_URLS = "jdbc.replica.URLs";
+    /**
+     * Key of the read replica user name in file "local.properties".
+     */
+    public static final String JDBC_REPLICA_USERNAME = "jdbc.replica.username";
+    /**
+     * Key of the read replica password in file "local.properties".
+     */
+    public static final String JDBC_REPLICA_PASSWORD = "jdbc.replica.password";
+    /**
+     * Key of the read replica balance in file "local.properties".
+     */
+    public static final String JDBC_REPLICA_BALANCE = "jdbc.replica.balance";
+    /**
+     * Key of the retry interval (milliseconds) of a down read replica in file "local.properties".
+     */
+    public static final String JDBC_REPLICA_RETRY_INTERVAL = "jdbc.replica.retryInterval";
+    /**
+     * Key of the time (milliseconds) reading a committed table from the primary in file "local.properties".
+     */
+    public static final String JDBC_REPLICA_STICKINESS = "jdbc.replica.stickiness";
+    /**
+     * Default retry interval (milliseconds) of a down read replica.
+     */
+    private static final long DEFAULT_REPLICA_RETRY_INTERVAL = 30000;
+    /**
+     * Default time (milliseconds) reading a committed table from the primary.
+     */
+    private static final long DEFAULT_REPLICA_STICKINESS = 1000;
+    /**
+     * Timeout (seconds) of replica health checks.
+     */
+    private static final int CHECK_TIMEOUT = 5;
     /**
      * Connection pool.
      */
     private static BoneCP connectionPool;
+    /**
+     * Read replicas, {@code null} if no replica configured.
+     */
+    private static Replicas replicas;
+    /**
+     * Time (milliseconds) reading a committed table from the primary.
+     */
+    private static long stickiness = DEFAULT_REPLICA_STICKINESS;
+    /**
+     * Last commit time of tables, &lt;tableName, time&gt;.
+     */
+    private static final Map<String, Long> COMMIT_TIMES = new ConcurrentHashMap<String, Long>();
+    /**
+     * Connections leased from the read replicas, the pooled connections are reused by the pools.
+     */
+    private static final Set<Connection> REPLICA_CONNECTIONS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Connection, Boolean>()));
 
     static {
         try {
             Class.forName(Latkes.getLocalProperty("jdbc.driver"));
 
-            final BoneCPConfig config = new BoneCPConfig();
-            config.setDefaultAutoCommit(false);
-            config.setDefaultTransactionIsolation(Latkes.getLocalProperty("jdbc.transactionIsolation"));
-            config.setJdbcUrl(Latkes.getLocalProperty("jdbc.URL"));
-            config.setUsername(Latkes.getLocalProperty("jdbc.username"));
-            config.setPassword(Latkes.getLocalProperty("jdbc.password"));
-            config.setMinConnectionsPerPartition(Integer.valueOf(Latkes.getLocalProperty("jdbc.minConnCnt")));
-            config.setMaxConnectionsPerPartition(Integer.valueOf(Latkes.getLocalProperty("jdbc.maxConnCnt")));
-            config.setPartitionCount(1);
-
-            connectionPool = new BoneCP(config);
+            final String username = Latkes.getLocalProperty("jdbc.username");
+            final String password = Latkes.getLocalProperty("jdbc.password");
+            connectionPool = new BoneCP(getConfig(Latkes.getLocalProperty("jdbc.URL"), username, password));
 
             LOGGER.info("Initialized connection pool");
+
+            final String replicaURLs = Latkes.getLocalProperty(JDBC_REPLICA_URLS);
+            if (!Strings.isEmptyOrNull(replicaURLs)) {
+                final String replicaUsername = Latkes.getLocalProperty(JDBC_REPLICA_USERNAME);
+                final String replicaPassword = Latkes.getLocalProperty(JDBC_REPLICA_PASSWORD);
+                final List<Replicas.Pool> pools = new ArrayList<Replicas.Pool>();
+                for (final String url : replicaURLs.split(",")) {
+                    if (Strings.isEmptyOrNull(url.trim())) {
+                        continue;
+                    }
+
+                    pools.add(new ReplicaPool(url.trim(), new BoneCP(getConfig(url.trim(),
+                                                                               null == replicaUsername ? username : replicaUsername,
+                                                                               null == replicaPassword ? password : replicaPassword))));
+                }
+
+                final String balance = Latkes.getLocalProperty(JDBC_REPLICA_BALANCE);
+                final String retryInterval = Latkes.getLocalProperty(JDBC_REPLICA_RETRY_INTERVAL);
+                final String stickinessProperty = Latkes.getLocalProperty(JDBC_REPLICA_STICKINESS);
+                if (!Strings.isEmptyOrNull(stickinessProperty)) {
+                    stickiness = Long.parseLong(stickinessProperty.trim());
+                }
+
+                if (!pools.isEmpty()) {
+                    replicas = new Replicas(pools,
+                                            Strings.isEmptyOrNull(balance)
+                                            ? Replicas.Balance.ROUND_ROBIN : Replicas.Balance.valueOf(balance.trim()),
+                                            Strings.isEmptyOrNull(retryInterval)
+                                            ? DEFAULT_REPLICA_RETRY_INTERVAL : Long.parseLong(retryInterval.trim()));
+
+                    LOGGER.log(Level.INFO, "Initialized read replica connection pools[count={0}]", pools.size());
+                }
+            }
         } catch (final Exception e) {
             LOGGER.log(Level.SEVERE, "Can not initialize database connection", e);
         }
     }
 
+    /**
+     * Gets the pool configurations with the specified URL, user name and password.
+     * 
+     * @param url the specified URL
+     * @param username the specified user name
+     * @param password the specified password
+     * @return pool configurations
+     */
+    private static BoneCPConfig getConfig(final String url, final String username, final String password) {
+        final BoneCPConfig ret = new BoneCPConfig();
+        ret.setDefaultAutoCommit(false);
+        ret.setDefaultTransactionIsolation(Latkes.getLocalProperty("jdbc.transactionIsolation"));
+        ret.setJdbcUrl(url);
+        ret.setUsername(username);
+        ret.setPassword(password);
+        ret.setMinConnectionsPerPartition(Integer.valueOf(Latkes.getLocalProperty("jdbc.minConnCnt")));
+        ret.setMaxConnectionsPerPartition(Integer.valueOf(Latkes.getLocalProperty("jdbc.maxConnCnt")));
+        ret.setPartitionCount(1);
+
+        final String statementsCacheSize = Latkes.getLocalProperty(JDBC_STATEMENTS_CACHE_SIZE);
+        ret.setStatementsCacheSize(Strings.isEmptyOrNull(statementsCacheSize)
+                                   ? DEFAULT_STATEMENTS_CACHE_SIZE : Integer.parseInt(statementsCacheSize.trim()));
+
+        return ret;
+    }
+
     /**
      * Gets a connection.
      * 
@@ -87,11 +229,81 @@ public final class Connections {
         return connectionPool.getConnection();
     }
 
+    /**
+     * Gets a connection for reading the table specified by the given table name outside a transaction.
+     * 
+     * <p>
+     * Returns a connection of a read replica if any replica is up and the specified table has not been committed 
+     * within {@value #JDBC_REPLICA_STICKINESS} milliseconds, returns a connection of the primary otherwise.
+     * </p>
+     * 
+     * @param tableName the given table name
+     * @return a connection
+     * @throws SQLException SQL exception 
+     */
+    public static Connection getReadConnection(final String tableName) throws SQLException {
+        if (null == replicas) {
+            return getConnection();
+        }
+
+        final Long commitTime = COMMIT_TIMES.get(tableName);
+        if (null != commitTime) {
+            if (System.currentTimeMillis() - commitTime < stickiness) {
+                return getConnection();
+            }
+
+            COMMIT_TIMES.remove(tableName);
+        }
+
+        final Connection ret = replicas.getConnection();
+        if (null == ret) {
+            LOGGER.finest("All read replicas are down, reads from the primary");
+
+            return getConnection();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Checks whether the specified connection is a connection of a read replica.
+     * 
+     * @param connection the specified connection
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    public static boolean isReplica(final Connection connection) {
+        return null != connection && REPLICA_CONNECTIONS.contains(connection);
+    }
+
+    /**
+     * Records the tables specified by the given table names have been committed, reads of them will go to the primary 
+     * within {@value #JDBC_REPLICA_STICKINESS} milliseconds.
+     * 
+     * @param tableNames the given table names
+     */
+    public static void committed(final Collection<String> tableNames) {
+        if (null == replicas) {
+            return;
+        }
+
+        final Long now = System.currentTimeMillis();
+        for (final String tableName : tableNames) {
+            COMMIT_TIMES.put(tableName, now);
+        }
+    }
+
     /**
      * Shutdowns the connection pool.
      */
     public static void shutdownConnectionPool() {
         connectionPool.shutdown();
+
+        if (null != replicas) {
+            for (final Replicas.Pool pool : replicas.getPools()) {
+                pool.shutdown();
+            }
+        }
+
         LOGGER.info("Shutdowns connection pool sucessfully");
     }
 
@@ -100,4 +312,78 @@ public final class Connections {
      */
     private Connections() {
     }
+
+    /**
+     * BoneCP connection pool of a read replica.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.1.0, Oct 17, 2026
+     */
+    private static final class ReplicaPool implements Replicas.Pool {
+
+        /**
+         * URL.
+         */
+        private final String url;
+        /**
+         * Pool.
+         */
+        private final BoneCP pool;
+
+        /**
+         * Constructs a replica pool with the specified URL and pool.
+         * 
+         * @param url the specified URL
+         * @param pool the specified pool
+         */
+        private ReplicaPool(final String url, final BoneCP pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+
+        @Override
+        public String getName() {
+            return url;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final Connection ret = pool.getConnection();
+            REPLICA_CONNECTIONS.add(ret);
+
+            return ret;
+        }
+
+        @Override
+        public int getLeasedCount() {
+            return pool.getTotalLeased();
+        }
+
+        @Override
+        public boolean check() {
+            Connection connection = null;
+            try {
+                connection = pool.getConnection();
+
+                return connection.isValid(CHECK_TIMEOUT);
+            } catch (final SQLException e) {
+                LOGGER.log(Level.FINER, "Checks replica[" + url + "] failed", e);
+
+                return false;
+            } finally {
+                if (null != connection) {
+                    try {
+                        connection.close();
+                    } catch (final SQLException e) {
+                        LOGGER.log(Level.WARNING, "Closes connection failed", e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            pool.shutdown();
+        }
+    }
 }
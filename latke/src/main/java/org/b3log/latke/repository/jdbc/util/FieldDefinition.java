@@ -19,7 +19,7 @@ package org.b3log.latke.repository.jdbc.util;
  * FieldDefinition of each Filed in *.json.
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
- * @version 1.0.0.0, Dec 20, 2011
+ * @version 1.0.2.0, Oct 16, 2026
  */
 public class FieldDefinition {
 
@@ -48,6 +48,16 @@ public class FieldDefinition {
      */
     private Boolean nullable = true;
 
+    /**
+     * if isVersion, the version column of optimistic concurrency.
+     */
+    private Boolean isVersion = false;
+
+    /**
+     * if isCounted, the row counts of each value of the column are maintained.
+     */
+    private Boolean isCounted = false;
+
     /**
      * getName.
      * 
@@ -138,4 +148,40 @@ public class FieldDefinition {
         this.nullable = nullable;
     }
 
+    /**
+     * getIsVersion.
+     * 
+     * @return isVersion
+     */
+    public Boolean getIsVersion() {
+        return isVersion;
+    }
+
+    /**
+     * setIsVersion.
+     * 
+     * @param isVersion isVersion
+     */
+    public void setIsVersion(final Boolean isVersion) {
+        this.isVersion = isVersion;
+    }
+
+    /**
+     * getIsCounted.
+     * 
+     * @return isCounted
+     */
+    public Boolean getIsCounted() {
+        return isCounted;
+    }
+
+    /**
+     * setIsCounted.
+     * 
+     * @param isCounted isCounted
+     */
+    public void setIsCounted(final Boolean isCounted) {
+        this.isCounted = isCounted;
+    }
+
 }
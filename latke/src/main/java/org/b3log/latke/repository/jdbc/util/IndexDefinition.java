@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IndexDefinition of each index in *.json.
+ * 
+ * <p>
+ * Declared in the "indexes" of a repository, for example:
+ * <pre>
+ * "indexes": [{
+ *     "name": "idx_article_date",
+ *     "keys": ["articleIsPublished", "articleCreateDate"],
+ *     "unique": false
+ * }]
+ * </pre>
+ * The name is optional, defaults to "idx_${tableName}_${key1}_${key2}...".
+ * </p>
+ * 
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public class IndexDefinition {
+
+    /**
+     * index name.
+     */
+    private String name;
+
+    /**
+     * the column names in order.
+     */
+    private List<String> columns = new ArrayList<String>();
+
+    /**
+     * if unique.
+     */
+    private boolean unique;
+
+    /**
+     * getName.
+     * 
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * setName.
+     * 
+     * @param name name
+     */
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * getColumns.
+     * 
+     * @return the column names in order
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * setColumns.
+     * 
+     * @param columns the column names in order
+     */
+    public void setColumns(final List<String> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * isUnique.
+     * 
+     * @return unique
+     */
+    public boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * setUnique.
+     * 
+     * @param unique unique
+     */
+    public void setUnique(final boolean unique) {
+        this.unique = unique;
+    }
+}
@@ -17,6 +17,7 @@ package org.b3log.latke.repository.jdbc.util;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +35,7 @@ import org.json.JSONObject;
  * JdbcRepositories utilities.
  * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
- * @version 1.0.0.0, Dec 20, 2011
+ * @version 1.0.3.2, Oct 17, 2026
  */
 public final class JdbcRepositories {
 
@@ -86,6 +87,22 @@ public final class JdbcRepositories {
      * ** to json "iskey".
      */
     private static final String ISKEY = "iskey";
+    /**
+     * ** to json "isversion".
+     */
+    private static final String ISVERSION = "isversion";
+    /**
+     * ** to json "iscounted".
+     */
+    private static final String ISCOUNTED = "iscounted";
+    /**
+     * ** to json "indexes".
+     */
+    private static final String INDEXES = "indexes";
+    /**
+     * ** to json "unique".
+     */
+    private static final String UNIQUE = "unique";
     /**
      * the default keyname.
      */
@@ -96,7 +113,14 @@ public final class JdbcRepositories {
      * key: the name of the repository value: list of all the FieldDefinition
      * </p>
      */
-    private static Map<String, List<FieldDefinition>> repositoriesMap = null;
+    private static volatile Map<String, List<FieldDefinition>> repositoriesMap = null;
+    /**
+     * store all repository index definition in a Map.
+     * <p>
+     * key: the name of the repository value: list of the declared IndexDefinition
+     * </p>
+     */
+    private static volatile Map<String, List<IndexDefinition>> indexesMap = new HashMap<String, List<IndexDefinition>>();
 
     /**
      * get the RepositoriesMap ,lazy load.
@@ -132,13 +156,15 @@ public final class JdbcRepositories {
     }
 
     /**
-     * analysis json data structure to java Map structure.
+     * analysis json data structure to java Map structure, the maps are published after filled for concurrent lazy 
+     * loads.
      * 
      * @param jsonObject json Model
      * @throws JSONException JSONException
      */
     private static void jsonToRepositoriesMap(final JSONObject jsonObject) throws JSONException {
-        repositoriesMap = new HashMap<String, List<FieldDefinition>>();
+        final Map<String, List<FieldDefinition>> repositories = new HashMap<String, List<FieldDefinition>>();
+        final Map<String, List<IndexDefinition>> indexes = new HashMap<String, List<IndexDefinition>>();
 
         final JSONArray repositoritArray = jsonObject.getJSONArray(REPOSITORIES);
 
@@ -150,7 +176,7 @@ public final class JdbcRepositories {
             final String repositoryName = repositoritObject.getString(NAME);
 
             final List<FieldDefinition> fieldDefinitions = new ArrayList<FieldDefinition>();
-            repositoriesMap.put(repositoryName, fieldDefinitions);
+            repositories.put(repositoryName, fieldDefinitions);
 
             final JSONArray keysJsonArray = repositoritObject.getJSONArray(KEYS);
 
@@ -160,7 +186,63 @@ public final class JdbcRepositories {
                 definition = fillFieldDefinitionData(fieldDefinitionObject);
                 fieldDefinitions.add(definition);
             }
+
+            final JSONArray indexesJsonArray = repositoritObject.optJSONArray(INDEXES);
+            if (null != indexesJsonArray) {
+                final List<IndexDefinition> indexDefinitions = new ArrayList<IndexDefinition>();
+                indexes.put(repositoryName, indexDefinitions);
+
+                for (int j = 0; j < indexesJsonArray.length(); j++) {
+                    indexDefinitions.add(fillIndexDefinitionData(repositoryName, indexesJsonArray.getJSONObject(j)));
+                }
+            }
         }
+
+        indexesMap = indexes;
+        repositoriesMap = repositories;
+        RowDecoder.clear();
+    }
+
+    /**
+     * fillIndexDefinitionData.
+     * 
+     * @param repositoryName the name of the repository declaring the index
+     * @param indexDefinitionObject json model
+     * @return {@link IndexDefinition}
+     * @throws JSONException JSONException
+     */
+    private static IndexDefinition fillIndexDefinitionData(final String repositoryName, final JSONObject indexDefinitionObject)
+            throws JSONException {
+        final IndexDefinition ret = new IndexDefinition();
+
+        final JSONArray keys = indexDefinitionObject.getJSONArray(KEYS);
+        final StringBuilder defaultName = new StringBuilder("idx_").append(repositoryName);
+        for (int i = 0; i < keys.length(); i++) {
+            ret.getColumns().add(keys.getString(i));
+            defaultName.append('_').append(keys.getString(i));
+        }
+
+        ret.setName(indexDefinitionObject.optString(NAME, defaultName.toString()));
+        ret.setUnique(indexDefinitionObject.optBoolean(UNIQUE));
+
+        return ret;
+    }
+
+    /**
+     * Gets the declared indexes of the repository specified by the given repository name.
+     * 
+     * @param repositoryName the given repository name
+     * @return declared indexes, returns an empty list if not found
+     */
+    public static List<IndexDefinition> getIndexes(final String repositoryName) {
+        getRepositoriesMap();
+
+        final List<IndexDefinition> ret = indexesMap.get(repositoryName);
+        if (null == ret) {
+            return Collections.emptyList();
+        }
+
+        return ret;
     }
 
     /**
@@ -189,6 +271,8 @@ public final class JdbcRepositories {
         fieldDefinition.setNullable(fieldDefinitionObject.optBoolean(NULLABLE));
         fieldDefinition.setLength(fieldDefinitionObject.optInt(LENGTH));
         fieldDefinition.setIsKey(fieldDefinitionObject.optBoolean(ISKEY));
+        fieldDefinition.setIsVersion(fieldDefinitionObject.optBoolean(ISVERSION));
+        fieldDefinition.setIsCounted(fieldDefinitionObject.optBoolean(ISCOUNTED));
 
         /**
          * the default key name is 'old'.
@@ -263,6 +347,11 @@ public final class JdbcRepositories {
 
     /**
      * initAllTables from json.
+     * 
+     * <p>
+     * Creates the {@link #getIndexes(java.lang.String) declared indexes} missing in the tables after the tables created.
+     * </p>
+     * 
      * @return List<CreateTableResult>
      */
     public static List<CreateTableResult> initAllTables() {
@@ -282,6 +371,17 @@ public final class JdbcRepositories {
                            "createTable[" + tableName + "] error", e);
             }
 
+            final List<IndexDefinition> indexes = getIndexes(tableName);
+            if (!indexes.isEmpty()) {
+                try {
+                    final List<String> createdIndexes = JdbcFactory.createJdbcFactory().createIndexes(tableName, indexes);
+                    LOGGER.log(Level.INFO, "Created indexes{0} of table[{1}]", new Object[]{createdIndexes, tableName});
+                } catch (final SQLException e) {
+                    LOGGER.log(Level.SEVERE, "createIndexes[" + tableName + "] error", e);
+                    isSuccess = false;
+                }
+            }
+
             results.add(new CreateTableResult(tableName, isSuccess));
         }
 
@@ -297,6 +397,7 @@ public final class JdbcRepositories {
     public static void setRepositoriesMap(
             final Map<String, List<FieldDefinition>> repositoriesMap) {
         JdbcRepositories.repositoriesMap = repositoriesMap;
+        RowDecoder.clear();
     }
 
     /**
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Compiled SQL templates of the fixed statements of a repository.
+ * 
+ * <p>
+ * The templates are built only once per repository and all of them use bound
+ * parameters, so that the same SQL text is reused by every invocation and its
+ * prepared statement could be hit in the statement cache of the connection
+ * pool (see {@link Connections}).
+ * </p>
+ * 
+ * <p>
+ * The insert template lists the columns in the declared order of the 
+ * repository in file "repository.json", it is available only if the 
+ * repository has been declared.
+ * </p>
+ * 
+ * <p>
+ * The version column (declared by {@code "isversion": true} in file 
+ * "repository.json") is used for optimistic concurrency of updates, the 
+ * counted columns (declared by {@code "iscounted": true}) are used for the 
+ * maintained counts (see {@link org.b3log.latke.repository.jdbc.JdbcCounts}).
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.4.0, Oct 17, 2026
+ */
+public final class JdbcSqlTemplates {
+
+    /**
+     * Select by id SQL.
+     */
+    private final String getSql;
+    /**
+     * Delete by id SQL.
+     */
+    private final String removeSql;
+    /**
+     * Select by ids SQL prefix.
+     */
+    private final String getInSqlPrefix;
+    /**
+     * Count SQL.
+     */
+    private final String countSql;
+    /**
+     * Insert SQL, {@code null} if the repository has not been declared.
+     */
+    private final String insertSql;
+    /**
+     * Declared columns.
+     */
+    private final List<String> columns;
+    /**
+     * Version column, {@code null} if not declared.
+     */
+    private final String versionColumn;
+    /**
+     * Counted columns.
+     */
+    private final List<String> countedColumns;
+    /**
+     * Whether the key column is a string column, {@code true} if not declared.
+     */
+    private final boolean stringKey;
+
+    /**
+     * Compiles the templates of the repository with the specified name.
+     * 
+     * @param tableName the specified name
+     */
+    public JdbcSqlTemplates(final String tableName) {
+        getSql = "select * from " + tableName + " where " + JdbcRepositories.OID + "=?";
+        getInSqlPrefix = "select * from " + tableName + " where " + JdbcRepositories.OID + " in (";
+        removeSql = "delete from " + tableName + " where " + JdbcRepositories.OID + "=?";
+        countSql = "select count(" + JdbcRepositories.OID + ") from " + tableName;
+
+        final Map<String, List<FieldDefinition>> repositoriesMap = JdbcRepositories.getRepositoriesMap();
+        final List<FieldDefinition> definitions = null == repositoriesMap ? null : repositoriesMap.get(tableName);
+
+        if (null == definitions || definitions.isEmpty()) {
+            columns = Collections.emptyList();
+            insertSql = null;
+            versionColumn = null;
+            countedColumns = Collections.emptyList();
+            stringKey = true;
+
+            return;
+        }
+
+        final List<String> declared = new ArrayList<String>(definitions.size());
+        String version = null;
+        final List<String> counted = new ArrayList<String>();
+        boolean string = true;
+        final StringBuilder sql = new StringBuilder("insert into ").append(tableName).append("(");
+        final StringBuilder wildcardString = new StringBuilder("(");
+        for (final FieldDefinition definition : definitions) {
+            declared.add(definition.getName());
+            if (Boolean.TRUE.equals(definition.getIsVersion())) {
+                version = definition.getName();
+            }
+            if (Boolean.TRUE.equals(definition.getIsCounted())) {
+                counted.add(definition.getName());
+            }
+            if (JdbcRepositories.OID.equals(definition.getName())) {
+                string = "String".equals(definition.getType());
+            }
+
+            sql.append(definition.getName()).append(",");
+            wildcardString.append("?,");
+        }
+        sql.setCharAt(sql.length() - 1, ')');
+        wildcardString.setCharAt(wildcardString.length() - 1, ')');
+        sql.append(" values ").append(wildcardString);
+
+        columns = Collections.unmodifiableList(declared);
+        insertSql = sql.toString();
+        versionColumn = version;
+        countedColumns = Collections.unmodifiableList(counted);
+        stringKey = string;
+    }
+
+    /**
+     * Gets the select by id SQL, binds the id as the only parameter.
+     * 
+     * @return select by id SQL
+     */
+    public String getGetSql() {
+        return getSql;
+    }
+
+    /**
+     * Gets the select by ids SQL, binds the specified count of ids as the 
+     * parameters.
+     * 
+     * @param count the specified count, must be positive
+     * @return select by ids SQL
+     */
+    public String getGetInSql(final int count) {
+        final StringBuilder ret = new StringBuilder(getInSqlPrefix.length() + count * 2).append(getInSqlPrefix);
+        for (int i = 0; i < count; i++) {
+            ret.append("?,");
+        }
+        ret.setCharAt(ret.length() - 1, ')');
+
+        return ret.toString();
+    }
+
+    /**
+     * Gets the delete by id SQL, binds the id as the only parameter.
+     * 
+     * @return delete by id SQL
+     */
+    public String getRemoveSql() {
+        return removeSql;
+    }
+
+    /**
+     * Gets the count SQL.
+     * 
+     * @return count SQL
+     */
+    public String getCountSql() {
+        return countSql;
+    }
+
+    /**
+     * Gets the insert SQL, binds the parameters returned by 
+     * {@link #getInsertParams(org.json.JSONObject)}.
+     * 
+     * @return insert SQL, returns {@code null} if the repository has not been 
+     * declared
+     */
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    /**
+     * Gets the version column.
+     * 
+     * @return version column, returns {@code null} if not declared
+     */
+    public String getVersionColumn() {
+        return versionColumn;
+    }
+
+    /**
+     * Gets the counted columns.
+     * 
+     * @return counted columns, returns an empty list if not declared
+     */
+    public List<String> getCountedColumns() {
+        return countedColumns;
+    }
+
+    /**
+     * Checks whether the key column ({@value JdbcRepositories#OID}) is a string column, of which the ids are ordered
+     * lexicographically by the database.
+     * 
+     * @return {@code true} if it is a string column or not declared, returns {@code false} otherwise
+     */
+    public boolean isStringKey() {
+        return stringKey;
+    }
+
+    /**
+     * Gets the declared columns.
+     * 
+     * @return declared columns, returns an empty list if the repository has not
+     * been declared
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the insert parameters of the specified json object in the declared
+     * column order.
+     * 
+     * @param jsonObject the specified json object
+     * @return insert parameters, returns {@code null} if the insert template is
+     * unavailable or the properties of the specified json object do not 
+     * exactly match the declared columns (the caller should build the insert 
+     * SQL on its own in this case, so that the absent columns take their 
+     * default values)
+     * @throws JSONException json exception
+     */
+    public List<Object> getInsertParams(final JSONObject jsonObject) throws JSONException {
+        if (null == insertSql || jsonObject.length() != columns.size()) {
+            return null;
+        }
+
+        final List<Object> ret = new ArrayList<Object>(columns.size());
+        for (final String column : columns) {
+            if (!jsonObject.has(column)) {
+                return null;
+            }
+
+            ret.add(jsonObject.get(column));
+        }
+
+        return ret;
+    }
+}
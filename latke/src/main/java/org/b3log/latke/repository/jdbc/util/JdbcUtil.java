@@ -18,16 +18,14 @@ package org.b3log.latke.repository.jdbc.util;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.b3log.latke.Keys;
+import org.b3log.latke.repository.ObjectHandler;
 import org.b3log.latke.repository.RepositoryException;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -36,8 +34,12 @@ import org.json.JSONObject;
 /**
  * jdbcUtil.
  * 
+ * <p>
+ * Each execution is recorded in {@link SqlMetrics}.
+ * </p>
+ * 
  * @author <a href="mailto:wmainlove@gmail.com">Love Yao</a>
- * @version 1.0.0.0, Dec 20, 2011
+ * @version 1.0.2.0, Oct 17, 2026
  */
 public final class JdbcUtil {
 
@@ -56,13 +58,20 @@ public final class JdbcUtil {
      */
     public static boolean executeSql(final String sql,
             final Connection connection) throws SQLException {
+        final long start = System.nanoTime();
+        boolean failed = true;
 
-        LOGGER.info("executeSql:" + sql);
         final Statement statement = connection.createStatement();
-        final boolean isSuccess = statement.execute(sql);
-        statement.close();
 
-        return isSuccess;
+        try {
+            final boolean ret = statement.execute(sql);
+            failed = false;
+
+            return ret;
+        } finally {
+            statement.close();
+            SqlMetrics.record(sql, System.nanoTime() - start, 0, failed);
+        }
     }
 
     /**
@@ -77,18 +86,120 @@ public final class JdbcUtil {
     public static boolean executeSql(final String sql,
             final List<Object> paramList, final Connection connection)
             throws SQLException {
+        final long start = System.nanoTime();
+        boolean failed = true;
 
-        LOGGER.info("executeSql:" + sql);
-        
         final PreparedStatement preparedStatement = connection.prepareStatement(sql);
 
-        for (int i = 1; i <= paramList.size(); i++) {
-            preparedStatement.setObject(i, paramList.get(i - 1));
+        try {
+            for (int i = 1; i <= paramList.size(); i++) {
+                preparedStatement.setObject(i, paramList.get(i - 1));
+            }
+
+            final boolean ret = preparedStatement.execute();
+            failed = false;
+
+            return ret;
+        } finally {
+            preparedStatement.close(); // Returns to the statement cache of the connection
+            SqlMetrics.record(sql, System.nanoTime() - start, 0, failed);
+        }
+    }
+
+    /**
+     * Executes the specified update sql.
+     * 
+     * @param sql the specified update sql
+     * @param paramList paramList
+     * @param connection connection
+     * @return affected row count
+     * @throws SQLException SQLException
+     */
+    public static int executeUpdate(final String sql, final List<Object> paramList, final Connection connection)
+            throws SQLException {
+        final long start = System.nanoTime();
+        int ret = 0;
+        boolean failed = true;
+
+        final PreparedStatement preparedStatement = connection.prepareStatement(sql);
+
+        try {
+            for (int i = 1; i <= paramList.size(); i++) {
+                preparedStatement.setObject(i, paramList.get(i - 1));
+            }
+
+            ret = preparedStatement.executeUpdate();
+            failed = false;
+
+            return ret;
+        } finally {
+            preparedStatement.close(); // Returns to the statement cache of the connection
+            SqlMetrics.record(sql, System.nanoTime() - start, ret, failed);
+        }
+    }
+
+    /**
+     * Executes the specified sql with each of the specified parameter lists
+     * by JDBC batches.
+     * 
+     * @param sql the specified sql
+     * @param paramLists the specified parameter lists
+     * @param batchSize the maximum count of parameter lists in a batch
+     * @param connection connection
+     * @return affected row count
+     * @throws SQLException SQLException
+     */
+    public static int executeBatch(final String sql, final List<List<Object>> paramLists, final int batchSize,
+            final Connection connection) throws SQLException {
+        LOGGER.log(Level.FINE, "executeBatch[size={0}]:{1}", new Object[]{paramLists.size(), sql});
+
+        final long start = System.nanoTime();
+        int ret = 0;
+        boolean failed = true;
+
+        final PreparedStatement preparedStatement = connection.prepareStatement(sql);
+
+        try {
+            int count = 0;
+            for (final List<Object> paramList : paramLists) {
+                for (int i = 1; i <= paramList.size(); i++) {
+                    preparedStatement.setObject(i, paramList.get(i - 1));
+                }
+
+                preparedStatement.addBatch();
+
+                if (++count % batchSize == 0) {
+                    ret += sum(preparedStatement.executeBatch());
+                }
+            }
+
+            if (count % batchSize != 0) {
+                ret += sum(preparedStatement.executeBatch());
+            }
+
+            failed = false;
+        } finally {
+            preparedStatement.close();
+            SqlMetrics.record(sql, System.nanoTime() - start, ret, failed);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Sums the specified batch update counts.
+     * 
+     * @param updateCounts the specified batch update counts
+     * @return sum, {@link Statement#SUCCESS_NO_INFO} is counted as one row
+     */
+    private static int sum(final int[] updateCounts) {
+        int ret = 0;
+
+        for (final int updateCount : updateCounts) {
+            ret += Statement.SUCCESS_NO_INFO == updateCount ? 1 : Math.max(0, updateCount);
         }
-        final boolean isSuccess = preparedStatement.execute();
-        preparedStatement.close();
 
-        return isSuccess;
+        return ret;
     }
 
     /**
@@ -135,6 +246,65 @@ public final class JdbcUtil {
 
     }
 
+    /**
+     * Iterates the rows queried by the specified sql with a forward-only result set.
+     * 
+     * @param sql the specified sql
+     * @param paramList paramList
+     * @param connection connection
+     * @param tableName tableName
+     * @param fetchSize the fetch size for the driver
+     * @param handler the specified handler of each row
+     * @return count of handled rows
+     * @throws SQLException SQLException
+     * @throws RepositoryException repositoryException, wraps the exception thrown by the specified handler
+     */
+    public static long iterate(final String sql, final List<Object> paramList, final Connection connection,
+            final String tableName, final int fetchSize, final ObjectHandler handler) throws SQLException, RepositoryException {
+        final long start = System.nanoTime();
+        long ret = 0;
+        boolean failed = true;
+
+        final PreparedStatement preparedStatement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                                                ResultSet.CONCUR_READ_ONLY);
+
+        try {
+            for (int i = 1; i <= paramList.size(); i++) {
+                preparedStatement.setObject(i, paramList.get(i - 1));
+            }
+
+            preparedStatement.setFetchSize(fetchSize);
+
+            final ResultSet resultSet = preparedStatement.executeQuery();
+
+            try {
+                final RowDecoder decoder = RowDecoder.get(tableName, resultSet.getMetaData());
+                while (resultSet.next()) {
+                    ret++;
+
+                    if (!handler.handle(decoder.decode(resultSet))) {
+                        break;
+                    }
+                }
+            } catch (final SQLException e) {
+                throw e;
+            } catch (final RepositoryException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new RepositoryException(e);
+            } finally {
+                resultSet.close();
+            }
+
+            failed = false;
+        } finally {
+            preparedStatement.close();
+            SqlMetrics.record(sql, System.nanoTime() - start, ret, failed);
+        }
+
+        return ret;
+    }
+
     /**
      * @param sql sql
      * @param paramList paramList
@@ -151,20 +321,35 @@ public final class JdbcUtil {
             final List<Object> paramList, final Connection connection,
             final boolean ifOnlyOne, final String tableName)
             throws SQLException, JSONException, RepositoryException {
-
-        LOGGER.info("querySql:" + sql);
+        final long start = System.nanoTime();
+        int rows = 0;
+        boolean failed = true;
 
         final PreparedStatement preparedStatement = connection.prepareStatement(sql);
 
-        for (int i = 1; i <= paramList.size(); i++) {
-            preparedStatement.setObject(i, paramList.get(i - 1));
-        }
+        try {
+            for (int i = 1; i <= paramList.size(); i++) {
+                preparedStatement.setObject(i, paramList.get(i - 1));
+            }
 
-        final ResultSet resultSet = preparedStatement.executeQuery();
+            final ResultSet resultSet = preparedStatement.executeQuery();
 
-        final JSONObject jsonObject = resultSetToJsonObject(resultSet, ifOnlyOne, tableName);
-        preparedStatement.close();
-        return jsonObject;
+            try {
+                final JSONObject ret = resultSetToJsonObject(resultSet, ifOnlyOne, tableName);
+
+                if (null != ret) {
+                    rows = ifOnlyOne ? 1 : ret.getJSONArray(Keys.RESULTS).length();
+                }
+                failed = false;
+
+                return ret;
+            } finally {
+                resultSet.close();
+            }
+        } finally {
+            preparedStatement.close(); // Returns to the statement cache of the connection
+            SqlMetrics.record(sql, System.nanoTime() - start, rows, failed);
+        }
 
     }
 
@@ -183,48 +368,16 @@ public final class JdbcUtil {
     private static JSONObject resultSetToJsonObject(final ResultSet resultSet,
             final boolean ifOnlyOne, final String tableName)
             throws SQLException, JSONException, RepositoryException {
-        final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-
-        final List<FieldDefinition> definitioList = JdbcRepositories.getRepositoriesMap().get(tableName);
-
-        if (definitioList == null) {
-            LOGGER.log(Level.SEVERE, "resultSetToJsonObject: null definitioList finded for table  {0}", tableName);
-            throw new RepositoryException("resultSetToJsonObject: null definitioList finded for table  " + tableName);
-        }
-
-        final Map<String, FieldDefinition> dMap = new HashMap<String, FieldDefinition>();
-        for (FieldDefinition fieldDefinition : definitioList) {
-            dMap.put(fieldDefinition.getName(), fieldDefinition);
-        }
-
-        final int numColumns = resultSetMetaData.getColumnCount();
+        final RowDecoder decoder = RowDecoder.get(tableName, resultSet.getMetaData());
 
         final JSONArray jsonArray = new JSONArray();
         JSONObject jsonObject = null;
-        String columnName = null;
         while (resultSet.next()) {
-            jsonObject = new JSONObject();
-
-            for (int i = 1; i < numColumns + 1; i++) {
-                columnName = resultSetMetaData.getColumnName(i);
-
-                final FieldDefinition definition = dMap.get(columnName);
-                if (definition == null) {
-                    //                    throw new RepositoryException(
-                    //                            "resultSetToJsonObject: null columnName["
-                    //                                    + columnName + "] finded in table  "
-                    //                                    + tableName);
-                    jsonObject.put(columnName, resultSet.getObject(columnName));
-                } else {
-                    if ("boolean".equals(definition.getType())) {
-                        jsonObject.put(columnName, resultSet.getBoolean(columnName));
-                    } else {
-                        jsonObject.put(columnName, resultSet.getObject(columnName));
-                    }
-                }
-            }
+            jsonArray.put(decoder.decode(resultSet));
 
-            jsonArray.put(jsonObject);
+            if (ifOnlyOne) {
+                break;
+            }
         }
 
         if (ifOnlyOne) {
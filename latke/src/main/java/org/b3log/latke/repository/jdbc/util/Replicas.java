@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read replica connection pools.
+ * 
+ * <p>
+ * Balances the read connections over the replica pools, round-robin or to the least-loaded one. A replica failed to 
+ * lease a connection is marked down, after the retry interval the first reader checks the health of it again, the 
+ * replica returns to the balance only if the check passed.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class Replicas {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(Replicas.class.getName());
+    /**
+     * Pools.
+     */
+    private final List<Pool> pools;
+    /**
+     * Balance.
+     */
+    private final Balance balance;
+    /**
+     * Retry interval (milliseconds) of a down replica.
+     */
+    private final long retryInterval;
+    /**
+     * Down until time (milliseconds) of each pool, {@code 0} for up.
+     */
+    private final AtomicLongArray downUntil;
+    /**
+     * Next pool index of round-robin.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Constructs replicas with the specified pools, balance and retry interval.
+     * 
+     * @param pools the specified pools
+     * @param balance the specified balance
+     * @param retryInterval the specified retry interval in milliseconds
+     */
+    public Replicas(final List<Pool> pools, final Balance balance, final long retryInterval) {
+        this.pools = new ArrayList<Pool>(pools);
+        this.balance = balance;
+        this.retryInterval = retryInterval;
+        downUntil = new AtomicLongArray(pools.size());
+    }
+
+    /**
+     * Gets a connection from a healthy replica.
+     * 
+     * @return a connection, returns {@code null} if all replicas are down
+     */
+    public Connection getConnection() {
+        final int size = pools.size();
+        final int start = Balance.LEAST_LOADED == balance ? leastLoaded() : (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+
+        for (int i = 0; i < size; i++) {
+            final int index = (start + i) % size;
+            if (!isUp(index)) {
+                continue;
+            }
+
+            try {
+                return pools.get(index).getConnection();
+            } catch (final SQLException e) {
+                markDown(index);
+                LOGGER.log(Level.WARNING, "Can not get connection from replica[" + pools.get(index).getName() + "]", e);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Determines whether the pool specified by the index is up.
+     * 
+     * <p>
+     * A down pool is checked by one caller after the retry interval, the others treat it as down until the check passed.
+     * </p>
+     * 
+     * @param index the specified index
+     * @return {@code true} if it is up, returns {@code false} otherwise
+     */
+    public boolean isUp(final int index) {
+        final long until = downUntil.get(index);
+        if (0 == until) {
+            return true;
+        }
+
+        final long now = System.currentTimeMillis();
+        if (now < until || !downUntil.compareAndSet(index, until, now + retryInterval)) {
+            return false;
+        }
+
+        if (!pools.get(index).check()) {
+            LOGGER.log(Level.WARNING, "Replica[{0}] is still down", pools.get(index).getName());
+
+            return false;
+        }
+
+        downUntil.compareAndSet(index, now + retryInterval, 0);
+        LOGGER.log(Level.INFO, "Replica[{0}] is up", pools.get(index).getName());
+
+        return true;
+    }
+
+    /**
+     * Marks the pool specified by the index down.
+     * 
+     * @param index the specified index
+     */
+    public void markDown(final int index) {
+        downUntil.set(index, System.currentTimeMillis() + retryInterval);
+    }
+
+    /**
+     * Gets the pools.
+     * 
+     * @return pools
+     */
+    public List<Pool> getPools() {
+        return pools;
+    }
+
+    /**
+     * Gets the index of the up pool with the least leased connections.
+     * 
+     * @return index, returns {@code 0} if all pools are down
+     */
+    private int leastLoaded() {
+        int ret = 0;
+        int least = Integer.MAX_VALUE;
+        for (int i = 0; i < pools.size(); i++) {
+            final int leased = pools.get(i).getLeasedCount();
+            if (leased < least && 0 == downUntil.get(i)) {
+                least = leased;
+                ret = i;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Balance of replicas.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    public enum Balance {
+
+        /**
+         * Round-robin.
+         */
+        ROUND_ROBIN,
+        /**
+         * The replica with the least leased connections.
+         */
+        LEAST_LOADED,
+    }
+
+    /**
+     * Connection pool of a replica.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    public interface Pool {
+
+        /**
+         * Gets the name of this pool.
+         * 
+         * @return name
+         */
+        String getName();
+
+        /**
+         * Gets a connection.
+         * 
+         * @return connection
+         * @throws SQLException SQL exception
+         */
+        Connection getConnection() throws SQLException;
+
+        /**
+         * Gets the count of leased connections.
+         * 
+         * @return count of leased connections
+         */
+        int getLeasedCount();
+
+        /**
+         * Checks the health of this pool.
+         * 
+         * @return {@code true} if it is healthy, returns {@code false} otherwise
+         */
+        boolean check();
+
+        /**
+         * Shutdowns this pool.
+         */
+        void shutdown();
+    }
+}
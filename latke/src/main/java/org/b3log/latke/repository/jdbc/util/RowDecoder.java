@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.b3log.latke.repository.RepositoryException;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Decodes rows of a table into json objects.
+ * 
+ * <p>
+ * A decoder is built only once for a table and a column layout (the column 
+ * names of a result set) from the {@link FieldDefinition field definitions} 
+ * of the table, it maps each column index to a typed getter of 
+ * {@link ResultSet}, so decoding a row neither looks up the metadata nor 
+ * fetches by column name. The decoded json objects are presized to the 
+ * column count. The decoders are {@link #clear() cleared} whenever the 
+ * field definitions are replaced.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class RowDecoder {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(RowDecoder.class.getName());
+    /**
+     * Decoders, &lt;tableName:columnNames, decoder&gt;.
+     */
+    private static final Map<String, RowDecoder> DECODERS = new ConcurrentHashMap<String, RowDecoder>();
+    /**
+     * Getter type: {@link ResultSet#getObject(int)}.
+     */
+    private static final int OBJECT = 0;
+    /**
+     * Getter type: {@link ResultSet#getString(int)}.
+     */
+    private static final int STRING = 1;
+    /**
+     * Getter type: {@link ResultSet#getInt(int)}.
+     */
+    private static final int INT = 2;
+    /**
+     * Getter type: {@link ResultSet#getLong(int)}.
+     */
+    private static final int LONG = 3;
+    /**
+     * Getter type: {@link ResultSet#getDouble(int)}.
+     */
+    private static final int DOUBLE = 4;
+    /**
+     * Getter type: {@link ResultSet#getBoolean(int)}.
+     */
+    private static final int BOOLEAN = 5;
+    /**
+     * Load factor of the presized json objects.
+     */
+    private static final float LOAD_FACTOR = 0.75F;
+    /**
+     * Column names.
+     */
+    private final String[] names;
+    /**
+     * Getter types of the columns.
+     */
+    private final int[] types;
+    /**
+     * Initial capacity of a decoded json object.
+     */
+    private final int capacity;
+
+    /**
+     * Constructs a decoder with the specified column names and field 
+     * definitions.
+     * 
+     * @param names the specified column names
+     * @param definitions the specified field definitions, &lt;name, definition&gt;
+     */
+    private RowDecoder(final String[] names, final Map<String, FieldDefinition> definitions) {
+        this.names = names;
+        types = new int[names.length];
+        capacity = (int) (names.length / LOAD_FACTOR) + 1;
+
+        for (int i = 0; i < names.length; i++) {
+            final FieldDefinition definition = definitions.get(names[i]);
+            types[i] = null == definition ? OBJECT : getType(definition.getType());
+        }
+    }
+
+    /**
+     * Gets the decoder of the specified table for the specified result set
+     * metadata, builds one if absent.
+     * 
+     * @param tableName the specified table
+     * @param metaData the specified result set metadata
+     * @return decoder
+     * @throws SQLException SQL exception
+     * @throws RepositoryException if the specified table has not been declared
+     */
+    public static RowDecoder get(final String tableName, final ResultSetMetaData metaData) throws SQLException, RepositoryException {
+        final int columnCount = metaData.getColumnCount();
+        final String[] names = new String[columnCount];
+        final StringBuilder keyBuilder = new StringBuilder(tableName).append(':');
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = metaData.getColumnName(i + 1);
+            keyBuilder.append(names[i]).append(',');
+        }
+
+        final String key = keyBuilder.toString();
+        RowDecoder ret = DECODERS.get(key);
+
+        if (null == ret) {
+            final List<FieldDefinition> definitionList = JdbcRepositories.getRepositoriesMap().get(tableName);
+
+            if (null == definitionList) {
+                LOGGER.log(Level.SEVERE, "resultSetToJsonObject: null definitioList finded for table  {0}", tableName);
+                throw new RepositoryException("resultSetToJsonObject: null definitioList finded for table  " + tableName);
+            }
+
+            final Map<String, FieldDefinition> definitions = new HashMap<String, FieldDefinition>();
+            for (final FieldDefinition definition : definitionList) {
+                definitions.put(definition.getName(), definition);
+            }
+
+            ret = new RowDecoder(names, definitions);
+            DECODERS.put(key, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Clears all decoders, invokes it after the field definitions replaced.
+     */
+    public static void clear() {
+        DECODERS.clear();
+    }
+
+    /**
+     * Decodes the current row of the specified result set.
+     * 
+     * <p>
+     * A SQL {@code NULL} column is absent in the decoded json object, except
+     * the boolean column which is decoded as {@code false}.
+     * </p>
+     * 
+     * @param resultSet the specified result set
+     * @return json object
+     * @throws SQLException SQL exception
+     * @throws JSONException json exception
+     */
+    public JSONObject decode(final ResultSet resultSet) throws SQLException, JSONException {
+        final JSONObject ret = new JSONObject(new HashMap<String, Object>(capacity));
+
+        for (int i = 0; i < names.length; i++) {
+            final int column = i + 1;
+            Object value;
+
+            switch (types[i]) {
+                case STRING:
+                    value = resultSet.getString(column);
+                    break;
+                case INT:
+                    final int intValue = resultSet.getInt(column);
+                    value = resultSet.wasNull() ? null : Integer.valueOf(intValue);
+                    break;
+                case LONG:
+                    final long longValue = resultSet.getLong(column);
+                    value = resultSet.wasNull() ? null : Long.valueOf(longValue);
+                    break;
+                case DOUBLE:
+                    final double doubleValue = resultSet.getDouble(column);
+                    value = resultSet.wasNull() ? null : Double.valueOf(doubleValue);
+                    break;
+                case BOOLEAN:
+                    value = resultSet.getBoolean(column);
+                    break;
+                default:
+                    value = resultSet.getObject(column);
+            }
+
+            if (null != value) {
+                ret.put(names[i], value);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the getter type of the specified field type.
+     * 
+     * @param fieldType the specified field type declared in file 
+     * "repository.json"
+     * @return getter type
+     */
+    private static int getType(final String fieldType) {
+        if ("String".equals(fieldType)) {
+            return STRING;
+        } else if ("int".equals(fieldType)) {
+            return INT;
+        } else if ("long".equals(fieldType)) {
+            return LONG;
+        } else if ("double".equals(fieldType)) {
+            return DOUBLE;
+        } else if ("boolean".equals(fieldType)) {
+            return BOOLEAN;
+        }
+
+        return OBJECT;
+    }
+}
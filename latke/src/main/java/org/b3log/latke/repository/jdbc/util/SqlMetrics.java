@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.util.Strings;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * SQL metrics, records the timing histograms, row counts and error counts of the executed statements by their shapes,
+ * and logs the slow statements.
+ * 
+ * <p>
+ * The shape of a statement is its SQL with the literals replaced by {@code ?}, the parameter lists (for example, of an 
+ * {@code IN}) collapsed and the whitespaces normalized, so that the statements differ only in parameters share one 
+ * shape. At most {@value #MAX_SHAPE_COUNT} shapes are tracked, the others are recorded as {@value #OTHER_SHAPE}.
+ * </p>
+ * 
+ * <p>
+ * Configurations (local properties):
+ *   <ul>
+ *     <li>{@value #JDBC_METRICS}: whether to record the metrics, defaults to {@code true}</li>
+ *     <li>{@value #JDBC_SLOW_QUERY_THRESHOLD}: milliseconds, a statement executed not shorter than it is logged at 
+ *         {@link Level#WARNING WARNING}, defaults to {@value #DEFAULT_SLOW_QUERY_THRESHOLD}, a negative value disables 
+ *         the slow-query log</li>
+ *   </ul>
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.2.0, Oct 17, 2026
+ */
+public final class SqlMetrics {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SqlMetrics.class.getName());
+    /**
+     * Local property of whether to record the metrics.
+     */
+    public static final String JDBC_METRICS = "jdbc.metrics";
+    /**
+     * Local property of the slow-query threshold in milliseconds.
+     */
+    public static final String JDBC_SLOW_QUERY_THRESHOLD = "jdbc.slowQueryThreshold";
+    /**
+     * Shape of the statements not tracked.
+     */
+    public static final String OTHER_SHAPE = "(other)";
+    /**
+     * Default slow-query threshold in milliseconds.
+     */
+    private static final long DEFAULT_SLOW_QUERY_THRESHOLD = 1000;
+    /**
+     * Maximum count of the tracked shapes.
+     */
+    private static final int MAX_SHAPE_COUNT = 1000;
+    /**
+     * Upper bounds (milliseconds, inclusive) of the timing histogram buckets, the last bucket is unbounded.
+     */
+    private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1000000L;
+    /**
+     * Pattern of string literals.
+     */
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    /**
+     * Pattern of number literals.
+     */
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    /**
+     * Pattern of parameter lists.
+     */
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    /**
+     * Pattern of whitespaces.
+     */
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+    /**
+     * Statistics, &lt;shape, statistic&gt;.
+     */
+    private static final ConcurrentMap<String, Statistic> STATISTICS = new ConcurrentHashMap<String, Statistic>();
+    /**
+     * Maximum count of the SQLs of which the shapes are memoized.
+     */
+    private static final int MAX_SHAPED_SQL_COUNT = MAX_SHAPE_COUNT * 2;
+    /**
+     * Shapes of SQLs, &lt;SQL, shape&gt;, read without locking. It is cleared once holds 
+     * {@value #MAX_SHAPED_SQL_COUNT} SQLs, so that SQLs with inlined values do not stop memoizing the shapes of the 
+     * others, the shapes in use are memoized again soon.
+     */
+    private static final ConcurrentMap<String, String> SHAPES = new ConcurrentHashMap<String, String>();
+    /**
+     * Whether to record the metrics.
+     */
+    private static volatile boolean enabled;
+    /**
+     * Slow-query threshold in milliseconds, negative for disabled.
+     */
+    private static volatile long slowQueryThreshold;
+
+    /**
+     * Loads the configurations.
+     */
+    static {
+        enabled = !"false".equals(Latkes.getLocalProperty(JDBC_METRICS));
+
+        final String threshold = Latkes.getLocalProperty(JDBC_SLOW_QUERY_THRESHOLD);
+        slowQueryThreshold = Strings.isEmptyOrNull(threshold) ? DEFAULT_SLOW_QUERY_THRESHOLD : Long.parseLong(threshold.trim());
+    }
+
+    /**
+     * Records an execution of the specified SQL.
+     * 
+     * @param sql the specified SQL
+     * @param elapsedNanos the elapsed nanoseconds of the execution
+     * @param rows the count of the rows queried or updated
+     * @param failed whether the execution failed
+     */
+    public static void record(final String sql, final long elapsedNanos, final long rows, final boolean failed) {
+        final long threshold = slowQueryThreshold;
+        if (0 <= threshold && elapsedNanos >= threshold * NANOS_PER_MILLI) {
+            LOGGER.log(Level.WARNING, "Slow SQL[elapsed={0}ms, rows={1}, failed={2}]: {3}",
+                       new Object[]{elapsedNanos / NANOS_PER_MILLI, rows, failed, sql});
+        }
+
+        if (!enabled) {
+            return;
+        }
+
+        String shape = getShape(sql);
+        Statistic statistic = STATISTICS.get(shape);
+        if (null == statistic) {
+            if (STATISTICS.size() >= MAX_SHAPE_COUNT) {
+                shape = OTHER_SHAPE;
+            }
+
+            final Statistic created = new Statistic();
+            statistic = STATISTICS.putIfAbsent(shape, created);
+            if (null == statistic) {
+                statistic = created;
+            }
+        }
+
+        statistic.record(elapsedNanos, rows, failed);
+    }
+
+    /**
+     * Gets the shape of the specified SQL.
+     * 
+     * @param sql the specified SQL
+     * @return shape
+     */
+    public static String getShape(final String sql) {
+        String ret = SHAPES.get(sql);
+        if (null != ret) {
+            return ret;
+        }
+
+        ret = STRING_LITERAL.matcher(sql).replaceAll("?");
+        ret = NUMBER_LITERAL.matcher(ret).replaceAll("?");
+        ret = PARAMETER_LIST.matcher(ret).replaceAll("?...");
+        ret = WHITESPACES.matcher(ret).replaceAll(" ").trim();
+
+        if (SHAPES.size() >= MAX_SHAPED_SQL_COUNT) {
+            SHAPES.clear();
+        }
+
+        SHAPES.put(sql, ret);
+
+        return ret;
+    }
+
+    /**
+     * Gets the statistics.
+     * 
+     * @return for example,
+     * <pre>
+     * {
+     *     "enabled": true,
+     *     "slowQueryThreshold": 1000,
+     *     "statements": [{
+     *         "shape": "select * from b3log_article where oId = ?",
+     *         "count": 10,
+     *         "errors": 0,
+     *         "rows": 10,
+     *         "totalMillis": 12.5,
+     *         "meanMillis": 1.25,
+     *         "maxMillis": 3.2,
+     *         "histogram": {"1": 6, "2": 3, "5": 1, ...., "+Inf": 0}
+     *     }, ....]
+     * }
+     * </pre>, the statements are sorted by their total elapsed time descending
+     */
+    public static JSONObject getStatistics() {
+        final List<Map.Entry<String, Statistic>> entries = new ArrayList<Map.Entry<String, Statistic>>(STATISTICS.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Statistic>>() {
+
+            @Override
+            public int compare(final Map.Entry<String, Statistic> entry1, final Map.Entry<String, Statistic> entry2) {
+                final long total1 = entry1.getValue().totalNanos.get();
+                final long total2 = entry2.getValue().totalNanos.get();
+
+                return total1 > total2 ? -1 : (total1 == total2 ? 0 : 1);
+            }
+        });
+
+        final JSONArray statements = new JSONArray();
+        for (final Map.Entry<String, Statistic> entry : entries) {
+            statements.put(entry.getValue().toJSONObject(entry.getKey()));
+        }
+
+        final JSONObject ret = new JSONObject();
+        ret.put("enabled", enabled);
+        ret.put("slowQueryThreshold", slowQueryThreshold);
+        ret.put("statements", statements);
+
+        return ret;
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public static void reset() {
+        STATISTICS.clear();
+    }
+
+    /**
+     * Determines whether to record the metrics.
+     * 
+     * @return {@code true} if recording, returns {@code false} otherwise
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether to record the metrics.
+     * 
+     * @param enabled whether to record the metrics
+     */
+    public static void setEnabled(final boolean enabled) {
+        SqlMetrics.enabled = enabled;
+    }
+
+    /**
+     * Gets the slow-query threshold.
+     * 
+     * @return slow-query threshold in milliseconds, negative for disabled
+     */
+    public static long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    /**
+     * Sets the slow-query threshold.
+     * 
+     * @param slowQueryThreshold the specified slow-query threshold in milliseconds, negative for disabled
+     */
+    public static void setSlowQueryThreshold(final long slowQueryThreshold) {
+        SqlMetrics.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    /**
+     * Converts the specified nanoseconds to milliseconds.
+     * 
+     * @param nanos the specified nanoseconds
+     * @return milliseconds
+     */
+    private static double toMillis(final long nanos) {
+        return (double) nanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private SqlMetrics() {
+    }
+
+    /**
+     * Statistic of a statement shape.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    private static final class Statistic {
+
+        /**
+         * Count of the executions.
+         */
+        private final AtomicLong count = new AtomicLong();
+        /**
+         * Count of the failed executions.
+         */
+        private final AtomicLong errors = new AtomicLong();
+        /**
+         * Count of the rows queried or updated.
+         */
+        private final AtomicLong rows = new AtomicLong();
+        /**
+         * Total elapsed nanoseconds.
+         */
+        private final AtomicLong totalNanos = new AtomicLong();
+        /**
+         * Maximum elapsed nanoseconds.
+         */
+        private final AtomicLong maxNanos = new AtomicLong();
+        /**
+         * Counts of the executions in the timing histogram buckets.
+         */
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+        /**
+         * Private constructor.
+         */
+        private Statistic() {
+        }
+
+        /**
+         * Records an execution.
+         * 
+         * @param elapsedNanos the elapsed nanoseconds of the execution
+         * @param rowCount the count of the rows queried or updated
+         * @param failed whether the execution failed
+         */
+        private void record(final long elapsedNanos, final long rowCount, final boolean failed) {
+            count.incrementAndGet();
+            rows.addAndGet(rowCount);
+            totalNanos.addAndGet(elapsedNanos);
+
+            if (failed) {
+                errors.incrementAndGet();
+            }
+
+            long max = maxNanos.get();
+            while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+                max = maxNanos.get();
+            }
+
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS.length && elapsedNanos > BUCKET_BOUNDS[bucket] * NANOS_PER_MILLI) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+        }
+
+        /**
+         * Converts this statistic of the specified shape to a json object.
+         * 
+         * @param shape the specified shape
+         * @return json object
+         */
+        private JSONObject toJSONObject(final String shape) {
+            final long executions = count.get();
+            final long total = totalNanos.get();
+
+            final JSONObject histogram = new JSONObject();
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                histogram.put(String.valueOf(BUCKET_BOUNDS[i]), buckets.get(i));
+            }
+            histogram.put("+Inf", buckets.get(BUCKET_BOUNDS.length));
+
+            final JSONObject ret = new JSONObject();
+            ret.put("shape", shape);
+            ret.put("count", executions);
+            ret.put("errors", errors.get());
+            ret.put("rows", rows.get());
+            ret.put("totalMillis", toMillis(total));
+            ret.put("meanMillis", 0 == executions ? 0 : toMillis(total / executions));
+            ret.put("maxMillis", toMillis(maxNanos.get()));
+            ret.put("histogram", histogram);
+
+            return ret;
+        }
+    }
+}
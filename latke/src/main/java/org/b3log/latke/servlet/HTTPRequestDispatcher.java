@@ -17,6 +17,7 @@ package org.b3log.latke.servlet;
 
 import org.b3log.latke.servlet.renderer.AbstractHTTPResponseRenderer;
 import org.b3log.latke.Keys;
+import org.b3log.latke.cache.CacheDependencies;
 import org.b3log.latke.cache.PageCaches;
 import org.b3log.latke.util.Strings;
 import java.util.logging.Level;
@@ -40,7 +41,7 @@ import org.b3log.latke.util.Stopwatchs;
  * Front controller for HTTP request dispatching.
  *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.1.9, May 11, 2012
+ * @version 1.0.2.0, Oct 16, 2026
  */
 public final class HTTPRequestDispatcher extends HttpServlet {
 
@@ -150,7 +151,10 @@ public final class HTTPRequestDispatcher extends HttpServlet {
         final long startTimeMillis = System.currentTimeMillis();
         request.setAttribute(Keys.HttpRequest.START_TIME_MILLIS, startTimeMillis);
 
+        boolean collecting = false;
         if (Latkes.isPageCacheEnabled()) {
+            collecting = CacheDependencies.collect(); // Collects the dependencies of the page to cache
+
             final String queryString = request.getQueryString();
             String pageCacheKey = (String) request.getAttribute(Keys.PAGE_CACHE_KEY);
             if (Strings.isEmptyOrNull(pageCacheKey)) {
@@ -167,7 +171,13 @@ public final class HTTPRequestDispatcher extends HttpServlet {
         context.setRequest(request);
         context.setResponse(response);
 
-        dispatch(context);
+        try {
+            dispatch(context);
+        } finally {
+            if (collecting) {
+                CacheDependencies.stopCollecting();
+            }
+        }
     }
 
     /**
@@ -15,25 +15,59 @@
  */
 package org.b3log.latke.util;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.b3log.latke.Latkes;
 
 /**
  * Id utilities.
  *
+ * <p>
+ * The {@link #genId() id generator} could be configured by the following
+ * properties in file "local.properties":
+ *   <ul>
+ *     <li>{@value #ID_GENERATOR}: {@code SNOWFLAKE} (default) for {@link SnowflakeIdGenerator},
+ *     {@code TIME_MILLIS} for {@link TimeMillisIdGenerator}, or the class name of an
+ *     {@link IdGenerator} implementation with a public default constructor</li>
+ *     <li>{@value #ID_NODE}: node id of {@link SnowflakeIdGenerator}, <b>MUST</b> be different for 
+ *     each node of a cluster. If it is missing, {@code SNOWFLAKE} fails if configured explicitly, 
+ *     the default falls back to {@code TIME_MILLIS} (not safe in cluster environment)</li>
+ *   </ul>
+ * </p>
+ *
  * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
- * @version 1.0.0.3, Sep 29, 2011
+ * @version 1.0.3.0, Oct 17, 2026
  */
 public final class Ids {
 
     /**
-     * Lock for unique id generation.
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(Ids.class.getName());
+    /**
+     * Key of id generator in file "local.properties".
+     */
+    public static final String ID_GENERATOR = "id.generator";
+    /**
+     * Key of id generator node id in file "local.properties".
      */
-    private static final Lock ID_GEN_LOCK = new ReentrantLock();
+    public static final String ID_NODE = "id.node";
     /**
-     * Sleep millisecond.
+     * Time millisecond id generator.
      */
-    private static final long ID_GEN_SLEEP_MILLIS = 50;
+    private static final IdGenerator TIME_MILLIS_ID_GENERATOR = new TimeMillisIdGenerator();
+    /**
+     * Id generator, initialized lazily by the configuration.
+     */
+    private static final AtomicReference<IdGenerator> ID_GENERATOR_HOLDER = new AtomicReference<IdGenerator>();
+
+    /**
+     * Random for {@link #random(java.lang.String, java.lang.String)}.
+     */
+    private static final Random RANDOM = new Random();
 
     /**
      * Private default constructor.
@@ -41,31 +75,149 @@ public final class Ids {
     private Ids() {
     }
 
+    /**
+     * Generates a random id between the specified minimum id and maximum id (inclusive) in lexicographical order, used 
+     * as the pivot of the random sampling of a repository (the first object whose id is not less than the pivot).
+     * 
+     * <p>
+     * The ids are padded with trailing zeros to the same length, so that the lexicographical order of them is the 
+     * numeric order, and the returned id is picked uniformly in the numeric range. The returned id is only meaningful
+     * to be compared with the ids of a string column, the ids of different lengths (e.g. 13 digits and 18 digits) are
+     * not ordered like this in a numeric column.
+     * </p>
+     * 
+     * @param minId the specified minimum id
+     * @param maxId the specified maximum id
+     * @return random id, returns {@code null} if the specified ids are not numeric
+     */
+    public static String random(final String minId, final String maxId) {
+        if (!Strings.isNumeric(minId) || !Strings.isNumeric(maxId)) {
+            return null;
+        }
+
+        final int length = Math.max(minId.length(), maxId.length());
+        final BigInteger min = new BigInteger(padRight(minId, length));
+        final BigInteger range = new BigInteger(padRight(maxId, length)).subtract(min).add(BigInteger.ONE);
+        if (range.signum() <= 0) {
+            return null;
+        }
+
+        final String ret = new BigInteger(range.bitLength() + Long.SIZE, RANDOM).mod(range).add(min).toString();
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = ret.length(); i < length; i++) {
+            builder.append('0');
+        }
+
+        builder.append(ret);
+
+        return builder.toString().compareTo(maxId) > 0 ? maxId : builder.toString();
+    }
+
+    /**
+     * Pads the specified id with trailing zeros to the specified length.
+     * 
+     * @param id the specified id
+     * @param length the specified length
+     * @return padded id
+     */
+    private static String padRight(final String id, final int length) {
+        final StringBuilder ret = new StringBuilder(length).append(id);
+        while (ret.length() < length) {
+            ret.append('0');
+        }
+
+        return ret.toString();
+    }
+
+    /**
+     * Generates a unique id by the configured {@link IdGenerator id generator}.
+     *
+     * @return id
+     */
+    public static String genId() {
+        return getIdGenerator().genId();
+    }
+
+    /**
+     * Gets the id generator.
+     *
+     * @return id generator
+     */
+    public static IdGenerator getIdGenerator() {
+        final IdGenerator ret = ID_GENERATOR_HOLDER.get();
+        if (null != ret) {
+            return ret;
+        }
+
+        ID_GENERATOR_HOLDER.compareAndSet(null, newIdGenerator());
+
+        return ID_GENERATOR_HOLDER.get();
+    }
+
+    /**
+     * Sets the id generator with the specified id generator.
+     *
+     * @param idGenerator the specified id generator
+     */
+    public static void setIdGenerator(final IdGenerator idGenerator) {
+        if (null == idGenerator) {
+            throw new IllegalArgumentException("Id generator can not be null!");
+        }
+
+        ID_GENERATOR_HOLDER.set(idGenerator);
+    }
+
     /**
      * Gets current date time string.
      *
      * <p>
-     *   <b>Note</b>: This method is not safe in cluster environment.
+     * The returned ids are strictly increasing in the current JVM, see 
+     * {@link TimeMillisIdGenerator} for more details.
+     * </p>
+     *
+     * <p>
+     *   <b>Note</b>: This method is not safe in cluster environment, uses 
+     *   {@link #genId()} instead.
      * </p>
      *
      * @return a time millis string
      */
-    public static synchronized String genTimeMillisId() {
-        String ret = null;
+    public static String genTimeMillisId() {
+        return TIME_MILLIS_ID_GENERATOR.genId();
+    }
 
-        ID_GEN_LOCK.lock();
-        try {
-            ret = String.valueOf(System.currentTimeMillis());
+    /**
+     * Creates an id generator by the configuration.
+     *
+     * @return id generator
+     */
+    private static IdGenerator newIdGenerator() {
+        final String generator = Latkes.getLocalProperty(ID_GENERATOR);
 
-            try {
-                Thread.sleep(ID_GEN_SLEEP_MILLIS);
-            } catch (final InterruptedException e) {
-                throw new RuntimeException("Generates time millis id fail");
+        if (Strings.isEmptyOrNull(generator) || "SNOWFLAKE".equalsIgnoreCase(generator.trim())) {
+            final String node = Latkes.getLocalProperty(ID_NODE);
+            if (!Strings.isEmptyOrNull(node)) {
+                return new SnowflakeIdGenerator(Integer.parseInt(node.trim()));
             }
-        } finally {
-            ID_GEN_LOCK.unlock();
+
+            if (!Strings.isEmptyOrNull(generator)) {
+                throw new IllegalStateException("Id generator[SNOWFLAKE] requires a node id[" + ID_NODE + "]");
+            }
+
+            LOGGER.log(Level.WARNING, "Id node is not configured[{0}], uses id generator[TIME_MILLIS] that is not safe in "
+                                      + "cluster environment", ID_NODE);
+
+            return TIME_MILLIS_ID_GENERATOR;
         }
 
-        return ret;
+        if ("TIME_MILLIS".equalsIgnoreCase(generator.trim())) {
+            return TIME_MILLIS_ID_GENERATOR;
+        }
+
+        try {
+            return (IdGenerator) Class.forName(generator.trim()).newInstance();
+        } catch (final Exception e) {
+            throw new IllegalStateException("Can not instantiate id generator[" + generator + "]", e);
+        }
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-like time ordered id generator.
+ *
+ * <p>
+ * A generated id is the decimal string of the current time millisecond (13
+ * digits, the same as the ids generated by {@link TimeMillisIdGenerator}),
+ * followed by a 2 digits node id and a 3 digits sequence, for example,
+ * {@code 135037896312301007}. The ids are ordered by time both as strings
+ * and as numbers, and are greater than any time millisecond id generated
+ * before.
+ * </p>
+ *
+ * <p>
+ * Up to {@value #SEQUENCE_COUNT} ids could be generated in a millisecond on a
+ * node, the next millisecond will be borrowed instead of waiting if exceeds.
+ * This generator is lock free.
+ * </p>
+ *
+ * <p>
+ * Nodes of a cluster <b>MUST</b> be assigned with different node ids to
+ * avoid conflicts.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ */
+public final class SnowflakeIdGenerator implements IdGenerator {
+
+    /**
+     * Node count.
+     */
+    public static final int NODE_COUNT = 100;
+    /**
+     * Sequence count in a millisecond.
+     */
+    public static final int SEQUENCE_COUNT = 1000;
+    /**
+     * Decimal radix.
+     */
+    private static final int RADIX = 10;
+    /**
+     * Node id.
+     */
+    private final int node;
+    /**
+     * The last generated time millisecond and sequence, time millisecond * {@value #SEQUENCE_COUNT} + sequence.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Constructs a generator with the specified node id.
+     *
+     * <p>
+     * Throws {@link IllegalArgumentException} if the specified node id is out
+     * of [0, {@value #NODE_COUNT}).
+     * </p>
+     *
+     * @param node the specified node id
+     */
+    public SnowflakeIdGenerator(final int node) {
+        if (node < 0 || node >= NODE_COUNT) {
+            throw new IllegalArgumentException("Node id must be in [0, " + NODE_COUNT + ")");
+        }
+
+        this.node = node;
+    }
+
+    /**
+     * Gets the node id of this generator.
+     *
+     * @return node id
+     */
+    public int getNode() {
+        return node;
+    }
+
+    @Override
+    public String genId() {
+        long next;
+
+        while (true) {
+            final long prev = last.get();
+            next = Math.max(prev + 1, System.currentTimeMillis() * SEQUENCE_COUNT);
+
+            if (last.compareAndSet(prev, next)) {
+                break;
+            }
+        }
+
+        final StringBuilder ret = new StringBuilder().append(next / SEQUENCE_COUNT);
+        appendPadded(ret, node, NODE_COUNT);
+        appendPadded(ret, next % SEQUENCE_COUNT, SEQUENCE_COUNT);
+
+        return ret.toString();
+    }
+
+    /**
+     * Appends the specified value to the specified builder, pads zeros to the
+     * digits count of the specified upper bound minus one.
+     *
+     * @param builder the specified builder
+     * @param value the specified value
+     * @param bound the specified upper bound (a power of ten)
+     */
+    private static void appendPadded(final StringBuilder builder, final long value, final int bound) {
+        for (int d = bound / RADIX; d > value && d > 1; d /= RADIX) {
+            builder.append('0');
+        }
+
+        builder.append(value);
+    }
+
+    /**
+     * Gets the time millisecond of the specified id generated by this
+     * generator or by {@link TimeMillisIdGenerator}.
+     *
+     * @param id the specified id
+     * @return time millisecond
+     */
+    public static long getTimeMillis(final String id) {
+        final long ret = Long.parseLong(id);
+
+        return id.length() > String.valueOf(System.currentTimeMillis()).length()
+               ? ret / (NODE_COUNT * SEQUENCE_COUNT) : ret;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link CacheDependencies} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ */
+public final class CacheDependenciesTestCase {
+
+    /**
+     * Tests collecting and invalidating.
+     */
+    @Test
+    public void invalidate() {
+        final String article = CacheDependencies.of("article", "1");
+        final String comment = "comment";
+
+        Assert.assertTrue(CacheDependencies.collect());
+        Assert.assertFalse(CacheDependencies.collect());
+        CacheDependencies.read(article);
+        CacheDependencies.read(comment);
+        final Map<String, Serializable> collected = new HashMap<String, Serializable>(CacheDependencies.getCollected());
+        CacheDependencies.stopCollecting();
+        Assert.assertNull(CacheDependencies.getCollected());
+
+        Assert.assertEquals(collected.size(), 2);
+        Assert.assertEquals(collected.get(article), CacheDependencies.version(article));
+        Assert.assertTrue(CacheDependencies.isCurrent(collected));
+
+        final Map<String, Serializable> all = new HashMap<String, Serializable>();
+        all.put(CacheDependencies.ALL, CacheDependencies.version(CacheDependencies.ALL));
+
+        CacheDependencies.invalidate(Arrays.asList(CacheDependencies.of("article", "2")));
+        Assert.assertTrue(CacheDependencies.isCurrent(collected));
+        Assert.assertFalse(CacheDependencies.isCurrent(all));
+
+        CacheDependencies.invalidate(Arrays.asList(comment));
+        Assert.assertFalse(CacheDependencies.isCurrent(collected));
+    }
+}
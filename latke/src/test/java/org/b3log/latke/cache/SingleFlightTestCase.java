@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link SingleFlight} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class SingleFlightTestCase {
+
+    /**
+     * Count of concurrent callers.
+     */
+    private static final int CALLER_COUNT = 20;
+    /**
+     * Milliseconds to wait for the callers to reach the in-flight load.
+     */
+    private static final long ARRIVAL_WAIT = 200;
+    /**
+     * Seconds to wait for the callers to finish.
+     */
+    private static final long FINISH_WAIT = 10;
+
+    /**
+     * Tests concurrent misses of the same key produce one load.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void coalesce() throws Exception {
+        final SingleFlight<String> singleFlight = new SingleFlight<String>();
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch arrived = new CountDownLatch(CALLER_COUNT);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<String> loader = new Callable<String>() {
+
+            @Override
+            public String call() throws Exception {
+                loads.incrementAndGet();
+                release.await();
+
+                return "value";
+            }
+        };
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(CALLER_COUNT);
+        final List<Future<String>> results = new ArrayList<Future<String>>();
+        for (int i = 0; i < CALLER_COUNT; i++) {
+            results.add(executorService.submit(new Callable<String>() {
+
+                @Override
+                public String call() throws Exception {
+                    arrived.countDown();
+
+                    return singleFlight.load("key", loader);
+                }
+            }));
+        }
+
+        arrived.await();
+        Thread.sleep(ARRIVAL_WAIT);
+        Assert.assertEquals(singleFlight.getInFlightCount(), 1);
+        Assert.assertEquals(singleFlight.load("key", loader, "stale"), "stale");
+        release.countDown();
+
+        for (final Future<String> result : results) {
+            Assert.assertEquals(result.get(FINISH_WAIT, TimeUnit.SECONDS), "value");
+        }
+        executorService.shutdown();
+
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertEquals(singleFlight.getInFlightCount(), 0);
+
+        Assert.assertEquals(singleFlight.load("key", loader, "stale"), "value");
+        Assert.assertEquals(loads.get(), 2);
+    }
+
+    /**
+     * Tests the exception thrown by the loader.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void exception() throws Exception {
+        final SingleFlight<String> singleFlight = new SingleFlight<String>();
+
+        try {
+            singleFlight.load("key", new Callable<String>() {
+
+                @Override
+                public String call() throws Exception {
+                    throw new IllegalStateException("failed");
+                }
+            });
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "failed");
+        }
+
+        Assert.assertEquals(singleFlight.getInFlightCount(), 0);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link CopyPolicy} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ */
+public final class CopyPolicyTestCase {
+
+    /**
+     * Tests {@link CopyPolicy#JSON_COPY}, the cached object should not be
+     * affected by modifications of the put or got objects.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void jsonCopy() throws Exception {
+        final LruMemoryCache<String, JSONObject> cache = new LruMemoryCache<String, JSONObject>();
+        cache.setCopyPolicy(CopyPolicy.JSON_COPY);
+
+        final JSONObject page = new JSONObject();
+        page.put("title", "B3log");
+        page.put("tags", new JSONArray().put("Java").put(new JSONObject().put("name", "Latke")));
+        cache.put("page", page);
+
+        page.put("title", "Modified");
+        page.getJSONArray("tags").put("Modified");
+
+        final JSONObject got = cache.get("page");
+        Assert.assertEquals(got.getString("title"), "B3log");
+        Assert.assertEquals(got.getJSONArray("tags").length(), 2);
+        Assert.assertEquals(got.getJSONArray("tags").getJSONObject(1).getString("name"), "Latke");
+
+        got.getJSONArray("tags").getJSONObject(1).put("name", "Modified");
+        Assert.assertEquals(cache.get("page").getJSONArray("tags").getJSONObject(1).getString("name"), "Latke");
+    }
+
+    /**
+     * Tests {@link CopyPolicy#JSON_COPY} with objects neither JSON nor immutable.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void jsonCopyFallback() throws Exception {
+        final ArrayList<String> list = new ArrayList<String>();
+        list.add("a");
+
+        final Object stored = CopyPolicy.JSON_COPY.store(list);
+        list.add("b");
+
+        Assert.assertEquals(CopyPolicy.JSON_COPY.load(stored), Arrays.asList("a"));
+        Assert.assertSame(CopyPolicy.JSON_COPY.load(CopyPolicy.JSON_COPY.store("a")), "a");
+    }
+
+    /**
+     * Tests {@link CopyPolicy#REFERENCE}.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void reference() throws Exception {
+        final SegmentedLruMemoryCache<String, JSONObject> cache = new SegmentedLruMemoryCache<String, JSONObject>();
+        cache.setCopyPolicy(CopyPolicy.REFERENCE);
+
+        final JSONObject object = new JSONObject().put("oId", "1");
+        cache.put("1", object);
+
+        Assert.assertSame(cache.get("1"), object);
+    }
+
+    /**
+     * Tests {@link CopyPolicy#SERIALIZE}.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void serialize() throws Exception {
+        final JSONObject object = new JSONObject().put("oId", "1");
+        final Object stored = CopyPolicy.SERIALIZE.store(object);
+
+        Assert.assertTrue(stored instanceof byte[]);
+        Assert.assertEquals(((JSONObject) CopyPolicy.SERIALIZE.load(stored)).getString("oId"), "1");
+    }
+}
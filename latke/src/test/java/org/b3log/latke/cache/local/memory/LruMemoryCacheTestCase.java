@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link LruMemoryCache} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.4.1, Oct 17, 2026
+ */
+public final class LruMemoryCacheTestCase {
+
+    /**
+     * Value length.
+     */
+    private static final int VALUE_LENGTH = 1000;
+    /**
+     * Object count.
+     */
+    private static final int OBJECT_COUNT = 10;
+    /**
+     * Time-to-live in milliseconds, long enough not to expire between a put and the following get on a busy test 
+     * runner.
+     */
+    private static final long TTL = 500;
+    /**
+     * Hot keys count of the hit ratio benchmark trace.
+     */
+    private static final int HOT_KEY_COUNT = 200;
+    /**
+     * Maximum count of the hit ratio benchmark caches.
+     */
+    private static final int CACHE_MAX_COUNT = 100;
+    /**
+     * Length of the hit ratio benchmark trace.
+     */
+    private static final int TRACE_LENGTH = 200000;
+    /**
+     * Percentage of crawl accesses of the hit ratio benchmark trace.
+     */
+    private static final int CRAWL_PERCENT = 50;
+    /**
+     * Percentage base.
+     */
+    private static final int PERCENT = 100;
+    /**
+     * Random seed of the hit ratio benchmark trace.
+     */
+    private static final long SEED = 20120101L;
+    /**
+     * Thread count of the concurrent increment test.
+     */
+    private static final int THREAD_COUNT = 8;
+    /**
+     * Increments per thread of the concurrent increment test.
+     */
+    private static final int INC_COUNT = 10000;
+
+    /**
+     * Tests put and count eviction.
+     */
+    @Test
+    public void put() {
+        final LruMemoryCache<String, String> cache = new LruMemoryCache<String, String>();
+        cache.setMaxCount(2);
+
+        cache.put("a", "1");
+        cache.put("a", "2");
+        Assert.assertEquals(cache.getCachedCount(), 1);
+
+        cache.put("b", "3");
+        Assert.assertEquals(cache.get("a"), "2");
+        cache.put("c", "4");
+        Assert.assertEquals(cache.getCachedCount(), 2);
+        Assert.assertFalse(cache.contains("b"));
+        Assert.assertTrue(cache.contains("a"));
+    }
+
+    /**
+     * Tests byte accounting and weight eviction.
+     */
+    @Test
+    public void weight() {
+        final LruMemoryCache<String, String> cache = new LruMemoryCache<String, String>();
+        cache.setCopyPolicy(CopyPolicy.REFERENCE);
+
+        final String value = new String(new char[VALUE_LENGTH]);
+        final long weight = CopyPolicy.REFERENCE.weigh(value);
+
+        cache.put("a", value);
+        Assert.assertEquals(cache.getCachedBytes(), weight);
+        cache.get("a");
+        cache.get("a");
+        Assert.assertEquals(cache.getHitBytes(), weight * 2);
+
+        cache.setMaxBytes(weight * OBJECT_COUNT);
+        for (int i = 0; i < OBJECT_COUNT * 2; i++) {
+            cache.put("key" + i, value);
+        }
+
+        Assert.assertEquals(cache.getCachedCount(), OBJECT_COUNT);
+        Assert.assertEquals(cache.getCachedBytes(), weight * OBJECT_COUNT);
+        Assert.assertTrue(cache.contains("key" + (OBJECT_COUNT * 2 - 1)));
+
+        cache.setMaxBytes(weight - 1);
+        cache.put("key" + (OBJECT_COUNT * 2 - 1), value);
+        Assert.assertFalse(cache.contains("key" + (OBJECT_COUNT * 2 - 1)));
+
+        cache.remove("key" + (OBJECT_COUNT * 2 - 2));
+        Assert.assertEquals(cache.getCachedBytes(), weight * (OBJECT_COUNT - 2));
+
+        cache.removeAll();
+        Assert.assertEquals(cache.getCachedBytes(), 0);
+        Assert.assertEquals(cache.getHitBytes(), 0);
+    }
+
+    /**
+     * Tests bulk put and get.
+     */
+    @Test
+    public void bulk() {
+        final LruMemoryCache<String, Long> cache = new LruMemoryCache<String, Long>();
+        cache.setMaxCount(2 + 1);
+
+        final Map<String, Long> objects = new HashMap<String, Long>();
+        objects.put("a", 1L);
+        objects.put("b", 2L);
+        cache.putAll(objects);
+        Assert.assertEquals(cache.getPutCount(), 2);
+        Assert.assertEquals(cache.getCachedCount(), 2);
+        cache.inc("c", 1);
+
+        final Map<String, Long> got = cache.getAll(Arrays.asList("a", "b", "c", "d"));
+        Assert.assertEquals(got.size(), 2 + 1);
+        Assert.assertEquals(got.get("b"), Long.valueOf(2L));
+        Assert.assertEquals(got.get("c"), Long.valueOf(2L));
+        Assert.assertFalse(got.containsKey("d"));
+        Assert.assertEquals(cache.getHitCount(), 2 + 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+
+        cache.remove(Arrays.asList("a", "c"));
+        Assert.assertEquals(cache.getCachedCount(), 1);
+    }
+
+    /**
+     * Tests concurrent increments.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void inc() throws Exception {
+        final LruMemoryCache<String, Long> cache = new LruMemoryCache<String, Long>();
+        cache.setMaxCount(2);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int j = 0; j < INC_COUNT; j++) {
+                        cache.inc("counter", 1);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        final long expected = 1L + THREAD_COUNT * INC_COUNT;
+        Assert.assertEquals(cache.get("counter"), Long.valueOf(expected));
+        Assert.assertTrue(cache.contains("counter"));
+
+        cache.put("object", 2L);
+        Assert.assertEquals(cache.getCachedCount(), 2);
+        Assert.assertEquals(cache.get("counter"), Long.valueOf(expected));
+        Assert.assertEquals(cache.inc("object", 1), 2 + 1);
+        Assert.assertEquals(cache.getCachedCount(), 2);
+
+        // Counters are counted in the limits and evicted as the objects
+        cache.put("another", 1L);
+        Assert.assertFalse(cache.contains("counter"));
+        Assert.assertEquals(cache.getCachedCount(), 2);
+        Assert.assertEquals(cache.inc("counter", 1), 2);
+        Assert.assertFalse(cache.contains("object"));
+
+        cache.put("counter", 0L);
+        Assert.assertEquals(cache.inc("counter", 2), 2);
+
+        cache.remove("counter");
+        Assert.assertFalse(cache.contains("counter"));
+        cache.removeAll();
+        Assert.assertEquals(cache.getCachedCount(), 0);
+    }
+
+    /**
+     * Tests the admission filter.
+     */
+    @Test
+    public void admission() {
+        final LruMemoryCache<String, String> cache = new LruMemoryCache<String, String>();
+        cache.setAdmissionEnabled(true);
+        Assert.assertTrue(cache.isAdmissionEnabled());
+        cache.setMaxCount(2);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.get("b");
+
+        cache.put("once", "3");
+        Assert.assertFalse(cache.contains("once"));
+        Assert.assertEquals(cache.getCachedCount(), 2);
+
+        // A miss followed by a put counts once
+        cache.get("missed");
+        cache.put("missed", "3");
+        Assert.assertFalse(cache.contains("missed"));
+
+        cache.get("often");
+        cache.get("often");
+        cache.put("often", "4");
+        Assert.assertTrue(cache.contains("often"));
+        Assert.assertEquals(cache.getCachedCount(), 2);
+
+        cache.put("often", "5");
+        Assert.assertEquals(cache.get("often"), "5");
+
+        cache.setAdmissionEnabled(false);
+        cache.put("once", "3");
+        Assert.assertTrue(cache.contains("once"));
+    }
+
+    /**
+     * Benchmarks hit ratios of LRU and LRU with the admission filter by
+     * replaying a synthetic trace, skewed accesses of a hot set are interleaved
+     * with a crawl visits each key only once.
+     */
+    @Test
+    public void hitRatioBenchmark() {
+        final double lru = replay(false);
+        final double tinyLfu = replay(true);
+
+        System.out.println(String.format("Hit ratio [lru=%.4f, tinyLfu=%.4f]", lru, tinyLfu));
+
+        Assert.assertTrue(tinyLfu > lru);
+    }
+
+    /**
+     * Replays the synthetic crawl-plus-hot-set trace on a cache, reads the key
+     * and puts it on miss, as a read-through cache.
+     *
+     * @param admissionEnabled whether the admission filter is enabled
+     * @return hit ratio
+     */
+    private double replay(final boolean admissionEnabled) {
+        final LruMemoryCache<String, String> cache = new LruMemoryCache<String, String>();
+        cache.setCopyPolicy(CopyPolicy.REFERENCE);
+        cache.setMaxCount(CACHE_MAX_COUNT);
+        cache.setAdmissionEnabled(admissionEnabled);
+
+        final Random random = new Random(SEED);
+        int crawled = 0;
+
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            final String key;
+            if (random.nextInt(PERCENT) < CRAWL_PERCENT) {
+                key = "crawl" + crawled++;
+            } else {
+                final double skewed = random.nextDouble() * random.nextDouble();
+                key = "hot" + (int) (skewed * HOT_KEY_COUNT);
+            }
+
+            if (null == cache.get(key)) {
+                cache.put(key, key);
+            }
+        }
+
+        return (double) cache.getHitCount() / TRACE_LENGTH;
+    }
+
+    /**
+     * Tests time-to-live, expire-after-access and sweeping.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void expire() throws Exception {
+        final LruMemoryCache<String, String> cache = new LruMemoryCache<String, String>();
+
+        cache.put("ttl", "1", TTL);
+        cache.put("forever", "2");
+        Assert.assertEquals(cache.get("ttl"), "1");
+
+        Thread.sleep(TTL * 2);
+        Assert.assertFalse(cache.contains("ttl"));
+        Assert.assertNull(cache.get("ttl"));
+        Assert.assertEquals(cache.get("forever"), "2");
+        Assert.assertEquals(cache.getCachedCount(), 1);
+
+        cache.setExpireAfterAccess(TTL);
+        cache.put("idle", "3");
+        Thread.sleep(TTL * 2);
+        cache.sweep();
+        Assert.assertEquals(cache.getCachedCount(), 0);
+
+        cache.setExpireAfterAccess(0);
+        cache.setExpireAfterWrite(TTL);
+        cache.put("write", "4");
+        Thread.sleep(TTL * 2);
+        cache.sweep();
+        Assert.assertFalse(cache.contains("write"));
+        Assert.assertEquals(cache.getCachedBytes(), 0);
+    }
+}
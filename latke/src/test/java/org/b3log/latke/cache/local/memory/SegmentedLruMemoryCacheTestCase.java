@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.memory;
+
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link SegmentedLruMemoryCache} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.4.0, Oct 17, 2026
+ */
+public final class SegmentedLruMemoryCacheTestCase {
+
+    /**
+     * Segment count.
+     */
+    private static final int SEGMENT_COUNT = 8;
+    /**
+     * Object count.
+     */
+    private static final int OBJECT_COUNT = 1000;
+    /**
+     * Test method invocation count.
+     */
+    private static final int INVOCATION_COUNT = 20;
+    /**
+     * Thread pool size.
+     */
+    private static final int THREAD_POOL_SIZE = 10;
+    /**
+     * Time-to-live in milliseconds.
+     */
+    private static final long TTL = 50;
+    /**
+     * Concurrent cache.
+     */
+    private final SegmentedLruMemoryCache<String, String> concurrentCache =
+            new SegmentedLruMemoryCache<String, String>(SEGMENT_COUNT);
+
+    /**
+     * Tests put, get and remove.
+     */
+    @Test
+    public void putGetRemove() {
+        final SegmentedLruMemoryCache<String, String> cache = new SegmentedLruMemoryCache<String, String>(SEGMENT_COUNT - 1);
+        Assert.assertEquals(cache.getSegmentCount(), SEGMENT_COUNT);
+
+        cache.put("a", "1");
+        cache.put("a", "2");
+        Assert.assertEquals(cache.getCachedCount(), 1);
+        Assert.assertEquals(cache.get("a"), "2");
+        Assert.assertTrue(cache.contains("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+
+        cache.put("b", "3");
+        cache.remove(Arrays.asList("a", "b"));
+        Assert.assertEquals(cache.getCachedCount(), 0);
+        Assert.assertFalse(cache.contains("a"));
+
+        Assert.assertEquals(cache.inc("c", 1), 2);
+        Assert.assertEquals(cache.inc("c", 2), 2 + 2);
+    }
+
+    /**
+     * Tests eviction while exceeding the maximum count.
+     */
+    @Test
+    public void eviction() {
+        final SegmentedLruMemoryCache<String, String> cache = new SegmentedLruMemoryCache<String, String>(SEGMENT_COUNT);
+        cache.setMaxCount(OBJECT_COUNT);
+
+        for (int i = 0; i < OBJECT_COUNT * 2; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+
+        Assert.assertTrue(cache.getCachedCount() <= OBJECT_COUNT);
+        Assert.assertEquals(cache.get("key" + (OBJECT_COUNT * 2 - 1)), "value" + (OBJECT_COUNT * 2 - 1));
+
+        cache.removeAll();
+        Assert.assertEquals(cache.getCachedCount(), 0);
+    }
+
+    /**
+     * Tests a small cache uses fewer segments and holds exactly its maximum count.
+     */
+    @Test
+    public void smallCache() {
+        final SegmentedLruMemoryCache<String, String> cache = new SegmentedLruMemoryCache<String, String>(SEGMENT_COUNT);
+        cache.setMaxCount(SEGMENT_COUNT);
+        Assert.assertEquals(cache.getSegmentCount(), 1);
+
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+
+        Assert.assertEquals(cache.getCachedCount(), SEGMENT_COUNT);
+        Assert.assertEquals(cache.get("key" + (OBJECT_COUNT - 1)), "value" + (OBJECT_COUNT - 1));
+
+        cache.setMaxCount(OBJECT_COUNT);
+        Assert.assertEquals(cache.getSegmentCount(), SEGMENT_COUNT);
+        Assert.assertEquals(cache.getCachedCount(), 0);
+    }
+
+    /**
+     * Tests byte accounting and weight eviction.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void weight() throws Exception {
+        final SegmentedLruMemoryCache<String, String> cache = new SegmentedLruMemoryCache<String, String>(SEGMENT_COUNT);
+        final long weight = cache.getCopyPolicy().weigh(cache.getCopyPolicy().store("value"));
+        Assert.assertTrue(weight > 0);
+
+        cache.put("key", "value");
+        Assert.assertEquals(cache.getCachedBytes(), weight);
+        cache.get("key");
+        Assert.assertEquals(cache.getHitBytes(), weight);
+
+        cache.setMaxBytes(weight * SEGMENT_COUNT);
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            cache.put("key" + i, "value");
+        }
+
+        Assert.assertTrue(cache.getCachedBytes() <= weight * SEGMENT_COUNT);
+        Assert.assertEquals(cache.getCachedBytes(), cache.getCachedCount() * weight);
+    }
+
+    /**
+     * Tests the admission filter.
+     */
+    @Test
+    public void admission() {
+        final SegmentedLruMemoryCache<String, String> cache = new SegmentedLruMemoryCache<String, String>(1);
+        cache.setAdmissionEnabled(true);
+        cache.setMaxCount(1);
+
+        cache.put("hot", "1");
+        cache.get("hot");
+        cache.put("once", "2");
+        Assert.assertFalse(cache.contains("once"));
+
+        // A miss followed by a put counts once
+        cache.get("missed");
+        cache.put("missed", "2");
+        Assert.assertFalse(cache.contains("missed"));
+        Assert.assertEquals(cache.get("hot"), "1");
+
+        Assert.assertEquals(cache.inc("counter", 1), 2);
+        Assert.assertTrue(cache.contains("counter"));
+        Assert.assertEquals(cache.getCachedCount(), 1);
+
+        // Counters are evicted as the objects
+        cache.put("hot", "1");
+        Assert.assertFalse(cache.contains("counter"));
+        Assert.assertEquals(cache.inc("counter", 1), 2);
+    }
+
+    /**
+     * Tests time-to-live and sweeping.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void expire() throws Exception {
+        final SegmentedLruMemoryCache<String, String> cache = new SegmentedLruMemoryCache<String, String>(SEGMENT_COUNT);
+
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            cache.put("key" + i, "value" + i, TTL);
+        }
+        cache.put("forever", "value");
+        Assert.assertEquals(cache.inc("counter", 1), 2);
+
+        Thread.sleep(TTL * 2);
+        Assert.assertNull(cache.get("key0"));
+        cache.sweep();
+        Assert.assertEquals(cache.getCachedCount(), 2);
+        Assert.assertEquals(cache.inc("counter", 1), 2 + 1);
+    }
+
+    /**
+     * Tests concurrent access.
+     */
+    @Test(threadPoolSize = THREAD_POOL_SIZE, invocationCount = INVOCATION_COUNT)
+    public void concurrentAccess() {
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            concurrentCache.put("key" + i, "value" + i);
+            Assert.assertEquals(concurrentCache.get("key" + i), "value" + i);
+            concurrentCache.inc("counter", 1);
+        }
+
+        Assert.assertTrue(concurrentCache.getCachedCount() <= OBJECT_COUNT + 1);
+        Assert.assertTrue(concurrentCache.inc("counter", 0) >= OBJECT_COUNT + 1);
+    }
+}
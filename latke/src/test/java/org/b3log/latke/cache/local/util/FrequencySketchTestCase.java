@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link FrequencySketch} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class FrequencySketchTestCase {
+
+    /**
+     * Capacity.
+     */
+    private static final int CAPACITY = 512;
+    /**
+     * Maximum frequency.
+     */
+    private static final int MAX_FREQUENCY = 15;
+
+    /**
+     * Tests increment and frequency.
+     */
+    @Test
+    public void increment() {
+        final FrequencySketch sketch = new FrequencySketch(CAPACITY);
+        Assert.assertEquals(sketch.getWidth(), CAPACITY);
+        Assert.assertEquals(sketch.frequency("a"), 0);
+
+        sketch.increment("a");
+        sketch.increment("a");
+        Assert.assertTrue(sketch.frequency("a") >= 2);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            sketch.increment("hot");
+        }
+        Assert.assertEquals(sketch.frequency("hot"), MAX_FREQUENCY);
+
+        sketch.clear();
+        Assert.assertEquals(sketch.frequency("hot"), 0);
+    }
+
+    /**
+     * Tests aging.
+     */
+    @Test
+    public void aging() {
+        final FrequencySketch sketch = new FrequencySketch(CAPACITY);
+
+        for (int i = 0; i < MAX_FREQUENCY; i++) {
+            sketch.increment("hot");
+        }
+
+        for (int i = 0; i < CAPACITY * MAX_FREQUENCY; i++) {
+            sketch.increment("key" + i);
+        }
+
+        Assert.assertTrue(sketch.frequency("hot") < MAX_FREQUENCY);
+    }
+
+    /**
+     * Tests growing.
+     */
+    @Test
+    public void ensureCapacity() {
+        final FrequencySketch sketch = new FrequencySketch(0);
+        sketch.increment("a");
+
+        sketch.ensureCapacity(CAPACITY - 1);
+        Assert.assertEquals(sketch.getWidth(), CAPACITY);
+        Assert.assertEquals(sketch.frequency("a"), 0);
+
+        sketch.increment("a");
+        sketch.ensureCapacity(2);
+        Assert.assertEquals(sketch.getWidth(), CAPACITY);
+        Assert.assertEquals(sketch.frequency("a"), 1);
+    }
+
+    /**
+     * Tests the expected count of distinct keys of a cache.
+     */
+    @Test
+    public void capacityOf() {
+        Assert.assertEquals(FrequencySketch.capacityOf(CAPACITY, Long.MAX_VALUE), CAPACITY);
+        Assert.assertEquals(FrequencySketch.capacityOf(CAPACITY, 1), CAPACITY);
+        Assert.assertEquals(FrequencySketch.capacityOf(Long.MAX_VALUE, CAPACITY * CAPACITY), CAPACITY / 2);
+        Assert.assertEquals(FrequencySketch.capacityOf(Long.MAX_VALUE, Long.MAX_VALUE), 0);
+        Assert.assertTrue(FrequencySketch.capacityOf(Long.MAX_VALUE - 1, Long.MAX_VALUE) < Integer.MAX_VALUE);
+    }
+}
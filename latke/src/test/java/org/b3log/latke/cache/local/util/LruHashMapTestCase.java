@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.cache.local.util;
+
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link LruHashMap} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ */
+public final class LruHashMapTestCase {
+
+    /**
+     * Benchmark map sizes.
+     */
+    private static final int[] BENCHMARK_SIZES = {100, 1000, 10000, 100000};
+    /**
+     * Benchmark lookup count for each map size.
+     */
+    private static final int BENCHMARK_LOOKUPS = 200000;
+    /**
+     * Nanoseconds per microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1000D;
+
+    /**
+     * Tests access ordering and eviction of the least recently used entry.
+     */
+    @Test
+    public void accessOrder() {
+        final LruHashMap<String, Integer> map = new LruHashMap<String, Integer>();
+
+        map.addFirst("a", 0);
+        map.addFirst("b", 1);
+        map.addFirst("c", 2);
+        Assert.assertTrue(map.containsKey("c"));
+        Assert.assertEquals(map.lastKey(), "a");
+
+        Assert.assertEquals(map.getAndMakeFirst("a"), Integer.valueOf(0));
+        Assert.assertEquals(map.lastKey(), "b");
+
+        map.makeFirst("b");
+        Assert.assertEquals(map.lastKey(), "c");
+        Assert.assertEquals(map.removeLast(), Integer.valueOf(2));
+        Assert.assertEquals(map.size(), 2);
+        Assert.assertFalse(map.containsKey("c"));
+
+        Assert.assertTrue(map.remove("b"));
+        Assert.assertFalse(map.remove("b"));
+        Assert.assertEquals(map.lastKey(), "a");
+        Assert.assertEquals(map.removeLast(), Integer.valueOf(0));
+        Assert.assertNull(map.removeLast());
+        Assert.assertEquals(map.size(), 0);
+    }
+
+    /**
+     * Tests adding an existing key replaces its value instead of duplicating
+     * the entry.
+     */
+    @Test
+    public void addExisting() {
+        final LruHashMap<String, Integer> map = new LruHashMap<String, Integer>();
+
+        Assert.assertNull(map.addFirst("a", 0));
+        map.addFirst("b", 1);
+        Assert.assertEquals(map.addFirst("a", 2), Integer.valueOf(0));
+        Assert.assertEquals(map.size(), 2);
+        Assert.assertEquals(map.get("a"), Integer.valueOf(2));
+        Assert.assertEquals(map.lastKey(), "b");
+
+        map.removeAll();
+        Assert.assertEquals(map.size(), 0);
+        Assert.assertNull(map.get("a"));
+        Assert.assertNull(map.lastKey());
+    }
+
+    /**
+     * Benchmarks lookup latency of {@link LruHashMap#getAndMakeFirst(java.lang.Object)}
+     * with the map size growing from 100 to 100k entries, the latency should
+     * keep flat.
+     */
+    @Test
+    public void benchmarkGet() {
+        final Random random = new Random(0);
+
+        for (final int size : BENCHMARK_SIZES) {
+            final LruHashMap<String, String> map = new LruHashMap<String, String>(size);
+            for (int i = 0; i < size; i++) {
+                map.addFirst("key" + i, "value" + i);
+            }
+
+            final String[] keys = new String[BENCHMARK_LOOKUPS];
+            for (int i = 0; i < BENCHMARK_LOOKUPS; i++) {
+                keys[i] = "key" + random.nextInt(size);
+            }
+
+            for (final String key : keys) { // Warm up
+                Assert.assertNotNull(map.getAndMakeFirst(key));
+            }
+
+            final long start = System.nanoTime();
+            for (final String key : keys) {
+                map.getAndMakeFirst(key);
+            }
+            final long elapsed = System.nanoTime() - start;
+
+            System.out.println("LruHashMap benchmark[size=" + size + ", lookups=" + BENCHMARK_LOOKUPS
+                               + ", avg=" + (elapsed / (double) BENCHMARK_LOOKUPS / NANOS_PER_MICRO) + "us]");
+            Assert.assertEquals(map.size(), size);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link Query} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.1.0.0, Oct 17, 2026
+ */
+public final class QueryTestCase {
+
+    /**
+     * Length of a long value.
+     */
+    private static final int LONG_VALUE_LENGTH = 200;
+
+    /**
+     * Tests keyset pagination.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void seek() throws Exception {
+        final Query query = new Query().addSort("date", SortDirection.DESCENDING);
+        Assert.assertFalse(query.isSeek());
+        Assert.assertNull(query.getSeekValues());
+
+        final Map<String, SortDirection> seekSorts = query.getSeekSorts();
+        Assert.assertEquals(seekSorts.keySet().toArray(), new String[]{"date", "oId"});
+        Assert.assertEquals(seekSorts.get("oId"), SortDirection.DESCENDING);
+
+        final String cacheKey = new Query().addSort("date", SortDirection.DESCENDING).getCacheKey();
+        Assert.assertEquals(query.getCacheKey(), cacheKey);
+
+        final JSONObject lastRow = new JSONObject();
+        lastRow.put("date", 1L);
+        lastRow.put("oId", "2");
+        lastRow.put("title", "title");
+
+        final Query seekQuery = new Query().addSort("date", SortDirection.DESCENDING).seekAfter(lastRow);
+        Assert.assertTrue(seekQuery.isSeek());
+        Assert.assertEquals(Arrays.asList(seekQuery.getSeekValues()), Arrays.<Object>asList(1L, "2"));
+        Assert.assertNotEquals(seekQuery.getCacheKey(), cacheKey);
+        Assert.assertEquals(seekQuery, new Query().addSort("date", SortDirection.DESCENDING).seekAfter(1L, "2"));
+
+        final Query idQuery = new Query().addSort("oId", SortDirection.DESCENDING);
+        Assert.assertEquals(idQuery.getSeekSorts().size(), 1);
+        Assert.assertEquals(new Query().getSeekSorts().get("oId"), SortDirection.ASCENDING);
+    }
+
+    /**
+     * Tests fingerprint normalization.
+     */
+    @Test
+    public void fingerprint() {
+        final Query query = new Query().setFilter(new CompositeFilter(CompositeFilterOperator.AND, Arrays.<Filter>asList(
+                new PropertyFilter("tag", FilterOperator.IN, Arrays.asList("b", "a", "b")),
+                new PropertyFilter("count", FilterOperator.GREATER_THAN, 1))));
+        final Query equivalent = new Query().setFilter(new CompositeFilter(CompositeFilterOperator.AND, Arrays.<Filter>asList(
+                new PropertyFilter("count", FilterOperator.GREATER_THAN, 1.0D),
+                new PropertyFilter("tag", FilterOperator.IN, new String[]{"a", "b"}))));
+        Assert.assertEquals(query.getFingerprint(), equivalent.getFingerprint());
+        Assert.assertEquals(query.getCacheKey(), equivalent.getCacheKey());
+
+        final Query or = new Query().setFilter(new CompositeFilter(CompositeFilterOperator.OR, Arrays.<Filter>asList(
+                new PropertyFilter("count", FilterOperator.GREATER_THAN, 1),
+                new PropertyFilter("tag", FilterOperator.IN, Arrays.asList("a", "b")))));
+        Assert.assertNotEquals(or.getCacheKey(), query.getCacheKey());
+
+        Assert.assertNotEquals(new Query().setFilter(new PropertyFilter("title", FilterOperator.EQUAL, "1")).getCacheKey(),
+                               new Query().setFilter(new PropertyFilter("title", FilterOperator.EQUAL, 1)).getCacheKey());
+        Assert.assertNotEquals(new Query().setCurrentPageNum(2).getCacheKey(), new Query().getCacheKey());
+        Assert.assertNotEquals(new Query().addSort("a", SortDirection.ASCENDING).addSort("b", SortDirection.ASCENDING).getCacheKey(),
+                               new Query().addSort("b", SortDirection.ASCENDING).addSort("a", SortDirection.ASCENDING).getCacheKey());
+        Assert.assertEquals(new Query().setCacheKey("key").getCacheKey(), "key");
+    }
+
+    /**
+     * Tests the cache key of a long fingerprint.
+     */
+    @Test
+    public void longCacheKey() {
+        final StringBuilder title = new StringBuilder();
+        for (int i = 0; i < LONG_VALUE_LENGTH; i++) {
+            title.append('t');
+        }
+
+        final Query query = new Query().setFilter(new PropertyFilter("title", FilterOperator.EQUAL, title.toString()));
+        Assert.assertTrue(query.getCacheKey().startsWith("sha256:"));
+        Assert.assertTrue(query.getCacheKey().length() < query.getFingerprint().length());
+
+        title.setCharAt(0, 's');
+        Assert.assertNotEquals(new Query().setFilter(new PropertyFilter("title", FilterOperator.EQUAL, title.toString())).getCacheKey(),
+                               query.getCacheKey());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.util.Arrays;
+import java.util.List;
+import org.b3log.latke.repository.CompositeFilterOperator;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
+import org.b3log.latke.repository.SortDirection;
+import org.b3log.latke.repository.jdbc.util.IndexDefinition;
+import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link IndexAdvisor} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class IndexAdvisorTestCase {
+
+    /**
+     * Tests the declared indexes of repository.json.
+     */
+    @Test
+    public void declared() {
+        final List<IndexDefinition> indexes = JdbcRepositories.getIndexes("archiveDate");
+        Assert.assertEquals(indexes.size(), 2);
+        Assert.assertEquals(indexes.get(0).getName(), "idx_archiveDate_archiveTime");
+        Assert.assertEquals(indexes.get(0).getColumns(), Arrays.asList("archiveTime"));
+        Assert.assertEquals(indexes.get(1).getName(), "idx_archive_count");
+        Assert.assertFalse(indexes.get(1).isUnique());
+
+        Assert.assertTrue(JdbcRepositories.getIndexes("archiveDate_article").isEmpty());
+    }
+
+    /**
+     * Tests suggestions.
+     */
+    @Test
+    public void suggest() {
+        final Query query = new Query().setFilter(
+                CompositeFilterOperator.and(new PropertyFilter("archiveTime", FilterOperator.GREATER_THAN, 1L),
+                                            new PropertyFilter("archiveDateArticleCount", FilterOperator.EQUAL, 2))).
+                addSort("archiveDatePublishedArticleCount", SortDirection.DESCENDING);
+        Assert.assertEquals(IndexAdvisor.getColumns(query),
+                            Arrays.asList("archiveDateArticleCount", "archiveDatePublishedArticleCount", "archiveTime"));
+        Assert.assertEquals(IndexAdvisor.suggest("archiveDate", query),
+                            "archiveDate(archiveDateArticleCount,archiveDatePublishedArticleCount,archiveTime)");
+
+        Assert.assertNull(IndexAdvisor.suggest("archiveDate", new Query().addSort("archiveTime", SortDirection.ASCENDING)));
+        Assert.assertNull(IndexAdvisor.suggest("archiveDate", new Query().addSort(JdbcRepositories.OID, SortDirection.ASCENDING)));
+        Assert.assertNull(IndexAdvisor.suggest("archiveDate", new Query()));
+    }
+}
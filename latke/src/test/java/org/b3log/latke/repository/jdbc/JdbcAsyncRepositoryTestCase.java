@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Keys;
+import org.b3log.latke.cache.CacheDependencies;
+import org.b3log.latke.repository.Repository;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link JdbcAsyncRepository} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class JdbcAsyncRepositoryTestCase {
+
+    /**
+     * Count of parallel reads.
+     */
+    private static final int READ_COUNT = 4;
+    /**
+     * Seconds to wait for the parallel reads.
+     */
+    private static final long WAIT_SECONDS = 10;
+
+    /**
+     * Tests parallel reads and the cache dependencies recorded for the invoking thread.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void parallelReads() throws Exception {
+        final CountDownLatch running = new CountDownLatch(READ_COUNT);
+        final Repository repository = (Repository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Repository.class},
+                                                                          new InvocationHandler() {
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Exception {
+                if ("count".equals(method.getName())) {
+                    return 1L;
+                }
+
+                if (!"get".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+
+                // Completes only if all the reads are running at the same time
+                running.countDown();
+                Assert.assertTrue(running.await(WAIT_SECONDS, TimeUnit.SECONDS));
+
+                final String id = (String) args[0];
+                CacheDependencies.read(CacheDependencies.of("test", id));
+
+                final JSONObject ret = new JSONObject();
+                ret.put(Keys.OBJECT_ID, id);
+
+                return ret;
+            }
+        });
+
+        final JdbcAsyncRepository asyncRepository = new JdbcAsyncRepository(repository);
+        Assert.assertSame(asyncRepository.getRepository(), repository);
+
+        CacheDependencies.collect();
+        try {
+            final List<Future<JSONObject>> results = new ArrayList<Future<JSONObject>>();
+            for (int i = 0; i < READ_COUNT; i++) {
+                results.add(asyncRepository.getAsync(String.valueOf(i)));
+            }
+
+            for (int i = 0; i < READ_COUNT; i++) {
+                Assert.assertEquals(results.get(i).get(WAIT_SECONDS, TimeUnit.SECONDS).getString(Keys.OBJECT_ID), String.valueOf(i));
+                Assert.assertTrue(CacheDependencies.getCollected().containsKey(CacheDependencies.of("test", String.valueOf(i))));
+            }
+
+            Assert.assertEquals(asyncRepository.countAsync().get().longValue(), 1L);
+        } finally {
+            CacheDependencies.stopCollecting();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link JdbcCounts} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class JdbcCountsTestCase {
+
+    /**
+     * Tests loading and applying committed changes.
+     */
+    @Test
+    public void apply() {
+        final String table = "countsApply";
+        final String key = JdbcCounts.key("status", 1);
+        Assert.assertEquals(JdbcCounts.key("status", 1L), key);
+        Assert.assertEquals(JdbcCounts.key("status", 1.0D), key);
+        Assert.assertNull(JdbcCounts.get(table, JdbcCounts.ALL));
+
+        JdbcCounts.load(table, JdbcCounts.ALL, 2, JdbcCounts.snapshot(table));
+        JdbcCounts.load(table, key, 1, JdbcCounts.snapshot(table));
+        Assert.assertEquals(JdbcCounts.get(table, JdbcCounts.ALL), Long.valueOf(2));
+
+        final JdbcCounts.Changes changes = new JdbcCounts.Changes();
+        changes.add(table, JdbcCounts.ALL, 1);
+        changes.add(table, JdbcCounts.ALL, 1);
+        changes.add(table, key, -1);
+        Assert.assertTrue(changes.isChanged(table));
+
+        JdbcCounts.prepare(changes);
+        Assert.assertEquals(JdbcCounts.snapshot(table), -1);
+        JdbcCounts.apply(changes);
+
+        Assert.assertEquals(JdbcCounts.get(table, JdbcCounts.ALL), Long.valueOf(2 + 2));
+        Assert.assertEquals(JdbcCounts.get(table, key), Long.valueOf(0));
+        Assert.assertFalse(changes.isChanged(table));
+
+        changes.drop(table, "status");
+        JdbcCounts.prepare(changes);
+        JdbcCounts.apply(changes);
+        Assert.assertNull(JdbcCounts.get(table, key));
+        Assert.assertEquals(JdbcCounts.get(table, JdbcCounts.ALL), Long.valueOf(2 + 2));
+    }
+
+    /**
+     * Tests a count queried before a committed change is not loaded.
+     */
+    @Test
+    public void staleLoad() {
+        final String table = "countsStale";
+        final long snapshot = JdbcCounts.snapshot(table);
+
+        final JdbcCounts.Changes changes = new JdbcCounts.Changes();
+        changes.add(table, JdbcCounts.ALL, 1);
+        JdbcCounts.prepare(changes);
+        JdbcCounts.load(table, JdbcCounts.ALL, 1, JdbcCounts.snapshot(table));
+        JdbcCounts.apply(changes);
+
+        JdbcCounts.load(table, JdbcCounts.ALL, 1, snapshot);
+        Assert.assertNull(JdbcCounts.get(table, JdbcCounts.ALL));
+    }
+
+    /**
+     * Tests aborting a failed commit.
+     */
+    @Test
+    public void abort() {
+        final String table = "countsAbort";
+        JdbcCounts.load(table, JdbcCounts.ALL, 1, JdbcCounts.snapshot(table));
+
+        final JdbcCounts.Changes changes = new JdbcCounts.Changes();
+        changes.add(table, JdbcCounts.ALL, 1);
+        JdbcCounts.prepare(changes);
+        JdbcCounts.abort(changes);
+
+        Assert.assertNull(JdbcCounts.get(table, JdbcCounts.ALL));
+        Assert.assertTrue(JdbcCounts.snapshot(table) >= 0);
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.cache.local.memory.SegmentedLruMemoryCache;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link JdbcRepository} test case.
+ *
+ * <p>
+ * The repository reads through {@link FakeConnections fake connections} of table "archiveDate", the repository cache 
+ * is a {@link SegmentedLruMemoryCache} as configured in file "local.properties". The test methods run in one thread
+ * since the fake connections are set globally.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.3.0, Oct 17, 2026
+ */
+@Test(singleThreaded = true)
+public final class JdbcRepositoryTestCase {
+
+    /**
+     * Count of the concurrent readers.
+     */
+    private static final int READER_COUNT = 8;
+    /**
+     * Delay (milliseconds) of the query, for the other readers to wait for it.
+     */
+    private static final long QUERY_DELAY = 100;
+
+    static {
+        Latkes.initRuntimeEnv();
+    }
+
+    /**
+     * Tests reading a missing object with the segmented repository cache.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void miss() throws Exception {
+        Assert.assertTrue(JdbcRepository.CACHE instanceof SegmentedLruMemoryCache);
+
+        final FakeConnections connections = new FakeConnections(null);
+        final ReadConnections previous = JdbcRepository.setReadConnections(connections);
+
+        try {
+            final JdbcRepository repository = new JdbcRepository("archiveDate");
+
+            Assert.assertNull(repository.get("miss"));
+            Assert.assertFalse(repository.has("miss"));
+            Assert.assertEquals(connections.getQueryCount(), 2);
+        } finally {
+            JdbcRepository.setReadConnections(previous);
+        }
+    }
+
+    /**
+     * Tests an object loaded before a commit is not cached after the invalidation of the commit.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void staleLoad() throws Exception {
+        final FakeConnections connections = new FakeConnections("stale");
+        connections.setOnQuery(new Runnable() {
+
+            @Override
+            public void run() {
+                JdbcRepository.invalidate(Collections.<String, Set<String>>singletonMap("archiveDate",
+                                                                                         Collections.singleton("stale")), false);
+            }
+        });
+        final ReadConnections previous = JdbcRepository.setReadConnections(connections);
+
+        try {
+            final JdbcRepository repository = new JdbcRepository("archiveDate");
+
+            Assert.assertEquals(repository.get("stale").getString("oId"), "stale");
+            Assert.assertEquals(repository.get(Collections.singleton("stale")).size(), 1);
+            final int loads = connections.getQueryCount();
+            Assert.assertEquals(loads, 2);
+
+            connections.setOnQuery(null);
+            repository.get("stale");
+            repository.get("stale");
+            Assert.assertEquals(connections.getQueryCount(), loads + 1);
+        } finally {
+            JdbcRepository.setReadConnections(previous);
+        }
+    }
+
+    /**
+     * Tests the objects read from a read replica are not cached.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void replicaRead() throws Exception {
+        final FakeConnections connections = new FakeConnections("replica");
+        connections.setReplica(true);
+        final ReadConnections previous = JdbcRepository.setReadConnections(connections);
+
+        try {
+            final JdbcRepository repository = new JdbcRepository("archiveDate");
+
+            Assert.assertNotNull(repository.get("replica"));
+            Assert.assertNotNull(repository.get("replica"));
+            Assert.assertEquals(connections.getQueryCount(), 2);
+        } finally {
+            JdbcRepository.setReadConnections(previous);
+        }
+    }
+
+    /**
+     * Tests concurrent reads of a missing object issue one query.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void concurrentMisses() throws Exception {
+        final FakeConnections connections = new FakeConnections("concurrent");
+        final CountDownLatch started = new CountDownLatch(READER_COUNT);
+        connections.setOnQuery(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    started.await();
+                    Thread.sleep(QUERY_DELAY);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final ReadConnections previous = JdbcRepository.setReadConnections(connections);
+        final ExecutorService executor = Executors.newFixedThreadPool(READER_COUNT);
+
+        try {
+            final JdbcRepository repository = new JdbcRepository("archiveDate");
+            final List<Future<JSONObject>> futures = new ArrayList<Future<JSONObject>>();
+            for (int i = 0; i < READER_COUNT; i++) {
+                futures.add(executor.submit(new Callable<JSONObject>() {
+
+                    @Override
+                    public JSONObject call() throws Exception {
+                        started.countDown();
+
+                        return repository.get("concurrent");
+                    }
+                }));
+            }
+
+            for (final Future<JSONObject> future : futures) {
+                Assert.assertEquals(future.get().getString("oId"), "concurrent");
+            }
+
+            Assert.assertEquals(connections.getQueryCount(), 1);
+        } finally {
+            executor.shutdown();
+            JdbcRepository.setReadConnections(previous);
+        }
+    }
+
+    /**
+     * Fake connections of table "archiveDate", each query returns at most one row of the specified id.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    private static final class FakeConnections implements ReadConnections {
+
+        /**
+         * Id of the row, {@code null} for no row.
+         */
+        private final String id;
+        /**
+         * Count of the executed queries.
+         */
+        private final AtomicInteger queryCount = new AtomicInteger();
+        /**
+         * Action to run in each query, {@code null} for nothing.
+         */
+        private volatile Runnable onQuery;
+        /**
+         * Whether the connections are connections of a read replica.
+         */
+        private volatile boolean replica;
+
+        /**
+         * Constructs fake connections with the specified id of the row.
+         * 
+         * @param id the specified id, {@code null} for no row
+         */
+        private FakeConnections(final String id) {
+            this.id = id;
+        }
+
+        /**
+         * Gets the count of the executed queries.
+         * 
+         * @return count of the executed queries
+         */
+        private int getQueryCount() {
+            return queryCount.get();
+        }
+
+        /**
+         * Sets the action to run in each query.
+         * 
+         * @param onQuery the specified action, {@code null} for nothing
+         */
+        private void setOnQuery(final Runnable onQuery) {
+            this.onQuery = onQuery;
+        }
+
+        /**
+         * Sets whether the connections are connections of a read replica.
+         * 
+         * @param replica the specified flag
+         */
+        private void setReplica(final boolean replica) {
+            this.replica = replica;
+        }
+
+        @Override
+        public boolean isReplica(final Connection connection) {
+            return replica;
+        }
+
+        @Override
+        public Connection get(final String tableName) {
+            final ResultSetMetaData metaData = (ResultSetMetaData) proxy(ResultSetMetaData.class, new InvocationHandler() {
+
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    if ("getColumnCount".equals(method.getName())) {
+                        return 1;
+                    }
+
+                    return "oId";
+                }
+            });
+
+            final PreparedStatement statement = (PreparedStatement) proxy(PreparedStatement.class, new InvocationHandler() {
+
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    if (!"executeQuery".equals(method.getName())) {
+                        return null;
+                    }
+
+                    queryCount.incrementAndGet();
+                    if (null != onQuery) {
+                        onQuery.run();
+                    }
+
+                    final boolean[] rows = {null != id};
+
+                    return proxy(ResultSet.class, new InvocationHandler() {
+
+                        @Override
+                        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                            if ("getMetaData".equals(method.getName())) {
+                                return metaData;
+                            } else if ("next".equals(method.getName())) {
+                                final boolean ret = rows[0];
+                                rows[0] = false;
+
+                                return ret;
+                            } else if ("wasNull".equals(method.getName())) {
+                                return false;
+                            }
+
+                            return "close".equals(method.getName()) ? null : id;
+                        }
+                    });
+                }
+            });
+
+            return (Connection) proxy(Connection.class, new InvocationHandler() {
+
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    return "prepareStatement".equals(method.getName()) ? statement : null;
+                }
+            });
+        }
+
+        /**
+         * Creates a proxy of the specified interface with the specified handler.
+         * 
+         * @param type the specified interface
+         * @param handler the specified handler
+         * @return proxy
+         */
+        private static Object proxy(final Class<?> type, final InvocationHandler handler) {
+            return Proxy.newProxyInstance(JdbcRepositoryTestCase.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+}
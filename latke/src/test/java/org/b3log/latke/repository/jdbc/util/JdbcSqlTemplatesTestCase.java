@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.util.Arrays;
+import java.util.List;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link JdbcSqlTemplates} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.2.0, Oct 16, 2026
+ */
+public final class JdbcSqlTemplatesTestCase {
+
+    /**
+     * Tests the templates of a declared repository.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void declared() throws Exception {
+        final JdbcSqlTemplates templates = new JdbcSqlTemplates("archiveDate");
+
+        Assert.assertEquals(templates.getGetSql(), "select * from archiveDate where oId=?");
+        Assert.assertEquals(templates.getGetInSql(1), "select * from archiveDate where oId in (?)");
+        Assert.assertEquals(templates.getGetInSql(2 + 1), "select * from archiveDate where oId in (?,?,?)");
+        Assert.assertEquals(templates.getRemoveSql(), "delete from archiveDate where oId=?");
+        Assert.assertEquals(templates.getCountSql(), "select count(oId) from archiveDate");
+        Assert.assertEquals(templates.getInsertSql(),
+                            "insert into archiveDate(oId,archiveDateArticleCount,archiveDatePublishedArticleCount,archiveTime)"
+                            + " values (?,?,?,?)");
+        Assert.assertTrue(templates.getCountedColumns().isEmpty());
+
+        final JSONObject archiveDate = new JSONObject();
+        archiveDate.put("archiveTime", 1L);
+        archiveDate.put("archiveDatePublishedArticleCount", 2);
+        archiveDate.put("archiveDateArticleCount", 2 + 1);
+        Assert.assertNull(templates.getInsertParams(archiveDate));
+
+        archiveDate.put("oId", "id");
+        final List<Object> params = templates.getInsertParams(archiveDate);
+        Assert.assertEquals(params, Arrays.<Object>asList("id", 2 + 1, 2, 1L));
+
+        archiveDate.put("undeclared", "value");
+        Assert.assertNull(templates.getInsertParams(archiveDate));
+    }
+
+    /**
+     * Tests the templates of an undeclared repository.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void undeclared() throws Exception {
+        final JdbcSqlTemplates templates = new JdbcSqlTemplates("undeclared");
+
+        Assert.assertEquals(templates.getGetSql(), "select * from undeclared where oId=?");
+        Assert.assertNull(templates.getInsertSql());
+        Assert.assertTrue(templates.getColumns().isEmpty());
+        Assert.assertTrue(templates.getCountedColumns().isEmpty());
+        Assert.assertNull(templates.getInsertParams(new JSONObject().put("oId", "id")));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link Replicas} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.0, Oct 17, 2026
+ */
+public final class ReplicasTestCase {
+
+    /**
+     * Retry interval in milliseconds.
+     */
+    private static final long RETRY_INTERVAL = 50;
+
+    /**
+     * Tests round-robin.
+     */
+    @Test
+    public void roundRobin() {
+        final FakePool a = new FakePool("a");
+        final FakePool b = new FakePool("b");
+        final Replicas replicas = new Replicas(Arrays.<Replicas.Pool>asList(a, b), Replicas.Balance.ROUND_ROBIN, RETRY_INTERVAL);
+
+        for (int i = 0; i < 2 + 2; i++) {
+            Assert.assertNotNull(replicas.getConnection());
+        }
+
+        Assert.assertEquals(a.leased, 2);
+        Assert.assertEquals(b.leased, 2);
+    }
+
+    /**
+     * Tests least-loaded.
+     */
+    @Test
+    public void leastLoaded() {
+        final FakePool a = new FakePool("a");
+        final FakePool b = new FakePool("b");
+        final Replicas replicas = new Replicas(Arrays.<Replicas.Pool>asList(a, b), Replicas.Balance.LEAST_LOADED, RETRY_INTERVAL);
+
+        a.leased = 2;
+        replicas.getConnection();
+        replicas.getConnection();
+        Assert.assertEquals(b.leased, 2);
+
+        replicas.getConnection();
+        Assert.assertEquals(a.leased, 2 + 1);
+    }
+
+    /**
+     * Tests marking a failed replica down and checking it again after the retry interval.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void failover() throws Exception {
+        final FakePool a = new FakePool("a");
+        final FakePool b = new FakePool("b");
+        final Replicas replicas = new Replicas(Arrays.<Replicas.Pool>asList(a, b), Replicas.Balance.ROUND_ROBIN, RETRY_INTERVAL);
+
+        a.healthy = false;
+        for (int i = 0; i < 2 + 2; i++) {
+            Assert.assertNotNull(replicas.getConnection());
+        }
+        Assert.assertEquals(a.leased, 0);
+        Assert.assertEquals(b.leased, 2 + 2);
+        Assert.assertFalse(replicas.isUp(0));
+
+        b.healthy = false;
+        Assert.assertNull(replicas.getConnection());
+
+        a.healthy = true;
+        Thread.sleep(RETRY_INTERVAL * 2);
+        Assert.assertTrue(replicas.isUp(0));
+        Assert.assertNotNull(replicas.getConnection());
+        Assert.assertEquals(a.leased, 1);
+    }
+
+    /**
+     * Fake replica pool.
+     *
+     * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+     * @version 1.0.0.0, Oct 17, 2026
+     */
+    private static final class FakePool implements Replicas.Pool {
+
+        /**
+         * Name.
+         */
+        private final String name;
+        /**
+         * Count of leased connections.
+         */
+        private int leased;
+        /**
+         * Whether it is healthy.
+         */
+        private boolean healthy = true;
+
+        /**
+         * Constructs a fake pool with the specified name.
+         * 
+         * @param name the specified name
+         */
+        private FakePool(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!healthy) {
+                throw new SQLException("Replica[" + name + "] is down");
+            }
+
+            leased++;
+
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                                                       new InvocationHandler() {
+
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    return null;
+                }
+            });
+        }
+
+        @Override
+        public int getLeasedCount() {
+            return leased;
+        }
+
+        @Override
+        public boolean check() {
+            return healthy;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link RowDecoder} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class RowDecoderTestCase {
+
+    /**
+     * Column names.
+     */
+    private static final String[] NAMES = {"oId", "archiveDateArticleCount", "archiveTime", "undeclared"};
+    /**
+     * Row values.
+     */
+    private static final Object[] VALUES = {"id", null, Long.MAX_VALUE, "value"};
+
+    /**
+     * Tests decoding.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void decode() throws Exception {
+        final ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ResultSetMetaData.class}, new InvocationHandler() {
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("getColumnCount".equals(method.getName())) {
+                    return NAMES.length;
+                }
+
+                return NAMES[(Integer) args[0] - 1];
+            }
+        });
+
+        final Object[] last = new Object[1];
+        final ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ResultSet.class}, new InvocationHandler() {
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("wasNull".equals(method.getName())) {
+                    return null == last[0];
+                }
+
+                last[0] = VALUES[(Integer) args[0] - 1];
+                if ("getInt".equals(method.getName())) {
+                    return null == last[0] ? 0 : last[0];
+                } else if ("getLong".equals(method.getName())) {
+                    return null == last[0] ? 0L : last[0];
+                }
+
+                return last[0];
+            }
+        });
+
+        final RowDecoder decoder = RowDecoder.get("archiveDate", metaData);
+        Assert.assertSame(RowDecoder.get("archiveDate", metaData), decoder);
+
+        // Rebuilt after the field definitions replaced
+        RowDecoder.clear();
+        Assert.assertNotSame(RowDecoder.get("archiveDate", metaData), decoder);
+
+        final JSONObject row = decoder.decode(resultSet);
+        Assert.assertEquals(row.length(), NAMES.length - 1);
+        Assert.assertEquals(row.getString("oId"), "id");
+        Assert.assertFalse(row.has("archiveDateArticleCount"));
+        Assert.assertEquals(row.get("archiveTime"), Long.MAX_VALUE);
+        Assert.assertEquals(row.getString("undeclared"), "value");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.repository.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link SqlMetrics} test case.
+ *
+ * <p>
+ * Only the statements of table "metrics_test" are checked, the other test cases may execute statements meanwhile.
+ * </p>
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.0.1, Oct 17, 2026
+ */
+public final class SqlMetricsTestCase {
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1000000L;
+    /**
+     * Elapsed milliseconds of a slow execution.
+     */
+    private static final long SLOW_MILLIS = 30;
+
+    /**
+     * Tests statement shapes.
+     */
+    @Test
+    public void shape() {
+        Assert.assertEquals(SqlMetrics.getShape("select * from b3log_article  where oId in (?, ?,?) limit 10"),
+                            "select * from b3log_article where oId in (?...) limit ?");
+        Assert.assertEquals(SqlMetrics.getShape("select * from t where title = 'it''s' and count > 1.5"),
+                            "select * from t where title = ? and count > ?");
+        Assert.assertEquals(SqlMetrics.getShape("select * from b3log_article where oId in (?, ?)"),
+                            SqlMetrics.getShape("select * from b3log_article where oId in (?, ?, ?, ?)"));
+    }
+
+    /**
+     * Tests recording and statistics.
+     * 
+     * @throws Exception exception
+     */
+    @Test
+    public void record() throws Exception {
+        SqlMetrics.reset();
+
+        final String sql = "select * from metrics_test where oId = ?";
+        SqlMetrics.record(sql, 1, 1, false);
+        SqlMetrics.record(sql, SLOW_MILLIS * NANOS_PER_MILLI, 0, true);
+        SqlMetrics.record("delete from metrics_test", NANOS_PER_MILLI, 2, false);
+
+        final List<JSONObject> statements = getTestStatements();
+        Assert.assertEquals(statements.size(), 2);
+
+        final JSONObject statement = statements.get(0); // Sorted by total elapsed time
+        Assert.assertEquals(statement.getString("shape"), sql);
+        Assert.assertEquals(statement.getLong("count"), 2);
+        Assert.assertEquals(statement.getLong("errors"), 1);
+        Assert.assertEquals(statement.getLong("rows"), 1);
+        Assert.assertEquals(statement.getDouble("maxMillis"), (double) SLOW_MILLIS);
+
+        final JSONObject histogram = statement.getJSONObject("histogram");
+        Assert.assertEquals(histogram.getLong("1"), 1);
+        Assert.assertEquals(histogram.getLong("50"), 1);
+        Assert.assertEquals(histogram.getLong("+Inf"), 0);
+
+        SqlMetrics.reset();
+        Assert.assertTrue(getTestStatements().isEmpty());
+    }
+
+    /**
+     * Gets the statistics of the statements of table "metrics_test".
+     * 
+     * @return statistics sorted by total elapsed time
+     * @throws Exception exception
+     */
+    private static List<JSONObject> getTestStatements() throws Exception {
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        final JSONArray statements = SqlMetrics.getStatistics().getJSONArray("statements");
+        for (int i = 0; i < statements.length(); i++) {
+            final JSONObject statement = statements.getJSONObject(i);
+            if (statement.getString("shape").contains("metrics_test")) {
+                ret.add(statement);
+            }
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2009, 2010, 2011, 2012, B3log Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.latke.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link Ids} test case.
+ *
+ * @author <a href="mailto:DL88250@gmail.com">Liang Ding</a>
+ * @version 1.0.1.0, Oct 17, 2026
+ */
+public final class IdsTestCase {
+
+    /**
+     * Thread count.
+     */
+    private static final int THREAD_COUNT = 8;
+    /**
+     * Id count per thread.
+     */
+    private static final int ID_COUNT = 100000;
+    /**
+     * Node id.
+     */
+    private static final int NODE = 7;
+    /**
+     * Length of node id and sequence suffix.
+     */
+    private static final int SUFFIX_LENGTH = 5;
+
+    /**
+     * Tests {@link Ids#genId()} with the configured generator.
+     */
+    @Test
+    public void genId() {
+        Assert.assertTrue(Ids.getIdGenerator() instanceof SnowflakeIdGenerator);
+        Assert.assertEquals(((SnowflakeIdGenerator) Ids.getIdGenerator()).getNode(), 1);
+
+        final String timeMillisId = Ids.genTimeMillisId();
+        final String id = Ids.genId();
+        Assert.assertTrue(id.compareTo(timeMillisId) > 0);
+        Assert.assertTrue(Long.parseLong(id) > Long.parseLong(timeMillisId));
+        Assert.assertTrue(SnowflakeIdGenerator.getTimeMillis(id) >= Long.parseLong(timeMillisId));
+        Assert.assertTrue(Ids.genTimeMillisId().compareTo(timeMillisId) > 0);
+    }
+
+    /**
+     * Tests {@link Ids#random(java.lang.String, java.lang.String)}.
+     */
+    @Test
+    public void random() {
+        final String minId = Ids.genTimeMillisId();
+        final String maxId = Ids.genId();
+
+        for (int i = 0; i < ID_COUNT; i++) {
+            final String id = Ids.random(minId, maxId);
+            Assert.assertTrue(id.compareTo(minId) >= 0);
+            Assert.assertTrue(id.compareTo(maxId) <= 0);
+        }
+
+        Assert.assertEquals(Ids.random(maxId, maxId), maxId);
+        Assert.assertNull(Ids.random("a", maxId));
+        Assert.assertNull(Ids.random(maxId, minId));
+    }
+
+    /**
+     * Tests {@link SnowflakeIdGenerator} concurrently, all ids should be
+     * unique and increasing in each thread.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void snowflake() throws Exception {
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(NODE);
+        final List<String> ids = Collections.synchronizedList(new ArrayList<String>());
+
+        final long start = System.currentTimeMillis();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    final List<String> generated = new ArrayList<String>(ID_COUNT);
+                    for (int j = 0; j < ID_COUNT; j++) {
+                        generated.add(generator.genId());
+                    }
+
+                    for (int j = 1; j < generated.size(); j++) {
+                        Assert.assertTrue(generated.get(j).compareTo(generated.get(j - 1)) > 0);
+                    }
+
+                    ids.addAll(generated);
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        System.out.println("Generated [" + ids.size() + "] ids in [" + (System.currentTimeMillis() - start) + "]ms");
+
+        final Set<String> unique = new HashSet<String>(ids);
+        Assert.assertEquals(unique.size(), THREAD_COUNT * ID_COUNT);
+
+        final String id = ids.get(0);
+        Assert.assertEquals(id.length(), String.valueOf(start).length() + SUFFIX_LENGTH);
+        Assert.assertTrue(SnowflakeIdGenerator.getTimeMillis(id) >= start);
+    }
+
+    /**
+     * Tests invalid node id.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void invalidNode() {
+        new SnowflakeIdGenerator(SnowflakeIdGenerator.NODE_COUNT);
+    }
+}